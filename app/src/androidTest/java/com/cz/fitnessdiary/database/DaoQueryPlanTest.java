@@ -0,0 +1,123 @@
+package com.cz.fitnessdiary.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 对按时间区间 / 日期查询（以及全文 MATCH 查询）的 DAO 语句执行 EXPLAIN QUERY PLAN，
+ * 出现对语句所涉及的表的全表扫描（SCAN）即失败，确保区间查询始终走索引。
+ * 语句清单由构建任务 collectDaoQueries 从 DAO 的 @Query 注解生成（assets/dao_queries.txt），无需手工维护。
+ */
+@RunWith(AndroidJUnit4.class)
+public class DaoQueryPlanTest {
+
+    private static final String QUERIES_ASSET = "dao_queries.txt";
+
+    /** 按时间列比较或全文检索的语句需要检查 */
+    private static final Pattern RANGED = Pattern.compile(
+            "\\b(date|record_date|timestamp|end_time|start_date|created_micros)\\s*(=|>=|>|<=|<)\\s*\\?|\\bMATCH\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern TABLE = Pattern.compile("\\b(?:FROM|JOIN|UPDATE)\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private AppDatabase db;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void rangeQueries_neverFullScanTheirTable() throws IOException {
+        SupportSQLiteDatabase database = db.getOpenHelper().getReadableDatabase();
+        List<String[]> queries = loadRangedQueries();
+        assertFalse("No ranged DAO queries found in " + QUERIES_ASSET, queries.isEmpty());
+        List<String> failures = new ArrayList<>();
+        for (String[] query : queries) {
+            String sql = query[1];
+            List<Pattern> fullScans = new ArrayList<>();
+            Matcher table = TABLE.matcher(sql);
+            while (table.find()) {
+                // FTS 虚表的 SCAN 走的是全文索引，不算全表扫描
+                fullScans.add(Pattern.compile("^SCAN (TABLE )?" + table.group(1) + "\\b(?! VIRTUAL TABLE)"));
+            }
+            Object[] args = new Object[countPlaceholders(sql)];
+            Arrays.fill(args, 1L);
+            List<String> details = new ArrayList<>();
+            try (Cursor cursor = database.query("EXPLAIN QUERY PLAN " + sql, args)) {
+                int detailIndex = cursor.getColumnIndexOrThrow("detail");
+                while (cursor.moveToNext()) {
+                    details.add(cursor.getString(detailIndex));
+                }
+            }
+            if (hasFullScan(details, fullScans)) {
+                failures.add(query[0] + ": " + sql + " -> " + details);
+            }
+        }
+        assertTrue("Full table scans found:\n" + String.join("\n", failures), failures.isEmpty());
+    }
+
+    private static boolean hasFullScan(List<String> details, List<Pattern> fullScans) {
+        for (String detail : details) {
+            for (Pattern fullScan : fullScans) {
+                if (fullScan.matcher(detail).find()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** {DAO 名, SQL} */
+    private static List<String[]> loadRangedQueries() throws IOException {
+        Context context = InstrumentationRegistry.getInstrumentation().getContext();
+        List<String[]> queries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                context.getAssets().open(QUERIES_ASSET), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab > 0 && RANGED.matcher(line).find()) {
+                    queries.add(new String[]{line.substring(0, tab), line.substring(tab + 1)});
+                }
+            }
+        }
+        return queries;
+    }
+
+    private static int countPlaceholders(String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,71 @@
+package com.cz.fitnessdiary.database;
+
+import android.database.Cursor;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cz.fitnessdiary.utils.DateUtils;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class Migration34To35Test {
+    private static final String TEST_DATABASE = "migration-34-35";
+
+    @Rule
+    public final MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            AppDatabase.class.getCanonicalName());
+
+    @Test
+    public void migrate34To35_rebuildsDailyRollupAndKeepsItInSync() throws IOException {
+        long dayStart = DateUtils.getDayStartTimestamp(1720000000000L);
+        SupportSQLiteDatabase database = helper.createDatabase(TEST_DATABASE, 34);
+        database.execSQL("INSERT INTO food_record (food_name, calories, record_date, protein, carbs, fat, meal_type, servings) " +
+                "VALUES ('米饭', 300, " + (dayStart + 8 * 3600000L) + ", 6.6, 60, 1, 1, 1)");
+        database.execSQL("INSERT INTO food_record (food_name, calories, record_date, protein, carbs, fat, meal_type, servings) " +
+                "VALUES ('鸡蛋', 150, " + (dayStart + 19 * 3600000L) + ", 12.7, 1, 10, 2, 1)");
+        database.execSQL("INSERT INTO water_record (amount_ml, timestamp) VALUES (500, " + (dayStart + 10 * 3600000L) + ")");
+        database.execSQL("INSERT INTO step_record (date, steps, source, create_time) VALUES (" + dayStart + ", 8000, 0, 0)");
+        database.close();
+
+        database = helper.runMigrationsAndValidate(
+                TEST_DATABASE, 35, true, AppDatabase.MIGRATION_34_35);
+        try (Cursor cursor = database.query("SELECT * FROM daily_rollup WHERE date = " + dayStart)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(450, cursor.getInt(cursor.getColumnIndexOrThrow("calories")));
+            // 逐条取整后求和（6 + 12），而不是先求和再取整（19）
+            assertEquals(18.0, cursor.getDouble(cursor.getColumnIndexOrThrow("protein")), 0.001);
+            assertEquals(2, cursor.getInt(cursor.getColumnIndexOrThrow("food_count")));
+            assertEquals(500, cursor.getInt(cursor.getColumnIndexOrThrow("water_ml")));
+            assertEquals(8000, cursor.getInt(cursor.getColumnIndexOrThrow("steps")));
+        }
+
+        // 迁移后新增写入由触发器增量维护
+        database.execSQL("DELETE FROM food_record WHERE food_name = '鸡蛋'");
+        database.execSQL("INSERT INTO food_record (food_name, calories, record_date, protein, carbs, fat, meal_type, servings) " +
+                "VALUES ('牛奶', 0, " + (dayStart + 20 * 3600000L) + ", 3.9, 5, 3.5, 2, 1)");
+        database.execSQL("INSERT OR REPLACE INTO step_record (id, date, steps, source, create_time) " +
+                "SELECT id, date, 9000, 0, 0 FROM step_record WHERE date = " + dayStart);
+        try (Cursor cursor = database.query("SELECT * FROM daily_rollup WHERE date = " + dayStart)) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(300, cursor.getInt(cursor.getColumnIndexOrThrow("calories")));
+            assertEquals(9.0, cursor.getDouble(cursor.getColumnIndexOrThrow("protein")), 0.001);
+            assertEquals(4.0, cursor.getDouble(cursor.getColumnIndexOrThrow("fat")), 0.001);
+            assertEquals(2, cursor.getInt(cursor.getColumnIndexOrThrow("food_count")));
+            assertEquals(500, cursor.getInt(cursor.getColumnIndexOrThrow("water_ml")));
+            assertEquals(9000, cursor.getInt(cursor.getColumnIndexOrThrow("steps")));
+        }
+        database.close();
+    }
+}
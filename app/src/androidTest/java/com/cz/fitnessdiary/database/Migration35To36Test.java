@@ -0,0 +1,81 @@
+package com.cz.fitnessdiary.database;
+
+import android.database.Cursor;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class Migration35To36Test {
+    private static final String TEST_DATABASE = "migration-35-36";
+
+    @Rule
+    public final MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            AppDatabase.class.getCanonicalName());
+
+    @Test
+    public void migrate35To36_indexesTimeColumnsAndKeepsRows() throws IOException {
+        SupportSQLiteDatabase database = helper.createDatabase(TEST_DATABASE, 35);
+        database.execSQL("INSERT INTO custom_tracker (id, name, unit, color_hex, is_enabled, sort_order) "
+                + "VALUES (1, '体温', '℃', '#FF0000', 1, 0)");
+        database.execSQL("INSERT INTO custom_record (tracker_id, numeric_value, text_value, timestamp) "
+                + "VALUES (1, 36.5, NULL, 1000)");
+        database.execSQL("INSERT INTO water_record (amount_ml, timestamp, note) VALUES (250, 2000, NULL)");
+        database.close();
+
+        database = helper.runMigrationsAndValidate(
+                TEST_DATABASE, 36, true, AppDatabase.MIGRATION_35_36);
+        assertEquals(1, count(database, "SELECT COUNT(*) FROM custom_record WHERE tracker_id = 1"));
+        assertEquals(250, count(database, "SELECT amount_ml FROM water_record"));
+
+        // 复合索引取代了原 tracker_id 单列索引
+        assertFalse(hasIndex(database, "index_custom_record_tracker_id"));
+        assertTrue(hasIndex(database, "index_custom_record_tracker_id_timestamp"));
+        assertTrue(usesIndex(database,
+                "SELECT * FROM water_record WHERE timestamp >= 0 AND timestamp < 5000",
+                "index_water_record_timestamp"));
+        assertTrue(usesIndex(database,
+                "SELECT * FROM custom_record WHERE tracker_id = 1 AND timestamp >= 0 AND timestamp < 5000",
+                "index_custom_record_tracker_id_timestamp"));
+        database.close();
+    }
+
+    private static boolean hasIndex(SupportSQLiteDatabase database, String name) {
+        try (Cursor cursor = database.query(
+                "SELECT name FROM sqlite_master WHERE type = 'index' AND name = ?", new Object[]{name})) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    private static boolean usesIndex(SupportSQLiteDatabase database, String sql, String index) {
+        try (Cursor cursor = database.query("EXPLAIN QUERY PLAN " + sql)) {
+            int detail = cursor.getColumnIndexOrThrow("detail");
+            while (cursor.moveToNext()) {
+                if (cursor.getString(detail).contains(index)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static int count(SupportSQLiteDatabase database, String sql) {
+        try (Cursor cursor = database.query(sql)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getInt(0);
+        }
+    }
+}
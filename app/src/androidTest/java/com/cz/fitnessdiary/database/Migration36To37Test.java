@@ -0,0 +1,61 @@
+package com.cz.fitnessdiary.database;
+
+import android.database.Cursor;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class Migration36To37Test {
+    private static final String TEST_DATABASE = "migration-36-37";
+
+    @Rule
+    public final MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            AppDatabase.class.getCanonicalName());
+
+    @Test
+    public void migrate36To37_queuesExistingFoodsAndTracksChanges() throws IOException {
+        SupportSQLiteDatabase database = helper.createDatabase(TEST_DATABASE, 36);
+        database.execSQL("INSERT INTO food_library (name, calories_per_100g, protein_per_100g, carbs_per_100g, " +
+                "fat_per_100g, serving_unit, weight_per_unit, category) VALUES ('鸡胸肉', 133, 31, 0, 1.2, '克', 100, '肉类')");
+        database.execSQL("INSERT INTO favorite_food (food_name, calories, protein, carbs, fat, created_at) " +
+                "VALUES ('燕麦', 367, 13, 66, 7, 0)");
+        database.close();
+
+        database = helper.runMigrationsAndValidate(
+                TEST_DATABASE, 37, true, AppDatabase.MIGRATION_36_37);
+        assertEquals(2, count(database, "SELECT COUNT(*) FROM food_search_pending"));
+
+        // 模拟 FoodSearchIndex.sync 写入一行索引，随后改名应删除旧索引并重新登记
+        database.execSQL("DELETE FROM food_search_pending");
+        database.execSQL("INSERT INTO food_search (rowid, title, name_tokens, pinyin, initials) " +
+                "SELECT id * 4, name, '鸡 胸 肉', 'jixiongrou xiongrou rou', 'jxr xr r' FROM food_library");
+        assertEquals(1, count(database, "SELECT COUNT(*) FROM food_search WHERE food_search MATCH 'jix*'"));
+        database.execSQL("UPDATE food_library SET name = '鸡腿肉' WHERE name = '鸡胸肉'");
+        assertEquals(0, count(database, "SELECT COUNT(*) FROM food_search"));
+        assertEquals(1, count(database, "SELECT COUNT(*) FROM food_search_pending WHERE source = 0"));
+
+        database.execSQL("DELETE FROM food_library");
+        assertEquals(0, count(database, "SELECT COUNT(*) FROM food_search_pending"));
+        database.close();
+    }
+
+    private static int count(SupportSQLiteDatabase database, String sql) {
+        try (Cursor cursor = database.query(sql)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getInt(0);
+        }
+    }
+}
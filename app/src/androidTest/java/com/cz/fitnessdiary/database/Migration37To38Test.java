@@ -0,0 +1,54 @@
+package com.cz.fitnessdiary.database;
+
+import android.database.Cursor;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class Migration37To38Test {
+    private static final String TEST_DATABASE = "migration-37-38";
+    private static final long DAY = 86400000L;
+
+    @Rule
+    public final MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            AppDatabase.class.getCanonicalName());
+
+    @Test
+    public void migrate37To38_createsDailyMetricKeyedByMetricAndDate() throws IOException {
+        SupportSQLiteDatabase database = helper.createDatabase(TEST_DATABASE, 37);
+        database.close();
+
+        database = helper.runMigrationsAndValidate(
+                TEST_DATABASE, 38, true, AppDatabase.MIGRATION_37_38);
+        database.execSQL("INSERT OR REPLACE INTO daily_metric (metric, date, value) VALUES ('score', 0, 60)");
+        database.execSQL("INSERT OR REPLACE INTO daily_metric (metric, date, value) VALUES ('score', " + DAY + ", 80)");
+        // 同一天重复写入覆盖旧值
+        database.execSQL("INSERT OR REPLACE INTO daily_metric (metric, date, value) VALUES ('score', " + DAY + ", 90)");
+        database.execSQL("INSERT OR REPLACE INTO daily_metric (metric, date, value) VALUES ('step_target', " + DAY + ", 9000)");
+
+        assertEquals(3, count(database, "SELECT COUNT(*) FROM daily_metric"));
+        assertEquals(75, count(database, "SELECT AVG(value) FROM daily_metric WHERE metric = 'score' "
+                + "AND date >= 0 AND date < " + 2 * DAY));
+        database.close();
+    }
+
+    private static int count(SupportSQLiteDatabase database, String sql) {
+        try (Cursor cursor = database.query(sql)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getInt(0);
+        }
+    }
+}
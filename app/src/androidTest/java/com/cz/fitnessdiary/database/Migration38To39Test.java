@@ -0,0 +1,60 @@
+package com.cz.fitnessdiary.database;
+
+import android.database.Cursor;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class Migration38To39Test {
+    private static final String TEST_DATABASE = "migration-38-39";
+    private static final long DAY = 86400000L;
+
+    @Rule
+    public final MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            AppDatabase.class.getCanonicalName());
+
+    @Test
+    public void migrate38To39_logsOnlyActiveDayFlips() throws IOException {
+        SupportSQLiteDatabase database = helper.createDatabase(TEST_DATABASE, 38);
+        database.close();
+
+        // active_day_change / active_day_state 不是 Room 实体，不校验多出的表
+        database = helper.runMigrationsAndValidate(
+                TEST_DATABASE, 39, false, AppDatabase.MIGRATION_38_39);
+        // 汇总行先以 0 插入再累加，与 DailyRollupTriggers 的写入顺序一致
+        database.execSQL("INSERT INTO daily_rollup (date) VALUES (" + DAY + ")");
+        assertEquals(0, count(database, "SELECT COUNT(*) FROM active_day_change"));
+
+        database.execSQL("UPDATE daily_rollup SET completed_plans = completed_plans + 1 WHERE date = " + DAY);
+        database.execSQL("UPDATE daily_rollup SET completed_extras = completed_extras + 1 WHERE date = " + DAY);
+        database.execSQL("UPDATE daily_rollup SET water_ml = 500 WHERE date = " + DAY);
+        assertEquals(1, count(database, "SELECT COUNT(*) FROM active_day_change WHERE active = 1"));
+
+        database.execSQL("UPDATE daily_rollup SET completed_plans = 0, completed_extras = 0 WHERE date = " + DAY);
+        database.execSQL("INSERT INTO daily_rollup (date, completed_plans) VALUES (" + 2 * DAY + ", 1)");
+        database.execSQL("DELETE FROM daily_rollup");
+        assertEquals(4, count(database, "SELECT COUNT(*) FROM active_day_change"));
+        assertEquals(0, count(database, "SELECT active FROM active_day_change ORDER BY rowid DESC LIMIT 1"));
+        database.close();
+    }
+
+    private static int count(SupportSQLiteDatabase database, String sql) {
+        try (Cursor cursor = database.query(sql)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getInt(0);
+        }
+    }
+}
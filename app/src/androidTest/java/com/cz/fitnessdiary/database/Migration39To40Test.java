@@ -0,0 +1,53 @@
+package com.cz.fitnessdiary.database;
+
+import android.database.Cursor;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class Migration39To40Test {
+    private static final String TEST_DATABASE = "migration-39-40";
+
+    @Rule
+    public final MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            AppDatabase.class.getCanonicalName());
+
+    @Test
+    public void migrate39To40_createsAchievementCounterKeyedByRule() throws IOException {
+        SupportSQLiteDatabase database = helper.createDatabase(TEST_DATABASE, 39);
+        database.close();
+
+        database = helper.runMigrationsAndValidate(
+                TEST_DATABASE, 40, true, AppDatabase.MIGRATION_39_40);
+        database.execSQL("INSERT OR REPLACE INTO achievement_counter (rule, value, day) VALUES ('mood_records', 3, 0)");
+        database.execSQL("INSERT OR REPLACE INTO achievement_counter (rule, value, day) VALUES ('mood_records', 4, 0)");
+        database.execSQL("INSERT OR REPLACE INTO achievement_counter (rule, value, day) VALUES ('workouts', 12, 0)");
+        assertEquals(2, count(database, "SELECT COUNT(*) FROM achievement_counter"));
+        assertEquals(4, count(database, "SELECT value FROM achievement_counter WHERE rule = 'mood_records'"));
+
+        // 失效即删除对应规则行
+        database.execSQL("DELETE FROM achievement_counter WHERE rule IN ('workouts')");
+        assertEquals(1, count(database, "SELECT COUNT(*) FROM achievement_counter"));
+        database.close();
+    }
+
+    private static int count(SupportSQLiteDatabase database, String sql) {
+        try (Cursor cursor = database.query(sql)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getInt(0);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.cz.fitnessdiary.database;
+
+import android.database.Cursor;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class Migration40To41Test {
+    private static final String TEST_DATABASE = "migration-40-41";
+
+    @Rule
+    public final MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            AppDatabase.class.getCanonicalName());
+
+    @Test
+    public void migrate40To41_addsContextSummaryToExistingSessions() throws IOException {
+        SupportSQLiteDatabase database = helper.createDatabase(TEST_DATABASE, 40);
+        database.execSQL("INSERT INTO chat_sessions (id, title, start_time, last_updated) VALUES (1, '减脂咨询', 100, 200)");
+        database.close();
+
+        database = helper.runMigrationsAndValidate(
+                TEST_DATABASE, 41, true, AppDatabase.MIGRATION_40_41);
+        try (Cursor cursor = database.query(
+                "SELECT context_summary, summary_until, summary_until_id FROM chat_sessions WHERE id = 1")) {
+            assertTrue(cursor.moveToFirst());
+            assertTrue(cursor.isNull(0));
+            assertEquals(0L, cursor.getLong(1));
+            assertEquals(0L, cursor.getLong(2));
+        }
+
+        database.execSQL("UPDATE chat_sessions SET context_summary = '用户：想三个月减五公斤', summary_until = 150, "
+                + "summary_until_id = 3 WHERE id = 1");
+        try (Cursor cursor = database.query("SELECT summary_until, summary_until_id FROM chat_sessions WHERE id = 1")) {
+            assertTrue(cursor.moveToFirst());
+            assertEquals(150L, cursor.getLong(0));
+            assertEquals(3L, cursor.getLong(1));
+        }
+        database.close();
+    }
+}
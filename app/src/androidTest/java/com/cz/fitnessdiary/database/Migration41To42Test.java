@@ -0,0 +1,57 @@
+package com.cz.fitnessdiary.database;
+
+import android.database.Cursor;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class Migration41To42Test {
+    private static final String TEST_DATABASE = "migration-41-42";
+
+    @Rule
+    public final MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            AppDatabase.class.getCanonicalName());
+
+    @Test
+    public void migrate41To42_createsFeedCacheOrderedByCursor() throws IOException {
+        SupportSQLiteDatabase database = helper.createDatabase(TEST_DATABASE, 41);
+        database.close();
+
+        database = helper.runMigrationsAndValidate(
+                TEST_DATABASE, 42, true, AppDatabase.MIGRATION_41_42);
+        insert(database, "b", "2024-05-01T10:00:00.000002+00:00", 2);
+        insert(database, "a", "2024-05-01T10:00:00.000002+00:00", 2);
+        insert(database, "c", "2024-05-01T10:00:00.000001+00:00", 1);
+
+        // 同一时间戳按 post_id 排序，与云端 (created_at, id) 游标一致
+        try (Cursor cursor = database.query("SELECT post_id FROM social_feed_cache WHERE viewer_id = 'me' "
+                + "ORDER BY created_micros DESC, post_id DESC")) {
+            assertTrue(cursor.moveToNext());
+            assertEquals("b", cursor.getString(0));
+            assertTrue(cursor.moveToNext());
+            assertEquals("a", cursor.getString(0));
+            assertTrue(cursor.moveToNext());
+            assertEquals("c", cursor.getString(0));
+        }
+        database.close();
+    }
+
+    private static void insert(SupportSQLiteDatabase database, String postId, String createdAt, long micros) {
+        database.execSQL("INSERT INTO social_feed_cache (post_id, viewer_id, author_name, avatar_url, content, "
+                + "created_at, created_micros, summary_lines, like_count, liked, owned) VALUES ('" + postId
+                + "', 'me', '健身伙伴', '', '', '" + createdAt + "', " + micros + ", '', 0, 0, 0)");
+    }
+}
@@ -0,0 +1,65 @@
+package com.cz.fitnessdiary.database;
+
+import android.database.Cursor;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class Migration42To43Test {
+    private static final String TEST_DATABASE = "migration-42-43";
+
+    @Rule
+    public final MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            AppDatabase.class.getCanonicalName());
+
+    @Test
+    public void migrate42To43_invalidatesCountersInsideSourceWrites() throws IOException {
+        SupportSQLiteDatabase database = helper.createDatabase(TEST_DATABASE, 42);
+        seedCounters(database);
+        database.close();
+
+        database = helper.runMigrationsAndValidate(
+                TEST_DATABASE, 43, true, AppDatabase.MIGRATION_42_43);
+        // 旧版本留下的计数可能未及时失效，迁移后全部重新求值
+        assertEquals(0, count(database, "SELECT COUNT(*) FROM achievement_counter"));
+
+        seedCounters(database);
+        database.execSQL("INSERT INTO mood_record (date, mood_code, create_time) VALUES (0, 'happy', 0)");
+        assertEquals(0, count(database, "SELECT COUNT(*) FROM achievement_counter WHERE rule = 'mood_records'"));
+        assertEquals(2, count(database, "SELECT COUNT(*) FROM achievement_counter"));
+
+        database.execSQL("INSERT INTO step_record (date, steps, source, create_time) VALUES (0, 100, 0, 0)");
+        database.execSQL("INSERT OR REPLACE INTO achievement_counter (rule, value, day) VALUES ('step_goal_days', 0, 0)");
+        database.execSQL("UPDATE step_record SET steps = 12000");
+        assertEquals(0, count(database, "SELECT COUNT(*) FROM achievement_counter WHERE rule = 'step_goal_days'"));
+        // 不依赖 step_record 的规则不受影响
+        assertEquals(1, count(database, "SELECT COUNT(*) FROM achievement_counter WHERE rule = 'perfect_day'"));
+        database.close();
+    }
+
+    private static void seedCounters(SupportSQLiteDatabase database) {
+        database.execSQL("INSERT OR REPLACE INTO achievement_counter (rule, value, day) VALUES ('mood_records', 3, 0)");
+        database.execSQL("INSERT OR REPLACE INTO achievement_counter (rule, value, day) VALUES ('step_goal_days', 1, 0)");
+        database.execSQL("INSERT OR REPLACE INTO achievement_counter (rule, value, day) VALUES ('perfect_day', 1, 0)");
+    }
+
+    private static int count(SupportSQLiteDatabase database, String sql) {
+        try (Cursor cursor = database.query(sql)) {
+            assertTrue(cursor.moveToFirst());
+            return cursor.getInt(0);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.cz.fitnessdiary.ui.widget;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.util.Log;
+import android.view.View;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.cz.fitnessdiary.utils.DateUtils;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 自定义图表的 onDraw 不应分配对象：预热后连续绘制若干帧，线程分配计数应为 0，同时记录平均帧耗时
+ */
+@RunWith(AndroidJUnit4.class)
+public class ChartViewDrawTest {
+    private static final String TAG = "ChartViewDrawTest";
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 600;
+    private static final int FRAMES = 200;
+
+    @Test
+    public void weightChart_drawsWithoutAllocating() {
+        assertNoAllocations(onMain(context -> {
+            WeightChartView view = new WeightChartView(context);
+            view.setData(series(30, 70f), labels(30));
+            return view;
+        }));
+    }
+
+    @Test
+    public void measurementChart_drawsWithoutAllocating() {
+        assertNoAllocations(onMain(context -> {
+            MeasurementChartView view = new MeasurementChartView(context);
+            view.setData(series(30, 80f), labels(30));
+            return view;
+        }));
+    }
+
+    @Test
+    public void sleepChart_drawsWithoutAllocating() {
+        assertNoAllocations(onMain(context -> {
+            SleepChartView view = new SleepChartView(context);
+            view.setData(series(30, 7f), labels(30), 7.2f);
+            return view;
+        }));
+    }
+
+    @Test
+    public void sparkViews_drawWithoutAllocating() {
+        assertNoAllocations(onMain(context -> {
+            BarSparkView view = new BarSparkView(context);
+            view.setValues(series(14, 5f));
+            return view;
+        }));
+        assertNoAllocations(onMain(context -> {
+            LineSparkView view = new LineSparkView(context);
+            view.setValues(series(14, 5f));
+            return view;
+        }));
+    }
+
+    @Test
+    public void streakCalendar_drawsWithoutAllocating() {
+        assertNoAllocations(onMain(context -> {
+            StreakCalendarView view = new StreakCalendarView(context);
+            Map<Long, Integer> levels = new HashMap<>();
+            long today = DateUtils.getTodayStartTimestamp();
+            for (int i = 0; i < 42; i++) {
+                levels.put(today - i * 86400000L, i % 5);
+            }
+            view.setDayLevels(levels);
+            return view;
+        }));
+    }
+
+    @Test
+    public void menstrualCycleChart_drawsWithoutAllocating() {
+        assertNoAllocations(onMain(context -> {
+            MenstrualCycleChartView view = new MenstrualCycleChartView(context);
+            List<MenstrualCycleChartView.CycleBarData> cycles = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                cycles.add(new MenstrualCycleChartView.CycleBarData(
+                        i * 28 * 86400000L, 26 + i % 5, i % 2 == 0 ? "MEDIUM" : "HEAVY"));
+            }
+            view.setData(cycles, 28.4f);
+            return view;
+        }));
+    }
+
+    private interface ViewFactory {
+        View create(Context context);
+    }
+
+    private static View onMain(ViewFactory factory) {
+        View[] holder = new View[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            View view = factory.create(InstrumentationRegistry.getInstrumentation().getTargetContext());
+            view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            view.layout(0, 0, WIDTH, HEIGHT);
+            holder[0] = view;
+        });
+        return holder[0];
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void assertNoAllocations(View view) {
+        Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        int[] allocations = new int[1];
+        long[] elapsed = new long[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            // 预热：首帧可能触发字形缓存等一次性初始化
+            for (int i = 0; i < 10; i++) {
+                view.draw(canvas);
+            }
+            Debug.resetThreadAllocCount();
+            Debug.startAllocCounting();
+            long start = System.nanoTime();
+            for (int i = 0; i < FRAMES; i++) {
+                view.draw(canvas);
+            }
+            elapsed[0] = System.nanoTime() - start;
+            Debug.stopAllocCounting();
+            allocations[0] = Debug.getThreadAllocCount();
+        });
+        Log.i(TAG, view.getClass().getSimpleName() + " avg frame " + elapsed[0] / FRAMES / 1000 + "us");
+        assertEquals(view.getClass().getSimpleName() + " allocated during onDraw", 0, allocations[0]);
+    }
+
+    private static List<Float> series(int size, float base) {
+        Float[] values = new Float[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = base + (i % 7) * 0.4f;
+        }
+        return Arrays.asList(values);
+    }
+
+    private static List<String> labels(int size) {
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            labels.add((i + 1) + "日");
+        }
+        return labels;
+    }
+}
@@ -4,6 +4,9 @@ import android.app.Application;
 
 import com.cz.fitnessdiary.service.CloudApiClient;
 import com.cz.fitnessdiary.service.AiUsageStore;
+import com.cz.fitnessdiary.ui.widget.HomeWidgetUpdater;
+import com.cz.fitnessdiary.utils.AppHttp;
+import com.cz.fitnessdiary.utils.ExerciseMediaIndex;
 
 /** App-level entry point. CloudBase uses HTTPS APIs and needs no client SDK initialization. */
 public class FitnessDiaryApplication extends Application {
@@ -21,7 +24,11 @@ public class FitnessDiaryApplication extends Application {
             androidx.appcompat.app.AppCompatDelegate.setDefaultNightMode(androidx.appcompat.app.AppCompatDelegate.MODE_NIGHT_FOLLOW_SYSTEM);
         }
 
+        // 共享 HTTP 客户端的磁盘缓存目录，须早于任何网络请求
+        AppHttp.init(this);
         CloudApiClient.getInstance().initialize(this);
         AiUsageStore.init(this);
+        HomeWidgetUpdater.get(this);
+        ExerciseMediaIndex.warmUp(this);
     }
 }
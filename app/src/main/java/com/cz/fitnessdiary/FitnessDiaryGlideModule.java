@@ -0,0 +1,18 @@
+package com.cz.fitnessdiary;
+
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.module.AppGlideModule;
+
+/**
+ * 应用级 Glide 模块
+ * 只有存在 AppGlideModule 时，Glide 的注解处理器才会注册依赖库中的 LibraryGlideModule，
+ * webpdecoder 借此接管动态 WebP 的解码，API 26-27 上动作动图同样可以播放
+ */
+@GlideModule
+public final class FitnessDiaryGlideModule extends AppGlideModule {
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
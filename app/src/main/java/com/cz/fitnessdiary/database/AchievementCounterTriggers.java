@@ -0,0 +1,58 @@
+package com.cz.fitnessdiary.database;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.cz.fitnessdiary.repository.AchievementRepository;
+
+/**
+ * achievement_counter 成就计数缓存的失效逻辑。
+ * 源表 INSERT / UPDATE / DELETE 时由触发器删除依赖该表的规则行，与原始写入处于同一事务内，
+ * 写入提交后缓存即已失效，进程在任何时刻退出都不会留下过期计数；下次读取时由 AchievementRepository 重新求值。
+ */
+public final class AchievementCounterTriggers {
+
+    public static final String COUNTER_TABLE = "achievement_counter";
+
+    /** 源表 -> 依赖它的规则 */
+    private static final String[][] DEPENDENCIES = {
+            { "daily_log", AchievementRepository.TRAINING_DAYS, AchievementRepository.WORKOUTS,
+                    AchievementRepository.PERFECT_DAY },
+            { "training_plan", AchievementRepository.CUSTOM_PLANS },
+            { "food_record", AchievementRepository.FOOD_RECORDS, AchievementRepository.PERFECT_DAY },
+            // daily_rollup 的饮水合计与 water_record 在同一事务中更新，依赖源表可避免其他汇总列的写入误触发
+            { "water_record", AchievementRepository.WATER_GOAL_DAYS, AchievementRepository.PERFECT_DAY },
+            { "step_record", AchievementRepository.STEP_GOAL_DAYS },
+            { "sleep_record", AchievementRepository.SLEEP_GOAL_DAYS, AchievementRepository.PERFECT_DAY },
+            { "bowel_movement", AchievementRepository.BOWEL_RECORDS },
+            { "mood_record", AchievementRepository.MOOD_RECORDS },
+            { "weight_record", AchievementRepository.WEIGHT_GOAL },
+            { "body_measurement", AchievementRepository.WAIST_GOAL },
+            { "user", AchievementRepository.WEIGHT_GOAL, AchievementRepository.WAIST_GOAL },
+            { "habit_record", AchievementRepository.PERFECT_DAY }
+    };
+
+    private AchievementCounterTriggers() {
+    }
+
+    /**
+     * 创建失效触发器（幂等）
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        for (String[] dependency : DEPENDENCIES) {
+            String table = dependency[0];
+            StringBuilder rules = new StringBuilder();
+            for (int i = 1; i < dependency.length; i++) {
+                if (rules.length() > 0) {
+                    rules.append(", ");
+                }
+                rules.append('\'').append(dependency[i]).append('\'');
+            }
+            String body = " ON `" + table + "` BEGIN DELETE FROM " + COUNTER_TABLE + " WHERE rule IN (" + rules
+                    + "); END";
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `achievement_counter_" + table + "_insert` AFTER INSERT" + body);
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `achievement_counter_" + table + "_update` AFTER UPDATE" + body);
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `achievement_counter_" + table + "_delete` AFTER DELETE" + body);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.cz.fitnessdiary.database;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * 训练日变化日志与连续天数状态表。
+ * daily_rollup 上的触发器只在某天“是否有完成训练”翻转时追加一行到 active_day_change，
+ * 由 StreakTracker 读取时增量应用到 streak_state 中的按天位图，因此无论打卡来自哪条写入路径都不会漏算。
+ * 两张表不是 Room 实体：clearAllTables 清空 daily_rollup 时，删除触发器会如实记录每个训练日被移除。
+ */
+public final class ActiveDayLog {
+
+    public static final String CHANGE_TABLE = "active_day_change";
+    public static final String STATE_TABLE = "streak_state";
+
+    /** 训练日判定，与 DailyRollupDao.getTrainingDatesSync 一致 */
+    private static final String ACTIVE = "(%1$s.completed_plans + %1$s.completed_extras > 0)";
+
+    private ActiveDayLog() {
+    }
+
+    /**
+     * 创建日志表、状态表与维护触发器（幂等）
+     * 日志表没有唯一约束：触发器内语句会继承外层语句的冲突策略，无约束即不会被 REPLACE / IGNORE 改写
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS `" + CHANGE_TABLE + "` (`date` INTEGER NOT NULL, "
+                + "`active` INTEGER NOT NULL)");
+        db.execSQL("CREATE TABLE IF NOT EXISTS `" + STATE_TABLE + "` (`id` INTEGER NOT NULL, "
+                + "`bitmap` TEXT NOT NULL, `best` INTEGER NOT NULL, `latest_day` INTEGER NOT NULL, "
+                + "`latest_run` INTEGER NOT NULL, `active_days` INTEGER NOT NULL, PRIMARY KEY(`id`))");
+        String newActive = String.format(ACTIVE, "NEW");
+        String oldActive = String.format(ACTIVE, "OLD");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS `active_day_daily_rollup_insert` AFTER INSERT ON `daily_rollup` "
+                + "WHEN " + newActive + " BEGIN "
+                + "INSERT INTO " + CHANGE_TABLE + " (date, active) VALUES (NEW.date, 1); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS `active_day_daily_rollup_update` "
+                + "AFTER UPDATE OF completed_plans, completed_extras, date ON `daily_rollup` "
+                + "WHEN " + oldActive + " != " + newActive + " OR (OLD.date != NEW.date AND " + newActive + ") BEGIN "
+                + "INSERT INTO " + CHANGE_TABLE + " (date, active) SELECT OLD.date, 0 WHERE " + oldActive + "; "
+                + "INSERT INTO " + CHANGE_TABLE + " (date, active) VALUES (NEW.date, " + newActive + "); END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS `active_day_daily_rollup_delete` AFTER DELETE ON `daily_rollup` "
+                + "WHEN " + oldActive + " BEGIN "
+                + "INSERT INTO " + CHANGE_TABLE + " (date, active) VALUES (OLD.date, 0); END");
+    }
+}
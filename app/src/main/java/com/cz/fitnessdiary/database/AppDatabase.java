@@ -62,8 +62,18 @@ import com.cz.fitnessdiary.database.dao.ChallengeDao;
 import com.cz.fitnessdiary.database.dao.ChallengeRecordDao;
 import com.cz.fitnessdiary.database.entity.ChallengeEntity;
 import com.cz.fitnessdiary.database.entity.ChallengeRecordEntity;
+import com.cz.fitnessdiary.database.dao.DailyMetricDao;
+import com.cz.fitnessdiary.database.dao.DailyRollupDao;
+import com.cz.fitnessdiary.database.entity.DailyMetric;
+import com.cz.fitnessdiary.database.entity.DailyRollup;
+import com.cz.fitnessdiary.database.dao.FoodSearchDao;
+import com.cz.fitnessdiary.database.entity.FoodSearchEntry;
+import com.cz.fitnessdiary.database.dao.AchievementCounterDao;
+import com.cz.fitnessdiary.database.entity.AchievementCounter;
+import com.cz.fitnessdiary.database.dao.SocialFeedDao;
+import com.cz.fitnessdiary.database.entity.SocialFeedPost;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
-import java.util.concurrent.Executors;
 
 /**
  * Room 数据库主类 - 2.0 版本
@@ -76,7 +86,8 @@ import java.util.concurrent.Executors;
         HabitRecord.class, BodyMeasurement.class, BowelMovement.class,
         MenstrualCycle.class, StepRecord.class, MoodRecord.class,
         Recipe.class, FavoriteFood.class, ExtraExerciseLog.class,
-        ChallengeEntity.class, ChallengeRecordEntity.class }, version = 34, exportSchema = true)
+        ChallengeEntity.class, ChallengeRecordEntity.class, DailyRollup.class, FoodSearchEntry.class,
+        DailyMetric.class, AchievementCounter.class, SocialFeedPost.class }, version = 43, exportSchema = true)
 public abstract class AppDatabase extends RoomDatabase {
 
     // 数据库名称
@@ -140,6 +151,16 @@ public abstract class AppDatabase extends RoomDatabase {
 
     public abstract ChallengeRecordDao challengeRecordDao();
 
+    public abstract DailyRollupDao dailyRollupDao();
+
+    public abstract DailyMetricDao dailyMetricDao();
+
+    public abstract AchievementCounterDao achievementCounterDao();
+
+    public abstract SocialFeedDao socialFeedDao();
+
+    public abstract FoodSearchDao foodSearchDao();
+
     /**
      * 数据库迁移：Version 1 -> Version 2
      */
@@ -706,6 +727,149 @@ public abstract class AppDatabase extends RoomDatabase {
         }
     };
 
+    /**
+     * 数据库迁移：Version 34 -> Version 35
+     * 新增 daily_rollup 每日汇总表及其维护触发器，并从历史数据全量重建
+     */
+    public static final Migration MIGRATION_34_35 = new Migration(34, 35) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `daily_rollup` (" +
+                    "`date` INTEGER NOT NULL, " +
+                    "`calories` INTEGER NOT NULL DEFAULT 0, " +
+                    "`protein` REAL NOT NULL DEFAULT 0, " +
+                    "`carbs` REAL NOT NULL DEFAULT 0, " +
+                    "`fat` REAL NOT NULL DEFAULT 0, " +
+                    "`food_count` INTEGER NOT NULL DEFAULT 0, " +
+                    "`water_ml` INTEGER NOT NULL DEFAULT 0, " +
+                    "`sleep_seconds` INTEGER NOT NULL DEFAULT 0, " +
+                    "`sleep_quality_sum` INTEGER NOT NULL DEFAULT 0, " +
+                    "`sleep_count` INTEGER NOT NULL DEFAULT 0, " +
+                    "`steps` INTEGER NOT NULL DEFAULT 0, " +
+                    "`completed_plans` INTEGER NOT NULL DEFAULT 0, " +
+                    "`completed_extras` INTEGER NOT NULL DEFAULT 0, " +
+                    "PRIMARY KEY(`date`))");
+            DailyRollupTriggers.install(database);
+            DailyRollupTriggers.rebuild(database);
+        }
+    };
+
+    /**
+     * 数据库迁移：Version 35 -> Version 36
+     * 为按时间区间查询的表补充索引，避免日记数据增长后区间查询退化为全表扫描
+     */
+    public static final Migration MIGRATION_35_36 = new Migration(35, 36) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_food_record_record_date_meal_type` ON `food_record` (`record_date`, `meal_type`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_daily_log_date_is_completed` ON `daily_log` (`date`, `is_completed`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_water_record_timestamp` ON `water_record` (`timestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_sleep_record_end_time` ON `sleep_record` (`end_time`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_weight_record_timestamp` ON `weight_record` (`timestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_medication_record_timestamp` ON `medication_record` (`timestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_habit_record_record_date` ON `habit_record` (`record_date`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_chat_messages_session_id_timestamp` ON `chat_messages` (`session_id`, `timestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_body_measurement_timestamp` ON `body_measurement` (`timestamp`)");
+            // custom_record: 以 (tracker_id, timestamp) 复合索引取代原 tracker_id 单列索引
+            database.execSQL("DROP INDEX IF EXISTS `index_custom_record_tracker_id`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_custom_record_tracker_id_timestamp` ON `custom_record` (`tracker_id`, `timestamp`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_custom_record_timestamp` ON `custom_record` (`timestamp`)");
+        }
+    };
+
+    /**
+     * 数据库迁移：Version 36 -> Version 37
+     * 新增 food_search 全文索引（名称 / 全拼 / 首字母），取代 LIKE '%kw%' 全表扫描；
+     * 现有数据登记为待索引，由 FoodSearchIndex.sync 在后台补齐拼音
+     */
+    public static final Migration MIGRATION_36_37 = new Migration(36, 37) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `food_search` USING FTS4(`title` TEXT, " +
+                    "`name_tokens` TEXT, `pinyin` TEXT, `initials` TEXT, notindexed=`title`)");
+            FoodSearchIndex.install(database);
+            FoodSearchIndex.rebuild(database);
+        }
+    };
+
+    /**
+     * 数据库迁移：Version 37 -> Version 38
+     * 新增 daily_metric 每日指标表（评分、当日目标），
+     * 旧的 SharedPreferences 按日键由 DailyMetricPrefsImporter 在打开数据库时一次性导入
+     */
+    public static final Migration MIGRATION_37_38 = new Migration(37, 38) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `daily_metric` (`metric` TEXT NOT NULL, " +
+                    "`date` INTEGER NOT NULL, `value` REAL NOT NULL, PRIMARY KEY(`metric`, `date`))");
+        }
+    };
+
+    /**
+     * 数据库迁移：Version 38 -> Version 39
+     * 新增训练日变化日志与连续天数状态表；状态由 StreakTracker 首次读取时从 daily_rollup 全量建立
+     */
+    public static final Migration MIGRATION_38_39 = new Migration(38, 39) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            ActiveDayLog.install(database);
+        }
+    };
+
+    /**
+     * 数据库迁移：Version 39 -> Version 40
+     * 新增 achievement_counter 成就计数汇总表；表为空时全部规则在首次打开成就中心时求值一次
+     */
+    public static final Migration MIGRATION_39_40 = new Migration(39, 40) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `achievement_counter` (`rule` TEXT NOT NULL, " +
+                    "`value` INTEGER NOT NULL, `day` INTEGER NOT NULL, PRIMARY KEY(`rule`))");
+        }
+    };
+
+    /**
+     * 数据库迁移：Version 40 -> Version 41
+     * chat_sessions 新增 AI 上下文滚动摘要及其覆盖到的最后一条消息（时间戳 + ID）
+     */
+    public static final Migration MIGRATION_40_41 = new Migration(40, 41) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE chat_sessions ADD COLUMN context_summary TEXT");
+            database.execSQL("ALTER TABLE chat_sessions ADD COLUMN summary_until INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("ALTER TABLE chat_sessions ADD COLUMN summary_until_id INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    /**
+     * 数据库迁移：Version 41 -> Version 42
+     * 新增 social_feed_cache 动态流缓存表；表为空时首次打开动态页按第一页全量加载
+     */
+    public static final Migration MIGRATION_41_42 = new Migration(41, 42) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `social_feed_cache` (`post_id` TEXT NOT NULL, " +
+                    "`viewer_id` TEXT NOT NULL, `author_name` TEXT, `avatar_url` TEXT, `content` TEXT, " +
+                    "`created_at` TEXT NOT NULL, `created_micros` INTEGER NOT NULL, `summary_lines` TEXT, " +
+                    "`like_count` INTEGER NOT NULL, `liked` INTEGER NOT NULL, `owned` INTEGER NOT NULL, " +
+                    "PRIMARY KEY(`post_id`))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_social_feed_cache_viewer_id_created_micros_post_id` " +
+                    "ON `social_feed_cache` (`viewer_id`, `created_micros`, `post_id`)");
+        }
+    };
+
+    /**
+     * 数据库迁移：Version 42 -> Version 43
+     * achievement_counter 改由源表触发器在写入事务内失效；旧版本可能留下未及时失效的计数，一并清空重新求值
+     */
+    public static final Migration MIGRATION_42_43 = new Migration(42, 43) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            AchievementCounterTriggers.install(database);
+            database.execSQL("DELETE FROM achievement_counter");
+        }
+    };
+
     /**
      * 获取数据库实例（单例模式）
      */
@@ -724,7 +888,9 @@ public abstract class AppDatabase extends RoomDatabase {
                                     MIGRATION_20_21, MIGRATION_21_22, MIGRATION_22_23, MIGRATION_23_24,
                                     MIGRATION_24_25, MIGRATION_25_26, MIGRATION_26_27, MIGRATION_27_28,
                                     MIGRATION_28_29, MIGRATION_29_30, MIGRATION_30_31, MIGRATION_31_32, MIGRATION_32_33,
-                                    MIGRATION_33_34)
+                                    MIGRATION_33_34, MIGRATION_34_35, MIGRATION_35_36, MIGRATION_36_37,
+                                    MIGRATION_37_38, MIGRATION_38_39, MIGRATION_39_40, MIGRATION_40_41,
+                                    MIGRATION_41_42, MIGRATION_42_43)
                             // 迁移
                             // [Migration Pre-reservation]
                             // 未来如果需要修改数据库结构（例如 Plan 40+），请在此添加新的 Migration 策略。
@@ -734,8 +900,13 @@ public abstract class AppDatabase extends RoomDatabase {
                                 @Override
                                 public void onCreate(@NonNull SupportSQLiteDatabase db) {
                                     super.onCreate(db);
+                                    // daily_rollup 由触发器维护，Room 不会自动创建触发器
+                                    DailyRollupTriggers.install(db);
+                                    ActiveDayLog.install(db);
+                                    FoodSearchIndex.install(db);
+                                    AchievementCounterTriggers.install(db);
                                     // 数据库首次创建时预填充食物库和运动库
-                                    Executors.newSingleThreadExecutor().execute(() -> {
+                                    AppExecutors.get().diskIO().execute(() -> {
                                         updateOfficialFoodLibrary(context);
                                         updateOfficialExerciseLibrary(context);
                                     });
@@ -746,6 +917,8 @@ public abstract class AppDatabase extends RoomDatabase {
                                     super.onOpen(db);
                                     // Plan 30: 移除这里的 prepopulate 调用，因为太频繁且影响性能
                                     // 初始化逻辑应仅由 onCreate 或 Repository 检查触发
+                                    // 旧版按日 prefs 键只需搬迁一次，之后为一次布尔读取
+                                    DailyMetricPrefsImporter.importOnce(context, db);
                                 }
                             })
                             .build();
@@ -0,0 +1,88 @@
+package com.cz.fitnessdiary.database;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.cz.fitnessdiary.database.entity.DailyMetric;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 把 SharedPreferences 中旧的按日键（score_&lt;ts&gt;、target_minutes_&lt;ts&gt; 等）一次性搬进 daily_metric。
+ * 在数据库打开回调中执行，早于任何查询；完成后删除旧键，prefs 文件恢复为固定大小。
+ */
+public final class DailyMetricPrefsImporter {
+
+    private static final String FLAG_PREFS = "fitness_diary_prefs";
+    private static final String KEY_IMPORTED = "daily_metric_imported";
+
+    /** {prefs 文件, 键前缀, 指标名} */
+    private static final String[][] SOURCES = {
+            { "fitness_diary_prefs", "target_minutes_", DailyMetric.TARGET_MINUTES },
+            { "fitness_diary_prefs", "water_target_", DailyMetric.WATER_TARGET },
+            { "fitness_diary_prefs", "step_target_", DailyMetric.STEP_TARGET },
+            { "health_score_prefs", "score_", DailyMetric.SCORE },
+            { "health_score_prefs", "target_weight_kg_", DailyMetric.TARGET_WEIGHT_KG }
+    };
+
+    private DailyMetricPrefsImporter() {
+    }
+
+    public static void importOnce(@NonNull Context context, @NonNull SupportSQLiteDatabase db) {
+        SharedPreferences flags = context.getSharedPreferences(FLAG_PREFS, Context.MODE_PRIVATE);
+        if (flags.getBoolean(KEY_IMPORTED, false)) {
+            return;
+        }
+
+        List<String[]> imported = new ArrayList<>(); // {prefs 文件, 键}
+        db.beginTransaction();
+        try {
+            for (String[] source : SOURCES) {
+                SharedPreferences sp = context.getSharedPreferences(source[0], Context.MODE_PRIVATE);
+                for (Map.Entry<String, ?> entry : sp.getAll().entrySet()) {
+                    String key = entry.getKey();
+                    Long date = parseDate(key, source[1]);
+                    if (date == null || !(entry.getValue() instanceof Number)) {
+                        continue;
+                    }
+                    double value = ((Number) entry.getValue()).doubleValue();
+                    db.execSQL("INSERT OR REPLACE INTO daily_metric (metric, date, value) VALUES (?, ?, ?)",
+                            new Object[] { source[2], date, value });
+                    imported.add(new String[] { source[0], key });
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        for (String[] item : imported) {
+            context.getSharedPreferences(item[0], Context.MODE_PRIVATE).edit().remove(item[1]).apply();
+        }
+        flags.edit().putBoolean(KEY_IMPORTED, true).apply();
+    }
+
+    /**
+     * 前缀后必须是纯数字时间戳，如 target_minutes_default 不属于按日键
+     */
+    private static Long parseDate(String key, String prefix) {
+        if (!key.startsWith(prefix) || key.length() == prefix.length()) {
+            return null;
+        }
+        for (int i = prefix.length(); i < key.length(); i++) {
+            if (!Character.isDigit(key.charAt(i))) {
+                return null;
+            }
+        }
+        try {
+            return Long.parseLong(key.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.cz.fitnessdiary.database;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * daily_rollup 每日汇总表的维护逻辑。
+ * 通过 SQLite 触发器在源表 INSERT / UPDATE / DELETE 时增量更新对应日期的汇总，
+ * 与原始写入处于同一事务内，因此无论写入来自 Repository、快速记录还是备份恢复，汇总都不会漏更新。
+ * 日期键与 DateUtils.getDayStartTimestamp 一致：按本地时区取当天 0 点的毫秒时间戳。
+ * protein / carbs / fat 逐条取整后再累加，与原先 SUM(CAST(protein AS INTEGER)) 的统计口径一致。
+ */
+public final class DailyRollupTriggers {
+
+    private DailyRollupTriggers() {
+    }
+
+    /**
+     * 源表定义：表名、时间列，以及 汇总列 -> 行取值表达式（%1$s 会替换为 NEW / OLD）
+     */
+    private static final class Source {
+        final String table;
+        final String timeColumn;
+        final String[] columns;
+        final String[] values;
+
+        Source(String table, String timeColumn, String[] columns, String[] values) {
+            this.table = table;
+            this.timeColumn = timeColumn;
+            this.columns = columns;
+            this.values = values;
+        }
+    }
+
+    private static final Source[] ADDITIVE_SOURCES = {
+            new Source("food_record", "record_date",
+                    new String[] { "calories", "protein", "carbs", "fat", "food_count" },
+                    new String[] { "%1$s.calories", "CAST(%1$s.protein AS INTEGER)", "CAST(%1$s.carbs AS INTEGER)",
+                            "CAST(%1$s.fat AS INTEGER)", "1" }),
+            new Source("water_record", "timestamp",
+                    new String[] { "water_ml" },
+                    new String[] { "%1$s.amount_ml" }),
+            new Source("sleep_record", "end_time",
+                    new String[] { "sleep_seconds", "sleep_quality_sum", "sleep_count" },
+                    new String[] { "%1$s.duration", "%1$s.quality", "1" }),
+            new Source("daily_log", "date",
+                    new String[] { "completed_plans" },
+                    new String[] { "(%1$s.is_completed != 0)" }),
+            new Source("extra_exercise_log", "date",
+                    new String[] { "completed_extras" },
+                    new String[] { "(%1$s.is_completed != 0)" })
+    };
+
+    /**
+     * 将毫秒时间戳列转换为本地当天 0 点毫秒时间戳的 SQL 表达式
+     */
+    static String dayStartExpr(String column) {
+        return "(CAST(strftime('%s', date(" + column + " / 1000, 'unixepoch', 'localtime'), 'utc') AS INTEGER) * 1000)";
+    }
+
+    /**
+     * 创建全部维护触发器（幂等）
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        for (Source source : ADDITIVE_SOURCES) {
+            String newDay = dayStartExpr("NEW." + source.timeColumn);
+            String oldDay = dayStartExpr("OLD." + source.timeColumn);
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `daily_rollup_" + source.table + "_insert` AFTER INSERT ON `"
+                    + source.table + "` BEGIN "
+                    + ensureRow(newDay)
+                    + applyDelta(source, "NEW", "+", newDay)
+                    + " END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `daily_rollup_" + source.table + "_update` AFTER UPDATE ON `"
+                    + source.table + "` BEGIN "
+                    + applyDelta(source, "OLD", "-", oldDay)
+                    + ensureRow(newDay)
+                    + applyDelta(source, "NEW", "+", newDay)
+                    + " END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `daily_rollup_" + source.table + "_delete` AFTER DELETE ON `"
+                    + source.table + "` BEGIN "
+                    + applyDelta(source, "OLD", "-", oldDay)
+                    + " END");
+        }
+
+        // step_record 每天只有一行（date 唯一，写入走 REPLACE），直接覆盖而非累加：
+        // REPLACE 删除旧行时不会触发 DELETE 触发器，累加会重复计数
+        String newStepDay = dayStartExpr("NEW.date");
+        String oldStepDay = dayStartExpr("OLD.date");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS `daily_rollup_step_record_insert` AFTER INSERT ON `step_record` BEGIN "
+                + ensureRow(newStepDay)
+                + "UPDATE daily_rollup SET steps = NEW.steps WHERE date = " + newStepDay + "; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS `daily_rollup_step_record_update` AFTER UPDATE ON `step_record` BEGIN "
+                + "UPDATE daily_rollup SET steps = 0 WHERE date = " + oldStepDay + "; "
+                + ensureRow(newStepDay)
+                + "UPDATE daily_rollup SET steps = NEW.steps WHERE date = " + newStepDay + "; END");
+        db.execSQL("CREATE TRIGGER IF NOT EXISTS `daily_rollup_step_record_delete` AFTER DELETE ON `step_record` BEGIN "
+                + "UPDATE daily_rollup SET steps = 0 WHERE date = " + oldStepDay + "; END");
+    }
+
+    /**
+     * 从源表全量重建 daily_rollup
+     * 用于迁移初始化，也可在时区变更等导致日期键失效后调用
+     */
+    public static void rebuild(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM daily_rollup");
+        db.execSQL("INSERT INTO daily_rollup (date, calories, protein, carbs, fat, food_count, water_ml, "
+                + "sleep_seconds, sleep_quality_sum, sleep_count, steps, completed_plans, completed_extras) "
+                + "SELECT day, SUM(calories), SUM(protein), SUM(carbs), SUM(fat), SUM(food_count), SUM(water_ml), "
+                + "SUM(sleep_seconds), SUM(sleep_quality_sum), SUM(sleep_count), SUM(steps), "
+                + "SUM(completed_plans), SUM(completed_extras) FROM ("
+                + "SELECT " + dayStartExpr("record_date") + " AS day, calories, CAST(protein AS INTEGER) AS protein, "
+                + "CAST(carbs AS INTEGER) AS carbs, CAST(fat AS INTEGER) AS fat, 1 AS food_count, "
+                + "0 AS water_ml, 0 AS sleep_seconds, 0 AS sleep_quality_sum, 0 AS sleep_count, 0 AS steps, "
+                + "0 AS completed_plans, 0 AS completed_extras FROM food_record "
+                + "UNION ALL SELECT " + dayStartExpr("timestamp") + ", 0, 0, 0, 0, 0, amount_ml, 0, 0, 0, 0, 0, 0 FROM water_record "
+                + "UNION ALL SELECT " + dayStartExpr("end_time") + ", 0, 0, 0, 0, 0, 0, duration, quality, 1, 0, 0, 0 FROM sleep_record "
+                + "UNION ALL SELECT " + dayStartExpr("date") + ", 0, 0, 0, 0, 0, 0, 0, 0, 0, steps, 0, 0 FROM step_record "
+                + "UNION ALL SELECT " + dayStartExpr("date") + ", 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (is_completed != 0), 0 FROM daily_log "
+                + "UNION ALL SELECT " + dayStartExpr("date") + ", 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (is_completed != 0) FROM extra_exercise_log"
+                + ") GROUP BY day");
+    }
+
+    /**
+     * 保证当天汇总行存在。
+     * 不能写成 INSERT OR IGNORE：触发器内语句会继承外层语句的冲突策略，
+     * Room 的 REPLACE 写入（如 step_record）会把它变成 INSERT OR REPLACE，从而清零当天已有汇总
+     */
+    private static String ensureRow(String dayExpr) {
+        return "INSERT INTO daily_rollup (date) SELECT " + dayExpr
+                + " WHERE NOT EXISTS (SELECT 1 FROM daily_rollup WHERE date = " + dayExpr + "); ";
+    }
+
+    private static String applyDelta(Source source, String row, String sign, String dayExpr) {
+        StringBuilder sql = new StringBuilder("UPDATE daily_rollup SET ");
+        for (int i = 0; i < source.columns.length; i++) {
+            if (i > 0) sql.append(", ");
+            String column = source.columns[i];
+            sql.append(column).append(" = ").append(column).append(' ').append(sign).append(' ')
+                    .append(String.format(source.values[i], row));
+        }
+        return sql.append(" WHERE date = ").append(dayExpr).append("; ").toString();
+    }
+}
@@ -16,6 +16,7 @@ import java.util.List;
 /**
  * 从 assets/food_library.json 加载食物库数据。
  * 通过 SharedPreferences 中的版本号判断是否需要更新，避免每次启动都解析 JSON。
+ * 加载后立即为新数据计算搜索索引（拼音 / 首字母），搜索时无需再做转换。
  */
 public final class FoodLibraryDataLoader {
 
@@ -32,6 +33,12 @@ public final class FoodLibraryDataLoader {
      * 必须在后台线程调用。
      */
     public static void loadIfNeeded(Context context) {
+        loadFoodsIfNeeded(context);
+        // 也会补齐迁移或其它写入路径登记的待索引行；无待处理行时开销可忽略
+        FoodSearchIndex.sync(context);
+    }
+
+    private static void loadFoodsIfNeeded(Context context) {
         SharedPreferences prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
         int storedVersion = prefs.getInt(KEY_FOOD_LIBRARY_VERSION, 0);
 
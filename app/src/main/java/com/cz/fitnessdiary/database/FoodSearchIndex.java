@@ -0,0 +1,150 @@
+package com.cz.fitnessdiary.database;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import com.cz.fitnessdiary.utils.FoodSearchTokenizer;
+import com.cz.fitnessdiary.utils.PinyinUtils;
+
+import java.io.IOException;
+
+/**
+ * food_search 全文索引的维护逻辑。
+ * 源表（food_library / recipe / favorite_food）上的触发器只登记变化的行到 food_search_pending，
+ * 拼音分词需要 Java 计算，由 {@link #sync(Context)} 批量补齐；因此无论写入来自 Repository、
+ * 食物库导入还是备份恢复，索引都不会漏更新，且每行的拼音只在写入后计算一次。
+ */
+public final class FoodSearchIndex {
+
+    public static final int SOURCE_FOOD = 0;
+    public static final int SOURCE_RECIPE = 1;
+    public static final int SOURCE_FAVORITE = 2;
+
+    private static final int BATCH_SIZE = 500;
+
+    /** 来源编号 -> 表名、名称列 */
+    private static final String[][] SOURCES = {
+            { "food_library", "name" },
+            { "recipe", "name" },
+            { "favorite_food", "food_name" }
+    };
+
+    private FoodSearchIndex() {
+    }
+
+    /**
+     * 创建待索引表与维护触发器（幂等）
+     */
+    public static void install(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS `food_search_pending` (`source` INTEGER NOT NULL, "
+                + "`source_id` INTEGER NOT NULL, PRIMARY KEY(`source`, `source_id`))");
+        for (int source = 0; source < SOURCES.length; source++) {
+            String table = SOURCES[source][0];
+            String column = SOURCES[source][1];
+            String rowid = "OLD.id * 4 + " + source;
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `food_search_" + table + "_insert` AFTER INSERT ON `" + table
+                    + "` BEGIN INSERT OR IGNORE INTO food_search_pending (source, source_id) VALUES (" + source
+                    + ", NEW.id); END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `food_search_" + table + "_update` AFTER UPDATE OF `" + column
+                    + "` ON `" + table + "` BEGIN DELETE FROM food_search WHERE rowid = " + rowid
+                    + "; INSERT OR IGNORE INTO food_search_pending (source, source_id) VALUES (" + source
+                    + ", NEW.id); END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS `food_search_" + table + "_delete` AFTER DELETE ON `" + table
+                    + "` BEGIN DELETE FROM food_search WHERE rowid = " + rowid
+                    + "; DELETE FROM food_search_pending WHERE source = " + source + " AND source_id = OLD.id; END");
+        }
+    }
+
+    /**
+     * 清空索引并把所有源数据登记为待索引
+     */
+    public static void rebuild(@NonNull SupportSQLiteDatabase db) {
+        db.execSQL("DELETE FROM food_search");
+        for (int source = 0; source < SOURCES.length; source++) {
+            db.execSQL("INSERT OR IGNORE INTO food_search_pending (source, source_id) SELECT " + source
+                    + ", id FROM `" + SOURCES[source][0] + "`");
+        }
+    }
+
+    /**
+     * 为待索引的行计算分词并写入 food_search。没有待处理行时只需一次主键查询。
+     * 拼音表加载失败时仍按原文名称建立索引（汉字子串可搜），但保留待索引登记，
+     * 待拼音表可用后的下一次同步再补齐拼音列。
+     * 必须在后台线程调用
+     */
+    public static void sync(Context context) {
+        AppDatabase database = AppDatabase.getInstance(context);
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        synchronized (FoodSearchIndex.class) {
+            if (!hasPending(db)) {
+                return;
+            }
+            PinyinUtils.ensureLoaded(context);
+            boolean withPinyin = PinyinUtils.isLoaded();
+            long after = 0;
+            do {
+                long from = after;
+                // 经 RoomDatabase 提交事务，观察 food_search 的 LiveData 才会刷新
+                after = database.runInTransaction(() -> indexBatch(db, from, withPinyin));
+            } while (after > 0);
+        }
+    }
+
+    private static boolean hasPending(SupportSQLiteDatabase db) {
+        try (Cursor cursor = db.query("SELECT 1 FROM food_search_pending LIMIT 1")) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    /**
+     * 处理一批待索引行（按 rowid 顺序，从 after 之后开始）
+     *
+     * @param withPinyin 拼音表是否可用；不可用时不移除待索引登记
+     * @return 处理满一批时返回本批最后一行的 rowid（可能还有剩余），否则返回 0
+     */
+    private static long indexBatch(SupportSQLiteDatabase db, long after, boolean withPinyin) throws IOException {
+        int count = 0;
+        long last = 0;
+        try (SupportSQLiteStatement delete = db.compileStatement("DELETE FROM food_search WHERE rowid = ?");
+                SupportSQLiteStatement insert = db.compileStatement("INSERT INTO food_search"
+                        + " (rowid, title, name_tokens, pinyin, initials) VALUES (?, ?, ?, ?, ?)");
+                SupportSQLiteStatement done = db.compileStatement(
+                        "DELETE FROM food_search_pending WHERE source = ? AND source_id = ?");
+                Cursor cursor = db.query("SELECT p.source, p.source_id, CASE p.source"
+                        + " WHEN " + SOURCE_FOOD + " THEN (SELECT name FROM food_library WHERE id = p.source_id)"
+                        + " WHEN " + SOURCE_RECIPE + " THEN (SELECT name FROM recipe WHERE id = p.source_id)"
+                        + " ELSE (SELECT food_name FROM favorite_food WHERE id = p.source_id) END, p.rowid"
+                        + " FROM food_search_pending p WHERE p.rowid > " + after
+                        + " ORDER BY p.rowid LIMIT " + BATCH_SIZE)) {
+            while (cursor.moveToNext()) {
+                count++;
+                int source = cursor.getInt(0);
+                long sourceId = cursor.getLong(1);
+                String title = cursor.getString(2);
+                last = cursor.getLong(3);
+                long rowid = sourceId * 4 + source;
+                delete.bindLong(1, rowid);
+                delete.executeUpdateDelete();
+                if (title != null) {
+                    FoodSearchTokenizer.Tokens tokens = FoodSearchTokenizer.tokenize(title);
+                    insert.bindLong(1, rowid);
+                    insert.bindString(2, title);
+                    insert.bindString(3, tokens.name);
+                    insert.bindString(4, tokens.pinyin);
+                    insert.bindString(5, tokens.initials);
+                    insert.executeInsert();
+                }
+                if (withPinyin || title == null) {
+                    done.bindLong(1, source);
+                    done.bindLong(2, sourceId);
+                    done.executeUpdateDelete();
+                }
+            }
+        }
+        return count == BATCH_SIZE ? last : 0;
+    }
+}
@@ -5,9 +5,9 @@ import android.content.SharedPreferences;
 
 import com.cz.fitnessdiary.database.dao.ReminderScheduleDao;
 import com.cz.fitnessdiary.database.entity.ReminderSchedule;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class ReminderPresetDataLoader {
 
@@ -25,7 +25,7 @@ public class ReminderPresetDataLoader {
             return;
         }
 
-        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ExecutorService executor = AppExecutors.get().newSerialDiskIO();
         executor.execute(() -> {
             AppDatabase db = AppDatabase.getInstance(context.getApplicationContext());
             ReminderScheduleDao dao = db.reminderScheduleDao();
@@ -0,0 +1,23 @@
+package com.cz.fitnessdiary.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.cz.fitnessdiary.database.entity.AchievementCounter;
+
+import java.util.List;
+
+/**
+ * 成就计数汇总数据访问对象
+ */
+@Dao
+public interface AchievementCounterDao {
+
+    @Query("SELECT * FROM achievement_counter")
+    List<AchievementCounter> getAllSync();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<AchievementCounter> counters);
+}
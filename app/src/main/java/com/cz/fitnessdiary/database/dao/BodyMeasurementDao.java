@@ -29,9 +29,15 @@ public interface BodyMeasurementDao {
     @Query("SELECT * FROM body_measurement WHERE measurement_type = :type ORDER BY timestamp DESC LIMIT 1")
     BodyMeasurement getLatestByTypeSync(String type);
 
+    @Query("SELECT * FROM body_measurement WHERE measurement_type = :type AND timestamp < :timestamp ORDER BY timestamp DESC LIMIT 1")
+    BodyMeasurement getLatestByTypeBeforeSync(String type, long timestamp);
+
     @Query("SELECT * FROM body_measurement WHERE measurement_type = :type AND timestamp >= :startTs AND timestamp < :endTs ORDER BY timestamp ASC")
     List<BodyMeasurement> getByTypeAndDateRangeSync(String type, long startTs, long endTs);
 
+    @Query("SELECT * FROM body_measurement WHERE measurement_type IN (:types) ORDER BY timestamp ASC")
+    List<BodyMeasurement> getByTypesSync(List<String> types);
+
     @Query("SELECT * FROM body_measurement WHERE timestamp >= :startTs AND timestamp < :endTs ORDER BY timestamp DESC")
     LiveData<List<BodyMeasurement>> getByDateRange(long startTs, long endTs);
 
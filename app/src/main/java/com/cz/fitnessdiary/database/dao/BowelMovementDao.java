@@ -1,6 +1,7 @@
 package com.cz.fitnessdiary.database.dao;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.ColumnInfo;
 import androidx.room.Dao;
 import androidx.room.Delete;
@@ -25,7 +26,10 @@ public interface BowelMovementDao {
     void delete(BowelMovement record);
 
     @Query("SELECT * FROM bowel_movement ORDER BY timestamp DESC")
-    LiveData<List<BowelMovement>> getAllRecords();
+    PagingSource<Integer, BowelMovement> getAllRecordsPaged();
+
+    @Query("SELECT * FROM bowel_movement ORDER BY timestamp DESC LIMIT 1")
+    LiveData<BowelMovement> getLatest();
 
     @Query("SELECT * FROM bowel_movement WHERE timestamp >= :startTs AND timestamp < :endTs ORDER BY timestamp DESC")
     LiveData<List<BowelMovement>> getByDateRange(long startTs, long endTs);
@@ -36,6 +40,9 @@ public interface BowelMovementDao {
     @Query("SELECT * FROM bowel_movement ORDER BY timestamp DESC LIMIT 1")
     BowelMovement getLatestSync();
 
+    @Query("SELECT COUNT(*) FROM bowel_movement")
+    int getCountSync();
+
     @Query("SELECT * FROM bowel_movement WHERE timestamp >= :startTs AND timestamp < :endTs ORDER BY timestamp DESC LIMIT 1")
     BowelMovement getLatestByDateSync(long startTs, long endTs);
 
@@ -45,6 +52,9 @@ public interface BowelMovementDao {
     @Query("SELECT color, COUNT(*) AS count FROM bowel_movement WHERE color IS NOT NULL AND timestamp >= :startTs AND timestamp < :endTs GROUP BY color ORDER BY count DESC")
     List<ColorCount> getColorDistributionSync(long startTs, long endTs);
 
+    @Query("SELECT date(timestamp / 1000, 'unixepoch', 'localtime') AS day, COUNT(*) AS count FROM bowel_movement WHERE timestamp >= :startTs AND timestamp < :endTs GROUP BY day")
+    List<DayCount> getDailyCountSync(long startTs, long endTs);
+
     class BristolCount {
         public int bristolType;
         public int count;
@@ -54,4 +64,9 @@ public interface BowelMovementDao {
         public String color;
         public int count;
     }
+
+    class DayCount {
+        public String day;
+        public int count;
+    }
 }
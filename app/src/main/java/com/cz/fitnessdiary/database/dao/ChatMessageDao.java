@@ -1,6 +1,7 @@
 package com.cz.fitnessdiary.database.dao;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -23,12 +24,26 @@ public interface ChatMessageDao {
     @Delete
     void delete(ChatMessageEntity message);
 
-    @Query("SELECT * FROM chat_messages WHERE session_id = :sessionId ORDER BY timestamp ASC")
-    LiveData<List<ChatMessageEntity>> getMessagesBySessionLive(long sessionId);
+    /**
+     * 分页加载会话消息：最新的在前，配合倒序布局显示在底部
+     */
+    @Query("SELECT * FROM chat_messages WHERE session_id = :sessionId ORDER BY timestamp DESC, id DESC")
+    PagingSource<Integer, ChatMessageEntity> getMessagesBySessionPaged(long sessionId);
+
+    @Query("SELECT id FROM chat_messages WHERE session_id = :sessionId")
+    List<Long> getMessageIdsBySessionSync(long sessionId);
 
     @Query("SELECT * FROM chat_messages WHERE session_id = :sessionId ORDER BY timestamp ASC")
     List<ChatMessageEntity> getMessagesBySessionSync(long sessionId);
 
+    /**
+     * 摘要之后的消息，按 (timestamp, id) 升序（构建 AI 上下文用）；
+     * 边界同样按 (timestamp, id) 比较，与最后一条已折叠消息同一毫秒的消息不会被漏掉
+     */
+    @Query("SELECT * FROM chat_messages WHERE session_id = :sessionId "
+            + "AND (timestamp > :after OR (timestamp = :after AND id > :afterId)) ORDER BY timestamp ASC, id ASC")
+    List<ChatMessageEntity> getMessagesAfterSync(long sessionId, long after, long afterId);
+
     @Query("SELECT * FROM chat_messages ORDER BY timestamp ASC")
     LiveData<List<ChatMessageEntity>> getAllMessagesLive();
 
@@ -31,4 +31,15 @@ public interface ChatSessionDao {
 
     @Query("DELETE FROM chat_sessions")
     void deleteAll();
+
+    @Query("UPDATE chat_sessions SET context_summary = :summary, summary_until = :summaryUntil, "
+            + "summary_until_id = :summaryUntilId WHERE id = :sessionId")
+    void updateContextSummary(long sessionId, String summary, long summaryUntil, long summaryUntilId);
+
+    /**
+     * 替换摘要正文；期间又折叠了新消息（摘要边界已变）时不覆盖
+     */
+    @Query("UPDATE chat_sessions SET context_summary = :summary WHERE id = :sessionId "
+            + "AND summary_until = :summaryUntil AND summary_until_id = :summaryUntilId")
+    int replaceContextSummary(long sessionId, String summary, long summaryUntil, long summaryUntilId);
 }
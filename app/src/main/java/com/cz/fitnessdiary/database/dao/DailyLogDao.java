@@ -60,10 +60,10 @@ public interface DailyLogDao {
     void deleteOldLogs(long date);
 
     /**
-     * 获取所有打卡记录（LiveData）
+     * 获取所有有打卡记录的日期（用于日历标记，只取日期列）
      */
-    @Query("SELECT * FROM daily_log ORDER BY date DESC")
-    LiveData<List<DailyLog>> getAllLogs();
+    @Query("SELECT DISTINCT date FROM daily_log")
+    LiveData<List<Long>> getAllLogDates();
 
     /**
      * 获取所有打卡记录（同步）
@@ -98,6 +98,9 @@ public interface DailyLogDao {
     @Query("SELECT COUNT(*) FROM daily_log WHERE is_completed = 1")
     int getTotalWorkoutCountSync();
 
+    @Query("SELECT COUNT(*) FROM daily_log")
+    int getLogCountSync();
+
     @Query("SELECT COUNT(*) FROM daily_log WHERE date = :date")
     int getTodayPlanCountSync(long date);
 
@@ -0,0 +1,36 @@
+package com.cz.fitnessdiary.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.cz.fitnessdiary.database.entity.DailyMetric;
+
+import java.util.List;
+
+/**
+ * 每日指标数据访问对象
+ * 主键 (metric, date) 即覆盖单日读取与按指标的区间查询
+ */
+@Dao
+public interface DailyMetricDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(DailyMetric metric);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<DailyMetric> metrics);
+
+    @Query("DELETE FROM daily_metric WHERE metric = :metric AND date = :date")
+    void delete(String metric, long date);
+
+    @Query("SELECT value FROM daily_metric WHERE metric = :metric AND date = :date LIMIT 1")
+    Double getValueSync(String metric, long date);
+
+    @Query("SELECT * FROM daily_metric WHERE metric = :metric AND date >= :startDate AND date < :endDate ORDER BY date ASC")
+    List<DailyMetric> getRangeSync(String metric, long startDate, long endDate);
+
+    @Query("SELECT AVG(value) FROM daily_metric WHERE metric = :metric AND date >= :startDate AND date < :endDate")
+    Double getAverageSync(String metric, long startDate, long endDate);
+}
@@ -0,0 +1,41 @@
+package com.cz.fitnessdiary.database.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.cz.fitnessdiary.database.entity.DailyRollup;
+
+import java.util.List;
+
+/**
+ * 每日汇总表数据访问对象
+ * 只读：daily_rollup 由数据库触发器维护，见 DailyRollupTriggers
+ */
+@Dao
+public interface DailyRollupDao {
+
+    @Query("SELECT * FROM daily_rollup WHERE date = :date LIMIT 1")
+    DailyRollup getByDateSync(long date);
+
+    @Query("SELECT * FROM daily_rollup WHERE date = :date LIMIT 1")
+    LiveData<DailyRollup> getByDate(long date);
+
+    @Query("SELECT * FROM daily_rollup WHERE date >= :startDate AND date < :endDate ORDER BY date ASC")
+    List<DailyRollup> getByDateRangeSync(long startDate, long endDate);
+
+    @Query("SELECT * FROM daily_rollup WHERE date >= :startDate AND date < :endDate ORDER BY date ASC")
+    LiveData<List<DailyRollup>> getByDateRange(long startDate, long endDate);
+
+    /**
+     * 有完成训练的日期（升序），用于累计天数与最长连续天数
+     */
+    @Query("SELECT date FROM daily_rollup WHERE completed_plans + completed_extras > 0 ORDER BY date ASC")
+    List<Long> getTrainingDatesSync();
+
+    /**
+     * 当日饮水合计达到 minMl 的天数
+     */
+    @Query("SELECT COUNT(*) FROM daily_rollup WHERE water_ml >= :minMl")
+    int countWaterGoalDaysSync(int minMl);
+}
@@ -26,8 +26,8 @@ public interface ExtraExerciseLogDao {
     @Query("SELECT * FROM extra_exercise_log WHERE date >= :startDate AND date < :endDate ORDER BY created_at ASC, id ASC")
     LiveData<List<ExtraExerciseLog>> getLogsByDateRange(long startDate, long endDate);
 
-    @Query("SELECT * FROM extra_exercise_log ORDER BY date DESC, created_at DESC, id DESC")
-    LiveData<List<ExtraExerciseLog>> getAllLogs();
+    @Query("SELECT DISTINCT date FROM extra_exercise_log")
+    LiveData<List<Long>> getAllRecordDates();
 
     @Query("SELECT * FROM extra_exercise_log WHERE date >= :startDate AND date < :endDate ORDER BY created_at ASC, id ASC")
     List<ExtraExerciseLog> getLogsByDateRangeSync(long startDate, long endDate);
@@ -36,21 +36,6 @@ public interface FoodLibraryDao {
     @androidx.room.Update
     void update(FoodLibrary food);
 
-    /**
-     * 模糊搜索食物（用于自动完成）
-     * 
-     * @param keyword 关键词
-     * @return 匹配的食物列表
-     */
-    @Query("SELECT * FROM food_library WHERE name LIKE '%' || :keyword || '%' ORDER BY name LIMIT 20")
-    List<FoodLibrary> searchFoods(String keyword);
-
-    /**
-     * 模糊搜索食物（LiveData版本）
-     */
-    @Query("SELECT * FROM food_library WHERE name LIKE '%' || :keyword || '%' ORDER BY name LIMIT 20")
-    LiveData<List<FoodLibrary>> searchFoodsLive(String keyword);
-
     /**
      * 获取所有食物
      */
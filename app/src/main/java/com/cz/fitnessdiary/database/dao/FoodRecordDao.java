@@ -53,12 +53,6 @@ public interface FoodRecordDao {
     @Query("SELECT SUM(calories) FROM food_record WHERE record_date >= :startDate AND record_date < :endDate")
     LiveData<Integer> getTotalCaloriesByDateRange(long startDate, long endDate);
 
-    /**
-     * 获取所有食物记录
-     */
-    @Query("SELECT * FROM food_record ORDER BY record_date DESC")
-    LiveData<List<FoodRecord>> getAllFoodRecords();
-
     /**
      * 获取所有有记录的时间戳列表 (用于日历高亮)
      */
@@ -0,0 +1,40 @@
+package com.cz.fitnessdiary.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.cz.fitnessdiary.database.entity.FoodLibrary;
+
+import java.util.List;
+
+/**
+ * 食物搜索数据访问对象
+ * 基于 food_search 全文索引：一次 MATCH 命中候选行，再按主键回表。
+ * :match 由 FoodSearchTokenizer.matchQuery 生成，:rankKey 由 FoodSearchTokenizer.rankKey 生成，
+ * :rankPattern 由 FoodSearchTokenizer.rankPattern 生成（已转义的 LIKE 前缀）
+ */
+@Dao
+public interface FoodSearchDao {
+
+    /**
+     * 排序：名称完全相同 > 名称 / 全拼 / 首字母前缀匹配 > 其他，同级按名称长度
+     */
+    String RANK_ORDER = " ORDER BY CASE WHEN food_search.title = :rankKey THEN 0"
+            + " WHEN food_search.title LIKE :rankPattern ESCAPE '\\'"
+            + " OR food_search.pinyin LIKE :rankPattern ESCAPE '\\'"
+            + " OR food_search.initials LIKE :rankPattern ESCAPE '\\' THEN 1 ELSE 2 END,"
+            + " length(food_search.title), food_search.title LIMIT :limit";
+
+    /**
+     * 搜索食物库
+     */
+    @Query("SELECT food_library.* FROM food_search JOIN food_library ON food_library.id = (food_search.rowid >> 2)"
+            + " WHERE food_search MATCH :match AND (food_search.rowid & 3) = 0" + RANK_ORDER)
+    List<FoodLibrary> searchFoodLibrary(String match, String rankKey, String rankPattern, int limit);
+
+    /**
+     * 搜索食物库、食谱与收藏的名称（用于输入联想）
+     */
+    @Query("SELECT DISTINCT food_search.title FROM food_search WHERE food_search MATCH :match" + RANK_ORDER)
+    List<String> searchNames(String match, String rankKey, String rankPattern, int limit);
+}
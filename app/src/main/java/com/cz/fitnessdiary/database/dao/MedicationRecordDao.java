@@ -49,4 +49,16 @@ public interface MedicationRecordDao {
 
     @Query("SELECT COUNT(*) FROM medication_record WHERE timestamp >= :startTs AND timestamp < :endTs AND is_taken = 0")
     int getUntakenCountByDateRangeSync(long startTs, long endTs);
+
+    @Query("SELECT date(timestamp / 1000, 'unixepoch', 'localtime') AS day, " +
+            "COALESCE(SUM(CASE WHEN is_taken = 1 THEN 1 ELSE 0 END), 0) AS taken, " +
+            "COALESCE(SUM(daily_total), 0) AS total " +
+            "FROM medication_record WHERE timestamp >= :startTs AND timestamp < :endTs GROUP BY day")
+    List<DayMedication> getDailyMedicationSync(long startTs, long endTs);
+
+    class DayMedication {
+        public String day;
+        public int taken;
+        public int total;
+    }
 }
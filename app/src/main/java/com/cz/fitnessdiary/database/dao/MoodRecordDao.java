@@ -22,4 +22,10 @@ public interface MoodRecordDao {
 
     @Query("SELECT * FROM mood_record ORDER BY date DESC")
     java.util.List<MoodRecord> getAllRecordsSync();
+
+    @Query("SELECT COUNT(*) FROM mood_record")
+    int getCountSync();
+
+    @Query("SELECT * FROM mood_record WHERE date >= :startDate AND date < :endDate ORDER BY date ASC")
+    java.util.List<MoodRecord> getByDateRangeSync(long startDate, long endDate);
 }
@@ -37,5 +37,11 @@ public interface SleepRecordDao {
 
     @Query("SELECT * FROM sleep_record ORDER BY end_time DESC LIMIT :limit")
     List<SleepRecord> getRecentRecordsSync(int limit);
+
+    /**
+     * 时长（秒）落在 [minSeconds, maxSeconds] 内的睡眠记录数
+     */
+    @Query("SELECT COUNT(*) FROM sleep_record WHERE duration >= :minSeconds AND duration <= :maxSeconds")
+    int countByDurationSync(long minSeconds, long maxSeconds);
 }
 
@@ -0,0 +1,44 @@
+package com.cz.fitnessdiary.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.cz.fitnessdiary.database.entity.SocialFeedPost;
+
+import java.util.List;
+
+/**
+ * 动态流缓存数据访问对象
+ */
+@Dao
+public interface SocialFeedDao {
+
+    @Query("SELECT * FROM social_feed_cache WHERE viewer_id = :viewerId "
+            + "ORDER BY created_micros DESC, post_id DESC")
+    List<SocialFeedPost> getAllSync(String viewerId);
+
+    @Query("SELECT * FROM social_feed_cache WHERE viewer_id = :viewerId "
+            + "ORDER BY created_micros DESC, post_id DESC LIMIT 1")
+    SocialFeedPost getNewestSync(String viewerId);
+
+    @Query("SELECT * FROM social_feed_cache WHERE viewer_id = :viewerId "
+            + "ORDER BY created_micros ASC, post_id ASC LIMIT 1")
+    SocialFeedPost getOldestSync(String viewerId);
+
+    @Query("SELECT * FROM social_feed_cache WHERE post_id = :postId LIMIT 1")
+    SocialFeedPost getByIdSync(String postId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<SocialFeedPost> posts);
+
+    @Query("DELETE FROM social_feed_cache")
+    void clear();
+
+    @Query("DELETE FROM social_feed_cache WHERE post_id = :postId")
+    void delete(String postId);
+
+    @Query("UPDATE social_feed_cache SET liked = :liked, like_count = :likeCount WHERE post_id = :postId")
+    void updateLike(String postId, boolean liked, int likeCount);
+}
@@ -34,4 +34,7 @@ public interface StepRecordDao {
 
     @Query("SELECT * FROM step_record WHERE date >= :startDate AND date < :endDate ORDER BY date ASC")
     List<StepRecord> getRecordsByDateRangeSync(long startDate, long endDate);
+
+    @Query("SELECT COUNT(*) FROM step_record WHERE steps >= :minSteps")
+    int countDaysWithStepsSync(int minSteps);
 }
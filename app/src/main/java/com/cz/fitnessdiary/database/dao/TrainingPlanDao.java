@@ -76,6 +76,12 @@ public interface TrainingPlanDao {
     @Query("SELECT * FROM training_plan WHERE category LIKE :prefix || '%'")
     List<TrainingPlan> getByCategoryPrefix(String prefix);
 
+    /**
+     * 按分类前缀计数
+     */
+    @Query("SELECT COUNT(*) FROM training_plan WHERE category LIKE :prefix || '%'")
+    int countByCategoryPrefix(String prefix);
+
     /**
      * 按分类前缀批量替换前缀（合并计划用）
      */
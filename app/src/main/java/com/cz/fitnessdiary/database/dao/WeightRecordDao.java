@@ -1,6 +1,7 @@
 package com.cz.fitnessdiary.database.dao;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
@@ -36,7 +37,10 @@ public interface WeightRecordDao {
     LiveData<List<WeightRecord>> getRecordsByDateRange(long startTs, long endTs);
 
     @Query("SELECT * FROM weight_record ORDER BY timestamp DESC")
-    LiveData<List<WeightRecord>> getAllRecords();
+    PagingSource<Integer, WeightRecord> getAllRecordsPaged();
+
+    @Query("SELECT * FROM weight_record ORDER BY timestamp DESC LIMIT :limit")
+    LiveData<List<WeightRecord>> getRecentRecords(int limit);
 
     @Query("SELECT * FROM weight_record ORDER BY timestamp DESC LIMIT :limit")
     List<WeightRecord> getRecentRecordsSync(int limit);
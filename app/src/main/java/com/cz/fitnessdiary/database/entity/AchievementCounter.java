@@ -0,0 +1,39 @@
+package com.cz.fitnessdiary.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * 成就计数汇总表
+ * 每条成就规则一行，保存上次求值的结果；规则依赖的表发生写入时对应行被删除，下次读取时重新求值
+ */
+@Entity(tableName = "achievement_counter")
+public class AchievementCounter {
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "rule")
+    private String rule;
+
+    @ColumnInfo(name = "value")
+    private long value;
+
+    @ColumnInfo(name = "day")
+    private long day; // 求值当天0点时间戳，按天失效的规则据此判断是否过期
+
+    public AchievementCounter(@NonNull String rule, long value, long day) {
+        this.rule = rule;
+        this.value = value;
+        this.day = day;
+    }
+
+    @NonNull
+    public String getRule() { return rule; }
+    public void setRule(@NonNull String rule) { this.rule = rule; }
+    public long getValue() { return value; }
+    public void setValue(long value) { this.value = value; }
+    public long getDay() { return day; }
+    public void setDay(long day) { this.day = day; }
+}
@@ -8,7 +8,8 @@ import androidx.room.PrimaryKey;
 
 @Entity(tableName = "body_measurement",
         indices = {@Index(name = "index_body_measurement_type_time",
-                value = {"measurement_type", "timestamp"}, orders = {Index.Order.ASC, Index.Order.DESC})})
+                value = {"measurement_type", "timestamp"}, orders = {Index.Order.ASC, Index.Order.DESC}),
+                @Index("timestamp")})
 public class BodyMeasurement {
 
     @PrimaryKey(autoGenerate = true)
@@ -2,12 +2,13 @@ package com.cz.fitnessdiary.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
  * 聊天消息实体类 (持久化存储)
  */
-@Entity(tableName = "chat_messages")
+@Entity(tableName = "chat_messages", indices = {@Index(value = {"session_id", "timestamp"})})
 public class ChatMessageEntity {
 
     @PrimaryKey(autoGenerate = true)
@@ -25,6 +25,18 @@ public class ChatSessionEntity {
     @ColumnInfo(name = "folder_name")
     private String folderName;
 
+    /** 已折叠进摘要的较早对话，只作为发送给 AI 的上下文，不在界面展示 */
+    @ColumnInfo(name = "context_summary")
+    private String contextSummary;
+
+    /** 摘要覆盖到的最后一条消息的时间戳，之后的消息按原文发送 */
+    @ColumnInfo(name = "summary_until", defaultValue = "0")
+    private long summaryUntil;
+
+    /** 摘要覆盖到的最后一条消息的 ID，与 summaryUntil 一起区分同一毫秒内的多条消息 */
+    @ColumnInfo(name = "summary_until_id", defaultValue = "0")
+    private long summaryUntilId;
+
     public ChatSessionEntity(String title, long startTime) {
         this.title = title;
         this.startTime = startTime;
@@ -70,4 +82,28 @@ public class ChatSessionEntity {
     public void setFolderName(String folderName) {
         this.folderName = folderName;
     }
+
+    public String getContextSummary() {
+        return contextSummary;
+    }
+
+    public void setContextSummary(String contextSummary) {
+        this.contextSummary = contextSummary;
+    }
+
+    public long getSummaryUntil() {
+        return summaryUntil;
+    }
+
+    public void setSummaryUntil(long summaryUntil) {
+        this.summaryUntil = summaryUntil;
+    }
+
+    public long getSummaryUntilId() {
+        return summaryUntilId;
+    }
+
+    public void setSummaryUntilId(long summaryUntilId) {
+        this.summaryUntilId = summaryUntilId;
+    }
 }
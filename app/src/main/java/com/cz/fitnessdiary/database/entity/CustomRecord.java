@@ -7,7 +7,7 @@ import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 @Entity(tableName = "custom_record", foreignKeys = @ForeignKey(entity = CustomTracker.class, parentColumns = "id", childColumns = "tracker_id", onDelete = ForeignKey.CASCADE), indices = {
-        @Index("tracker_id") })
+        @Index(value = { "tracker_id", "timestamp" }), @Index("timestamp") })
 public class CustomRecord {
 
     @PrimaryKey(autoGenerate = true)
@@ -11,7 +11,7 @@ import androidx.room.PrimaryKey;
  * 记录每天的训练计划完成情况
  */
 @Entity(tableName = "daily_log", foreignKeys = @ForeignKey(entity = TrainingPlan.class, parentColumns = "planId", childColumns = "plan_id", onDelete = ForeignKey.CASCADE), indices = {
-        @Index("plan_id") })
+        @Index("plan_id"), @Index(value = { "date", "is_completed" }) })
 public class DailyLog {
 
     @PrimaryKey(autoGenerate = true)
@@ -0,0 +1,48 @@
+package com.cz.fitnessdiary.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * 每日指标表
+ * 按 (指标, 日期) 存放每天的健康评分与当日目标，取代 SharedPreferences 中无限增长的按日键
+ */
+@Entity(tableName = "daily_metric", primaryKeys = { "metric", "date" })
+public class DailyMetric {
+
+    /** 当日健康评分 */
+    public static final String SCORE = "score";
+    /** 当日训练总时长（分钟），0 表示自动计算 */
+    public static final String TARGET_MINUTES = "target_minutes";
+    /** 当日饮水目标（ml） */
+    public static final String WATER_TARGET = "water_target";
+    /** 当日步数目标 */
+    public static final String STEP_TARGET = "step_target";
+    /** 当日目标体重（kg） */
+    public static final String TARGET_WEIGHT_KG = "target_weight_kg";
+
+    @NonNull
+    @ColumnInfo(name = "metric")
+    private String metric;
+
+    @ColumnInfo(name = "date")
+    private long date; // 当天0点时间戳
+
+    @ColumnInfo(name = "value")
+    private double value;
+
+    public DailyMetric(@NonNull String metric, long date, double value) {
+        this.metric = metric;
+        this.date = date;
+        this.value = value;
+    }
+
+    @NonNull
+    public String getMetric() { return metric; }
+    public void setMetric(@NonNull String metric) { this.metric = metric; }
+    public long getDate() { return date; }
+    public void setDate(long date) { this.date = date; }
+    public double getValue() { return value; }
+    public void setValue(double value) { this.value = value; }
+}
@@ -0,0 +1,90 @@
+package com.cz.fitnessdiary.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * 每日汇总表
+ * 由 DailyRollupTriggers 在 food_record / water_record / sleep_record / step_record /
+ * daily_log / extra_exercise_log 写入时同步维护，读取某天汇总只需一次主键查询
+ */
+@Entity(tableName = "daily_rollup")
+public class DailyRollup {
+
+    @PrimaryKey
+    @ColumnInfo(name = "date")
+    private long date; // 当天0点时间戳
+
+    @ColumnInfo(name = "calories", defaultValue = "0")
+    private int calories;
+
+    @ColumnInfo(name = "protein", defaultValue = "0")
+    private double protein;
+
+    @ColumnInfo(name = "carbs", defaultValue = "0")
+    private double carbs;
+
+    @ColumnInfo(name = "fat", defaultValue = "0")
+    private double fat;
+
+    @ColumnInfo(name = "food_count", defaultValue = "0")
+    private int foodCount;
+
+    @ColumnInfo(name = "water_ml", defaultValue = "0")
+    private int waterMl;
+
+    @ColumnInfo(name = "sleep_seconds", defaultValue = "0")
+    private long sleepSeconds;
+
+    @ColumnInfo(name = "sleep_quality_sum", defaultValue = "0")
+    private int sleepQualitySum;
+
+    @ColumnInfo(name = "sleep_count", defaultValue = "0")
+    private int sleepCount;
+
+    @ColumnInfo(name = "steps", defaultValue = "0")
+    private int steps;
+
+    @ColumnInfo(name = "completed_plans", defaultValue = "0")
+    private int completedPlans;
+
+    @ColumnInfo(name = "completed_extras", defaultValue = "0")
+    private int completedExtras;
+
+    public long getDate() { return date; }
+    public void setDate(long date) { this.date = date; }
+    public int getCalories() { return calories; }
+    public void setCalories(int calories) { this.calories = calories; }
+    public double getProtein() { return protein; }
+    public void setProtein(double protein) { this.protein = protein; }
+    public double getCarbs() { return carbs; }
+    public void setCarbs(double carbs) { this.carbs = carbs; }
+    public double getFat() { return fat; }
+    public void setFat(double fat) { this.fat = fat; }
+    public int getFoodCount() { return foodCount; }
+    public void setFoodCount(int foodCount) { this.foodCount = foodCount; }
+    public int getWaterMl() { return waterMl; }
+    public void setWaterMl(int waterMl) { this.waterMl = waterMl; }
+    public long getSleepSeconds() { return sleepSeconds; }
+    public void setSleepSeconds(long sleepSeconds) { this.sleepSeconds = sleepSeconds; }
+    public int getSleepQualitySum() { return sleepQualitySum; }
+    public void setSleepQualitySum(int sleepQualitySum) { this.sleepQualitySum = sleepQualitySum; }
+    public int getSleepCount() { return sleepCount; }
+    public void setSleepCount(int sleepCount) { this.sleepCount = sleepCount; }
+    public int getSteps() { return steps; }
+    public void setSteps(int steps) { this.steps = steps; }
+    public int getCompletedPlans() { return completedPlans; }
+    public void setCompletedPlans(int completedPlans) { this.completedPlans = completedPlans; }
+    public int getCompletedExtras() { return completedExtras; }
+    public void setCompletedExtras(int completedExtras) { this.completedExtras = completedExtras; }
+
+    public double getSleepHours() {
+        return sleepSeconds / 3600.0;
+    }
+
+    /** 已完成训练数（计划打卡 + 额外训练） */
+    public int getCompletedCount() {
+        return completedPlans + completedExtras;
+    }
+}
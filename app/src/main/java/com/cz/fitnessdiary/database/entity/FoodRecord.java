@@ -2,13 +2,14 @@ package com.cz.fitnessdiary.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
  * 食物记录实体类
  * 存储每日的饮食记录，包括食物名称和热量
  */
-@Entity(tableName = "food_record")
+@Entity(tableName = "food_record", indices = {@Index(value = {"record_date", "meal_type"})})
 public class FoodRecord {
 
     @PrimaryKey(autoGenerate = true)
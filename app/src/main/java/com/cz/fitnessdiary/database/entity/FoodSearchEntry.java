@@ -0,0 +1,72 @@
+package com.cz.fitnessdiary.database.entity;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.PrimaryKey;
+
+/**
+ * 食物搜索全文索引（FTS4）
+ * 覆盖 food_library、recipe、favorite_food 的名称；rowid = 源表 id * 4 + 来源，
+ * 分词列由 FoodSearchIndex 在源数据写入后计算一次，见 FoodSearchTokenizer
+ */
+@Fts4(notIndexed = { "title" })
+@Entity(tableName = "food_search")
+public class FoodSearchEntry {
+
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private long rowid;
+
+    @ColumnInfo(name = "title")
+    private String title; // 原始名称
+
+    @ColumnInfo(name = "name_tokens")
+    private String nameTokens; // 逐字切分的名称
+
+    @ColumnInfo(name = "pinyin")
+    private String pinyin; // 全拼后缀词
+
+    @ColumnInfo(name = "initials")
+    private String initials; // 首字母后缀词
+
+    public long getRowid() {
+        return rowid;
+    }
+
+    public void setRowid(long rowid) {
+        this.rowid = rowid;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getNameTokens() {
+        return nameTokens;
+    }
+
+    public void setNameTokens(String nameTokens) {
+        this.nameTokens = nameTokens;
+    }
+
+    public String getPinyin() {
+        return pinyin;
+    }
+
+    public void setPinyin(String pinyin) {
+        this.pinyin = pinyin;
+    }
+
+    public String getInitials() {
+        return initials;
+    }
+
+    public void setInitials(String initials) {
+        this.initials = initials;
+    }
+}
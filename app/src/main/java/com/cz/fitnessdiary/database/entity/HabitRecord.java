@@ -7,7 +7,7 @@ import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 @Entity(tableName = "habit_record", foreignKeys = @ForeignKey(entity = HabitItem.class, parentColumns = "id", childColumns = "habit_id", onDelete = ForeignKey.CASCADE), indices = {
-        @Index(value = { "habit_id", "record_date" }, unique = true), @Index("habit_id") })
+        @Index(value = { "habit_id", "record_date" }, unique = true), @Index("habit_id"), @Index("record_date") })
 public class HabitRecord {
 
     @PrimaryKey(autoGenerate = true)
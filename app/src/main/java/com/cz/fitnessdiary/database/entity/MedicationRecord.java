@@ -2,9 +2,10 @@ package com.cz.fitnessdiary.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "medication_record")
+@Entity(tableName = "medication_record", indices = {@Index("timestamp")})
 public class MedicationRecord {
 
     @PrimaryKey(autoGenerate = true)
@@ -2,12 +2,13 @@ package com.cz.fitnessdiary.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
  * 睡眠记录实体类
  */
-@Entity(tableName = "sleep_record")
+@Entity(tableName = "sleep_record", indices = {@Index("end_time")})
 public class SleepRecord {
 
     @PrimaryKey(autoGenerate = true)
@@ -0,0 +1,96 @@
+package com.cz.fitnessdiary.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * 动态流本地缓存
+ * 保存已加载过的好友动态，打开动态页时先显示缓存，再只向云端请求比最新一条更新的动态；
+ * 向下滚动时以最旧一条的 (created_at, post_id) 为游标继续分页。按当前账号区分，切换账号后重新加载
+ */
+@Entity(tableName = "social_feed_cache",
+        indices = { @Index(value = { "viewer_id", "created_micros", "post_id" }) })
+public class SocialFeedPost {
+
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "post_id")
+    private String postId;
+
+    @NonNull
+    @ColumnInfo(name = "viewer_id")
+    private String viewerId; // 加载这条动态时登录的账号
+
+    @ColumnInfo(name = "author_name")
+    private String authorName;
+
+    @ColumnInfo(name = "avatar_url")
+    private String avatarUrl;
+
+    @ColumnInfo(name = "content")
+    private String content;
+
+    @NonNull
+    @ColumnInfo(name = "created_at")
+    private String createdAt; // 云端返回的原始时间字符串，原样作为分页游标，保留微秒精度
+
+    @ColumnInfo(name = "created_micros")
+    private long createdMicros; // 本地排序用
+
+    @ColumnInfo(name = "summary_lines")
+    private String summaryLines; // 健康摘要，每行一条
+
+    @ColumnInfo(name = "like_count")
+    private int likeCount;
+
+    @ColumnInfo(name = "liked")
+    private boolean liked;
+
+    @ColumnInfo(name = "owned")
+    private boolean owned;
+
+    public SocialFeedPost(@NonNull String postId, @NonNull String viewerId, String authorName, String avatarUrl,
+                          String content, @NonNull String createdAt, long createdMicros, String summaryLines,
+                          int likeCount, boolean liked, boolean owned) {
+        this.postId = postId;
+        this.viewerId = viewerId;
+        this.authorName = authorName;
+        this.avatarUrl = avatarUrl;
+        this.content = content;
+        this.createdAt = createdAt;
+        this.createdMicros = createdMicros;
+        this.summaryLines = summaryLines;
+        this.likeCount = likeCount;
+        this.liked = liked;
+        this.owned = owned;
+    }
+
+    @NonNull
+    public String getPostId() { return postId; }
+    public void setPostId(@NonNull String postId) { this.postId = postId; }
+    @NonNull
+    public String getViewerId() { return viewerId; }
+    public void setViewerId(@NonNull String viewerId) { this.viewerId = viewerId; }
+    public String getAuthorName() { return authorName; }
+    public void setAuthorName(String authorName) { this.authorName = authorName; }
+    public String getAvatarUrl() { return avatarUrl; }
+    public void setAvatarUrl(String avatarUrl) { this.avatarUrl = avatarUrl; }
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+    @NonNull
+    public String getCreatedAt() { return createdAt; }
+    public void setCreatedAt(@NonNull String createdAt) { this.createdAt = createdAt; }
+    public long getCreatedMicros() { return createdMicros; }
+    public void setCreatedMicros(long createdMicros) { this.createdMicros = createdMicros; }
+    public String getSummaryLines() { return summaryLines; }
+    public void setSummaryLines(String summaryLines) { this.summaryLines = summaryLines; }
+    public int getLikeCount() { return likeCount; }
+    public void setLikeCount(int likeCount) { this.likeCount = likeCount; }
+    public boolean isLiked() { return liked; }
+    public void setLiked(boolean liked) { this.liked = liked; }
+    public boolean isOwned() { return owned; }
+    public void setOwned(boolean owned) { this.owned = owned; }
+}
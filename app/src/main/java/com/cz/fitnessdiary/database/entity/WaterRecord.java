@@ -2,9 +2,10 @@ package com.cz.fitnessdiary.database.entity;
 
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
-@Entity(tableName = "water_record")
+@Entity(tableName = "water_record", indices = {@Index("timestamp")})
 public class WaterRecord {
 
     @PrimaryKey(autoGenerate = true)
@@ -10,6 +10,7 @@ public class ChatMessage {
     private boolean isUser; // 是否是用户发送 (true=用户, false=AI)
     private long timestamp; // 时间戳
     private String mediaPath; // 多媒体文件路径
+    private boolean streaming; // 是否为正在流式生成、尚未落库的回复
 
     public ChatMessage(String content, boolean isUser) {
         this(0, content, null, isUser, System.currentTimeMillis());
@@ -79,4 +80,12 @@ public class ChatMessage {
     public void setMediaPath(String mediaPath) {
         this.mediaPath = mediaPath;
     }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
 }
@@ -21,12 +21,12 @@ import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.model.DailyHealthSnapshot;
 import com.cz.fitnessdiary.repository.HealthAggregationRepository;
 import com.cz.fitnessdiary.ui.MainActivity;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.utils.ReminderManager;
 import com.cz.fitnessdiary.utils.SmartReminderHelper;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class ReminderReceiver extends BroadcastReceiver {
 
@@ -44,7 +44,7 @@ public class ReminderReceiver extends BroadcastReceiver {
         final Context appContext = context.getApplicationContext();
         final PendingResult pendingResult = goAsync();
 
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 if (Intent.ACTION_BOOT_COMPLETED.equals(action)) {
                     ReminderManager.restoreReminder(appContext);
@@ -0,0 +1,210 @@
+package com.cz.fitnessdiary.repository;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.cz.fitnessdiary.database.AppDatabase;
+import com.cz.fitnessdiary.database.dao.AchievementCounterDao;
+import com.cz.fitnessdiary.database.entity.AchievementCounter;
+import com.cz.fitnessdiary.database.entity.BodyMeasurement;
+import com.cz.fitnessdiary.database.entity.SleepRecord;
+import com.cz.fitnessdiary.database.entity.User;
+import com.cz.fitnessdiary.database.entity.WeightRecord;
+import com.cz.fitnessdiary.utils.DateUtils;
+import com.cz.fitnessdiary.utils.StreakTracker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 成就计数仓库
+ * 规则的求值结果保存在 achievement_counter 中；源表上的触发器（AchievementCounterTriggers）
+ * 在写入所在的事务内删除依赖该表的规则行，下次读取时仅对这些规则重新求值，
+ * 没有新数据时打开成就中心只需读取一张十几行的小表。
+ * 所有方法均为同步方法，需在后台线程调用
+ */
+public class AchievementRepository {
+
+    public static final String TRAINING_DAYS = "training_days";
+    public static final String CUSTOM_PLANS = "custom_plans";
+    public static final String FOOD_RECORDS = "food_records";
+    public static final String WORKOUTS = "workouts";
+    public static final String WATER_GOAL_DAYS = "water_goal_days";
+    public static final String STEP_GOAL_DAYS = "step_goal_days";
+    public static final String SLEEP_GOAL_DAYS = "sleep_goal_days";
+    public static final String BOWEL_RECORDS = "bowel_records";
+    public static final String MOOD_RECORDS = "mood_records";
+    public static final String WEIGHT_GOAL = "weight_goal";
+    public static final String WAIST_GOAL = "waist_goal";
+    public static final String PERFECT_DAY = "perfect_day";
+    public static final String STREAK_RECORD = "streak_record";
+
+    /** 与 AchievementCenterViewModel 共用的 prefs，历史最长连续天数沿用原键 */
+    private static final String PREF_NAME = "achievement_center_prefs";
+    private static final String KEY_BEST_STREAK = "best_streak";
+
+    private static final int WATER_GOAL_ML = 2000;
+    private static final int STEP_GOAL = 10000;
+    private static final long SLEEP_MIN_SECONDS = 7 * 3600L;
+    private static final long SLEEP_MAX_SECONDS = 9 * 3600L;
+
+    private interface Evaluator {
+        long evaluate(AchievementRepository repo, long today);
+    }
+
+    /** 规则结果的缓存方式 */
+    private enum Cache {
+        /** 缓存到依赖的表有写入为止 */
+        UNTIL_CHANGED,
+        /** 结果与“今天”有关，跨天后需重新求值 */
+        TODAY,
+        /** 求值有副作用或依赖数据库之外的状态，每次都重新求值 */
+        NONE
+    }
+
+    private static final class Rule {
+        final String key;
+        final Cache cache;
+        final Evaluator evaluator;
+
+        Rule(String key, Cache cache, Evaluator evaluator) {
+            this.key = key;
+            this.cache = cache;
+            this.evaluator = evaluator;
+        }
+    }
+
+    /** 依赖的表见 AchievementCounterTriggers，新增可缓存的规则时需同步登记 */
+    private static final Rule[] RULES = {
+            new Rule(TRAINING_DAYS, Cache.UNTIL_CHANGED,
+                    (repo, today) -> repo.db.dailyLogDao().getTotalTrainingDays()),
+            new Rule(CUSTOM_PLANS, Cache.UNTIL_CHANGED,
+                    (repo, today) -> repo.db.trainingPlanDao().countByCategoryPrefix("自定义-")),
+            new Rule(FOOD_RECORDS, Cache.UNTIL_CHANGED,
+                    (repo, today) -> repo.db.foodRecordDao().getTotalRecordCountSync()),
+            new Rule(WORKOUTS, Cache.UNTIL_CHANGED,
+                    (repo, today) -> repo.db.dailyLogDao().getLogCountSync()),
+            new Rule(WATER_GOAL_DAYS, Cache.UNTIL_CHANGED,
+                    (repo, today) -> repo.db.dailyRollupDao().countWaterGoalDaysSync(WATER_GOAL_ML)),
+            new Rule(STEP_GOAL_DAYS, Cache.UNTIL_CHANGED,
+                    (repo, today) -> repo.db.stepRecordDao().countDaysWithStepsSync(STEP_GOAL)),
+            new Rule(SLEEP_GOAL_DAYS, Cache.UNTIL_CHANGED,
+                    (repo, today) -> repo.db.sleepRecordDao().countByDurationSync(SLEEP_MIN_SECONDS, SLEEP_MAX_SECONDS)),
+            new Rule(BOWEL_RECORDS, Cache.UNTIL_CHANGED,
+                    (repo, today) -> repo.db.bowelMovementDao().getCountSync()),
+            new Rule(MOOD_RECORDS, Cache.UNTIL_CHANGED,
+                    (repo, today) -> repo.db.moodRecordDao().getCountSync()),
+            new Rule(WEIGHT_GOAL, Cache.UNTIL_CHANGED,
+                    (repo, today) -> repo.checkWeightGoal() ? 1 : 0),
+            new Rule(WAIST_GOAL, Cache.UNTIL_CHANGED,
+                    (repo, today) -> repo.checkWaistGoal() ? 1 : 0),
+            new Rule(PERFECT_DAY, Cache.TODAY,
+                    (repo, today) -> repo.checkPerfectDay(today) ? 1 : 0),
+            // 会更新 best_streak，与原先每次刷新都检查一致
+            new Rule(STREAK_RECORD, Cache.NONE,
+                    (repo, today) -> repo.checkStreakRecord() ? 1 : 0)
+    };
+
+    private final Context appContext;
+    private final AppDatabase db;
+    private final AchievementCounterDao counterDao;
+
+    public AchievementRepository(Context context) {
+        appContext = context.getApplicationContext();
+        db = AppDatabase.getInstance(context);
+        counterDao = db.achievementCounterDao();
+    }
+
+    /**
+     * 全部规则的当前值：已失效或跨天过期的规则在同一事务内重新求值并写回，
+     * 事务期间源表无法写入，因此写回的结果不会覆盖掉之后触发器执行的失效
+     */
+    public Map<String, Long> loadCounters() {
+        long today = DateUtils.getTodayStartTimestamp();
+        return db.runInTransaction(() -> {
+            Map<String, AchievementCounter> stored = new HashMap<>();
+            for (AchievementCounter counter : counterDao.getAllSync()) {
+                stored.put(counter.getRule(), counter);
+            }
+            Map<String, Long> values = new HashMap<>();
+            List<AchievementCounter> evaluated = new ArrayList<>();
+            for (Rule rule : RULES) {
+                AchievementCounter counter = stored.get(rule.key);
+                if (counter != null && (rule.cache == Cache.UNTIL_CHANGED
+                        || (rule.cache == Cache.TODAY && counter.getDay() == today))) {
+                    values.put(rule.key, counter.getValue());
+                    continue;
+                }
+                long value = rule.evaluator.evaluate(this, today);
+                values.put(rule.key, value);
+                if (rule.cache != Cache.NONE) {
+                    evaluated.add(new AchievementCounter(rule.key, value, today));
+                }
+            }
+            if (!evaluated.isEmpty()) {
+                counterDao.upsertAll(evaluated);
+            }
+            return values;
+        });
+    }
+
+    private boolean checkWeightGoal() {
+        User user = db.userDao().getUserSync();
+        if (user == null) return false;
+        List<WeightRecord> records = db.weightRecordDao().getRecentRecordsSync(30);
+        if (records == null || records.size() < 2) return false;
+        float current = records.get(0).getWeight();
+        int goal = user.getGoalType();
+        for (int i = 1; i < records.size(); i++) {
+            float past = records.get(i).getWeight();
+            if (goal == 0 && current < past) return true; // loss: new low
+            if (goal == 1 && current > past) return true; // muscle: new high
+        }
+        if (goal == 2) { // maintain: within 1kg for 30 days
+            for (WeightRecord r : records) {
+                if (Math.abs(r.getWeight() - current) > 1.0f) return false;
+            }
+            return records.size() >= 3;
+        }
+        return false;
+    }
+
+    private boolean checkWaistGoal() {
+        List<BodyMeasurement> records = db.bodyMeasurementDao().getByTypeAndDateRangeSync(
+                "WAIST", 0, System.currentTimeMillis());
+        if (records == null || records.size() < 2) return false;
+        float current = records.get(0).getValue();
+        User user = db.userDao().getUserSync();
+        int goal = user != null ? user.getGoalType() : 0;
+        for (int i = 1; i < records.size(); i++) {
+            float past = records.get(i).getValue();
+            if (goal == 0 && current < past) return true;
+        }
+        return false;
+    }
+
+    private boolean checkPerfectDay(long today) {
+        // 当天训练、饮食、饮水、习惯、睡眠均有记录
+        long dayEnd = today + 86400000L;
+        if (db.dailyLogDao().getTodayCompletedCountSync(today) == 0) return false;
+        if (db.foodRecordDao().getRecordCountByDateRangeSync(today, dayEnd) == 0) return false;
+        if (db.waterRecordDao().getTodayTotalSync(today, dayEnd) == 0) return false;
+        if (db.habitRecordDao().getCompletedCountByDateSync(today) == 0) return false;
+        List<SleepRecord> sleeps = db.sleepRecordDao().getSleepRecordsByDateRangeSync(today, dayEnd);
+        return sleeps != null && !sleeps.isEmpty();
+    }
+
+    private boolean checkStreakRecord() {
+        int streak = StreakTracker.get(appContext).getCurrentStreak(false);
+        // Check if this is a new record: current streak >= previous best + 1
+        SharedPreferences sp = appContext.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        int bestStreak = sp.getInt(KEY_BEST_STREAK, 0);
+        if (streak > bestStreak) {
+            sp.edit().putInt(KEY_BEST_STREAK, streak).apply();
+            return true;
+        }
+        return false;
+    }
+}
@@ -7,10 +7,10 @@ import androidx.lifecycle.LiveData;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.BodyMeasurementDao;
 import com.cz.fitnessdiary.database.entity.BodyMeasurement;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class BodyMeasurementRepository {
 
@@ -19,7 +19,7 @@ public class BodyMeasurementRepository {
 
     public BodyMeasurementRepository(Application application) {
         dao = AppDatabase.getInstance(application).bodyMeasurementDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public void insert(BodyMeasurement record) {
@@ -3,23 +3,29 @@ package com.cz.fitnessdiary.repository;
 import android.app.Application;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.BowelMovementDao;
 import com.cz.fitnessdiary.database.entity.BowelMovement;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class BowelMovementRepository {
 
+    private static final int PAGE_SIZE = 50;
+
     private final BowelMovementDao dao;
     private final ExecutorService executorService;
 
     public BowelMovementRepository(Application application) {
         dao = AppDatabase.getInstance(application).bowelMovementDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public void insert(BowelMovement record) {
@@ -34,8 +40,17 @@ public class BowelMovementRepository {
         executorService.execute(() -> dao.delete(record));
     }
 
-    public LiveData<List<BowelMovement>> getAllRecords() {
-        return dao.getAllRecords();
+    /**
+     * 分页加载全部记录（最新的在前）
+     */
+    public LiveData<PagingData<BowelMovement>> getAllRecordsPaged() {
+        Pager<Integer, BowelMovement> pager = new Pager<>(
+                new PagingConfig(PAGE_SIZE, PAGE_SIZE, false), dao::getAllRecordsPaged);
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    public LiveData<BowelMovement> getLatest() {
+        return dao.getLatest();
     }
 
     public LiveData<List<BowelMovement>> getByDateRange(long startTs, long endTs) {
@@ -3,16 +3,23 @@ package com.cz.fitnessdiary.repository;
 import android.content.Context;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.ChatMessageDao;
 import com.cz.fitnessdiary.database.entity.ChatMessageEntity;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class ChatRepository {
+    /** 每页消息条数；首屏只加载最新一页 */
+    private static final int MESSAGE_PAGE_SIZE = 30;
+
     public com.cz.fitnessdiary.database.dao.ChatSessionDao sessionDao;
     private ChatMessageDao chatMessageDao;
     private ExecutorService executorService;
@@ -21,7 +28,7 @@ public class ChatRepository {
         AppDatabase db = AppDatabase.getInstance(context);
         chatMessageDao = db.chatMessageDao();
         sessionDao = db.chatSessionDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     // --- Session Methods ---
@@ -83,8 +90,21 @@ public class ChatRepository {
 
     // --- Message Methods ---
 
-    public LiveData<List<ChatMessageEntity>> getMessagesBySessionLive(long sessionId) {
-        return chatMessageDao.getMessagesBySessionLive(sessionId);
+    /**
+     * 分页加载会话消息（最新的在前），向上滚动时再加载更早的消息
+     */
+    public LiveData<PagingData<ChatMessageEntity>> getMessagePages(long sessionId) {
+        Pager<Integer, ChatMessageEntity> pager = new Pager<>(
+                new PagingConfig(MESSAGE_PAGE_SIZE, MESSAGE_PAGE_SIZE, false),
+                () -> chatMessageDao.getMessagesBySessionPaged(sessionId));
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    /**
+     * 会话内全部消息 ID（同步方法，用于多选"全选"，不加载消息内容）
+     */
+    public List<Long> getMessageIdsBySessionSync(long sessionId) {
+        return chatMessageDao.getMessageIdsBySessionSync(sessionId);
     }
 
     public void insert(ChatMessageEntity message) {
@@ -110,6 +130,28 @@ public class ChatRepository {
         return chatMessageDao.getMessagesBySessionSync(sessionId);
     }
 
+    /**
+     * 同步获取摘要之后的消息（在后台线程调用）
+     */
+    public List<ChatMessageEntity> getMessagesAfterSync(long sessionId, long after, long afterId) {
+        return chatMessageDao.getMessagesAfterSync(sessionId, after, afterId);
+    }
+
+    /**
+     * 保存折叠后的上下文摘要（同步方法，在后台线程调用）
+     */
+    public void saveContextSummarySync(long sessionId, String summary, long summaryUntil, long summaryUntilId) {
+        sessionDao.updateContextSummary(sessionId, summary, summaryUntil, summaryUntilId);
+    }
+
+    /**
+     * 用压缩后的摘要替换原摘要；期间摘要又被折叠推进时放弃
+     */
+    public void replaceContextSummary(long sessionId, String summary, long summaryUntil, long summaryUntilId) {
+        executorService.execute(
+                () -> sessionDao.replaceContextSummary(sessionId, summary, summaryUntil, summaryUntilId));
+    }
+
     public void deleteAll() {
         executorService.execute(() -> chatMessageDao.deleteAll());
     }
@@ -7,10 +7,10 @@ import androidx.lifecycle.LiveData;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.CustomRecordDao;
 import com.cz.fitnessdiary.database.entity.CustomRecord;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class CustomRecordRepository {
 
@@ -19,7 +19,7 @@ public class CustomRecordRepository {
 
     public CustomRecordRepository(Application application) {
         dao = AppDatabase.getInstance(application).customRecordDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public void insert(CustomRecord record) {
@@ -7,10 +7,10 @@ import androidx.lifecycle.LiveData;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.CustomTrackerDao;
 import com.cz.fitnessdiary.database.entity.CustomTracker;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class CustomTrackerRepository {
 
@@ -19,7 +19,7 @@ public class CustomTrackerRepository {
 
     public CustomTrackerRepository(Application application) {
         dao = AppDatabase.getInstance(application).customTrackerDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
         ensureDefaultTracker();
     }
 
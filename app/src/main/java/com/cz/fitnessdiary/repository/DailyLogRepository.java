@@ -8,10 +8,10 @@ import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.DailyLogDao;
 import com.cz.fitnessdiary.database.entity.DailyLog;
 import com.cz.fitnessdiary.ui.widget.HomeWidgetProvider;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 每日打卡记录数据仓库
@@ -27,7 +27,7 @@ public class DailyLogRepository {
         this.application = application;
         AppDatabase database = AppDatabase.getInstance(application);
         dailyLogDao = database.dailyLogDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     /**
@@ -88,7 +88,7 @@ public class DailyLogRepository {
      */
     public DailyLog getLogByPlanAndDate(int planId, long date) {
         try {
-            return executorService.submit(() -> dailyLogDao.getLogByPlanAndDate(planId, date)).get();
+            return AppExecutors.await(executorService, () -> dailyLogDao.getLogByPlanAndDate(planId, date));
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -103,10 +103,10 @@ public class DailyLogRepository {
     }
 
     /**
-     * 获取所有打卡记录（LiveData）
+     * 获取所有有打卡记录的日期（LiveData）
      */
-    public LiveData<List<DailyLog>> getAllLogs() {
-        return dailyLogDao.getAllLogs();
+    public LiveData<List<Long>> getAllLogDates() {
+        return dailyLogDao.getAllLogDates();
     }
 
     /**
@@ -0,0 +1,67 @@
+package com.cz.fitnessdiary.repository;
+
+import android.content.Context;
+
+import com.cz.fitnessdiary.database.AppDatabase;
+import com.cz.fitnessdiary.database.dao.DailyMetricDao;
+import com.cz.fitnessdiary.database.entity.DailyMetric;
+import com.cz.fitnessdiary.utils.AppExecutors;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 每日指标仓库（评分与当日目标）
+ * Sync 方法需在后台线程调用；写入与 load 在磁盘线程执行，load 回调在主线程
+ */
+public class DailyMetricRepository {
+
+    private final DailyMetricDao dao;
+
+    public DailyMetricRepository(Context context) {
+        dao = AppDatabase.getInstance(context).dailyMetricDao();
+    }
+
+    public int getIntSync(String metric, long date, int fallback) {
+        Double value = dao.getValueSync(metric, date);
+        return value != null ? (int) Math.round(value) : fallback;
+    }
+
+    public float getFloatSync(String metric, long date, float fallback) {
+        Double value = dao.getValueSync(metric, date);
+        return value != null ? value.floatValue() : fallback;
+    }
+
+    public void putSync(String metric, long date, double value) {
+        dao.upsert(new DailyMetric(metric, date, value));
+    }
+
+    public void put(String metric, long date, double value) {
+        AppExecutors.get().diskIO().execute(() -> putSync(metric, date, value));
+    }
+
+    public void remove(String metric, long date) {
+        AppExecutors.get().diskIO().execute(() -> dao.delete(metric, date));
+    }
+
+    /**
+     * 异步读取整数指标，不存在时回调 fallback
+     */
+    public void loadInt(String metric, long date, int fallback, Consumer<Integer> callback) {
+        AppExecutors.get().diskIO().execute(() -> {
+            int value = getIntSync(metric, date, fallback);
+            AppExecutors.get().mainThread().execute(() -> callback.accept(value));
+        });
+    }
+
+    public List<DailyMetric> getRangeSync(String metric, long startDate, long endDate) {
+        return dao.getRangeSync(metric, startDate, endDate);
+    }
+
+    /**
+     * 区间 [startDate, endDate) 内已记录日的平均值，没有记录时为 null
+     */
+    public Double getAverageSync(String metric, long startDate, long endDate) {
+        return dao.getAverageSync(metric, startDate, endDate);
+    }
+}
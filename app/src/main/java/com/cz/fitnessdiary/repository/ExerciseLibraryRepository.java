@@ -7,10 +7,10 @@ import androidx.lifecycle.LiveData;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.ExerciseLibraryDao;
 import com.cz.fitnessdiary.database.entity.ExerciseLibrary;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class ExerciseLibraryRepository {
 
@@ -20,7 +20,7 @@ public class ExerciseLibraryRepository {
     public ExerciseLibraryRepository(Context context) {
         AppDatabase database = AppDatabase.getInstance(context);
         dao = database.exerciseLibraryDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public List<ExerciseLibrary> searchExercises(String keyword) {
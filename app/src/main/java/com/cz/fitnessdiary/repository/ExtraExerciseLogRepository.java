@@ -8,10 +8,10 @@ import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.ExtraExerciseLogDao;
 import com.cz.fitnessdiary.database.entity.ExtraExerciseLog;
 import com.cz.fitnessdiary.ui.widget.HomeWidgetProvider;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class ExtraExerciseLogRepository {
 
@@ -22,15 +22,15 @@ public class ExtraExerciseLogRepository {
     public ExtraExerciseLogRepository(Application application) {
         this.application = application;
         dao = AppDatabase.getInstance(application).extraExerciseLogDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public LiveData<List<ExtraExerciseLog>> getLogsByDateRange(long startDate, long endDate) {
         return dao.getLogsByDateRange(startDate, endDate);
     }
 
-    public LiveData<List<ExtraExerciseLog>> getAllLogs() {
-        return dao.getAllLogs();
+    public LiveData<List<Long>> getAllRecordDates() {
+        return dao.getAllRecordDates();
     }
 
     public void insert(ExtraExerciseLog log) {
@@ -5,15 +5,15 @@ import android.app.Application;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.FavoriteFoodDao;
 import com.cz.fitnessdiary.database.entity.FavoriteFood;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class FavoriteFoodRepository {
 
     private final FavoriteFoodDao dao;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor = AppExecutors.get().newSerialDiskIO();
 
     public FavoriteFoodRepository(Application application) {
         AppDatabase db = AppDatabase.getInstance(application);
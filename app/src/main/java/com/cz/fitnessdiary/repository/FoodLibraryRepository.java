@@ -2,15 +2,25 @@ package com.cz.fitnessdiary.repository;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
+import androidx.room.InvalidationTracker;
 
 import com.cz.fitnessdiary.database.AppDatabase;
+import com.cz.fitnessdiary.database.FoodSearchIndex;
 import com.cz.fitnessdiary.database.dao.FoodLibraryDao;
+import com.cz.fitnessdiary.database.dao.FoodSearchDao;
 import com.cz.fitnessdiary.database.entity.FoodLibrary;
+import com.cz.fitnessdiary.service.FoodNameAutomaton;
+import com.cz.fitnessdiary.utils.AppExecutors;
+import com.cz.fitnessdiary.utils.FoodSearchTokenizer;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 食物库数据仓库
@@ -18,27 +28,96 @@ import java.util.concurrent.Executors;
  */
 public class FoodLibraryRepository {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    /** 食物库版本号：food_library 任何写入都会递增，用于判断自动机缓存是否过期 */
+    private static final AtomicInteger libraryVersion = new AtomicInteger();
+    private static InvalidationTracker.Observer libraryObserver;
+    /** 搜索索引是否可能有待补齐的行：进程内首次打开时为 true，源表写入后重新置位 */
+    private static final AtomicBoolean indexStale = new AtomicBoolean(true);
+    private static InvalidationTracker.Observer indexObserver;
+    private static volatile CachedAutomaton cachedAutomaton;
+
+    private final Context appContext;
     private FoodLibraryDao foodLibraryDao;
+    private FoodSearchDao foodSearchDao;
     private ExecutorService executorService;
 
     public FoodLibraryRepository(Context context) {
+        appContext = context.getApplicationContext();
         AppDatabase database = AppDatabase.getInstance(context);
         foodLibraryDao = database.foodLibraryDao();
-        executorService = Executors.newSingleThreadExecutor();
+        foodSearchDao = database.foodSearchDao();
+        executorService = AppExecutors.get().newSerialDiskIO();
+        observeLibrary(database);
+        // 打开时在后台补齐一次索引，输入搜索时无需等待
+        executorService.execute(this::syncIndexIfStale);
+    }
+
+    private static synchronized void observeLibrary(AppDatabase database) {
+        if (libraryObserver != null) {
+            return;
+        }
+        libraryObserver = new InvalidationTracker.Observer("food_library") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                libraryVersion.incrementAndGet();
+            }
+        };
+        database.getInvalidationTracker().addObserver(libraryObserver);
+        indexObserver = new InvalidationTracker.Observer("food_library", "recipe", "favorite_food") {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                indexStale.set(true);
+            }
+        };
+        database.getInvalidationTracker().addObserver(indexObserver);
     }
 
     /**
-     * 模糊搜索食物（同步方法，在后台线程调用）
+     * 仅在打开后首次调用或源表变化后补齐 food_search，避免每次按键都查询待索引表
+     */
+    private void syncIndexIfStale() {
+        if (!indexStale.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            FoodSearchIndex.sync(appContext);
+        } catch (RuntimeException e) {
+            indexStale.set(true);
+            throw e;
+        }
+    }
+
+    /**
+     * 搜索食物：支持汉字子串、全拼与首字母（同步方法，在后台线程调用）
      */
     public List<FoodLibrary> searchFoods(String keyword) {
-        return foodLibraryDao.searchFoods(keyword);
+        return searchFoods(keyword, DEFAULT_SEARCH_LIMIT);
+    }
+
+    public List<FoodLibrary> searchFoods(String keyword, int limit) {
+        String match = FoodSearchTokenizer.matchQuery(keyword);
+        if (match == null) {
+            return new ArrayList<>();
+        }
+        syncIndexIfStale();
+        String rankKey = FoodSearchTokenizer.rankKey(keyword);
+        return foodSearchDao.searchFoodLibrary(match, rankKey, FoodSearchTokenizer.rankPattern(rankKey), limit);
     }
 
     /**
-     * 模糊搜索食物（LiveData版本）
+     * 搜索食物库、食谱与收藏中的名称，用于输入联想（同步方法，在后台线程调用）
      */
-    public LiveData<List<FoodLibrary>> searchFoodsLive(String keyword) {
-        return foodLibraryDao.searchFoodsLive(keyword);
+    public List<String> searchNames(String keyword) {
+        String match = FoodSearchTokenizer.matchQuery(keyword);
+        if (match == null) {
+            return new ArrayList<>();
+        }
+        syncIndexIfStale();
+        String rankKey = FoodSearchTokenizer.rankKey(keyword);
+        return foodSearchDao.searchNames(match, rankKey, FoodSearchTokenizer.rankPattern(rankKey),
+                DEFAULT_SEARCH_LIMIT);
     }
 
     /**
@@ -62,6 +141,32 @@ public class FoodLibraryRepository {
         return foodLibraryDao.getAllFoodsSync();
     }
 
+    /**
+     * 获取食物名称自动机（同步方法，在后台线程调用）
+     * 全进程共享一份，仅在 food_library 变化后的下一次调用时重建
+     */
+    public FoodNameAutomaton getFoodNameAutomaton() {
+        int version = libraryVersion.get();
+        CachedAutomaton cached = cachedAutomaton;
+        if (cached != null && cached.version == version) {
+            return cached.automaton;
+        }
+        FoodNameAutomaton automaton = FoodNameAutomaton.build(foodLibraryDao.getAllFoodsSync());
+        // 构建期间若又有写入，版本号已变，下次调用会再次重建
+        cachedAutomaton = new CachedAutomaton(version, automaton);
+        return automaton;
+    }
+
+    private static final class CachedAutomaton {
+        final int version;
+        final FoodNameAutomaton automaton;
+
+        CachedAutomaton(int version, FoodNameAutomaton automaton) {
+            this.version = version;
+            this.automaton = automaton;
+        }
+    }
+
     /**
      * 插入食物
      */
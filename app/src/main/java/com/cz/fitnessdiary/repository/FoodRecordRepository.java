@@ -8,10 +8,10 @@ import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.FoodRecordDao;
 import com.cz.fitnessdiary.database.entity.FoodRecord;
 import com.cz.fitnessdiary.ui.widget.HomeWidgetProvider;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 食物记录数据仓库
@@ -27,7 +27,7 @@ public class FoodRecordRepository {
         this.application = application;
         AppDatabase database = AppDatabase.getInstance(application);
         foodRecordDao = database.foodRecordDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     /**
@@ -88,13 +88,6 @@ public class FoodRecordRepository {
         return foodRecordDao.getAllRecordTimestamps();
     }
 
-    /**
-     * 获取所有食物记录
-     */
-    public LiveData<List<FoodRecord>> getAllFoodRecords() {
-        return foodRecordDao.getAllFoodRecords();
-    }
-
     /**
      * 获取所有食物记录 (同步方法)
      */
@@ -9,10 +9,10 @@ import com.cz.fitnessdiary.database.dao.HabitItemDao;
 import com.cz.fitnessdiary.database.dao.HabitRecordDao;
 import com.cz.fitnessdiary.database.entity.HabitItem;
 import com.cz.fitnessdiary.database.entity.HabitRecord;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class HabitRepository {
 
@@ -28,7 +28,7 @@ public class HabitRepository {
         AppDatabase db = AppDatabase.getInstance(application);
         habitItemDao = db.habitItemDao();
         habitRecordDao = db.habitRecordDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
         ensureDefaultHabits();
     }
 
@@ -3,13 +3,12 @@ package com.cz.fitnessdiary.repository;
 import android.app.Application;
 
 import com.cz.fitnessdiary.database.AppDatabase;
-import com.cz.fitnessdiary.database.entity.BowelMovement;
-import com.cz.fitnessdiary.database.entity.DailyLog;
-import com.cz.fitnessdiary.database.entity.ExtraExerciseLog;
-import com.cz.fitnessdiary.database.entity.MedicationRecord;
+import com.cz.fitnessdiary.database.dao.BowelMovementDao;
+import com.cz.fitnessdiary.database.dao.MedicationRecordDao;
+import com.cz.fitnessdiary.database.entity.BodyMeasurement;
+import com.cz.fitnessdiary.database.entity.DailyMetric;
+import com.cz.fitnessdiary.database.entity.DailyRollup;
 import com.cz.fitnessdiary.database.entity.MoodRecord;
-import com.cz.fitnessdiary.database.entity.SleepRecord;
-import com.cz.fitnessdiary.database.entity.StepRecord;
 import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.database.entity.User;
 import com.cz.fitnessdiary.database.entity.WeightRecord;
@@ -20,17 +19,14 @@ import com.cz.fitnessdiary.utils.CalorieCalculatorUtils;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.utils.ExerciseMetTable;
 import com.cz.fitnessdiary.utils.HealthScoreCalculator;
+import com.cz.fitnessdiary.utils.StreakTracker;
 import com.cz.fitnessdiary.utils.TrainingRecordUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 健康数据聚合仓库 - v3.0
@@ -38,14 +34,14 @@ import java.util.concurrent.Executors;
  */
 public class HealthAggregationRepository {
 
+    private static final long DAY_MS = 86400000L;
+
     private final AppDatabase db;
-    private final ExecutorService executor;
     private final Application application;
 
     public HealthAggregationRepository(Application application) {
         this.application = application;
         this.db = AppDatabase.getInstance(application);
-        this.executor = Executors.newSingleThreadExecutor();
     }
 
     /**
@@ -62,194 +58,214 @@ public class HealthAggregationRepository {
      * @return 填充完整的 DailyHealthSnapshot
      */
     public DailyHealthSnapshot getDateSnapshot(long dateTs) {
-        DailyHealthSnapshot s = new DailyHealthSnapshot();
-        long dayEnd = dateTs + 86400000L;
-
-        // 1. Diet calories (饮食摄入)
-        Integer dietCalories = db.foodRecordDao().getTotalCaloriesByDateRangeSync(dateTs, dayEnd);
-        s.dietCalories = dietCalories != null ? dietCalories : 0;
-
-        // 1b. Protein and Carbs from food records (营养素)
-        List<com.cz.fitnessdiary.database.entity.FoodRecord> foodRecords = db.foodRecordDao().getByDateRangeSync(dateTs, dayEnd);
-        if (foodRecords != null) {
-            int totalProtein = 0;
-            int totalCarbs = 0;
-            int totalFat = 0;
-            for (com.cz.fitnessdiary.database.entity.FoodRecord f : foodRecords) {
-                totalProtein += (int) f.getProtein();
-                totalCarbs += (int) f.getCarbs();
-                totalFat += (int) f.getFat();
-            }
-            s.todayProtein = totalProtein;
-            s.todayCarbs = totalCarbs;
-            s.todayFat = totalFat;
+        return getSnapshots(dateTs, dateTs).get(0);
+    }
+
+    /**
+     * 批量获取日期区间内每天的健康数据快照
+     * 每张表只按区间查询一次（SQL 内按本地日期 GROUP BY），再在内存中组装每一天的快照，
+     * 避免逐日、逐表的同步查询
+     *
+     * @param startDay 起始日期的 0 点时间戳（包含）
+     * @param endDay   结束日期的 0 点时间戳（包含）
+     * @return 按日期升序排列的快照列表
+     */
+    public List<DailyHealthSnapshot> getSnapshots(long startDay, long endDay) {
+        List<Long> days = new ArrayList<>();
+        for (long d = startDay; d <= endDay; d += DAY_MS) {
+            days.add(d);
+        }
+        if (days.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        // 2. Training data (训练计划完成情况)
-        s.completedPlans = db.dailyLogDao().getTodayCompletedCountSync(dateTs);
-        // totalPlans 应从 training_plan 表计算当天安排的计划数，而非 daily_log 打卡数
-        // 否则未打卡时 totalPlans=0 会误判为「休息日无计划」
-        s.totalPlans = countScheduledPlans(dateTs);
+        long rangeEnd = endDay + DAY_MS;
+        // 活跃天数需要回看 6 天，体重/体脂趋势需要回看 7 天
+        long activityStart = startDay - 6 * DAY_MS;
+        long trendStart = startDay - 7 * DAY_MS;
 
-        List<TrainingPlan> allPlans = db.trainingPlanDao().getAllPlansList();
-        if (allPlans != null && !allPlans.isEmpty()) {
-            s.currentPlanName = allPlans.get(0).getName();
+        // 1. 饮食、饮水、睡眠、步数与打卡完成数直接读每日汇总表（主键区间查询）
+        Map<String, DailyRollup> rollupByDay = new HashMap<>();
+        List<DailyRollup> rollups = db.dailyRollupDao().getByDateRangeSync(activityStart, rangeEnd);
+        if (rollups != null) {
+            for (DailyRollup r : rollups) rollupByDay.put(DateUtils.formatDayKey(r.getDate()), r);
         }
 
-        // 3. Steps and step calories (步数与步数消耗)
-        StepRecord stepRecord = db.stepRecordDao().getByDateSync(dateTs);
-        s.steps = stepRecord != null ? stepRecord.getSteps() : 0;
-        s.stepCalories = (int) (s.steps * 0.04f);
-
-        // 4. Sleep (睡眠)
-        List<SleepRecord> sleepRecords = db.sleepRecordDao().getSleepRecordsByDateRangeSync(dateTs, dayEnd);
-        if (sleepRecords != null && !sleepRecords.isEmpty()) {
-            long totalSeconds = 0;
-            int qualitySum = 0;
-            for (SleepRecord r : sleepRecords) {
-                totalSeconds += r.getDuration();
-                qualitySum += r.getQuality();
-            }
-            s.sleepHours = totalSeconds / 3600.0;
-            s.sleepQuality = qualitySum / sleepRecords.size();
+        // 其余按天分组的区间聚合（每张表一次查询）
+        Map<String, MedicationRecordDao.DayMedication> medicationByDay = new HashMap<>();
+        List<MedicationRecordDao.DayMedication> medRows = db.medicationRecordDao().getDailyMedicationSync(startDay, rangeEnd);
+        if (medRows != null) {
+            for (MedicationRecordDao.DayMedication row : medRows) medicationByDay.put(row.day, row);
         }
 
-        // 5. Water (饮水)
-        s.waterMl = db.waterRecordDao().getTodayTotalSync(dateTs, dayEnd);
-
-        // 6. Medication (用药)
-        List<MedicationRecord> medRecords = db.medicationRecordDao().getRecordsByDateRangeSync(dateTs, dayEnd);
-        if (medRecords != null) {
-            int taken = 0;
-            int total = 0;
-            for (MedicationRecord m : medRecords) {
-                if (m.isTaken()) {
-                    taken++;
-                }
-                total += m.getDailyTotal();
-            }
-            s.medicationTaken = taken;
-            s.medicationTotal = total;
+        Map<String, Integer> bowelByDay = new HashMap<>();
+        List<BowelMovementDao.DayCount> bowelRows = db.bowelMovementDao().getDailyCountSync(startDay, rangeEnd);
+        if (bowelRows != null) {
+            for (BowelMovementDao.DayCount row : bowelRows) bowelByDay.put(row.day, row.count);
         }
 
-        // 7. Bowel movement (排便)
-        List<BowelMovement> bowelRecords = db.bowelMovementDao().getByDateRangeSync(dateTs, dayEnd);
-        s.bowelCount = bowelRecords != null ? bowelRecords.size() : 0;
-
-        // 8. Mood (心情)
-        MoodRecord moodRecord = db.moodRecordDao().getByDateSync(dateTs);
-        if (moodRecord != null) {
-            s.moodLevel = moodCodeToLevel(moodRecord.getMoodCode());
+        Map<Long, Integer> targetMinutesByDay = new HashMap<>();
+        List<DailyMetric> targetRows = db.dailyMetricDao().getRangeSync(DailyMetric.TARGET_MINUTES, startDay, rangeEnd);
+        if (targetRows != null) {
+            for (DailyMetric row : targetRows) targetMinutesByDay.put(row.getDate(), (int) Math.round(row.getValue()));
         }
 
-        // 9. Weight and trend (体重与趋势) — 当日优先，无则取最近一次
-        List<WeightRecord> dayWeightRecords = db.weightRecordDao().getRecordsByDateRangeSync(dateTs, dayEnd);
-        if (dayWeightRecords == null || dayWeightRecords.isEmpty()) {
-            // 当日无记录，取该日期之前最近的一次
-            List<WeightRecord> allBefore = db.weightRecordDao().getRecordsByDateRangeSync(0, dayEnd);
-            if (allBefore != null && !allBefore.isEmpty())
-                dayWeightRecords = java.util.Collections.singletonList(allBefore.get(allBefore.size() - 1));
-        }
-        if (dayWeightRecords != null && !dayWeightRecords.isEmpty()) {
-            s.weightKg = dayWeightRecords.get(0).getWeight();
-            long weekAgo = dateTs - 7 * 86400000L;
-            List<WeightRecord> weightRecords = db.weightRecordDao().getRecordsByDateRangeSync(weekAgo, dayEnd);
-            if (weightRecords != null && weightRecords.size() >= 2) {
-                float first = weightRecords.get(0).getWeight();
-                float last = weightRecords.get(weightRecords.size() - 1).getWeight();
-                s.weightTrend = first - last;
-            }
+        Map<String, MoodRecord> moodByDay = new HashMap<>();
+        List<MoodRecord> moodRecords = db.moodRecordDao().getByDateRangeSync(startDay, rangeEnd);
+        if (moodRecords != null) {
+            for (MoodRecord r : moodRecords) moodByDay.put(DateUtils.formatDayKey(r.getDate()), r);
         }
 
-        // 9b. Body fat (体脂率) + trend — 当日优先，无则取最近一次
-        List<com.cz.fitnessdiary.database.entity.BodyMeasurement> dayBfRecords =
-                db.bodyMeasurementDao().getByTypeAndDateRangeSync("BODY_FAT", dateTs, dayEnd);
-        if (dayBfRecords == null || dayBfRecords.isEmpty()) {
-            List<com.cz.fitnessdiary.database.entity.BodyMeasurement> allBefore =
-                    db.bodyMeasurementDao().getByTypeAndDateRangeSync("BODY_FAT", 0, dayEnd);
-            if (allBefore != null && !allBefore.isEmpty())
-                dayBfRecords = java.util.Collections.singletonList(allBefore.get(allBefore.size() - 1));
-        }
-        if (dayBfRecords != null && !dayBfRecords.isEmpty()) {
-            s.bodyFat = dayBfRecords.get(0).getValue();
-            long weekAgoTs = dateTs - 7 * 86400000L;
-            List<com.cz.fitnessdiary.database.entity.BodyMeasurement> bfHistory =
-                    db.bodyMeasurementDao().getByTypeAndDateRangeSync("BODY_FAT", weekAgoTs, dayEnd);
-            if (bfHistory != null && bfHistory.size() >= 2) {
-                float firstBf = bfHistory.get(0).getValue();
-                float lastBf = bfHistory.get(bfHistory.size() - 1).getValue();
-                s.bodyFatTrend = firstBf - lastBf; // positive = decreased (good)
-            }
-        }
+        // 2. 体重与体脂：区间 + 回看窗口一次取出，外加窗口之前最近的一条用于「无则取最近一次」
+        List<WeightRecord> weightWindow = db.weightRecordDao().getRecordsByDateRangeSync(trendStart, rangeEnd);
+        WeightRecord weightBefore = db.weightRecordDao().getLatestRecordBeforeSync(trendStart);
+        MeasureSeries weightSeries = MeasureSeries.ofWeights(weightWindow, weightBefore);
 
-        // 10. User profile, BMR, consecutive days and exercise calories
+        List<BodyMeasurement> bodyFatWindow =
+                db.bodyMeasurementDao().getByTypeAndDateRangeSync("BODY_FAT", trendStart, rangeEnd);
+        BodyMeasurement bodyFatBefore = db.bodyMeasurementDao().getLatestByTypeBeforeSync("BODY_FAT", trendStart);
+        MeasureSeries bodyFatSeries = MeasureSeries.ofMeasurements(bodyFatWindow, bodyFatBefore);
+
+        // 3. 与日期无关的数据只读一次
+        List<TrainingPlan> allPlans = db.trainingPlanDao().getAllPlansList();
+        String currentPlanName = allPlans != null && !allPlans.isEmpty() ? allPlans.get(0).getName() : null;
+        android.content.SharedPreferences sp = application.getSharedPreferences(
+                "fitness_diary_prefs", android.content.Context.MODE_PRIVATE);
+        String planFilterPrefix = resolvePlanFilterPrefix(sp);
         User user = db.userDao().getUserSync();
-        if (user != null) {
-            s.bmr = CalorieCalculatorUtils.calculateBMR(
-                    user.getGender(), user.getWeight(), user.getHeight(), user.getAge());
-
-            // Exercise calories from completed training plan durations
-            if (user.getWeight() > 0) {
-                List<TrainingRecordUtils.Entry> entries = TrainingRecordUtils.getCompletedEntries(
-                        db, dateTs, dayEnd);
-                int totalCal = 0;
-                double totalWeightedMet = 0;
-                int totalDurSec = 0;
-                for (TrainingRecordUtils.Entry entry : entries) {
-                    int dur = ExerciseMetTable.resolveDuration(
-                            entry.duration, 0, entry.sets, entry.reps, application);
-                    double met = ExerciseMetTable.getMetForExercise(entry.name, entry.category);
-                    totalCal += (int) (met * user.getWeight() * (dur / 3600.0));
-                    totalWeightedMet += met * dur;
-                    totalDurSec += dur;
-                }
-                    // 如果用户设了当天训练总时长，按加权平均MET重算运动消耗（与日历弹窗口径一致）
-                android.content.SharedPreferences sp = application.getSharedPreferences(
-                        "fitness_diary_prefs", android.content.Context.MODE_PRIVATE);
-                int targetMin = sp.getInt("target_minutes_" + dateTs, 0);
-                if (targetMin > 0 && totalDurSec > 0) {
-                    double avgMet = totalWeightedMet / totalDurSec;
-                    totalCal = (int) (avgMet * user.getWeight() * (targetMin / 60.0));
+        int consecutiveDays = StreakTracker.get(application).getCurrentStreak(false);
+
+        Map<String, List<TrainingRecordUtils.Entry>> entriesByDay = new HashMap<>();
+        if (user != null && user.getWeight() > 0) {
+            for (TrainingRecordUtils.Entry entry : TrainingRecordUtils.getCompletedEntries(db, startDay, rangeEnd)) {
+                String key = DateUtils.formatDayKey(entry.date);
+                List<TrainingRecordUtils.Entry> bucket = entriesByDay.get(key);
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    entriesByDay.put(key, bucket);
                 }
-                s.exerciseCalories = totalCal;
+                bucket.add(entry);
             }
         }
 
-        // 过去7天活跃天数 (任一健康数据>0即算活跃)
-        int activeDays = 0;
-        for (int d = 0; d < 7; d++) {
-            long ds = dateTs - (long) d * 86400000L;
-            long de = ds + 86400000L;
-            boolean active = false;
-            if (db.dailyLogDao().getTodayCompletedCountSync(ds) > 0) active = true;
-            if (!active) {
-                List<ExtraExerciseLog> extras = db.extraExerciseLogDao()
-                        .getLogsByDateRangeSync(ds, de);
-                if (extras != null) {
-                    for (ExtraExerciseLog extra : extras) {
-                        if (extra.isCompleted()) {
-                            active = true;
-                            break;
-                        }
-                    }
+        // 4. 在内存中组装每一天的快照
+        List<DailyHealthSnapshot> snapshots = new ArrayList<>(days.size());
+        for (long dateTs : days) {
+            String key = DateUtils.formatDayKey(dateTs);
+            DailyHealthSnapshot s = new DailyHealthSnapshot();
+
+            DailyRollup rollup = rollupByDay.get(key);
+            if (rollup != null) {
+                // Diet calories and macros (饮食摄入与营养素)
+                s.dietCalories = rollup.getCalories();
+                s.todayProtein = (int) rollup.getProtein();
+                s.todayCarbs = (int) rollup.getCarbs();
+                s.todayFat = (int) rollup.getFat();
+
+                // Training data (训练计划完成情况)
+                s.completedPlans = rollup.getCompletedPlans();
+
+                // Steps (步数)
+                s.steps = rollup.getSteps();
+
+                // Sleep (睡眠)
+                if (rollup.getSleepCount() > 0) {
+                    s.sleepHours = rollup.getSleepHours();
+                    s.sleepQuality = rollup.getSleepQualitySum() / rollup.getSleepCount();
                 }
+
+                // Water (饮水)
+                s.waterMl = rollup.getWaterMl();
             }
-            if (!active) { Integer kcal = db.foodRecordDao().getTotalCaloriesByDateRangeSync(ds, de); if (kcal != null && kcal > 0) active = true; }
-            if (!active) { List<SleepRecord> sl = db.sleepRecordDao().getSleepRecordsByDateRangeSync(ds, de); if (sl != null && !sl.isEmpty()) active = true; }
-            if (!active) { if (db.waterRecordDao().getTodayTotalSync(ds, de) > 0) active = true; }
-            if (!active) { StepRecord sr = db.stepRecordDao().getByDateSync(ds); if (sr != null && sr.getSteps() > 0) active = true; }
-            if (active) activeDays++;
-        }
-        s.activeDays7 = activeDays;
+            // totalPlans 应从 training_plan 表计算当天安排的计划数，而非 daily_log 打卡数
+            // 否则未打卡时 totalPlans=0 会误判为「休息日无计划」
+            s.totalPlans = countScheduledPlans(allPlans, planFilterPrefix, dateTs);
+            s.currentPlanName = currentPlanName;
+            s.stepCalories = (int) (s.steps * 0.04f);
+
+            // Medication (用药)
+            MedicationRecordDao.DayMedication medication = medicationByDay.get(key);
+            if (medication != null) {
+                s.medicationTaken = medication.taken;
+                s.medicationTotal = medication.total;
+            }
+
+            // Bowel movement (排便)
+            s.bowelCount = getOrZero(bowelByDay, key);
 
-        // Consecutive days from all daily log records
-        List<Long> checkedDates = getCheckedDateTimestamps();
-        s.consecutiveDays = DateUtils.calculateConsecutiveDays(checkedDates);
+            // Mood (心情)
+            MoodRecord moodRecord = moodByDay.get(key);
+            if (moodRecord != null) {
+                s.moodLevel = moodCodeToLevel(moodRecord.getMoodCode());
+            }
 
-        // 11. Compute energy balance
-        s.computeEnergyBalance();
+            // Weight and body fat with trend (体重/体脂与趋势) — 当日优先，无则取最近一次
+            if (weightSeries.hasValueAt(dateTs)) {
+                s.weightKg = weightSeries.valueAt(dateTs);
+                s.weightTrend = weightSeries.trendAt(dateTs);
+            }
+            if (bodyFatSeries.hasValueAt(dateTs)) {
+                s.bodyFat = bodyFatSeries.valueAt(dateTs);
+                s.bodyFatTrend = bodyFatSeries.trendAt(dateTs); // positive = decreased (good)
+            }
 
-        return s;
+            // User profile, BMR and exercise calories
+            if (user != null) {
+                s.bmr = CalorieCalculatorUtils.calculateBMR(
+                        user.getGender(), user.getWeight(), user.getHeight(), user.getAge());
+                if (user.getWeight() > 0) {
+                    s.exerciseCalories = computeExerciseCalories(
+                            entriesByDay.get(key), user.getWeight(),
+                            targetMinutesByDay.getOrDefault(dateTs, 0));
+                }
+            }
+
+            // 过去7天活跃天数 (任一健康数据>0即算活跃)
+            int activeDays = 0;
+            for (int d = 0; d < 7; d++) {
+                DailyRollup dayRollup = rollupByDay.get(DateUtils.formatDayKey(dateTs - (long) d * DAY_MS));
+                boolean active = dayRollup != null
+                        && (dayRollup.getCompletedCount() > 0
+                        || dayRollup.getCalories() > 0
+                        || dayRollup.getSleepCount() > 0
+                        || dayRollup.getWaterMl() > 0
+                        || dayRollup.getSteps() > 0);
+                if (active) activeDays++;
+            }
+            s.activeDays7 = activeDays;
+
+            // Consecutive days from all daily log records
+            s.consecutiveDays = consecutiveDays;
+
+            // Compute energy balance
+            s.computeEnergyBalance();
+            snapshots.add(s);
+        }
+        return snapshots;
+    }
+
+    /**
+     * 根据当日已完成训练条目计算运动消耗
+     * 如果用户设了当天训练总时长，按加权平均MET重算运动消耗（与日历弹窗口径一致）
+     */
+    private int computeExerciseCalories(List<TrainingRecordUtils.Entry> entries, float userWeight, int targetMin) {
+        if (entries == null) return 0;
+        int totalCal = 0;
+        double totalWeightedMet = 0;
+        int totalDurSec = 0;
+        for (TrainingRecordUtils.Entry entry : entries) {
+            int dur = ExerciseMetTable.resolveDuration(
+                    entry.duration, 0, entry.sets, entry.reps, application);
+            double met = ExerciseMetTable.getMetForExercise(entry.name, entry.category);
+            totalCal += (int) (met * userWeight * (dur / 3600.0));
+            totalWeightedMet += met * dur;
+            totalDurSec += dur;
+        }
+        if (targetMin > 0 && totalDurSec > 0) {
+            double avgMet = totalWeightedMet / totalDurSec;
+            totalCal = (int) (avgMet * userWeight * (targetMin / 60.0));
+        }
+        return totalCal;
     }
 
     /**
@@ -264,10 +280,7 @@ public class HealthAggregationRepository {
         List<Float> sleepValues = new ArrayList<>();
         List<Float> weightValues = new ArrayList<>();
 
-        for (int i = 6; i >= 0; i--) {
-            long dayTs = today - i * 86400000L;
-            DailyHealthSnapshot snapshot = getDateSnapshot(dayTs);
-
+        for (DailyHealthSnapshot snapshot : getSnapshots(today - 6 * DAY_MS, today)) {
             // 训练消耗（运动消耗 + 步数消耗）
             float exerciseCal = (float) (snapshot.exerciseCalories + snapshot.stepCalories);
             exerciseValues.add(exerciseCal);
@@ -308,6 +321,11 @@ public class HealthAggregationRepository {
         return HealthScoreCalculator.calculateBreakdown(todaySnapshot, profile);
     }
 
+    private static int getOrZero(Map<String, Integer> map, String key) {
+        Integer value = map.get(key);
+        return value != null ? value : 0;
+    }
+
     /**
      * 将心情代码映射为等级 (1-5)
      */
@@ -332,50 +350,24 @@ public class HealthAggregationRepository {
     }
 
     /**
-     * 获取所有有打卡记录的日期时间戳，按降序排列
+     * 读取当前计划模式，返回 training_plan.category 的过滤前缀
      */
-    private List<Long> getCheckedDateTimestamps() {
-        List<DailyLog> allLogs = db.dailyLogDao().getAllLogsSync();
-        Set<Long> uniqueDates = new HashSet<>();
-        if (allLogs != null) {
-            for (DailyLog log : allLogs) {
-                if (log.isCompleted()) uniqueDates.add(DateUtils.getDayStartTimestamp(log.getDate()));
-            }
-        }
-        List<ExtraExerciseLog> extraLogs = db.extraExerciseLogDao().getAllLogsSync();
-        if (extraLogs != null) {
-            for (ExtraExerciseLog log : extraLogs) {
-                if (log.isCompleted()) uniqueDates.add(DateUtils.getDayStartTimestamp(log.getDate()));
-            }
-        }
-        if (uniqueDates.isEmpty()) {
-            return Collections.emptyList();
+    private static String resolvePlanFilterPrefix(android.content.SharedPreferences sp) {
+        String mode = sp.getString("current_plan_mode", "基础");
+        if ("自定义".equals(mode)) {
+            String activePlan = sp.getString("active_personal_plan_name", "默认自定义计划");
+            return "自定义-" + activePlan + "-";
         }
-        List<Long> sorted = new ArrayList<>(uniqueDates);
-        Collections.sort(sorted, Collections.reverseOrder());
-        return sorted;
+        return mode + "-";
     }
 
     /**
      * 从 training_plan 表计算指定日期安排的计划数（按模式+星期过滤）
      * 与 CheckInViewModel.getSelectedDatePlans() 保持完全一致的过滤逻辑
      */
-    private int countScheduledPlans(long dateTs) {
-        List<TrainingPlan> allPlans = this.db.trainingPlanDao().getAllPlansList();
+    private static int countScheduledPlans(List<TrainingPlan> allPlans, String filterPrefix, long dateTs) {
         if (allPlans == null) return 0;
 
-        // 读当前计划模式 + 活跃个人计划名
-        android.content.SharedPreferences sp = application.getSharedPreferences(
-                "fitness_diary_prefs", android.content.Context.MODE_PRIVATE);
-        String mode = sp.getString("current_plan_mode", "基础");
-        String filterPrefix;
-        if ("自定义".equals(mode)) {
-            String activePlan = sp.getString("active_personal_plan_name", "默认自定义计划");
-            filterPrefix = "自定义-" + activePlan + "-";
-        } else {
-            filterPrefix = mode + "-";
-        }
-
         // 计算星期几
         java.util.Calendar calendar = java.util.Calendar.getInstance();
         calendar.setTimeInMillis(dateTs);
@@ -403,4 +395,75 @@ public class HealthAggregationRepository {
         }
         return count;
     }
+
+    /**
+     * 按时间升序的体重/体脂序列，用二分查找在内存中复现逐日查询的口径：
+     * 当日取第一条，无则取当日结束前最近一条；趋势为 [当日-7天, 当日结束) 内首尾之差
+     */
+    private static final class MeasureSeries {
+        private final long[] timestamps;
+        private final float[] values;
+        private final boolean hasBefore;
+        private final float beforeValue;
+
+        private MeasureSeries(long[] timestamps, float[] values, boolean hasBefore, float beforeValue) {
+            this.timestamps = timestamps;
+            this.values = values;
+            this.hasBefore = hasBefore;
+            this.beforeValue = beforeValue;
+        }
+
+        static MeasureSeries ofWeights(List<WeightRecord> window, WeightRecord before) {
+            int n = window != null ? window.size() : 0;
+            long[] ts = new long[n];
+            float[] vals = new float[n];
+            for (int i = 0; i < n; i++) {
+                ts[i] = window.get(i).getTimestamp();
+                vals[i] = window.get(i).getWeight();
+            }
+            return new MeasureSeries(ts, vals, before != null, before != null ? before.getWeight() : 0f);
+        }
+
+        static MeasureSeries ofMeasurements(List<BodyMeasurement> window, BodyMeasurement before) {
+            int n = window != null ? window.size() : 0;
+            long[] ts = new long[n];
+            float[] vals = new float[n];
+            for (int i = 0; i < n; i++) {
+                ts[i] = window.get(i).getTimestamp();
+                vals[i] = window.get(i).getValue();
+            }
+            return new MeasureSeries(ts, vals, before != null, before != null ? before.getValue() : 0f);
+        }
+
+        boolean hasValueAt(long dayStart) {
+            return lowerBound(dayStart + DAY_MS) > 0 || hasBefore;
+        }
+
+        float valueAt(long dayStart) {
+            int first = lowerBound(dayStart);
+            if (first < timestamps.length && timestamps[first] < dayStart + DAY_MS) {
+                return values[first];
+            }
+            int latest = lowerBound(dayStart + DAY_MS) - 1;
+            return latest >= 0 ? values[latest] : beforeValue;
+        }
+
+        float trendAt(long dayStart) {
+            int from = lowerBound(dayStart - 7 * DAY_MS);
+            int to = lowerBound(dayStart + DAY_MS);
+            return to - from >= 2 ? values[from] - values[to - 1] : 0f;
+        }
+
+        /** 第一个时间戳 >= ts 的下标 */
+        private int lowerBound(long ts) {
+            int lo = 0;
+            int hi = timestamps.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (timestamps[mid] < ts) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
 }
@@ -7,10 +7,10 @@ import androidx.lifecycle.LiveData;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.MedicationRecordDao;
 import com.cz.fitnessdiary.database.entity.MedicationRecord;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class MedicationRecordRepository {
 
@@ -19,7 +19,7 @@ public class MedicationRecordRepository {
 
     public MedicationRecordRepository(Application application) {
         dao = AppDatabase.getInstance(application).medicationRecordDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public void insert(MedicationRecord record) {
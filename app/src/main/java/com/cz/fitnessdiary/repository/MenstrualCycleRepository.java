@@ -7,10 +7,10 @@ import androidx.lifecycle.LiveData;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.MenstrualCycleDao;
 import com.cz.fitnessdiary.database.entity.MenstrualCycle;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class MenstrualCycleRepository {
 
@@ -19,7 +19,7 @@ public class MenstrualCycleRepository {
 
     public MenstrualCycleRepository(Application application) {
         dao = AppDatabase.getInstance(application).menstrualCycleDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public void insert(MenstrualCycle record) {
@@ -7,9 +7,9 @@ import androidx.lifecycle.LiveData;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.MoodRecordDao;
 import com.cz.fitnessdiary.database.entity.MoodRecord;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class MoodRecordRepository {
 
@@ -18,7 +18,7 @@ public class MoodRecordRepository {
 
     public MoodRecordRepository(Application application) {
         dao = AppDatabase.getInstance(application).moodRecordDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public void insertOrUpdate(MoodRecord record) {
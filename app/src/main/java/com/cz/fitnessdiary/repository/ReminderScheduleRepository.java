@@ -7,10 +7,10 @@ import androidx.lifecycle.LiveData;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.ReminderScheduleDao;
 import com.cz.fitnessdiary.database.entity.ReminderSchedule;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class ReminderScheduleRepository {
 
@@ -19,7 +19,7 @@ public class ReminderScheduleRepository {
 
     public ReminderScheduleRepository(Application application) {
         dao = AppDatabase.getInstance(application).reminderScheduleDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public void insert(ReminderSchedule schedule) {
@@ -8,10 +8,10 @@ import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.SleepRecordDao;
 import com.cz.fitnessdiary.database.entity.SleepRecord;
 import com.cz.fitnessdiary.ui.widget.HomeWidgetProvider;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class SleepRecordRepository {
 
@@ -23,7 +23,7 @@ public class SleepRecordRepository {
         this.application = application;
         AppDatabase db = AppDatabase.getInstance(application);
         sleepRecordDao = db.sleepRecordDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public void insert(SleepRecord sleepRecord) {
@@ -1,18 +1,30 @@
 package com.cz.fitnessdiary.repository;
 
 import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.cz.fitnessdiary.database.AppDatabase;
+import com.cz.fitnessdiary.database.dao.SocialFeedDao;
+import com.cz.fitnessdiary.database.entity.SocialFeedPost;
 import com.cz.fitnessdiary.model.FriendUiModel;
 import com.cz.fitnessdiary.model.SocialPostUiModel;
 import com.cz.fitnessdiary.service.CloudApiClient;
+import com.cz.fitnessdiary.service.TokenStore;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.TextUtilsCompat;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -20,19 +32,50 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 
 /** Social implementation backed by CloudBase PostgreSQL RPC and RLS. */
 public final class SocialRepository {
+    private static final String TAG = "SocialRepository";
+    /** Posts per fd_feed page; the RPC caps a page at 50. */
+    static final int FEED_PAGE_SIZE = 20;
+    /** Cached posts older than this are reloaded from the first page to pick up like counts and deletions. */
+    private static final long FEED_FULL_REFRESH_MS = 10 * 60 * 1000L;
+    private static final String FEED_PREFS = "social_feed_cache";
+    private static final String KEY_FULL_REFRESH_AT = "full_refresh_at";
+    private static final String KEY_VIEWER_ID = "viewer_id";
+
     public interface Callback<T> {
         void onSuccess(T value);
         void onError(Throwable error);
     }
 
+    /** Cached feed after a refresh or page load. */
+    public static final class FeedPage {
+        public final List<SocialPostUiModel> posts;
+        /** True once a page came back short, i.e. there is nothing older to load. */
+        public final boolean endReached;
+
+        FeedPage(List<SocialPostUiModel> posts, boolean endReached) {
+            this.posts = posts;
+            this.endReached = endReached;
+        }
+    }
+
     private final CloudApiClient api;
     private final Gson gson = new Gson();
+    private final AppDatabase database;
+    private final SocialFeedDao feedDao;
+    private final TokenStore tokenStore;
+    private final SharedPreferences feedPrefs;
+    private final ExecutorService feedIO = AppExecutors.get().newSerialDiskIO();
 
     public SocialRepository(@NonNull Application application) {
         api = CloudApiClient.getInstance();
+        database = AppDatabase.getInstance(application);
+        feedDao = database.socialFeedDao();
+        tokenStore = new TokenStore(application);
+        feedPrefs = application.getSharedPreferences(FEED_PREFS, Context.MODE_PRIVATE);
     }
 
     public void searchFriend(String friendCode, Callback<FriendUiModel> callback) {
@@ -67,10 +110,66 @@ public final class SocialRepository {
         api.rpc("fd_respond_friend_request", body, voidCallback(callback));
     }
 
-    public void loadFeed(String cursor, Callback<List<SocialPostUiModel>> callback) {
-        JsonObject body = new JsonObject();
-        body.addProperty("p_limit", 20);
-        api.rpc("fd_feed", body, map(callback, this::postList));
+    /** Posts already cached for the signed-in account, without touching the network. */
+    public void loadCachedFeed(Callback<List<SocialPostUiModel>> callback) {
+        String viewer = viewerId();
+        feedIO.execute(() -> callback.onSuccess(toUiModels(feedDao.getAllSync(viewer))));
+    }
+
+    /**
+     * Fetches only posts newer than the newest cached one. The first page replaces the cache instead
+     * when the cache is empty, stale, or belongs to another account, or when the delta fills a whole
+     * page (there may be a gap between it and the cached posts).
+     */
+    public void refreshFeed(Callback<FeedPage> callback) {
+        String viewer = viewerId();
+        feedIO.execute(() -> {
+            SocialFeedPost newest = isFullRefreshDue(viewer) ? null : feedDao.getNewestSync(viewer);
+            JsonObject body = new JsonObject();
+            body.addProperty("p_limit", FEED_PAGE_SIZE);
+            if (newest != null) {
+                body.addProperty("p_after_created_at", newest.getCreatedAt());
+                body.addProperty("p_after_id", newest.getPostId());
+            }
+            api.rpc("fd_feed", body, feedCallback(viewer, callback, rows -> {
+                boolean replace = newest == null || rows.size() >= FEED_PAGE_SIZE;
+                if (replace) {
+                    database.runInTransaction(() -> {
+                        feedDao.clear();
+                        feedDao.upsertAll(rows);
+                    });
+                    feedPrefs.edit()
+                            .putString(KEY_VIEWER_ID, viewer)
+                            .putLong(KEY_FULL_REFRESH_AT, System.currentTimeMillis())
+                            .apply();
+                } else if (!rows.isEmpty()) {
+                    feedDao.upsertAll(rows);
+                }
+                return replace && rows.size() < FEED_PAGE_SIZE;
+            }));
+        });
+    }
+
+    /** Loads the page before the oldest cached post and appends it to the cache. */
+    public void loadMoreFeed(Callback<FeedPage> callback) {
+        String viewer = viewerId();
+        feedIO.execute(() -> {
+            SocialFeedPost oldest = isFullRefreshDue(viewer) ? null : feedDao.getOldestSync(viewer);
+            if (oldest == null) {
+                refreshFeed(callback);
+                return;
+            }
+            JsonObject body = new JsonObject();
+            body.addProperty("p_limit", FEED_PAGE_SIZE);
+            body.addProperty("p_before_created_at", oldest.getCreatedAt());
+            body.addProperty("p_before_id", oldest.getPostId());
+            api.rpc("fd_feed", body, feedCallback(viewer, callback, rows -> {
+                if (!rows.isEmpty()) {
+                    feedDao.upsertAll(rows);
+                }
+                return rows.size() < FEED_PAGE_SIZE;
+            }));
+        });
     }
 
     public void updateProfile(String nickname, String bio, Callback<Void> callback) {
@@ -139,25 +238,30 @@ public final class SocialRepository {
         JsonObject body = new JsonObject();
         body.addProperty("p_post_id", postId);
         body.addProperty("p_liked", liked);
-        api.rpc("fd_toggle_like", body, voidCallback(callback));
+        api.rpc("fd_toggle_like", body, voidCallback(updatingFeedCache(callback, () -> {
+            SocialFeedPost cached = feedDao.getByIdSync(postId);
+            if (cached != null && cached.isLiked() != liked) {
+                feedDao.updateLike(postId, liked, Math.max(0, cached.getLikeCount() + (liked ? 1 : -1)));
+            }
+        })));
     }
 
     public void deletePost(String postId, Callback<Void> callback) {
         JsonObject body = new JsonObject();
         body.addProperty("p_post_id", postId);
-        api.rpc("fd_delete_post", body, voidCallback(callback));
+        api.rpc("fd_delete_post", body, voidCallback(updatingFeedCache(callback, () -> feedDao.delete(postId))));
     }
 
     public void removeFriend(String userId, Callback<Void> callback) {
         JsonObject body = new JsonObject();
         body.addProperty("p_user_id", userId);
-        api.rpc("fd_remove_friend", body, voidCallback(callback));
+        api.rpc("fd_remove_friend", body, voidCallback(updatingFeedCache(callback, this::invalidateFeed)));
     }
 
     public void blockUser(String userId, Callback<Void> callback) {
         JsonObject body = new JsonObject();
         body.addProperty("p_user_id", userId);
-        api.rpc("fd_block_user", body, voidCallback(callback));
+        api.rpc("fd_block_user", body, voidCallback(updatingFeedCache(callback, this::invalidateFeed)));
     }
 
     public void reportContent(String type, String id, String reason, Callback<Void> callback) {
@@ -168,6 +272,73 @@ public final class SocialRepository {
         api.rpc("fd_report", body, voidCallback(callback));
     }
 
+    private String viewerId() {
+        String accountId = tokenStore.getAccountId();
+        return accountId == null ? "" : accountId;
+    }
+
+    private boolean isFullRefreshDue(String viewer) {
+        return !viewer.equals(feedPrefs.getString(KEY_VIEWER_ID, null))
+                || System.currentTimeMillis() - feedPrefs.getLong(KEY_FULL_REFRESH_AT, 0L) > FEED_FULL_REFRESH_MS;
+    }
+
+    /** Posts of a removed or blocked friend must disappear, so the next refresh reloads the first page. */
+    private void invalidateFeed() {
+        feedPrefs.edit().remove(KEY_FULL_REFRESH_AT).apply();
+    }
+
+    /** Applies a local cache update after a successful write; cache failures do not fail the action. */
+    private Callback<Void> updatingFeedCache(Callback<Void> callback, Runnable update) {
+        return new Callback<Void>() {
+            @Override
+            public void onSuccess(Void value) {
+                feedIO.execute(() -> {
+                    try {
+                        update.run();
+                    } catch (RuntimeException error) {
+                        Log.w(TAG, "Failed to update feed cache", error);
+                    }
+                    callback.onSuccess(null);
+                });
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                callback.onError(error);
+            }
+        };
+    }
+
+    /** Parses a fd_feed page, stores it on the cache executor and reports the whole cached feed. */
+    private CloudApiClient.ResultCallback feedCallback(String viewer, Callback<FeedPage> callback,
+                                                       FeedWriter writer) {
+        return new CloudApiClient.ResultCallback() {
+            @Override
+            public void onSuccess(JsonElement body) {
+                List<SocialFeedPost> rows;
+                try {
+                    rows = feedRows(unwrap(body), viewer);
+                } catch (RuntimeException error) {
+                    callback.onError(error);
+                    return;
+                }
+                feedIO.execute(() -> {
+                    try {
+                        boolean endReached = writer.write(rows);
+                        callback.onSuccess(new FeedPage(toUiModels(feedDao.getAllSync(viewer)), endReached));
+                    } catch (RuntimeException error) {
+                        callback.onError(error);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                callback.onError(error);
+            }
+        };
+    }
+
     private CloudApiClient.ResultCallback voidCallback(Callback<Void> callback) {
         return map(callback, ignored -> null);
     }
@@ -213,11 +384,15 @@ public final class SocialRepository {
                 string(row, "requestId", "request_id", "id"));
     }
 
-    private List<SocialPostUiModel> postList(Object value) {
-        List<SocialPostUiModel> result = new ArrayList<>();
+    private List<SocialFeedPost> feedRows(Object value, String viewer) {
+        List<SocialFeedPost> result = new ArrayList<>();
         for (Object item : asList(value)) {
             Map<String, Object> row = asMap(item);
             Map<String, Object> author = asMap(row.get("author"));
+            String postId = string(row, "postId", "post_id", "id");
+            String createdAt = string(row, "createdAt", "created_at");
+            // Rows without an id or timestamp cannot serve as a page cursor
+            if (TextUtilsCompat.isBlank(postId) || TextUtilsCompat.isBlank(createdAt)) continue;
             String avatarUrl = string(row, "avatar_url", "avatarUrl", "avatar_object_key");
             if (TextUtilsCompat.isBlank(avatarUrl)) {
                 avatarUrl = string(author, "avatar_url", "avatarUrl", "avatar_object_key");
@@ -226,14 +401,11 @@ public final class SocialRepository {
             if (TextUtilsCompat.isBlank(authorName)) {
                 authorName = string(row, "nickname", "authorName");
             }
-            result.add(new SocialPostUiModel(
-                    string(row, "postId", "post_id", "id"),
-                    authorName,
-                    avatarUrl,
-                    string(row, "content", "text"),
-                    string(row, "timeLabel", "createdAt", "created_at"),
-                    summaryLines(asMap(row.containsKey("healthSummary")
-                            ? row.get("healthSummary") : row.get("health_summary"))),
+            List<String> lines = summaryLines(asMap(row.containsKey("healthSummary")
+                    ? row.get("healthSummary") : row.get("health_summary")));
+            result.add(new SocialFeedPost(postId, viewer, authorName, avatarUrl,
+                    string(row, "content", "text"), createdAt, createdMicros(createdAt),
+                    joinLines(lines),
                     integer(row, "likeCount", "like_count"),
                     bool(row, "liked"),
                     bool(row, "ownedByCurrentUser", "owned_by_current_user", "isMine")));
@@ -241,6 +413,40 @@ public final class SocialRepository {
         return result;
     }
 
+    private static List<SocialPostUiModel> toUiModels(List<SocialFeedPost> rows) {
+        List<SocialPostUiModel> result = new ArrayList<>(rows.size());
+        for (SocialFeedPost row : rows) {
+            result.add(new SocialPostUiModel(row.getPostId(), row.getAuthorName(), row.getAvatarUrl(),
+                    row.getContent(), row.getCreatedAt(), splitLines(row.getSummaryLines()),
+                    row.getLikeCount(), row.isLiked(), row.isOwned()));
+        }
+        return result;
+    }
+
+    /** Microseconds since the epoch for local ordering; the feed returns PostgreSQL timestamptz in ISO form. */
+    static long createdMicros(String createdAt) {
+        try {
+            ZonedDateTime time = ZonedDateTime.parse(createdAt, DateTimeFormatter.ISO_DATE_TIME);
+            return time.toEpochSecond() * 1_000_000L + time.getNano() / 1_000;
+        } catch (RuntimeException error) {
+            return 0L;
+        }
+    }
+
+    static String joinLines(List<String> lines) {
+        StringBuilder builder = new StringBuilder();
+        for (String line : lines) {
+            if (builder.length() > 0) builder.append('\n');
+            builder.append(line.replace('\n', ' '));
+        }
+        return builder.toString();
+    }
+
+    static List<String> splitLines(@Nullable String joined) {
+        if (TextUtilsCompat.isBlank(joined)) return Collections.emptyList();
+        return Arrays.asList(joined.split("\n"));
+    }
+
     @SuppressWarnings("unchecked")
     private Map<String, Object> asMap(Object value) {
         return value instanceof Map<?, ?> ? (Map<String, Object>) value : Collections.emptyMap();
@@ -288,4 +494,9 @@ public final class SocialRepository {
     private interface Mapper<T> {
         T map(Object value);
     }
+
+    private interface FeedWriter {
+        /** Stores a fetched page and returns whether the end of the feed was reached. */
+        boolean write(List<SocialFeedPost> rows);
+    }
 }
@@ -7,10 +7,10 @@ import androidx.lifecycle.LiveData;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.StepRecordDao;
 import com.cz.fitnessdiary.database.entity.StepRecord;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class StepRecordRepository {
 
@@ -19,7 +19,7 @@ public class StepRecordRepository {
 
     public StepRecordRepository(Application application) {
         dao = AppDatabase.getInstance(application).stepRecordDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public void insertOrUpdate(StepRecord record) {
@@ -0,0 +1,103 @@
+package com.cz.fitnessdiary.repository;
+
+import android.content.Context;
+
+import com.cz.fitnessdiary.database.AppDatabase;
+import com.cz.fitnessdiary.database.dao.DailyRollupDao;
+import com.cz.fitnessdiary.database.entity.DailyRollup;
+import com.cz.fitnessdiary.utils.TimeBuckets;
+
+import java.util.List;
+
+/**
+ * 报表时间序列仓库
+ * 饮食、喝水、睡眠、步数、训练的每日合计都在 daily_rollup 中，
+ * 任意区间只需一次范围查询，再由 TimeBuckets 一次遍历分到日 / 周 / 月桶中。
+ * 所有方法均为同步方法，需在后台线程调用
+ */
+public class TimeSeriesRepository {
+
+    private final DailyRollupDao rollupDao;
+
+    public TimeSeriesRepository(Context context) {
+        rollupDao = AppDatabase.getInstance(context).dailyRollupDao();
+    }
+
+    /**
+     * 区间内各项每日合计的分桶序列
+     */
+    public DailySeries loadDailySeries(TimeBuckets buckets) {
+        DailySeries series = new DailySeries(buckets);
+        List<DailyRollup> rows = rollupDao.getByDateRangeSync(buckets.getStart(), buckets.getEnd());
+        if (rows != null) {
+            for (DailyRollup row : rows) {
+                series.accept(row);
+            }
+        }
+        return series;
+    }
+
+    /**
+     * 一个区间的分桶结果，各序列的值单位与 daily_rollup 列一致
+     */
+    public static final class DailySeries {
+        public final TimeBuckets buckets;
+        public final TimeBuckets.Series calories;
+        public final TimeBuckets.Series foodCount;
+        public final TimeBuckets.Series waterMl;
+        public final TimeBuckets.Series sleepSeconds;
+        public final TimeBuckets.Series sleepQualitySum;
+        public final TimeBuckets.Series sleepCount;
+        public final TimeBuckets.Series steps;
+        public final TimeBuckets.Series workouts;
+        private int trainingDays;
+
+        DailySeries(TimeBuckets buckets) {
+            this.buckets = buckets;
+            calories = buckets.newSeries();
+            foodCount = buckets.newSeries();
+            waterMl = buckets.newSeries();
+            sleepSeconds = buckets.newSeries();
+            sleepQualitySum = buckets.newSeries();
+            sleepCount = buckets.newSeries();
+            steps = buckets.newSeries();
+            workouts = buckets.newSeries();
+        }
+
+        void accept(DailyRollup row) {
+            long date = row.getDate();
+            calories.add(date, row.getCalories());
+            foodCount.add(date, row.getFoodCount());
+            waterMl.add(date, row.getWaterMl());
+            sleepSeconds.add(date, row.getSleepSeconds());
+            sleepQualitySum.add(date, row.getSleepQualitySum());
+            sleepCount.add(date, row.getSleepCount());
+            steps.add(date, row.getSteps());
+            if (workouts.add(date, row.getCompletedCount()) >= 0 && row.getCompletedCount() > 0) {
+                trainingDays++;
+            }
+        }
+
+        /**
+         * 区间内有完成训练的天数（与分桶粒度无关）
+         */
+        public int getTrainingDays() {
+            return trainingDays;
+        }
+
+        /**
+         * 有睡眠记录的桶内平均质量，再对这些桶取平均
+         */
+        public float getAverageSleepQuality() {
+            float total = 0f;
+            int n = 0;
+            for (int i = 0; i < buckets.size(); i++) {
+                if (sleepCount.sum(i) > 0 && sleepQualitySum.sum(i) > 0) {
+                    total += (float) sleepQualitySum.sum(i) / sleepCount.sum(i);
+                    n++;
+                }
+            }
+            return n > 0 ? total / n : 0f;
+        }
+    }
+}
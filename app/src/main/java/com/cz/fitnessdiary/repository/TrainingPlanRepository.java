@@ -8,10 +8,10 @@ import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.TrainingPlanDao;
 import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.ui.widget.HomeWidgetProvider;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 训练计划数据仓库
@@ -29,7 +29,7 @@ public class TrainingPlanRepository {
         AppDatabase database = AppDatabase.getInstance(application);
         trainingPlanDao = database.trainingPlanDao();
         allPlans = trainingPlanDao.getAllPlans();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     /**
@@ -44,7 +44,7 @@ public class TrainingPlanRepository {
      */
     public List<TrainingPlan> getAllPlansSync() {
         try {
-            return executorService.submit(() -> trainingPlanDao.getAllPlansList()).get();
+            return AppExecutors.await(executorService, () -> trainingPlanDao.getAllPlansList());
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -206,7 +206,7 @@ public class TrainingPlanRepository {
      */
     public TrainingPlan getPlanById(int planId) {
         try {
-            return executorService.submit(() -> trainingPlanDao.getPlanById(planId)).get();
+            return AppExecutors.await(executorService, () -> trainingPlanDao.getPlanById(planId));
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -8,9 +8,9 @@ import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.UserDao;
 import com.cz.fitnessdiary.database.entity.User;
 import com.cz.fitnessdiary.ui.widget.HomeWidgetProvider;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 用户数据仓库 - 2.0 版本
@@ -28,7 +28,7 @@ public class UserRepository {
         AppDatabase database = AppDatabase.getInstance(context);
         userDao = database.userDao();
         user = userDao.getUser();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
     
     public LiveData<User> getUser() {
@@ -3,23 +3,29 @@ package com.cz.fitnessdiary.repository;
 import android.app.Application;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.WeightRecordDao;
 import com.cz.fitnessdiary.database.entity.WeightRecord;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class WeightRecordRepository {
 
+    private static final int PAGE_SIZE = 50;
+
     private final WeightRecordDao dao;
     private final ExecutorService executorService;
 
     public WeightRecordRepository(Application application) {
         dao = AppDatabase.getInstance(application).weightRecordDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
     }
 
     public void insert(WeightRecord record) {
@@ -50,8 +56,17 @@ public class WeightRecordRepository {
         return dao.getRecordsByDateRange(startTs, endTs);
     }
 
-    public LiveData<List<WeightRecord>> getAllRecords() {
-        return dao.getAllRecords();
+    /**
+     * 分页加载全部体重记录（最新的在前）
+     */
+    public LiveData<PagingData<WeightRecord>> getAllRecordsPaged() {
+        Pager<Integer, WeightRecord> pager = new Pager<>(
+                new PagingConfig(PAGE_SIZE, PAGE_SIZE, false), dao::getAllRecordsPaged);
+        return PagingLiveData.getLiveData(pager);
+    }
+
+    public LiveData<List<WeightRecord>> getRecentRecords(int limit) {
+        return dao.getRecentRecords(limit);
     }
 
     public List<WeightRecord> getRecordsByDateRangeSync(long startTs, long endTs) {
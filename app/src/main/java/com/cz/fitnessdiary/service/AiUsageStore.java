@@ -17,6 +17,8 @@ public final class AiUsageStore {
     private static final String KEY_MONTH_PROMPT = "month_prompt";
     private static final String KEY_MONTH_COMPLETION = "month_completion";
     private static final String KEY_CACHE_HIT = "cache_hit";
+    private static final String KEY_DAY_CACHE_HIT = "day_cache_hit";
+    private static final String KEY_MONTH_CACHE_HIT = "month_cache_hit";
     private static Context appContext;
 
     private AiUsageStore() {
@@ -32,7 +34,7 @@ public final class AiUsageStore {
             int cacheHitTokens) {
         if (appContext == null) return;
         SharedPreferences prefs = appContext.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
-        String day = new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date());
+        String day = todayKey();
         String month = day.substring(0, 7);
         SharedPreferences.Editor editor = prefs.edit();
         boolean sameDay = day.equals(prefs.getString(KEY_DAY, ""));
@@ -41,13 +43,39 @@ public final class AiUsageStore {
         int dayCompletion = sameDay ? prefs.getInt(KEY_DAY_COMPLETION, 0) : 0;
         int monthPrompt = sameMonth ? prefs.getInt(KEY_MONTH_PROMPT, 0) : 0;
         int monthCompletion = sameMonth ? prefs.getInt(KEY_MONTH_COMPLETION, 0) : 0;
+        int dayCacheHit = sameDay ? prefs.getInt(KEY_DAY_CACHE_HIT, 0) : 0;
+        int monthCacheHit = sameMonth ? prefs.getInt(KEY_MONTH_CACHE_HIT, 0) : 0;
         editor.putString(KEY_DAY, day).putString(KEY_MONTH, month);
         editor.putInt(KEY_DAY_PROMPT, dayPrompt + Math.max(0, promptTokens));
         editor.putInt(KEY_DAY_COMPLETION, dayCompletion + Math.max(0, completionTokens));
         editor.putInt(KEY_MONTH_PROMPT, monthPrompt + Math.max(0, promptTokens));
         editor.putInt(KEY_MONTH_COMPLETION, monthCompletion + Math.max(0, completionTokens));
+        editor.putInt(KEY_DAY_CACHE_HIT, dayCacheHit + Math.max(0, cacheHitTokens));
+        editor.putInt(KEY_MONTH_CACHE_HIT, monthCacheHit + Math.max(0, cacheHitTokens));
         editor.putInt(KEY_CACHE_HIT, prefs.getInt(KEY_CACHE_HIT, 0) + Math.max(0, cacheHitTokens));
         editor.apply();
     }
 
+    /** Share of today's prompt tokens served from the provider's prefix cache, 0..1. */
+    public static synchronized float getDayCacheHitRatio() {
+        return ratio(KEY_DAY, todayKey(), KEY_DAY_CACHE_HIT, KEY_DAY_PROMPT);
+    }
+
+    /** Share of this month's prompt tokens served from the provider's prefix cache, 0..1. */
+    public static synchronized float getMonthCacheHitRatio() {
+        return ratio(KEY_MONTH, todayKey().substring(0, 7), KEY_MONTH_CACHE_HIT, KEY_MONTH_PROMPT);
+    }
+
+    private static float ratio(String periodKey, String period, String hitKey, String promptKey) {
+        if (appContext == null) return 0f;
+        SharedPreferences prefs = appContext.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        if (!period.equals(prefs.getString(periodKey, ""))) return 0f;
+        int prompt = prefs.getInt(promptKey, 0);
+        return prompt > 0 ? Math.min(1f, prefs.getInt(hitKey, 0) / (float) prompt) : 0f;
+    }
+
+    private static String todayKey() {
+        return new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date());
+    }
+
 }
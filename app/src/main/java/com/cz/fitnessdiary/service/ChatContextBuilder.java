@@ -0,0 +1,171 @@
+package com.cz.fitnessdiary.service;
+
+import androidx.annotation.Nullable;
+
+import com.cz.fitnessdiary.database.entity.ChatMessageEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * AI 聊天上下文构建：按 token 预算决定哪些历史消息原文发送、哪些折叠进会话摘要。
+ * 请求结构固定为 [系统提示 + 较早对话摘要][近期原文][本轮提问]。
+ * 历史超出预算时一次性把较早的消息折叠进摘要，直到近期原文降到预算的一半；
+ * 之后若干轮只在末尾追加消息，前缀保持不变，DeepSeek 的前缀缓存（prompt_cache_hit_tokens）持续命中。
+ * 每轮只滑动一条的窗口会让前缀每轮都变，缓存几乎全部失效。
+ */
+public final class ChatContextBuilder {
+
+    /** 默认每次请求的上下文预算（估算 token） */
+    public static final int DEFAULT_BUDGET_TOKENS = 6000;
+    /** 摘要的上限，超出时丢弃最早的摘要行 */
+    static final int SUMMARY_MAX_TOKENS = 800;
+    /** 本地摘要超过该长度才请 DeepSeek 压缩；压缩后的摘要约 300 字，之后要再折叠几次才会再次触发 */
+    static final int SUMMARY_COMPACT_TOKENS = SUMMARY_MAX_TOKENS / 2;
+    /** 每条消息的角色、分隔等固定开销 */
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+    /** 本地摘要中每条消息保留的字数 */
+    private static final int DIGEST_CHARS = 80;
+
+    private final int budgetTokens;
+
+    public ChatContextBuilder(int budgetTokens) {
+        this.budgetTokens = budgetTokens;
+    }
+
+    /**
+     * 构建结果
+     */
+    public static final class Context {
+        /** 本次使用的摘要，没有时为 null */
+        @Nullable
+        public final String summary;
+        /** 摘要覆盖到的最后一条消息 (timestamp, id)，同一毫秒内的消息靠 ID 区分 */
+        public final long summaryUntil;
+        public final long summaryUntilId;
+        /** 原文发送的近期消息，按时间升序 */
+        public final List<ChatMessageEntity> history;
+        /** 本次是否折叠了新的消息；为 true 时调用方需保存 summary / summaryUntil / summaryUntilId */
+        public final boolean folded;
+
+        Context(@Nullable String summary, long summaryUntil, long summaryUntilId, List<ChatMessageEntity> history,
+                boolean folded) {
+            this.summary = summary;
+            this.summaryUntil = summaryUntil;
+            this.summaryUntilId = summaryUntilId;
+            this.history = history;
+            this.folded = folded;
+        }
+    }
+
+    /**
+     * @param summary        会话已有摘要
+     * @param summaryUntil   已有摘要覆盖到的最后一条消息时间戳
+     * @param summaryUntilId 已有摘要覆盖到的最后一条消息 ID
+     * @param messages       摘要之后的消息，按 (timestamp, id) 升序
+     * @param fixedTokens    系统提示与本轮提问的 token 数
+     */
+    public Context build(@Nullable String summary, long summaryUntil, long summaryUntilId,
+            List<ChatMessageEntity> messages, int fixedTokens) {
+        // 摘要空间按上限预留，折叠前后近期原文的预算不变，不会因摘要变长而在下一轮再次折叠
+        int historyBudget = Math.max(0, budgetTokens - fixedTokens - SUMMARY_MAX_TOKENS);
+        int[] tokens = new int[messages.size()];
+        int total = 0;
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = estimateTokens(messages.get(i));
+            total += tokens[i];
+        }
+        if (total <= historyBudget) {
+            return new Context(summary, summaryUntil, summaryUntilId, messages, false);
+        }
+
+        // 折叠到预算的一半，且保留部分从用户消息开始，保证角色交替
+        int target = historyBudget / 2;
+        int split = 0;
+        while (split < tokens.length && (total > target || !messages.get(split).isUser())) {
+            total -= tokens[split];
+            split++;
+        }
+        List<ChatMessageEntity> folded = messages.subList(0, split);
+        String newSummary = appendDigest(summary, folded);
+        ChatMessageEntity last = folded.isEmpty() ? null : folded.get(folded.size() - 1);
+        long newUntil = last == null ? summaryUntil : last.getTimestamp();
+        long newUntilId = last == null ? summaryUntilId : last.getId();
+        List<ChatMessageEntity> recent = split < messages.size()
+                ? new ArrayList<>(messages.subList(split, messages.size()))
+                : Collections.emptyList();
+        return new Context(newSummary, newUntil, newUntilId, recent, !folded.isEmpty());
+    }
+
+    /**
+     * 把折叠的消息压成每条一行的要点追加到摘要末尾；超出上限时丢弃最早的行
+     */
+    static String appendDigest(@Nullable String summary, List<ChatMessageEntity> folded) {
+        StringBuilder builder = new StringBuilder(summary == null ? "" : summary);
+        for (ChatMessageEntity message : folded) {
+            String text = plainText(message.getContent());
+            if (text.isEmpty()) {
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+            builder.append(message.isUser() ? "用户：" : "私教：")
+                    .append(text.length() > DIGEST_CHARS ? text.substring(0, DIGEST_CHARS) + "…" : text);
+        }
+        String digest = builder.toString();
+        while (estimateTokens(digest) > SUMMARY_MAX_TOKENS) {
+            int newline = digest.indexOf('\n');
+            if (newline < 0) {
+                digest = digest.substring(digest.length() / 2);
+            } else {
+                digest = digest.substring(newline + 1);
+            }
+        }
+        return digest.isEmpty() ? null : digest;
+    }
+
+    /**
+     * 去掉 &lt;action&gt; 动作标签和多余空白，摘要只保留对话正文
+     */
+    private static String plainText(@Nullable String content) {
+        if (content == null) {
+            return "";
+        }
+        return content.replaceAll("<action>(?s:.*?)</action>", "")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    /**
+     * 摘要是否已长到值得额外请求一次模型压缩
+     */
+    public static boolean needsCompaction(@Nullable String summary) {
+        return estimateTokens(summary) > SUMMARY_COMPACT_TOKENS;
+    }
+
+    public static int estimateTokens(ChatMessageEntity message) {
+        return estimateTokens(message.getContent()) + MESSAGE_OVERHEAD_TOKENS;
+    }
+
+    /**
+     * 估算 token 数：按 DeepSeek 的换算，一个中文字符约 0.6 token，一个英文字符约 0.3 token
+     */
+    public static int estimateTokens(@Nullable String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int cjk = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isIdeographic(c) || (c >= '\u3000' && c <= '\u303f') || (c >= '\uff00' && c <= '\uffef')) {
+                cjk++;
+            } else {
+                other++;
+            }
+        }
+        return (int) Math.ceil(cjk * 0.6 + other * 0.3);
+    }
+}
@@ -0,0 +1,119 @@
+package com.cz.fitnessdiary.service
+
+import android.os.SystemClock
+import com.google.gson.JsonElement
+import com.google.gson.JsonObject
+import com.google.gson.JsonParser
+import com.google.gson.JsonSyntaxException
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import okhttp3.ResponseBody
+import java.io.IOException
+
+/**
+ * OpenAI 兼容接口（DeepSeek、MiMo）的 SSE 流式响应解析器。
+ * 逐行读取 `data:` 块，累积正文 content 与推理过程 reasoning_content，
+ * 并记录最后一个块携带的 usage 用量。
+ */
+class ChatStreamParser {
+    private val contentBuilder = StringBuilder()
+    private val reasoningBuilder = StringBuilder()
+
+    /** 当前已累积的正文 */
+    val content: String get() = contentBuilder.toString()
+
+    /** 当前已累积的推理过程 */
+    val reasoning: String get() = reasoningBuilder.toString()
+
+    /** 流末尾块中的 usage（需请求时开启 include_usage） */
+    var usage: JsonObject? = null
+        private set
+
+    /** 是否已收到 `data: [DONE]` */
+    var isDone = false
+        private set
+
+    /**
+     * 处理一行 SSE 文本
+     * @return 本行是否带来了新的正文或推理增量
+     */
+    @Throws(IOException::class)
+    fun feedLine(line: String): Boolean {
+        if (!line.startsWith("data:")) return false // 空行、注释行（: keep-alive）和 event 行
+        val payload = line.substring(5).trim()
+        if (payload.isEmpty()) return false
+        if (payload == "[DONE]") {
+            isDone = true
+            return false
+        }
+        val chunk = try {
+            JsonParser.parseString(payload)
+        } catch (error: JsonSyntaxException) {
+            return false
+        }
+        if (!chunk.isJsonObject) return false
+        val root = chunk.asJsonObject
+        root.get("error")?.takeIf { it.isJsonObject }?.let { error ->
+            throw IOException(readText(error.asJsonObject.get("message")).ifBlank { "stream error" })
+        }
+        root.get("usage")?.takeIf { it.isJsonObject }?.let { usage = it.asJsonObject }
+
+        val choices = root.get("choices")?.takeIf { it.isJsonArray }?.asJsonArray
+        if (choices == null || choices.size() == 0) return false
+        val delta = choices[0].takeIf { it.isJsonObject }?.asJsonObject
+            ?.get("delta")?.takeIf { it.isJsonObject }?.asJsonObject ?: return false
+        val contentDelta = readText(delta.get("content"))
+        val reasoningDelta = readText(delta.get("reasoning_content"))
+        contentBuilder.append(contentDelta)
+        reasoningBuilder.append(reasoningDelta)
+        return contentDelta.isNotEmpty() || reasoningDelta.isNotEmpty()
+    }
+
+    companion object {
+        /** 主线程增量回调的最小间隔，避免逐 token 刷新界面 */
+        private const val PARTIAL_INTERVAL_MS = 60L
+
+        /**
+         * 读取文本字段：兼容纯字符串、多模态 text 片段数组及 {"text": ...} 对象
+         */
+        @JvmStatic
+        fun readText(element: JsonElement?): String {
+            if (element == null || element.isJsonNull) return ""
+            if (element.isJsonPrimitive) return element.asString
+            if (element.isJsonArray) {
+                return element.asJsonArray.joinToString("") { part -> readText(part) }
+            }
+            if (element.isJsonObject) {
+                return readText(element.asJsonObject.get("text"))
+            }
+            return ""
+        }
+
+        /**
+         * 在 IO 协程中读取完整的流式响应，期间按节流间隔在主线程回调 [AICallback.onPartialUpdate]
+         * （回调参数为截至当前的累积内容）。返回的解析器包含最终正文、推理与用量。
+         */
+        @Throws(IOException::class)
+        internal suspend fun consume(body: ResponseBody, callback: AICallback): ChatStreamParser {
+            val parser = ChatStreamParser()
+            val source = body.source()
+            var lastEmit = 0L
+            var pending = false
+            while (!parser.isDone) {
+                val line = source.readUtf8Line() ?: break
+                if (parser.feedLine(line)) pending = true
+                val now = SystemClock.uptimeMillis()
+                if (pending && now - lastEmit >= PARTIAL_INTERVAL_MS) {
+                    lastEmit = now
+                    pending = false
+                    val content = parser.content
+                    val reasoning = parser.reasoning
+                    withContext(Dispatchers.Main) {
+                        callback.onPartialUpdate(content, reasoning.ifEmpty { null })
+                    }
+                }
+            }
+            return parser
+        }
+    }
+}
@@ -6,6 +6,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.cz.fitnessdiary.config.CloudApiConfig;
+import com.cz.fitnessdiary.utils.AppHttp;
 import com.cz.fitnessdiary.utils.TextUtilsCompat;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
@@ -30,7 +31,7 @@ public final class CloudApiClient {
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
     private static final CloudApiClient INSTANCE = new CloudApiClient();
 
-    private final OkHttpClient client = new OkHttpClient();
+    private final OkHttpClient client = AppHttp.get();
     private final Gson gson = new Gson();
     private final Object refreshLock = new Object();
     private final List<PendingRequest> pendingRequests = new ArrayList<>();
@@ -3,12 +3,13 @@ package com.cz.fitnessdiary.service;
 import androidx.annotation.NonNull;
 
 import com.cz.fitnessdiary.config.CloudApiConfig;
+import com.cz.fitnessdiary.utils.AppExecutors;
+import com.cz.fitnessdiary.utils.AppHttp;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
 import java.io.IOException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -25,9 +26,9 @@ import okhttp3.Response;
 public final class CloudBaseAuthGateway {
     private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
     private static final CloudBaseAuthGateway INSTANCE = new CloudBaseAuthGateway();
-    private final OkHttpClient client = new OkHttpClient();
+    private final OkHttpClient client = AppHttp.get();
     private final Gson gson = new Gson();
-    private final ExecutorService callbackExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService callbackExecutor = AppExecutors.get().newSerialDiskIO();
 
     public interface ResultCallback {
         void onSuccess(JsonObject result);
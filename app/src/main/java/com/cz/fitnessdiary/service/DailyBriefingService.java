@@ -13,6 +13,7 @@ import com.cz.fitnessdiary.model.DailyHealthSnapshot;
 import com.cz.fitnessdiary.model.HealthScoreBreakdown;
 import com.cz.fitnessdiary.model.WeeklyTrend;
 import com.cz.fitnessdiary.repository.HealthAggregationRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.utils.HealthScoreCalculator;
 import com.google.gson.Gson;
@@ -23,7 +24,6 @@ import com.google.gson.JsonSyntaxException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * AI 日报服务 - v3.0
@@ -74,7 +74,7 @@ public class DailyBriefingService {
         this.application = application;
         this.aggregationRepo = new HealthAggregationRepository(application);
         this.prefs = application.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        this.executor = Executors.newSingleThreadExecutor();
+        this.executor = AppExecutors.get().newSerialDiskIO();
         this.mainHandler = new Handler(Looper.getMainLooper());
         this.gson = new Gson();
     }
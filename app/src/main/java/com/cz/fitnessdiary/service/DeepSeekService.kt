@@ -2,6 +2,7 @@ package com.cz.fitnessdiary.service
 
 import com.cz.fitnessdiary.BuildConfig
 import com.cz.fitnessdiary.database.entity.ChatMessageEntity
+import com.cz.fitnessdiary.utils.AppHttp
 import com.google.gson.Gson
 import com.google.gson.JsonArray
 import com.google.gson.JsonObject
@@ -10,7 +11,6 @@ import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import okhttp3.MediaType.Companion.toMediaType
-import okhttp3.OkHttpClient
 import okhttp3.Request
 import okhttp3.RequestBody.Companion.toRequestBody
 import java.util.concurrent.TimeUnit
@@ -18,7 +18,7 @@ import java.util.concurrent.TimeUnit
 /** Direct DeepSeek client for a private, single-user APK. */
 object DeepSeekService {
     private const val API_URL = "https://api.deepseek.com/chat/completions"
-    private val client = OkHttpClient.Builder()
+    private val client = AppHttp.newBuilder()
         .connectTimeout(60, TimeUnit.SECONDS)
         .readTimeout(60, TimeUnit.SECONDS)
         .writeTimeout(60, TimeUnit.SECONDS)
@@ -57,6 +57,34 @@ object DeepSeekService {
         history: List<ChatMessageEntity>?,
         structuredJson: Boolean,
         callback: AICallback
+    ) {
+        sendMessageWithPolicy(message, systemInstruction, thinking, history, structuredJson, false, callback)
+    }
+
+    /**
+     * 流式对话：以 SSE 方式逐块接收回复，期间通过 [AICallback.onPartialUpdate] 回传累积内容，
+     * 结束后仍以 [AICallback.onSuccess] 返回完整结果。
+     */
+    @JvmStatic
+    fun sendMessageStreaming(
+        message: String,
+        systemInstruction: String?,
+        thinking: Boolean,
+        history: List<ChatMessageEntity>?,
+        callback: AICallback
+    ) {
+        sendMessageWithPolicy(message, systemInstruction, thinking, history, false, true, callback)
+    }
+
+    @JvmStatic
+    fun sendMessageWithPolicy(
+        message: String,
+        systemInstruction: String?,
+        thinking: Boolean,
+        history: List<ChatMessageEntity>?,
+        structuredJson: Boolean,
+        stream: Boolean,
+        callback: AICallback
     ) {
         scope.launch {
             if (BuildConfig.DEEPSEEK_API_KEY.isBlank()) {
@@ -85,7 +113,10 @@ object DeepSeekService {
                 val requestJson = JsonObject().apply {
                     addProperty("model", if (thinking) "deepseek-v4-pro" else "deepseek-v4-flash")
                     add("messages", messages)
-                    addProperty("stream", false)
+                    addProperty("stream", stream)
+                    if (stream) {
+                        add("stream_options", JsonObject().apply { addProperty("include_usage", true) })
+                    }
                     if (thinking) {
                         add("thinking", JsonObject().apply { addProperty("type", "enabled") })
                     }
@@ -103,19 +134,29 @@ object DeepSeekService {
                     .build()
 
                 client.newCall(request).execute().use { response ->
-                    val responseText = response.body?.string().orEmpty()
-                    if (!response.isSuccessful) {
+                    val body = response.body
+                    if (!response.isSuccessful || body == null) {
                         withContext(Dispatchers.Main) {
                             callback.onError("DeepSeek 请求失败（HTTP ${response.code}）")
                         }
                         return@launch
                     }
-                    val root = gson.fromJson(responseText, JsonObject::class.java)
-                    val choice = root.getAsJsonArray("choices")?.get(0)?.asJsonObject
-                    val messageObject = choice?.getAsJsonObject("message")
-                    val content = messageObject?.get("content")?.asString.orEmpty()
-                    val reasoning = messageObject?.get("reasoning_content")?.asString
-                    val usage = root.getAsJsonObject("usage")
+                    val content: String
+                    val reasoning: String?
+                    val usage: JsonObject?
+                    if (stream) {
+                        val parser = ChatStreamParser.consume(body, callback)
+                        content = parser.content
+                        reasoning = parser.reasoning.ifEmpty { null }
+                        usage = parser.usage
+                    } else {
+                        val root = gson.fromJson(body.string(), JsonObject::class.java)
+                        val choice = root.getAsJsonArray("choices")?.get(0)?.asJsonObject
+                        val messageObject = choice?.getAsJsonObject("message")
+                        content = messageObject?.get("content")?.asString.orEmpty()
+                        reasoning = messageObject?.get("reasoning_content")?.asString
+                        usage = root.getAsJsonObject("usage")
+                    }
                     AiUsageStore.record(
                         "DeepSeek",
                         usage?.get("prompt_tokens")?.asInt ?: 0,
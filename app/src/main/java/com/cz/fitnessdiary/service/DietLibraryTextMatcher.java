@@ -6,6 +6,7 @@ import com.cz.fitnessdiary.model.ImageMealDraft;
 import com.cz.fitnessdiary.utils.FoodUnitUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
@@ -56,25 +57,23 @@ public final class DietLibraryTextMatcher {
         if (text == null || text.trim().isEmpty() || foods == null || foods.isEmpty()) {
             return null;
         }
+        return match(text, FoodNameAutomaton.build(foods));
+    }
 
-        String input = text.trim();
-        List<FoodLibrary> candidates = new ArrayList<>();
-        for (FoodLibrary food : foods) {
-            if (food != null && food.getName() != null && !food.getName().trim().isEmpty()) {
-                candidates.add(food);
-            }
+    /**
+     * Same as {@link #match(String, List)} but reuses a prebuilt automaton, so the
+     * cost depends on the text length rather than the library size.
+     */
+    public static ImageMealDraft match(String text, FoodNameAutomaton automaton) {
+        if (text == null || text.trim().isEmpty() || automaton == null || automaton.isEmpty()) {
+            return null;
         }
-        candidates.sort(Comparator.comparingInt((FoodLibrary food) ->
-                food.getName() == null ? 0 : food.getName().trim().length()).reversed());
 
+        String input = text.trim();
         List<MatchedFood> candidatesInText = new ArrayList<>();
-        for (FoodLibrary food : candidates) {
-            String name = food.getName().trim();
-            addOccurrences(input, food, name, candidatesInText);
-            for (String alias : aliasesFor(name)) {
-                addOccurrences(input, food, alias, candidatesInText);
-            }
-        }
+        automaton.scan(input, (food, start, end, priority) ->
+                candidatesInText.add(new MatchedFood(food, start, end, priority,
+                        parseQuantity(input, start, end))));
         List<MatchedFood> matches = selectBestCombination(candidatesInText);
         if (matches.isEmpty()) {
             return null;
@@ -100,30 +99,7 @@ public final class DietLibraryTextMatcher {
         return result;
     }
 
-    private static void addOccurrences(String input, FoodLibrary food, String term,
-            List<MatchedFood> output) {
-        if (term == null || term.trim().isEmpty()) return;
-        int from = 0;
-        while (from < input.length()) {
-            int start = input.indexOf(term, from);
-            if (start < 0) break;
-            int end = start + term.length();
-            if (!containsSameOccurrence(output, start, end, food)) {
-                output.add(new MatchedFood(food, start, end, parseQuantity(input, start, end)));
-            }
-            from = Math.max(end, start + 1);
-        }
-    }
-
-    private static boolean containsSameOccurrence(List<MatchedFood> matches, int start, int end,
-            FoodLibrary food) {
-        for (MatchedFood match : matches) {
-            if (match.start == start && match.end == end && match.food == food) return true;
-        }
-        return false;
-    }
-
-    private static List<String> aliasesFor(String foodName) {
+    static List<String> aliasesFor(String foodName) {
         List<String> aliases = new ArrayList<>();
         if ("米饭".equals(foodName) || "白米饭".equals(foodName)) {
             aliases.add("饭");
@@ -138,26 +114,44 @@ public final class DietLibraryTextMatcher {
     private static List<MatchedFood> selectBestCombination(List<MatchedFood> candidates) {
         if (candidates.isEmpty()) return new ArrayList<>();
         candidates.sort(Comparator.comparingInt((MatchedFood match) -> match.end)
-                .thenComparingInt(match -> match.start));
+                .thenComparingInt(match -> match.start)
+                .thenComparingInt(match -> match.priority));
+        int[] ends = new int[candidates.size()];
+        for (int i = 0; i < ends.length; i++) {
+            ends[i] = candidates.get(i).end;
+        }
         Plan[] plans = new Plan[candidates.size() + 1];
-        plans[0] = new Plan();
+        plans[0] = Plan.EMPTY;
         for (int i = 1; i <= candidates.size(); i++) {
             MatchedFood current = candidates.get(i - 1);
-            int previousCount = 0;
-            for (int j = 0; j < i - 1; j++) {
-                if (candidates.get(j).end <= current.start) previousCount = j + 1;
-            }
+            // Ends are sorted, so the compatible prefix is found by binary search.
+            int previousCount = countEndsAtMost(ends, i - 1, current.start);
             Plan take = plans[previousCount].append(current);
             Plan skip = plans[i - 1];
             plans[i] = betterPlan(take, skip);
         }
-        return plans[candidates.size()].matches;
+        return plans[candidates.size()].toList();
+    }
+
+    /** Number of leading entries in ends[0, limit) that are <= value. */
+    private static int countEndsAtMost(int[] ends, int limit, int value) {
+        int low = 0;
+        int high = limit;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
     private static Plan betterPlan(Plan first, Plan second) {
         if (second == null) return first;
         if (first.score != second.score) return first.score > second.score ? first : second;
-        return first.matches.size() < second.matches.size() ? first : second;
+        return first.size < second.size ? first : second;
     }
 
     private static String inferMealName(String input) {
@@ -334,12 +328,14 @@ public final class DietLibraryTextMatcher {
         final FoodLibrary food;
         final int start;
         final int end;
+        final int priority;
         final ParsedQuantity quantity;
 
-        MatchedFood(FoodLibrary food, int start, int end, ParsedQuantity quantity) {
+        MatchedFood(FoodLibrary food, int start, int end, int priority, ParsedQuantity quantity) {
             this.food = food;
             this.start = start;
             this.end = end;
+            this.priority = priority;
             this.quantity = quantity;
         }
     }
@@ -356,25 +352,35 @@ public final class DietLibraryTextMatcher {
         }
     }
 
+    /** Persistent list node: appending shares the prefix instead of copying it. */
     private static final class Plan {
-        final List<MatchedFood> matches;
+        static final Plan EMPTY = new Plan(null, null, 0, 0);
+
+        final MatchedFood match;
+        final Plan previous;
         final int score;
+        final int size;
 
-        Plan() {
-            this.matches = new ArrayList<>();
-            this.score = 0;
+        private Plan(MatchedFood match, Plan previous, int score, int size) {
+            this.match = match;
+            this.previous = previous;
+            this.score = score;
+            this.size = size;
         }
 
-        Plan(List<MatchedFood> matches, int score) {
-            this.matches = matches;
-            this.score = score;
+        Plan append(MatchedFood next) {
+            int length = next.end - next.start;
+            return new Plan(next, this, score + length * 100 + length * length, size + 1);
         }
 
-        Plan append(MatchedFood match) {
-            List<MatchedFood> next = new ArrayList<>(matches);
-            next.add(match);
-            int length = match.end - match.start;
-            return new Plan(next, score + length * 100 + length * length);
+        List<MatchedFood> toList() {
+            MatchedFood[] ordered = new MatchedFood[size];
+            Plan plan = this;
+            for (int i = size - 1; i >= 0; i--) {
+                ordered[i] = plan.match;
+                plan = plan.previous;
+            }
+            return new ArrayList<>(Arrays.asList(ordered));
         }
     }
 }
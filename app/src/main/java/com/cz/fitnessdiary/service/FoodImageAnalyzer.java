@@ -1,46 +1,85 @@
 package com.cz.fitnessdiary.service;
 
+import android.content.Context;
 import android.graphics.Bitmap;
 
 import com.cz.fitnessdiary.database.entity.FoodLibrary;
 import com.cz.fitnessdiary.model.ImageFoodItemDraft;
 import com.cz.fitnessdiary.model.ImageMealDraft;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.FoodUnitUtils;
+import com.cz.fitnessdiary.utils.ImageHash;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.security.MessageDigest;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
-/** MiMo food-image parser. It accepts both compact JSON and legacy &lt;action&gt; JSON. */
+/**
+ * MiMo food-image parser. It accepts both compact JSON and legacy &lt;action&gt; JSON.
+ * Results are cached on disk by perceptual hash, so re-scanning the same or a near-identical
+ * photo is answered locally without uploading the image again.
+ */
 public class FoodImageAnalyzer {
-    private String lastImageHash;
-    private ImageMealDraft lastDraft;
+    private final FoodImageResultCache cache;
+    private final ExecutorService executor = AppExecutors.get().newSerialDiskIO();
+
     public interface AnalyzeCallback {
         void onSuccess(ImageMealDraft draft, String rawResponse, String reasoning);
         void onError(String error);
+
+        /** Called once before the result; cached is true when no request was sent to MiMo. */
+        default void onStart(boolean cached) { }
+    }
+
+    public FoodImageAnalyzer(Context context) {
+        cache = FoodImageResultCache.get(context);
     }
 
     public void analyze(Bitmap bitmap, AnalyzeCallback callback) {
+        analyze(bitmap, false, callback);
+    }
+
+    /**
+     * @param refresh true skips the cache lookup (explicit re-identification); the new result
+     *                replaces the cached one for near-identical photos.
+     */
+    public void analyze(Bitmap bitmap, boolean refresh, AnalyzeCallback callback) {
         if (bitmap == null) {
             callback.onError("图片为空，请重试");
             return;
         }
-        String imageHash = hashBitmap(bitmap);
-        if (imageHash.equals(lastImageHash) && lastDraft != null) {
-            callback.onSuccess(lastDraft, "{cached:true}", null);
-            return;
-        }
+        Executor mainThread = AppExecutors.get().mainThread();
+        executor.execute(() -> {
+            long[] imageHash = ImageHash.dHash(bitmap);
+            String cachedResponse = imageHash != null && !refresh ? cache.find(imageHash) : null;
+            ImageMealDraft cachedDraft = cachedResponse != null ? parseDraft(cachedResponse) : null;
+            mainThread.execute(() -> {
+                if (cachedDraft != null) {
+                    callback.onStart(true);
+                    callback.onSuccess(cachedDraft, cachedResponse, null);
+                } else {
+                    callback.onStart(false);
+                    request(bitmap, imageHash, callback);
+                }
+            });
+        });
+    }
+
+    private void request(Bitmap bitmap, long[] imageHash, AnalyzeCallback callback) {
         MiMoService.sendMessage(
                 "识别图片中的全部食物，只输出紧凑 JSON。",
                 buildSystemPrompt(), bitmap, null,
                 new AICallback() {
                     @Override public void onSuccess(String response, String reasoning) {
                         String text = response == null ? "" : response;
+                        String parsedSource = text;
                         ImageMealDraft parsed = parseDraft(text);
                         if (parsed == null && reasoning != null) {
+                            parsedSource = reasoning;
                             parsed = parseDraft(reasoning);
                         }
                         ImageMealDraft result = parsed == null ? fallbackDraft(text, reasoning) : parsed;
@@ -48,8 +87,11 @@ public class FoodImageAnalyzer {
                             callback.onError("AI 返回的识别结果不完整，请重试；这不代表图片模糊");
                             return;
                         }
-                        lastImageHash = imageHash;
-                        lastDraft = result;
+                        // Only well-formed results are cached; fallback drafts always need review.
+                        if (parsed != null && imageHash != null) {
+                            String cachedSource = parsedSource;
+                            executor.execute(() -> cache.put(imageHash, cachedSource));
+                        }
                         callback.onSuccess(result, text, reasoning);
                     }
                     @Override public void onPartialUpdate(String content, String reasoning) { }
@@ -57,31 +99,6 @@ public class FoodImageAnalyzer {
         });
     }
 
-    /** Explicit re-identification is the only path that invalidates the recent result cache. */
-    public void clearCache() {
-        lastImageHash = null;
-        lastDraft = null;
-    }
-
-    /** Returns true when this exact bitmap already has a local recognition result. */
-    public boolean hasCachedResult(Bitmap bitmap) {
-        return bitmap != null && lastDraft != null
-                && hashBitmap(bitmap).equals(lastImageHash);
-    }
-
-    private String hashBitmap(Bitmap bitmap) {
-        try {
-            java.io.ByteArrayOutputStream output = new java.io.ByteArrayOutputStream();
-            bitmap.compress(Bitmap.CompressFormat.JPEG, 100, output);
-            byte[] digest = MessageDigest.getInstance("SHA-256").digest(output.toByteArray());
-            StringBuilder builder = new StringBuilder();
-            for (byte value : digest) builder.append(String.format(java.util.Locale.US, "%02x", value));
-            return builder.toString();
-        } catch (Exception ignored) {
-            return bitmap.getWidth() + "x" + bitmap.getHeight();
-        }
-    }
-
     private String buildSystemPrompt() {
         return "你是 FitnessDiary 食物识别器。只输出 JSON，不要 Markdown、解释或 reply。"
                 + "结构:{\"type\":\"FOOD\",\"meal_name\":\"整餐\",\"items\":["
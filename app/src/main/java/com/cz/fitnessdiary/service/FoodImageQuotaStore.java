@@ -14,6 +14,7 @@ import com.cz.fitnessdiary.database.entity.User;
 public final class FoodImageQuotaStore {
     private static final String PREFS_NAME = "food_image_quota";
     private static final String COUNT_PREFIX = "count_";
+    private static final String CACHE_HIT_PREFIX = "cache_hit_";
 
     private final SharedPreferences preferences;
 
@@ -35,6 +36,19 @@ public final class FoodImageQuotaStore {
         preferences.edit().putInt(COUNT_PREFIX + key, used + 1).apply();
     }
 
+    /** Scans answered from the local result cache, i.e. requests that were never sent. */
+    public int getSavedCount(@Nullable User user) {
+        if (user == null) return 0;
+        return preferences.getInt(CACHE_HIT_PREFIX + userKey(user), 0);
+    }
+
+    public synchronized void recordCacheHit(@Nullable User user) {
+        if (user == null) return;
+        String key = userKey(user);
+        int saved = preferences.getInt(CACHE_HIT_PREFIX + key, 0);
+        preferences.edit().putInt(CACHE_HIT_PREFIX + key, saved + 1).apply();
+    }
+
     private String userKey(@Nullable User user) {
         if (user == null) return "";
         if (user.getCloudUserId() != null && !user.getCloudUserId().trim().isEmpty()) {
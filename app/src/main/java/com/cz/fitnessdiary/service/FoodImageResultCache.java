@@ -0,0 +1,159 @@
+package com.cz.fitnessdiary.service;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.cz.fitnessdiary.utils.ImageHash;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 食物图片识别结果的本地缓存，按图片感知哈希查找。
+ * 同一张或几乎相同的照片（再次选择同一张图、重新压缩、轻微缩放）再次识别时直接返回上次的 MiMo 原始回复，
+ * 不再上传图片。条目按最近使用排序，超出容量时淘汰最久未用的一条；保存在应用缓存目录，跨进程重启保留。
+ * 命中只调整内存中的顺序，随下一次写入一并落盘，查找不产生文件写入。
+ * 只保存指纹和识别回复文本，不保存图片。
+ */
+public final class FoodImageResultCache {
+    private static final String TAG = "FoodImageResultCache";
+    private static final String FILE_NAME = "food_image_results.json";
+    static final int MAX_ENTRIES = 64;
+    /** 256 位指纹中允许不同的位数，约 4% */
+    static final int MAX_DISTANCE = 10;
+
+    private static volatile FoodImageResultCache instance;
+
+    private final File file;
+    private final Gson gson = new Gson();
+    /** 最近使用的在前 */
+    private List<Entry> entries;
+
+    private static final class Entry {
+        String hash;
+        String response;
+        long usedAt;
+        transient long[] bits;
+    }
+
+    FoodImageResultCache(File file) {
+        this.file = file;
+    }
+
+    public static FoodImageResultCache get(Context context) {
+        if (instance == null) {
+            synchronized (FoodImageResultCache.class) {
+                if (instance == null) {
+                    instance = new FoodImageResultCache(
+                            new File(context.getApplicationContext().getCacheDir(), FILE_NAME));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 指纹距离最近且不超过阈值的识别回复，没有时返回 null；命中的条目移到最前（只改内存顺序）
+     */
+    @Nullable
+    public synchronized String find(long[] hash) {
+        List<Entry> list = load();
+        int best = -1;
+        int bestDistance = MAX_DISTANCE + 1;
+        for (int i = 0; i < list.size(); i++) {
+            int distance = ImageHash.distance(hash, list.get(i).bits);
+            if (distance < bestDistance) {
+                best = i;
+                bestDistance = distance;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        Entry entry = list.remove(best);
+        entry.usedAt = System.currentTimeMillis();
+        list.add(0, entry);
+        return entry.response;
+    }
+
+    /**
+     * 记录一次识别结果；与已有条目近似相同时覆盖旧结果（用于“重新识别”）
+     */
+    public synchronized void put(long[] hash, String response) {
+        List<Entry> list = load();
+        for (Iterator<Entry> it = list.iterator(); it.hasNext();) {
+            if (ImageHash.distance(hash, it.next().bits) <= MAX_DISTANCE) {
+                it.remove();
+            }
+        }
+        Entry entry = new Entry();
+        entry.hash = ImageHash.toHex(hash);
+        entry.bits = hash;
+        entry.response = response;
+        entry.usedAt = System.currentTimeMillis();
+        list.add(0, entry);
+        while (list.size() > MAX_ENTRIES) {
+            list.remove(list.size() - 1);
+        }
+        save();
+    }
+
+    private List<Entry> load() {
+        if (entries != null) {
+            return entries;
+        }
+        List<Entry> loaded = null;
+        if (file.exists()) {
+            try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                loaded = gson.fromJson(reader, new TypeToken<List<Entry>>() {
+                }.getType());
+            } catch (Exception e) {
+                Log.w(TAG, "Discarding unreadable cache file", e);
+            }
+        }
+        entries = new ArrayList<>();
+        if (loaded != null) {
+            for (Entry entry : loaded) {
+                if (entry == null || entry.response == null) {
+                    continue;
+                }
+                entry.bits = ImageHash.fromHex(entry.hash);
+                if (entry.bits != null && entries.size() < MAX_ENTRIES) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 先写临时文件再替换，写到一半被杀进程也不会留下损坏的缓存
+     */
+    private void save() {
+        File temp = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8)) {
+            gson.toJson(entries, writer);
+        } catch (Exception e) {
+            Log.w(TAG, "Failed to write cache file", e);
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            Log.w(TAG, "Failed to replace cache file");
+            temp.delete();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.cz.fitnessdiary.service;
+
+import com.cz.fitnessdiary.database.entity.FoodLibrary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho–Corasick automaton over every food name and alias in the library.
+ * Building is O(total name length); scanning a text is O(text length + hits),
+ * independent of library size. Instances are immutable and safe to share
+ * between threads, so callers should build once and reuse until food_library
+ * changes (see FoodLibraryRepository#getFoodNameAutomaton).
+ */
+public final class FoodNameAutomaton {
+    private static final int[] NO_PATTERNS = new int[0];
+
+    /** Per-node children: sorted labels with parallel target node ids. */
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    /** Nearest proper suffix node (via fail links) that ends a pattern, or -1. */
+    private final int[] outputLink;
+    /** Pattern ids ending exactly at each node, in priority order. */
+    private final int[][] outputs;
+    private final FoodLibrary[] patternFoods;
+    private final int[] patternLengths;
+
+    private FoodNameAutomaton(char[][] labels, int[][] targets, int[] fail, int[] outputLink,
+            int[][] outputs, FoodLibrary[] patternFoods, int[] patternLengths) {
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.outputLink = outputLink;
+        this.outputs = outputs;
+        this.patternFoods = patternFoods;
+        this.patternLengths = patternLengths;
+    }
+
+    /**
+     * Receives every (food, start, end) occurrence found by {@link #scan}.
+     * Occurrences arrive ordered by end; priority is the pattern's build order.
+     */
+    interface Visitor {
+        void onMatch(FoodLibrary food, int start, int end, int priority);
+    }
+
+    /**
+     * Builds the automaton. Pattern priority follows the original matcher:
+     * longer names first, and within one food the name before its aliases.
+     */
+    public static FoodNameAutomaton build(List<FoodLibrary> foods) {
+        List<FoodLibrary> candidates = new ArrayList<>();
+        if (foods != null) {
+            for (FoodLibrary food : foods) {
+                if (food != null && food.getName() != null && !food.getName().trim().isEmpty()) {
+                    candidates.add(food);
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingInt((FoodLibrary food) ->
+                food.getName().trim().length()).reversed());
+
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        children.add(new TreeMap<>());
+        nodeOutputs.add(null);
+        List<FoodLibrary> patternFoods = new ArrayList<>();
+        List<Integer> patternLengths = new ArrayList<>();
+        for (FoodLibrary food : candidates) {
+            String name = food.getName().trim();
+            addPattern(children, nodeOutputs, patternFoods, patternLengths, food, name);
+            for (String alias : DietLibraryTextMatcher.aliasesFor(name)) {
+                if (!alias.equals(name)) {
+                    addPattern(children, nodeOutputs, patternFoods, patternLengths, food, alias);
+                }
+            }
+        }
+
+        int size = children.size();
+        char[][] labels = new char[size][];
+        int[][] targets = new int[size][];
+        int[][] outputs = new int[size][];
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> edges = children.get(node);
+            labels[node] = new char[edges.size()];
+            targets[node] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                labels[node][i] = edge.getKey();
+                targets[node][i] = edge.getValue();
+                i++;
+            }
+            List<Integer> ids = nodeOutputs.get(node);
+            if (ids == null) {
+                outputs[node] = NO_PATTERNS;
+            } else {
+                outputs[node] = new int[ids.size()];
+                for (int j = 0; j < ids.size(); j++) {
+                    outputs[node][j] = ids.get(j);
+                }
+            }
+        }
+
+        // Breadth-first so every fail target is finished before its dependants.
+        int[] fail = new int[size];
+        int[] outputLink = new int[size];
+        Arrays.fill(outputLink, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < labels[node].length; i++) {
+                char label = labels[node][i];
+                int child = targets[node][i];
+                int state = fail[node];
+                int next = step(labels, targets, state, label);
+                while (next < 0 && state != 0) {
+                    state = fail[state];
+                    next = step(labels, targets, state, label);
+                }
+                fail[child] = next < 0 ? 0 : next;
+                int suffix = fail[child];
+                outputLink[child] = outputs[suffix].length > 0 ? suffix : outputLink[suffix];
+                queue.add(child);
+            }
+        }
+
+        int[] lengths = new int[patternLengths.size()];
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = patternLengths.get(i);
+        }
+        return new FoodNameAutomaton(labels, targets, fail, outputLink, outputs,
+                patternFoods.toArray(new FoodLibrary[0]), lengths);
+    }
+
+    public boolean isEmpty() {
+        return patternFoods.length == 0;
+    }
+
+    void scan(String text, Visitor visitor) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next = step(labels, targets, state, c);
+            while (next < 0 && state != 0) {
+                state = fail[state];
+                next = step(labels, targets, state, c);
+            }
+            state = next < 0 ? 0 : next;
+            int end = i + 1;
+            // Every pattern ending here: this node (if terminal) plus the output-link chain.
+            for (int node = outputs[state].length > 0 ? state : outputLink[state];
+                    node >= 0; node = outputLink[node]) {
+                for (int pattern : outputs[node]) {
+                    visitor.onMatch(patternFoods[pattern], end - patternLengths[pattern], end, pattern);
+                }
+            }
+        }
+    }
+
+    private static void addPattern(List<TreeMap<Character, Integer>> children,
+            List<List<Integer>> nodeOutputs, List<FoodLibrary> patternFoods,
+            List<Integer> patternLengths, FoodLibrary food, String term) {
+        int node = 0;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            Integer next = children.get(node).get(c);
+            if (next == null) {
+                next = children.size();
+                children.add(new TreeMap<>());
+                nodeOutputs.add(null);
+                children.get(node).put(c, next);
+            }
+            node = next;
+        }
+        List<Integer> ids = nodeOutputs.get(node);
+        if (ids == null) {
+            ids = new ArrayList<>(1);
+            nodeOutputs.set(node, ids);
+        }
+        ids.add(patternFoods.size());
+        patternFoods.add(food);
+        patternLengths.add(term.length());
+    }
+
+    private static int step(char[][] labels, int[][] targets, int node, char c) {
+        int index = Arrays.binarySearch(labels[node], c);
+        return index < 0 ? -1 : targets[node][index];
+    }
+}
@@ -2,27 +2,39 @@ package com.cz.fitnessdiary.service
 
 import android.graphics.Bitmap
 import android.util.Base64
+import android.util.Base64OutputStream
 import com.cz.fitnessdiary.BuildConfig
 import com.cz.fitnessdiary.database.entity.ChatMessageEntity
+import com.cz.fitnessdiary.utils.AppHttp
+import com.cz.fitnessdiary.utils.ImagePreparer
 import com.google.gson.Gson
 import com.google.gson.JsonArray
-import com.google.gson.JsonElement
 import com.google.gson.JsonObject
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
 import okhttp3.MediaType.Companion.toMediaType
-import okhttp3.OkHttpClient
+import okhttp3.MediaType
 import okhttp3.Request
+import okhttp3.RequestBody
 import okhttp3.RequestBody.Companion.toRequestBody
-import java.io.ByteArrayOutputStream
+import okio.BufferedSink
 import java.util.concurrent.TimeUnit
 
 /** Direct MiMo client for a private, single-user APK. */
 object MiMoService {
     private const val API_URL = "https://api.xiaomimimo.com/v1/chat/completions"
-    private val client = OkHttpClient.Builder()
+
+    /** 上传图片的最长边（像素），调用方解码时也按此子采样 */
+    const val MAX_IMAGE_EDGE = 1280
+
+    /** 上传图片 JPEG 的字节预算，超出时逐级降低质量 */
+    const val MAX_IMAGE_BYTES = 320 * 1024
+
+    private const val IMAGE_PLACEHOLDER = "__fitnessdiary_image_data_url__"
+    private val JSON_MEDIA_TYPE = "application/json".toMediaType()
+    private val client = AppHttp.newBuilder()
         .connectTimeout(60, TimeUnit.SECONDS)
         .readTimeout(60, TimeUnit.SECONDS)
         .writeTimeout(60, TimeUnit.SECONDS)
@@ -37,6 +49,21 @@ object MiMoService {
         image: Bitmap?,
         history: List<ChatMessageEntity>?,
         callback: AICallback
+    ) {
+        sendMessage(message, systemInstruction, image, history, false, callback)
+    }
+
+    /**
+     * @param stream 为 true 时以 SSE 方式逐块接收回复，期间通过 [AICallback.onPartialUpdate] 回传累积内容
+     */
+    @JvmStatic
+    fun sendMessage(
+        message: String,
+        systemInstruction: String?,
+        image: Bitmap?,
+        history: List<ChatMessageEntity>?,
+        stream: Boolean,
+        callback: AICallback
     ) {
         scope.launch {
             if (BuildConfig.MIMO_API_KEY.isBlank()) {
@@ -58,11 +85,13 @@ object MiMoService {
                     })
                 }
                 val userContent = JsonArray()
-                if (image != null) {
+                val jpeg = image?.let { encodeImage(it) }
+                if (jpeg != null) {
                     userContent.add(JsonObject().apply {
                         addProperty("type", "image_url")
                         add("image_url", JsonObject().apply {
-                            addProperty("url", bitmapToDataUrl(image))
+                            // 占位符在写请求体时替换为 data URL，见 ImageJsonRequestBody
+                            addProperty("url", IMAGE_PLACEHOLDER)
                         })
                     })
                 }
@@ -78,7 +107,10 @@ object MiMoService {
                 val requestJson = JsonObject().apply {
                     addProperty("model", "mimo-v2.5")
                     add("messages", messages)
-                    addProperty("stream", false)
+                    addProperty("stream", stream)
+                    if (stream) {
+                        add("stream_options", JsonObject().apply { addProperty("include_usage", true) })
+                    }
                     add("thinking", JsonObject().apply { addProperty("type", "disabled") })
                     // MiMo may return multimodal content as an array of text parts.
                     // The prompt already requests JSON; omitting response_format keeps
@@ -88,29 +120,42 @@ object MiMoService {
                     .url(API_URL)
                     .header("api-key", BuildConfig.MIMO_API_KEY)
                     .header("Content-Type", "application/json")
-                    .post(gson.toJson(requestJson).toRequestBody("application/json".toMediaType()))
+                    .post(
+                        if (jpeg != null) ImageJsonRequestBody(gson.toJson(requestJson), jpeg)
+                        else gson.toJson(requestJson).toRequestBody(JSON_MEDIA_TYPE)
+                    )
                     .build()
 
                 client.newCall(request).execute().use { response ->
-                    val responseText = response.body?.string().orEmpty()
-                    if (!response.isSuccessful) {
+                    val body = response.body
+                    if (!response.isSuccessful || body == null) {
                         withContext(Dispatchers.Main) {
                             callback.onError("MiMo 请求失败（HTTP ${response.code}）")
                         }
                         return@launch
                     }
-                    val root = gson.fromJson(responseText, JsonObject::class.java)
-                    val choice = root.getAsJsonArray("choices")?.get(0)?.asJsonObject
-                    val messageObject = choice?.getAsJsonObject("message")
-                    val content = readMessageText(messageObject?.get("content"))
-                    val reasoning = readMessageText(messageObject?.get("reasoning_content"))
+                    val content: String
+                    val reasoning: String
+                    val usage: JsonObject?
+                    if (stream) {
+                        val parser = ChatStreamParser.consume(body, callback)
+                        content = parser.content
+                        reasoning = parser.reasoning
+                        usage = parser.usage
+                    } else {
+                        val root = gson.fromJson(body.string(), JsonObject::class.java)
+                        val choice = root.getAsJsonArray("choices")?.get(0)?.asJsonObject
+                        val messageObject = choice?.getAsJsonObject("message")
+                        content = ChatStreamParser.readText(messageObject?.get("content"))
+                        reasoning = ChatStreamParser.readText(messageObject?.get("reasoning_content"))
+                        usage = root.getAsJsonObject("usage")
+                    }
                     if (content.isBlank() && reasoning.isBlank()) {
                         withContext(Dispatchers.Main) {
                             callback.onError("AI 未返回识别内容，请重试")
                         }
                         return@launch
                     }
-                    val usage = root.getAsJsonObject("usage")
                     AiUsageStore.record(
                         "MiMo",
                         usage?.get("prompt_tokens")?.asInt ?: 0,
@@ -127,31 +172,39 @@ object MiMoService {
         }
     }
 
-    private fun readMessageText(element: JsonElement?): String {
-        if (element == null || element.isJsonNull) return ""
-        if (element.isJsonPrimitive) return element.asString
-        if (element.isJsonArray) {
-            return element.asJsonArray.joinToString("") { part ->
-                if (part.isJsonPrimitive) {
-                    part.asString
-                } else if (part.isJsonObject) {
-                    readMessageText(part.asJsonObject.get("text"))
-                } else {
-                    ""
-                }
-            }
-        }
-        if (element.isJsonObject) {
-            return readMessageText(element.asJsonObject.get("text"))
+    /** 缩到 [MAX_IMAGE_EDGE] 以内并按 [MAX_IMAGE_BYTES] 编码；调用方已按该尺寸解码时不再复制位图 */
+    private fun encodeImage(source: Bitmap): ByteArray {
+        val scaled = ImagePreparer.scaleToMaxEdge(source, MAX_IMAGE_EDGE)
+        try {
+            return ImagePreparer.encodeJpeg(scaled, MAX_IMAGE_BYTES)
+        } finally {
+            if (scaled !== source) scaled.recycle()
         }
-        return ""
     }
 
-    private fun bitmapToDataUrl(source: Bitmap): String {
-        val output = ByteArrayOutputStream()
-        // Preserve the complete decoded image. The provider still applies its own request limits.
-        source.compress(Bitmap.CompressFormat.JPEG, 100, output)
-        return "data:image/jpeg;base64," + Base64.encodeToString(output.toByteArray(), Base64.NO_WRAP)
+    /**
+     * 带图片的请求体：JSON 中的占位符在写出时替换为 data URL，
+     * Base64 边编码边写入网络流，不在内存中拼出整段 Base64 字符串和请求 JSON
+     */
+    private class ImageJsonRequestBody(json: String, private val jpeg: ByteArray) : RequestBody() {
+        private val head: ByteArray
+        private val tail: ByteArray
+
+        init {
+            val index = json.indexOf(IMAGE_PLACEHOLDER)
+            head = (json.substring(0, index) + "data:image/jpeg;base64,").toByteArray(Charsets.UTF_8)
+            tail = json.substring(index + IMAGE_PLACEHOLDER.length).toByteArray(Charsets.UTF_8)
+        }
+
+        override fun contentType(): MediaType = JSON_MEDIA_TYPE
+
+        override fun contentLength(): Long = head.size + (jpeg.size + 2L) / 3 * 4 + tail.size
+
+        override fun writeTo(sink: BufferedSink) {
+            sink.write(head)
+            Base64OutputStream(sink.outputStream(), Base64.NO_WRAP or Base64.NO_CLOSE).use { it.write(jpeg) }
+            sink.write(tail)
+        }
     }
 
     private const val DEFAULT_SYSTEM_PROMPT =
@@ -2,16 +2,18 @@ package com.cz.fitnessdiary.service;
 
 import android.util.Log;
 
+import com.cz.fitnessdiary.utils.AppExecutors;
+import com.cz.fitnessdiary.utils.AppHttp;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
 
 /**
  * Open Food Facts API integration for barcode-based food lookup.
@@ -21,7 +23,11 @@ public class OpenFoodFactsService {
 
     private static final String TAG = "OpenFoodFactsService";
     private static final String API_BASE = "https://world.openfoodfacts.org/api/v0/product/";
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final OkHttpClient CLIENT = AppHttp.newBuilder()
+            .connectTimeout(10, TimeUnit.SECONDS)
+            .readTimeout(10, TimeUnit.SECONDS)
+            .build();
+    private final ExecutorService executor = AppExecutors.get().network();
 
     public interface LookupCallback {
         void onSuccess(FoodResult result);
@@ -52,32 +58,22 @@ public class OpenFoodFactsService {
 
     public void lookupByBarcode(String barcode, LookupCallback callback) {
         executor.execute(() -> {
-            HttpURLConnection conn = null;
             try {
                 String urlStr = API_BASE + URLEncoder.encode(barcode, "UTF-8")
                         + ".json?fields=product_name,nutriments,quantity";
-                URL url = new URL(urlStr);
-                conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setConnectTimeout(10000);
-                conn.setReadTimeout(10000);
-                conn.setRequestProperty("User-Agent", "FitnessDiary/1.6 (Android)");
-
-                int code = conn.getResponseCode();
+                Request request = new Request.Builder()
+                        .url(urlStr)
+                        .header("User-Agent", "FitnessDiary/1.6 (Android)")
+                        .build();
+                // 同一条码的并发查询只请求一次；响应按服务端缓存头进入共享 HTTP 缓存
+                AppHttp.TextResponse response = AppHttp.getText(CLIENT, request);
+                int code = response.code;
                 if (code != 200) {
                     callback.onError("服务器返回错误: " + code);
                     return;
                 }
 
-                BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-                StringBuilder sb = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    sb.append(line);
-                }
-                reader.close();
-
-                JSONObject root = new JSONObject(sb.toString());
+                JSONObject root = new JSONObject(response.body);
                 int status = root.optInt("status", 0);
                 if (status != 1) {
                     callback.onNotFound();
@@ -116,14 +112,13 @@ public class OpenFoodFactsService {
             } catch (Exception e) {
                 Log.e(TAG, "Barcode lookup failed", e);
                 callback.onError("查询失败: " + e.getMessage());
-            } finally {
-                if (conn != null)
-                    conn.disconnect();
             }
         });
     }
 
+    /**
+     * 网络线程池为全局共享，无需关闭；保留该方法以兼容现有调用
+     */
     public void shutdown() {
-        executor.shutdown();
     }
 }
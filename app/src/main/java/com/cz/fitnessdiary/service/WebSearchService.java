@@ -1,16 +1,18 @@
 package com.cz.fitnessdiary.service;
 
+import com.cz.fitnessdiary.utils.AppHttp;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
 import java.net.URLEncoder;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
 
 /**
  * 轻量联网搜索服务（免 API Key）。
@@ -22,6 +24,10 @@ public final class WebSearchService {
     private static final int CONNECT_TIMEOUT_MS = 8000;
     private static final int READ_TIMEOUT_MS = 10000;
     private static final int MAX_ITEMS = 4;
+    private static final OkHttpClient CLIENT = AppHttp.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .readTimeout(READ_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+            .build();
 
     private WebSearchService() {
     }
@@ -31,31 +37,20 @@ public final class WebSearchService {
             return "";
         }
 
-        HttpURLConnection connection = null;
-        BufferedReader reader = null;
         try {
             String encoded = URLEncoder.encode(query.trim(), StandardCharsets.UTF_8.name());
-            URL url = new URL(SEARCH_ENDPOINT + encoded);
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
-            connection.setReadTimeout(READ_TIMEOUT_MS);
-            connection.setRequestProperty("Accept", "application/json");
-            connection.setRequestProperty("User-Agent", "FitnessDiary/1.0");
-
-            int code = connection.getResponseCode();
-            if (code != HttpURLConnection.HTTP_OK) {
+            Request request = new Request.Builder()
+                    .url(SEARCH_ENDPOINT + encoded)
+                    .header("Accept", "application/json")
+                    .header("User-Agent", "FitnessDiary/1.0")
+                    .build();
+            // 相同问题的并发搜索只请求一次
+            AppHttp.TextResponse response = AppHttp.getText(CLIENT, request);
+            if (response.code != 200) {
                 return "";
             }
 
-            reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
-            StringBuilder body = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                body.append(line);
-            }
-
-            JSONObject json = new JSONObject(body.toString());
+            JSONObject json = new JSONObject(response.body);
             List<String> lines = new ArrayList<>();
 
             String abstractText = json.optString("AbstractText", "").trim();
@@ -83,16 +78,6 @@ public final class WebSearchService {
             return summary.toString();
         } catch (Exception ignored) {
             return "";
-        } finally {
-            try {
-                if (reader != null) {
-                    reader.close();
-                }
-            } catch (Exception ignored) {
-            }
-            if (connection != null) {
-                connection.disconnect();
-            }
         }
     }
 
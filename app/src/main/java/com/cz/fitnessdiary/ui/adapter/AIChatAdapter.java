@@ -15,24 +15,35 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.ConcatAdapter;
 import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cz.fitnessdiary.model.ChatMessage;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
-public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+/**
+ * AI 聊天消息列表：已落库的消息按页加载（最新的在前，配合倒序布局显示在底部），
+ * 尚未落库的待回复项由内部的 PendingReplyAdapter 单独展示，二者通过 ConcatAdapter 拼接
+ */
+public class AIChatAdapter extends PagingDataAdapter<ChatMessage, RecyclerView.ViewHolder> {
 
     private static final int TYPE_USER = 1;
     private static final int TYPE_AI = 2;
     private static final int TYPE_THINKING = 3;
     private static final int COLLAPSE_LIMIT = 220;
+    private static final String STREAMING_PLACEHOLDER = "正在生成…";
 
-    private List<ChatMessage> messages = new ArrayList<>();
+    private final PendingReplyAdapter pendingAdapter = new PendingReplyAdapter();
+    private final ConcatAdapter concatAdapter = new ConcatAdapter(pendingAdapter, this);
     private OnMessageLongClickListener longClickListener;
     private OnActionClickListener actionClickListener;
     private final Set<Long> expandedMessageKeys = new HashSet<>();
@@ -41,8 +52,33 @@ public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
     // 多选相关
     private boolean isSelectionMode = false;
     private final java.util.Set<Long> selectedMessageIds = new java.util.HashSet<>();
+    private int selectableCount = -1;
     private OnSelectionChangeListener selectionChangeListener;
 
+    public AIChatAdapter() {
+        super(DIFF);
+    }
+
+    /**
+     * 绑定到列表：倒序布局使位置 0（待回复项或最新消息）位于底部；
+     * 新内容插入底部时，若用户原本停留在底部则保持贴底
+     */
+    public void attachTo(RecyclerView list) {
+        LinearLayoutManager layoutManager = new LinearLayoutManager(list.getContext(),
+                RecyclerView.VERTICAL, true);
+        list.setLayoutManager(layoutManager);
+        list.setAdapter(concatAdapter);
+        concatAdapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                if (positionStart <= pendingAdapter.getItemCount()
+                        && layoutManager.findFirstVisibleItemPosition() <= 1) {
+                    list.scrollToPosition(0);
+                }
+            }
+        });
+    }
+
     public interface OnMessageLongClickListener {
         void onMessageLongClick(ChatMessage message);
     }
@@ -72,7 +108,12 @@ public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
             return;
         }
         this.showReasoning = showReasoning;
+        refreshAll();
+    }
+
+    private void refreshAll() {
         notifyDataSetChanged();
+        pendingAdapter.notifyDataSetChanged();
     }
 
     // --- 多选方法 ---
@@ -86,8 +127,9 @@ public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
         this.isSelectionMode = selectionMode;
         if (!selectionMode) {
             selectedMessageIds.clear();
+            selectableCount = -1;
         }
-        notifyDataSetChanged();
+        refreshAll();
     }
 
     public void toggleSelection(long messageId) {
@@ -96,31 +138,26 @@ public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
         } else {
             selectedMessageIds.add(messageId);
         }
-        notifyDataSetChanged();
+        refreshAll();
         if (selectionChangeListener != null) {
             selectionChangeListener.onSelectionChange(selectedMessageIds.size());
         }
     }
 
-    public void selectAll() {
-        int selectableCount = 0;
-        for (ChatMessage msg : messages) {
-            if (msg.getId() > 0)
-                selectableCount++;
-        }
-
-        if (selectedMessageIds.size() == selectableCount && selectableCount > 0) {
+    /**
+     * 全选 / 取消全选。ids 为会话内全部消息 ID（包括尚未加载的分页）
+     */
+    public void selectAll(Collection<Long> ids) {
+        selectableCount = ids.size();
+        if (selectedMessageIds.size() == selectableCount && selectedMessageIds.containsAll(ids)
+                && selectableCount > 0) {
             // 已全选，则取消全选
             selectedMessageIds.clear();
         } else {
             // 否则全选
-            for (ChatMessage msg : messages) {
-                if (msg.getId() > 0) {
-                    selectedMessageIds.add(msg.getId());
-                }
-            }
+            selectedMessageIds.addAll(ids);
         }
-        notifyDataSetChanged();
+        refreshAll();
         if (selectionChangeListener != null) {
             selectionChangeListener.onSelectionChange(selectedMessageIds.size());
         }
@@ -130,50 +167,55 @@ public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
         return new ArrayList<>(selectedMessageIds);
     }
 
-    public List<ChatMessage> getMessages() {
-        return messages;
+    /**
+     * 最近一次全选时的可选消息数，尚未全选过时为 -1
+     */
+    public int getSelectableCount() {
+        return selectableCount;
     }
 
-    public void setMessages(List<ChatMessage> newMessages) {
-        // 清理已不在消息列表中的展开状态，避免集合增长
-        Set<Long> validKeys = new HashSet<>();
-        for (ChatMessage message : newMessages) {
-            validKeys.add(getStableMessageKey(message));
-        }
-        expandedMessageKeys.retainAll(validKeys);
+    /**
+     * 已加载到内存中的消息（最新的在前），未加载的更早消息不包含在内
+     */
+    public List<ChatMessage> getLoadedMessages() {
+        return snapshot().getItems();
+    }
 
-        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
-            @Override
-            public int getOldListSize() {
-                return messages.size();
-            }
+    /**
+     * 设置待回复项（思考中占位或生成中的消息），null 表示移除
+     */
+    public void setPendingReply(ChatMessage message) {
+        pendingAdapter.setMessage(message);
+    }
 
-            @Override
-            public int getNewListSize() {
-                return newMessages.size();
-            }
+    /**
+     * 流式回复增量刷新：只替换正在生成的那一条消息，
+     * 若新内容是旧内容的延续，则以 payload 形式只追加新增的尾部文本，避免整条重新绑定
+     */
+    public void updateStreamingMessage(ChatMessage update) {
+        pendingAdapter.updateStreaming(update);
+    }
 
-            @Override
-            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
-                ChatMessage oldMsg = messages.get(oldItemPosition);
-                ChatMessage newMsg = newMessages.get(newItemPosition);
-                return oldMsg.getTimestamp() == newMsg.getTimestamp();
-            }
+    /** 返回 current 相对 previous 追加的部分；不是单纯追加时返回 null */
+    private static String appendedTail(String previous, String current) {
+        String before = previous == null ? "" : previous;
+        String after = current == null ? "" : current;
+        return after.startsWith(before) ? after.substring(before.length()) : null;
+    }
 
-            @Override
-            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-                ChatMessage oldMsg = messages.get(oldItemPosition);
-                ChatMessage newMsg = newMessages.get(newItemPosition);
-                return oldMsg.getContent().equals(newMsg.getContent()) &&
-                        ((oldMsg.getReasoning() == null && newMsg.getReasoning() == null) ||
-                                (oldMsg.getReasoning() != null && oldMsg.getReasoning().equals(newMsg.getReasoning())))
-                        &&
-                        ((oldMsg.getMediaPath() == null && newMsg.getMediaPath() == null) ||
-                                (oldMsg.getMediaPath() != null && oldMsg.getMediaPath().equals(newMsg.getMediaPath())));
-            }
-        });
-        this.messages = new ArrayList<>(newMessages);
-        result.dispatchUpdatesTo(this);
+    private static boolean isBlank(String text) {
+        return text == null || text.trim().isEmpty();
+    }
+
+    /** 流式增量 payload */
+    private static final class StreamingTail {
+        final String content;
+        final String reasoning;
+
+        StreamingTail(String content, String reasoning) {
+            this.content = content;
+            this.reasoning = reasoning;
+        }
     }
 
     private long getStableMessageKey(ChatMessage message) {
@@ -209,7 +251,12 @@ public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 
     @Override
     public int getItemViewType(int position) {
-        ChatMessage msg = messages.get(position);
+        return viewTypeOf(peek(position));
+    }
+
+    private static int viewTypeOf(ChatMessage msg) {
+        if (msg == null)
+            return TYPE_AI;
         if (msg.isUser())
             return TYPE_USER;
         // 约定：如果内容是 "THINKING_INDICATOR" 或以 "_THINKING" 结尾，显示思考动画
@@ -222,6 +269,10 @@ public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
     @NonNull
     @Override
     public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return createHolder(parent, viewType);
+    }
+
+    private static RecyclerView.ViewHolder createHolder(@NonNull ViewGroup parent, int viewType) {
         if (viewType == TYPE_USER) {
             View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_chat_message_user, parent,
                     false);
@@ -238,7 +289,13 @@ public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        ChatMessage message = messages.get(position);
+        ChatMessage message = getItem(position);
+        if (message != null) {
+            bindMessage(holder, message);
+        }
+    }
+
+    private void bindMessage(@NonNull RecyclerView.ViewHolder holder, @NonNull ChatMessage message) {
         boolean isSelected = selectedMessageIds.contains(message.getId());
 
         if (holder instanceof UserViewHolder) {
@@ -326,6 +383,15 @@ public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
             aiHolder.cbSelect.setChecked(isSelected);
             aiHolder.itemView.setAlpha(isSelected ? 0.6f : 1.0f);
 
+            if (message.isStreaming()) {
+                // 生成中：原样展示已收到的文本，不做清洗、折叠和动作解析，后续增量由 payload 追加
+                aiHolder.tvContent.setVisibility(View.VISIBLE);
+                aiHolder.tvContent.setText(isBlank(safeRawContent) ? STREAMING_PLACEHOLDER : safeRawContent);
+                aiHolder.tvContent.setOnClickListener(null);
+                aiHolder.btnAction.setVisibility(View.GONE);
+                return;
+            }
+
             // 解析 <action> 标签 - 支持多个标签汇总
             Pattern actionPattern = Pattern.compile("<action>(.*?)</action>", Pattern.DOTALL);
             Matcher matcher = actionPattern.matcher(safeRawContent);
@@ -415,9 +481,10 @@ public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
                     } else {
                         expandedMessageKeys.add(messageKey);
                     }
+                    RecyclerView.Adapter<? extends RecyclerView.ViewHolder> owner = holder.getBindingAdapter();
                     int positionToUpdate = holder.getBindingAdapterPosition();
-                    if (positionToUpdate != RecyclerView.NO_POSITION) {
-                        notifyItemChanged(positionToUpdate);
+                    if (owner != null && positionToUpdate != RecyclerView.NO_POSITION) {
+                        owner.notifyItemChanged(positionToUpdate);
                     }
                 });
             } else if (!reasoningOnly) {
@@ -485,11 +552,109 @@ public class AIChatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
         }
     }
 
-    @Override
-    public int getItemCount() {
-        return messages.size();
+    /**
+     * 列表底部的待回复项（最多一条），不参与分页，流式增量只刷新这一项
+     */
+    private final class PendingReplyAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private ChatMessage message;
+
+        void setMessage(ChatMessage next) {
+            ChatMessage previous = message;
+            message = next;
+            if (previous == null && next != null) {
+                notifyItemInserted(0);
+            } else if (previous != null && next == null) {
+                notifyItemRemoved(0);
+            } else if (previous != null) {
+                notifyItemChanged(0);
+            }
+        }
+
+        void updateStreaming(ChatMessage update) {
+            ChatMessage old = message;
+            if (update == null || old == null || !old.isStreaming()
+                    || old.getTimestamp() != update.getTimestamp()) {
+                return;
+            }
+            message = update;
+            String contentTail = appendedTail(old.getContent(), update.getContent());
+            String reasoningTail = appendedTail(old.getReasoning(), update.getReasoning());
+            // 内容或推理从无到有时布局会变化（占位文本、推理区显隐），需要完整绑定
+            boolean sameShape = isBlank(old.getContent()) == isBlank(update.getContent())
+                    && isBlank(old.getReasoning()) == isBlank(update.getReasoning());
+            if (contentTail != null && reasoningTail != null && sameShape) {
+                if (!contentTail.isEmpty() || !reasoningTail.isEmpty()) {
+                    notifyItemChanged(0, new StreamingTail(contentTail, reasoningTail));
+                }
+            } else {
+                notifyItemChanged(0);
+            }
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return viewTypeOf(message);
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return createHolder(parent, viewType);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position,
+                @NonNull List<Object> payloads) {
+            if (payloads.isEmpty() || !(holder instanceof AIViewHolder)) {
+                onBindViewHolder(holder, position);
+                return;
+            }
+            for (Object payload : payloads) {
+                if (!(payload instanceof StreamingTail)) {
+                    onBindViewHolder(holder, position);
+                    return;
+                }
+            }
+            AIViewHolder aiHolder = (AIViewHolder) holder;
+            for (Object payload : payloads) {
+                StreamingTail tail = (StreamingTail) payload;
+                if (!tail.content.isEmpty()) {
+                    aiHolder.tvContent.append(tail.content);
+                }
+                if (!tail.reasoning.isEmpty() && aiHolder.layoutReasoning.getVisibility() == View.VISIBLE) {
+                    aiHolder.tvReasoning.append(tail.reasoning);
+                }
+            }
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+            if (message != null) {
+                bindMessage(holder, message);
+            }
+        }
+
+        @Override
+        public int getItemCount() {
+            return message == null ? 0 : 1;
+        }
     }
 
+    private static final DiffUtil.ItemCallback<ChatMessage> DIFF = new DiffUtil.ItemCallback<ChatMessage>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ChatMessage oldItem, @NonNull ChatMessage newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ChatMessage oldItem, @NonNull ChatMessage newItem) {
+            return Objects.equals(oldItem.getContent(), newItem.getContent())
+                    && Objects.equals(oldItem.getReasoning(), newItem.getReasoning())
+                    && Objects.equals(oldItem.getMediaPath(), newItem.getMediaPath())
+                    && oldItem.isStreaming() == newItem.isStreaming();
+        }
+    };
+
     static class UserViewHolder extends RecyclerView.ViewHolder {
         TextView tvContent;
         ImageView ivMedia;
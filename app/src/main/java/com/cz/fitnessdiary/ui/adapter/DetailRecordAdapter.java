@@ -30,13 +30,20 @@ public class DetailRecordAdapter extends ListAdapter<DetailRecordAdapter.Item, D
     @NonNull
     @Override
     public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_detail_record, parent, false);
-        return new VH(view);
+        return createHolder(parent);
     }
 
     @Override
     public void onBindViewHolder(@NonNull VH holder, int position) {
-        Item item = getItem(position);
+        bind(holder, getItem(position), listener);
+    }
+
+    static VH createHolder(@NonNull ViewGroup parent) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_detail_record, parent, false);
+        return new VH(view);
+    }
+
+    static void bind(@NonNull VH holder, @NonNull Item item, OnItemActionListener listener) {
         holder.tvTitle.setText(item.title);
         holder.tvSubtitle.setText(item.subtitle);
         holder.tvValue.setText(item.value);
@@ -93,7 +100,7 @@ public class DetailRecordAdapter extends ListAdapter<DetailRecordAdapter.Item, D
         }
     }
 
-    private static final DiffUtil.ItemCallback<Item> DIFF = new DiffUtil.ItemCallback<Item>() {
+    static final DiffUtil.ItemCallback<Item> DIFF = new DiffUtil.ItemCallback<Item>() {
         @Override
         public boolean areItemsTheSame(@NonNull Item oldItem, @NonNull Item newItem) {
             return oldItem.id == newItem.id;
@@ -0,0 +1,35 @@
+package com.cz.fitnessdiary.ui.adapter;
+
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+
+/**
+ * 详情页历史记录的分页版本：与 DetailRecordAdapter 共用布局、绑定和 DiffUtil，
+ * 数据来自 Paging，滚动到底部时按页加载更早的记录
+ */
+public class DetailRecordPagingAdapter
+        extends PagingDataAdapter<DetailRecordAdapter.Item, DetailRecordAdapter.VH> {
+
+    private final DetailRecordAdapter.OnItemActionListener listener;
+
+    public DetailRecordPagingAdapter(DetailRecordAdapter.OnItemActionListener listener) {
+        super(DetailRecordAdapter.DIFF);
+        this.listener = listener;
+    }
+
+    @NonNull
+    @Override
+    public DetailRecordAdapter.VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return DetailRecordAdapter.createHolder(parent);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull DetailRecordAdapter.VH holder, int position) {
+        DetailRecordAdapter.Item item = getItem(position);
+        if (item != null) {
+            DetailRecordAdapter.bind(holder, item, listener);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import android.content.res.ColorStateList;
 import androidx.core.content.ContextCompat;
 import com.bumptech.glide.Glide;
 import com.cz.fitnessdiary.R;
+import com.cz.fitnessdiary.utils.ExerciseMediaIndex;
 
 /**
  * 分组训练计划适配器 - Plan 10
@@ -302,7 +303,9 @@ public class GroupedPlanAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
                     if (plan.getMediaUri().startsWith("/")) {
                         loadTarget = Uri.fromFile(new java.io.File(plan.getMediaUri()));
                     } else {
-                        loadTarget = Uri.parse(plan.getMediaUri());
+                        // 旧计划保存的 assets/gifs/xxx.gif 可能已转码为 .webp
+                        loadTarget = Uri.parse(ExerciseMediaIndex.get(itemView.getContext())
+                                .resolveAssetUrl(plan.getMediaUri()));
                     }
 
                     Glide.with(itemView.getContext())
@@ -329,7 +332,6 @@ public class GroupedPlanAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
                 String gifPath = findGifForPlan(plan.getName(), plan.getCategory());
                 if (gifPath != null) {
                     Glide.with(itemView.getContext())
-                            .asGif()
                             .load(gifPath)
                             .placeholder(R.drawable.ic_placeholder_plan)
                             .error(R.drawable.ic_placeholder_plan)
@@ -380,47 +382,19 @@ public class GroupedPlanAdapter extends RecyclerView.Adapter<RecyclerView.ViewHo
             });
         }
 
-        // 缓存 assets/gifs 目录文件列表，避免每次调用都 list
-        private String[] cachedGifFiles = null;
-
         /**
-         * 根据计划名称和分类查找对应的 GIF 动图路径。
-         * 使用 getAssets().list() + equalsIgnoreCase 与 ExerciseDetailBottomSheet 一致，避免中文文件名编码问题。
+         * 根据计划名称和分类查找对应的动图路径：先精确匹配动作名称，再按身体部位回退。
+         * 与 ExerciseDetailBottomSheet 共用 ExerciseMediaIndex，忽略大小写且兼容转码后的 .webp
          */
         private String findGifForPlan(String planName, String category) {
-            if (cachedGifFiles == null) {
-                try {
-                    cachedGifFiles = itemView.getContext().getAssets().list("gifs");
-                } catch (java.io.IOException e) {
-                    cachedGifFiles = new String[0];
-                }
-            }
-
-            String targetGifName = planName + ".gif";
-            String gifUrl = null;
-
-            // 1. 精确匹配动作名称
-            for (String file : cachedGifFiles) {
-                if (file.equalsIgnoreCase(targetGifName)) {
-                    gifUrl = "file:///android_asset/gifs/" + file; // 保留原始大小写
-                    break;
-                }
-            }
-
-            // 2. 回退：按身体部位查找
+            ExerciseMediaIndex index = ExerciseMediaIndex.get(itemView.getContext());
+            String gifUrl = index.findMediaUrl(planName);
             if (gifUrl == null) {
                 String bodyPart = extractBodyPart(category);
                 if (bodyPart != null) {
-                    String fallbackName = bodyPart + ".gif";
-                    for (String file : cachedGifFiles) {
-                        if (file.equalsIgnoreCase(fallbackName)) {
-                            gifUrl = "file:///android_asset/gifs/" + file;
-                            break;
-                        }
-                    }
+                    gifUrl = index.findMediaUrl(bodyPart);
                 }
             }
-
             return gifUrl;
         }
 
@@ -13,6 +13,7 @@ import com.bumptech.glide.Glide;
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.databinding.ItemTrainingPlanBinding;
+import com.cz.fitnessdiary.utils.ExerciseMediaIndex;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -117,7 +118,9 @@ public class TrainingPlanAdapter extends RecyclerView.Adapter<TrainingPlanAdapte
                     if (plan.getMediaUri().startsWith("/")) {
                         loadTarget = new java.io.File(plan.getMediaUri());
                     } else {
-                        loadTarget = Uri.parse(plan.getMediaUri());
+                        // 旧计划保存的 assets/gifs/xxx.gif 可能已转码为 .webp
+                        loadTarget = Uri.parse(ExerciseMediaIndex.get(binding.getRoot().getContext())
+                                .resolveAssetUrl(plan.getMediaUri()));
                     }
 
                     Glide.with(binding.getRoot().getContext())
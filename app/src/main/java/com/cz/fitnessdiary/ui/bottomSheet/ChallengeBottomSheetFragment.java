@@ -27,6 +27,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.databinding.FragmentChallengeBottomSheetBinding;
 import com.cz.fitnessdiary.databinding.ItemChallengeCardBinding;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.ChallengeManager;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 import com.google.android.material.card.MaterialCardView;
@@ -39,7 +40,6 @@ import java.text.SimpleDateFormat;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Executors;
 
 public class ChallengeBottomSheetFragment extends BottomSheetDialogFragment {
 
@@ -82,7 +82,7 @@ public class ChallengeBottomSheetFragment extends BottomSheetDialogFragment {
         Context context = getContext();
         if (context == null) return;
 
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 ChallengeManager.checkTodaySync(context);
             } catch (Exception ignored) {}
@@ -189,7 +189,7 @@ public class ChallengeBottomSheetFragment extends BottomSheetDialogFragment {
 
         itemBinding.btnActiveAbandon.setOnClickListener(v -> showAbandonConfirm(active.id));
 
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             int[] tracking = ChallengeManager.getDayTrackingStatusSync(context, active);
             boolean checkedToday = ChallengeManager.isCheckedTodaySync(context, active);
             int streak = ChallengeManager.getStreak(context, active);
@@ -215,7 +215,7 @@ public class ChallengeBottomSheetFragment extends BottomSheetDialogFragment {
                                 .setTitle("使用请假条")
                                 .setMessage("确定要使用请假条吗？当天将免于失败判定。剩余：" + active.freezeTickets + "张")
                                 .setPositiveButton("使用", (d, w) -> {
-                                    Executors.newSingleThreadExecutor().execute(() -> {
+                                    AppExecutors.get().diskIO().execute(() -> {
                                         ChallengeManager.useFreezeTicketTodaySync(context, active.id);
                                         mainHandler.post(() -> refreshViewStateAsync());
                                     });
@@ -238,7 +238,7 @@ public class ChallengeBottomSheetFragment extends BottomSheetDialogFragment {
                             binding.lottieConfetti.setVisibility(View.VISIBLE);
                             binding.lottieConfetti.playAnimation();
 
-                            Executors.newSingleThreadExecutor().execute(() -> {
+                            AppExecutors.get().diskIO().execute(() -> {
                                 ChallengeManager.checkInTodaySync(context, active.id);
                                 mainHandler.postDelayed(() -> {
                                     android.widget.Toast.makeText(context, "🎉 打卡成功，继续保持！", android.widget.Toast.LENGTH_SHORT).show();
@@ -364,7 +364,7 @@ public class ChallengeBottomSheetFragment extends BottomSheetDialogFragment {
                 .setTitle("确认放弃挑战")
                 .setMessage("放弃后所有进度将清零，确定要放弃吗？")
                 .setPositiveButton("放弃", (d, w) -> {
-                    Executors.newSingleThreadExecutor().execute(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         ChallengeManager.resetActiveSync(context, instanceId);
                         mainHandler.post(() -> {
                             android.widget.Toast.makeText(context, "已放弃当前挑战", android.widget.Toast.LENGTH_SHORT).show();
@@ -449,7 +449,7 @@ public class ChallengeBottomSheetFragment extends BottomSheetDialogFragment {
     private void renderPickerPanelAsync() {
         Context context = getContext();
         if (context == null) return;
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             List<ChallengeManager.Challenge> customs = ChallengeManager.getCustomChallengesSync(context);
             List<ChallengeEntity> completedHistory = ChallengeManager.getCompletedChallengesSync(context);
 
@@ -554,7 +554,7 @@ public class ChallengeBottomSheetFragment extends BottomSheetDialogFragment {
                     .setTitle("开启 " + c.totalDays + " 天挑战")
                     .setMessage("准备好接受「" + c.name + "」挑战了吗？\n\n" + c.desc)
                     .setPositiveButton("立刻开始 🚀", (d, w) -> {
-                        Executors.newSingleThreadExecutor().execute(() -> {
+                        AppExecutors.get().diskIO().execute(() -> {
                             ChallengeManager.startSync(context, c);
                             mainHandler.post(() -> {
                                 Toast.makeText(context, "「" + c.name + "」挑战已开启！", Toast.LENGTH_SHORT).show();
@@ -574,7 +574,7 @@ public class ChallengeBottomSheetFragment extends BottomSheetDialogFragment {
                         .setTitle("删除自定义挑战")
                         .setMessage("确定要删除「" + c.name + "」吗？")
                         .setPositiveButton("删除", (d, w) -> {
-                            Executors.newSingleThreadExecutor().execute(() -> {
+                            AppExecutors.get().diskIO().execute(() -> {
                                 ChallengeManager.deleteCustomChallengeSync(context, c.id);
                                 mainHandler.post(() -> renderPickerPanelAsync());
                             });
@@ -758,7 +758,7 @@ public class ChallengeBottomSheetFragment extends BottomSheetDialogFragment {
 
             boolean setReminder = binding.switchCreateReminder.isChecked() && reminderHour >= 0;
 
-            Executors.newSingleThreadExecutor().execute(() -> {
+            AppExecutors.get().diskIO().execute(() -> {
                 if (editingCustomChallengeId != null) {
                     ChallengeManager.updateCustomChallengeSync(context, c);
                 } else {
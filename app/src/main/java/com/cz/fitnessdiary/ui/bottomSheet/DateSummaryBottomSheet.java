@@ -17,10 +17,13 @@ import androidx.annotation.Nullable;
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.entity.DailyLog;
+import com.cz.fitnessdiary.database.entity.DailyMetric;
 import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.databinding.BottomSheetDateSummaryBinding;
 import com.cz.fitnessdiary.model.DailyHealthSnapshot;
+import com.cz.fitnessdiary.repository.DailyMetricRepository;
 import com.cz.fitnessdiary.repository.HealthAggregationRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.utils.ExerciseMetTable;
 import com.cz.fitnessdiary.utils.TrainingRecordUtils;
@@ -100,7 +103,7 @@ public class DateSummaryBottomSheet extends BottomSheetDialogFragment {
     }
 
     private void loadDateData() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 DailyHealthSnapshot snapshot = repository.getDateSnapshot(dateTimestamp);
 
@@ -114,7 +117,7 @@ public class DateSummaryBottomSheet extends BottomSheetDialogFragment {
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }).start();
+        });
     }
 
     private void loadTrainingDetails() {
@@ -182,8 +185,8 @@ public class DateSummaryBottomSheet extends BottomSheetDialogFragment {
         }
 
         // 如果用户设了当天训练总时长，按加权平均MET重算总消耗
-        int targetMin = requireContext().getSharedPreferences("fitness_diary_prefs", android.content.Context.MODE_PRIVATE)
-                .getInt("target_minutes_" + dateTimestamp, 0);
+        int targetMin = new DailyMetricRepository(requireContext())
+                .getIntSync(DailyMetric.TARGET_MINUTES, dateTimestamp, 0);
         if (targetMin > 0 && totalDurForMet > 0) {
             double avgMet = totalWeightedMet / totalDurForMet;
             totalCalories = (int) (avgMet * userWeight * (targetMin / 60.0));
@@ -198,14 +201,13 @@ public class DateSummaryBottomSheet extends BottomSheetDialogFragment {
         final int finalTotalVolume = totalVolume;
         final int finalTotalDurationSec = totalDurationSec;
         final int finalTotalCalories = totalCalories;
+        final int displayDuration = targetMin > 0 ? targetMin * 60 : totalDurationSec;
 
         if (isAdded()) {
             requireActivity().runOnUiThread(() -> {
                 if (finalTotalVolume > 0 || finalTotalDurationSec > 0) {
                     binding.layoutTrainingTotals.setVisibility(View.VISIBLE);
                     binding.tvTotalVolume.setText("总容量: " + finalTotalVolume);
-                    int displayDuration = ExerciseMetTable.resolveTotalDuration(
-                            finalTotalDurationSec, dateTimestamp, requireContext());
                     binding.tvTotalDuration.setText("总时长: " + String.format(Locale.getDefault(), "%.1f", displayDuration / 60.0f) + " 分钟");
                 }
                 // Update calorie display
@@ -37,6 +37,7 @@ import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.databinding.BottomSheetQuickEntryBinding;
 import com.cz.fitnessdiary.ui.fragment.QuickAiChatBottomSheet;
 import com.cz.fitnessdiary.ui.fragment.MoodPickerBottomSheet;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.utils.UnitUtils;
 import com.cz.fitnessdiary.viewmodel.HomeDashboardViewModel;
@@ -259,7 +260,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
         // 15. 记步数 (简略：输入步数)
         binding.itemQuickStep.setOnClickListener(v -> {
             quickNumberInput("快捷记录步数", "请输入今日手动记录步数，如5000", value -> {
-                new Thread(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     long todayStart = DateUtils.getTodayStartTimestamp();
                     int steps = value.intValue();
                     AppDatabase db = AppDatabase.getInstance(requireContext());
@@ -278,7 +279,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                             dismiss();
                         });
                     }
-                }).start();
+                });
             });
         });
 
@@ -353,7 +354,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
             @Override public void afterTextChanged(android.text.Editable s) {
                 String kw = s.toString().trim();
                 if (!kw.isEmpty()) {
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         com.cz.fitnessdiary.repository.ExerciseLibraryRepository repo =
                                 new com.cz.fitnessdiary.repository.ExerciseLibraryRepository(requireContext());
                         List<com.cz.fitnessdiary.database.entity.ExerciseLibrary> match = repo.searchExercises(kw);
@@ -373,7 +374,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                                 }
                             });
                         }
-                    }).start();
+                    });
                 }
             }
         });
@@ -406,7 +407,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                     int sets = getIntOrDef(etSets, 4);
                     int reps = getIntOrDef(etReps, 12);
 
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         AppDatabase db = AppDatabase.getInstance(requireContext());
                         List<TrainingPlan> all = db.trainingPlanDao().getAllPlansList();
                         TrainingPlan found = null;
@@ -453,7 +454,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                                 dismiss();
                             });
                         }
-                    }).start();
+                    });
                 })
                 .setNegativeButton("取消", null)
                 .show();
@@ -475,16 +476,11 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
             @Override public void afterTextChanged(android.text.Editable s) {
                 String kw = s.toString().trim();
                 if (!kw.isEmpty()) {
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         com.cz.fitnessdiary.repository.FoodLibraryRepository repo =
                                 new com.cz.fitnessdiary.repository.FoodLibraryRepository(requireContext());
-                        List<com.cz.fitnessdiary.database.entity.FoodLibrary> match = repo.searchFoods(kw);
-                        List<String> names = new ArrayList<>();
-                        if (match != null) {
-                            for (com.cz.fitnessdiary.database.entity.FoodLibrary fd : match) {
-                                names.add(fd.getName());
-                            }
-                        }
+                        // 联想同时覆盖食物库、食谱与收藏
+                        List<String> names = repo.searchNames(kw);
                         if (getActivity() != null) {
                             getActivity().runOnUiThread(() -> {
                                 adapter.clear();
@@ -495,7 +491,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                                 }
                             });
                         }
-                    }).start();
+                    });
                 }
             }
         });
@@ -538,7 +534,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                         else if (rb2.isChecked()) mealType = 2;
 
                         final int finalMeal = mealType;
-                        new Thread(() -> {
+                        AppExecutors.get().diskIO().execute(() -> {
                             AppDatabase db = AppDatabase.getInstance(requireContext());
                             com.cz.fitnessdiary.database.entity.FoodLibrary food = db.foodLibraryDao().getFoodByName(name);
 
@@ -575,7 +571,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                                     dismiss();
                                 });
                             }
-                        }).start();
+                        });
                     } catch (Exception ignored) {}
                 })
                 .setNegativeButton("取消", null)
@@ -633,7 +629,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                         else if (rb4.isChecked()) quality = 5;
 
                         final int finalQ = quality;
-                        new Thread(() -> {
+                        AppExecutors.get().diskIO().execute(() -> {
                             Calendar calEnd = Calendar.getInstance();
                             calEnd.set(Calendar.HOUR_OF_DAY, endH);
                             calEnd.set(Calendar.MINUTE, endM);
@@ -661,7 +657,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                                     dismiss();
                                 });
                             }
-                        }).start();
+                        });
                     } catch (Exception ignored) {}
                 })
                 .setNegativeButton("取消", null)
@@ -704,7 +700,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                         int hour = Integer.parseInt(tParts[0].trim());
                         int minute = Integer.parseInt(tParts[1].trim());
 
-                        new Thread(() -> {
+                        AppExecutors.get().diskIO().execute(() -> {
                             Calendar cal = Calendar.getInstance();
                             cal.set(Calendar.HOUR_OF_DAY, hour);
                             cal.set(Calendar.MINUTE, minute);
@@ -718,7 +714,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                                     dismiss();
                                 });
                             }
-                        }).start();
+                        });
                     } catch (Exception ignored) {}
                 })
                 .setNegativeButton("取消", null)
@@ -760,7 +756,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                         float val = Float.parseFloat(valStr);
                         String note = etNote.getText().toString().trim();
 
-                        new Thread(() -> {
+                        AppExecutors.get().diskIO().execute(() -> {
                             String dbType = partName;
                             if ("胸围".equals(partName)) dbType = "CHEST";
                             else if ("腰围".equals(partName)) dbType = "WAIST";
@@ -777,7 +773,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                                     dismiss();
                                 });
                             }
-                        }).start();
+                        });
                     } catch (Exception ignored) {}
                 })
                 .setNegativeButton("取消", null)
@@ -864,7 +860,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
 
                         final String finalNote = etNote.getText().toString().trim();
 
-                        new Thread(() -> {
+                        AppExecutors.get().diskIO().execute(() -> {
                             Calendar cal = Calendar.getInstance();
                             cal.set(Calendar.HOUR_OF_DAY, hour);
                             cal.set(Calendar.MINUTE, minute);
@@ -880,7 +876,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                                     dismiss();
                                 });
                             }
-                        }).start();
+                        });
                     } catch (Exception ignored) {}
                 })
                 .setNegativeButton("取消", null)
@@ -941,7 +937,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
 
                     final String finalNote = etNote.getText().toString().trim();
 
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         long today = DateUtils.getTodayStartTimestamp();
                         AppDatabase.getInstance(requireContext()).menstrualCycleDao().insert(
                                 new MenstrualCycle(today, null, finalFlow, "NONE", finalMood, finalNote, System.currentTimeMillis())
@@ -953,14 +949,14 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                                 dismiss();
                             });
                         }
-                    }).start();
+                    });
                 })
                 .setNegativeButton("取消", null)
                 .show();
     }
 
     private void showQuickHabitDialog() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             AppDatabase db = AppDatabase.getInstance(requireContext());
             List<HabitItem> habits = db.habitItemDao().getEnabledSync();
             if (habits == null || habits.isEmpty()) {
@@ -987,7 +983,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                             .show();
                 });
             }
-        }).start();
+        });
     }
 
     private void showHabitCheckInConfirmDialog(HabitItem habit) {
@@ -1023,7 +1019,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
         if (context == null) return;
         dismiss();
 
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             java.util.Map<Long, Integer> levels = new java.util.HashMap<>();
             long today = com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
             Calendar cal = Calendar.getInstance();
@@ -1063,7 +1059,7 @@ public class QuickEntryBottomSheet extends BottomSheetDialogFragment {
                             .show();
                 });
             }
-        }).start();
+        });
     }
 
     private void showChallengeDialog() {
@@ -15,6 +15,7 @@ import androidx.core.view.GravityCompat;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.ChatSessionEntity;
@@ -127,16 +128,11 @@ public class AIChatFragment extends Fragment {
             binding.tvSelectionCount.setText("已选择 " + count + " 项");
 
             // 动态更新全选按钮文本
-            int selectableCount = 0;
-            for (ChatMessage msg : adapter.getMessages()) {
-                if (msg.getId() > 0)
-                    selectableCount++;
-            }
+            int selectableCount = adapter.getSelectableCount();
             binding.btnSelectAll.setText((count > 0 && count == selectableCount) ? "取消全选" : "全选");
         });
 
-        binding.recyclerViewMessages.setLayoutManager(new LinearLayoutManager(getContext()));
-        binding.recyclerViewMessages.setAdapter(adapter);
+        adapter.attachTo(binding.recyclerViewMessages);
     }
 
     @Override
@@ -400,7 +396,11 @@ public class AIChatFragment extends Fragment {
 
         // 多选管理栏监听
         binding.btnCancelSelection.setOnClickListener(v -> exitSelectionMode());
-        binding.btnSelectAll.setOnClickListener(v -> adapter.selectAll());
+        binding.btnSelectAll.setOnClickListener(v -> viewModel.loadCurrentMessageIds(ids -> {
+            if (binding != null && adapter.isSelectionMode()) {
+                adapter.selectAll(ids);
+            }
+        }));
         binding.btnDeleteSelection.setOnClickListener(v -> {
             List<Long> selectedIds = adapter.getSelectedMessageIds();
             if (selectedIds.isEmpty()) {
@@ -532,29 +532,24 @@ public class AIChatFragment extends Fragment {
         }
         viewModel.setAttachedFileUri(null);
         binding.etInput.setText("");
+        // 发送后回到底部（倒序布局中位置 0 即底部）
+        binding.recyclerViewMessages.scrollToPosition(0);
     }
 
-    private boolean isFirstLoad = true;
-
     private void observeViewModel() {
-        viewModel.getMessages().observe(getViewLifecycleOwner(), messages -> {
-            if (messages == null)
-                return;
-
-            LinearLayoutManager layoutManager = (LinearLayoutManager) binding.recyclerViewMessages.getLayoutManager();
-            boolean isAtBottom = false;
-            if (layoutManager != null && adapter.getItemCount() > 0) {
-                isAtBottom = layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - 2;
-            }
-
-            adapter.setMessages(messages);
-
-            // 滚动处理
-            if (isFirstLoad) {
-                binding.recyclerViewMessages.scrollToPosition(messages.size() - 1);
-                isFirstLoad = false;
-            } else if (isAtBottom || (messages.size() > 0 && messages.get(messages.size() - 1).isUser())) {
-                binding.recyclerViewMessages.smoothScrollToPosition(messages.size() - 1);
+        // 消息分页加载；贴底滚动由 adapter.attachTo 处理
+        viewModel.getMessagePages().observe(getViewLifecycleOwner(),
+                pagingData -> adapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData));
+        viewModel.getPendingReply().observe(getViewLifecycleOwner(), adapter::setPendingReply);
+
+        // 流式回复只增量刷新最后一条消息
+        viewModel.getStreamingUpdate().observe(getViewLifecycleOwner(), update -> {
+            RecyclerView list = binding.recyclerViewMessages;
+            boolean isAtBottom = !list.canScrollVertically(1);
+            adapter.updateStreamingMessage(update);
+            if (isAtBottom) {
+                // 消息变高后保持贴底，跟随生成进度
+                list.post(() -> list.scrollBy(0, list.getHeight()));
             }
         });
 
@@ -585,8 +580,8 @@ public class AIChatFragment extends Fragment {
 
         viewModel.getCurrentSessionId().observe(getViewLifecycleOwner(), id -> {
             sessionAdapter.setCurrentSessionId(id);
-            // 切换会话时标记为初次加载以直接定位到底部
-            isFirstLoad = true;
+            // 切换会话时直接定位到底部
+            binding.recyclerViewMessages.scrollToPosition(0);
         });
 
         viewModel.getUser().observe(getViewLifecycleOwner(), user -> {
@@ -705,7 +700,8 @@ public class AIChatFragment extends Fragment {
     }
 
     private void regenerateFromMessage(ChatMessage aiMessage) {
-        List<ChatMessage> list = adapter.getMessages();
+        // 已加载的消息按最新在前排列，更早的提问位于更大的下标
+        List<ChatMessage> list = adapter.getLoadedMessages();
         int aiIndex = -1;
         for (int i = 0; i < list.size(); i++) {
             ChatMessage msg = list.get(i);
@@ -715,12 +711,12 @@ public class AIChatFragment extends Fragment {
             }
         }
 
-        if (aiIndex <= 0) {
+        if (aiIndex < 0 || aiIndex >= list.size() - 1) {
             Toast.makeText(getContext(), "找不到可重试的上一条提问", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        for (int i = aiIndex - 1; i >= 0; i--) {
+        for (int i = aiIndex + 1; i < list.size(); i++) {
             ChatMessage prev = list.get(i);
             if (prev.isUser() && prev.getContent() != null && !prev.getContent().trim().isEmpty()) {
                 sendChatMessage(prev.getContent().trim());
@@ -931,18 +927,9 @@ public class AIChatFragment extends Fragment {
         return names.get(0) + "等";
     }
     private android.graphics.Bitmap decodeBitmap(android.net.Uri uri) throws Exception {
-        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.P) {
-            android.graphics.ImageDecoder.Source source = android.graphics.ImageDecoder
-                    .createSource(requireContext().getContentResolver(), uri);
-            return android.graphics.ImageDecoder.decodeBitmap(source);
-        }
-        try (java.io.InputStream is = requireContext().getContentResolver().openInputStream(uri)) {
-            android.graphics.Bitmap bitmap = android.graphics.BitmapFactory.decodeStream(is);
-            if (bitmap == null) {
-                throw new IllegalStateException("无法解析图片");
-            }
-            return bitmap;
-        }
+        // 按上传尺寸子采样解码，不把相机原图整张读进内存
+        return com.cz.fitnessdiary.utils.ImagePreparer.decode(requireContext().getContentResolver(), uri,
+                com.cz.fitnessdiary.service.MiMoService.MAX_IMAGE_EDGE);
     }
 
     public void showPageGuide(GuideStateManager guideManager) {
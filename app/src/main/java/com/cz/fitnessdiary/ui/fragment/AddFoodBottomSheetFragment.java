@@ -15,13 +15,13 @@ import androidx.lifecycle.ViewModelProvider;
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.FoodLibrary;
 import com.cz.fitnessdiary.databinding.FragmentAddFoodBottomSheetBinding;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.viewmodel.DietViewModel;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.Executors;
 
 import com.cz.fitnessdiary.database.entity.FavoriteFood;
 import com.cz.fitnessdiary.database.entity.Recipe;
@@ -97,7 +97,7 @@ public class AddFoodBottomSheetFragment extends BottomSheetDialogFragment {
     }
 
     private void setupAutoComplete() {
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             List<FoodLibrary> foods = viewModel.getAllFoodsSync();
             if (foods != null) {
                 allFoodsCache.clear();
@@ -234,7 +234,7 @@ public class AddFoodBottomSheetFragment extends BottomSheetDialogFragment {
             return;
         }
         // 在后台查找食物库
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             FoodLibraryRepository repo = new FoodLibraryRepository(requireActivity().getApplication());
             FoodLibrary found = repo.getFoodByName(foodName);
             if (getActivity() != null) {
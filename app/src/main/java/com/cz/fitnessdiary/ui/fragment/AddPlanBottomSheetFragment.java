@@ -24,6 +24,8 @@ import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.ExerciseLibrary;
 import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.databinding.FragmentAddPlanBottomSheetBinding;
+import com.cz.fitnessdiary.utils.AppExecutors;
+import com.cz.fitnessdiary.utils.ExerciseMediaIndex;
 import com.cz.fitnessdiary.utils.PermissionHelper;
 import com.cz.fitnessdiary.viewmodel.PlanViewModel;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
@@ -237,19 +239,15 @@ public class AddPlanBottomSheetFragment extends BottomSheetDialogFragment {
      * 官方GIF图示选择器：列出assets/gifs/目录，支持模糊搜索
      */
     private void showGifPickerDialog() {
-        new Thread(() -> {
-            String[] gifFiles;
-            try {
-                gifFiles = requireContext().getAssets().list("gifs");
-            } catch (java.io.IOException e) {
+        AppExecutors.get().diskIO().execute(() -> {
+            String[] gifFiles = ExerciseMediaIndex.get(requireContext()).getFileNames();
+            if (gifFiles.length == 0) {
                 if (getActivity() != null) {
                     getActivity().runOnUiThread(
                             () -> Toast.makeText(requireContext(), "无法读取GIF目录", Toast.LENGTH_SHORT).show());
                 }
                 return;
             }
-            if (gifFiles == null || gifFiles.length == 0)
-                return;
             final String[] finalFiles = gifFiles;
 
             if (getActivity() != null) {
@@ -295,9 +293,8 @@ public class AddPlanBottomSheetFragment extends BottomSheetDialogFragment {
                             String name = items.get(pos);
                             ((TextView) h.itemView).setText(name);
                             h.itemView.setOnClickListener(v -> {
-                                // 找回原始文件名（含.gif）
-                                String gifName = name + ".gif";
-                                selectedMediaUri = "file:///android_asset/gifs/" + gifName;
+                                // 找回实际打包的文件（转码后可能是 .webp）
+                                selectedMediaUri = ExerciseMediaIndex.get(requireContext()).findMediaUrl(name);
                                 updateMediaPreview();
                                 dialog.dismiss();
                                 Toast.makeText(requireContext(), "已选择: " + name, Toast.LENGTH_SHORT).show();
@@ -346,7 +343,7 @@ public class AddPlanBottomSheetFragment extends BottomSheetDialogFragment {
                     dialog.show();
                 });
             }
-        }).start();
+        });
     }
 
     private static String stripExt(String filename) {
@@ -373,7 +370,7 @@ public class AddPlanBottomSheetFragment extends BottomSheetDialogFragment {
         if (selectedMediaUri != null) {
             binding.ivMediaPreview.setVisibility(View.VISIBLE);
             Object loadTarget = selectedMediaUri.startsWith("/") ? new java.io.File(selectedMediaUri)
-                    : Uri.parse(selectedMediaUri);
+                    : Uri.parse(ExerciseMediaIndex.get(requireContext()).resolveAssetUrl(selectedMediaUri));
             Glide.with(this).load(loadTarget).centerCrop().into(binding.ivMediaPreview);
         } else {
             binding.ivMediaPreview.setVisibility(View.GONE);
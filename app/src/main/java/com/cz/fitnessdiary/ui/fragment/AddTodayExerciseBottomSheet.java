@@ -22,6 +22,7 @@ import androidx.core.view.WindowInsetsCompat;
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.ExerciseLibrary;
 import com.cz.fitnessdiary.repository.ExerciseLibraryRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 import com.google.android.material.button.MaterialButton;
@@ -142,7 +143,7 @@ public class AddTodayExerciseBottomSheet extends BottomSheetDialogFragment {
             }
         });
 
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             List<ExerciseLibrary> exercises = repository.getAllExercisesSync();
             if (!isAdded()) {
                 return;
@@ -154,7 +155,7 @@ public class AddTodayExerciseBottomSheet extends BottomSheetDialogFragment {
                 }
                 filterExercises(etSearch.getText().toString());
             });
-        }).start();
+        });
     }
 
     @Override
@@ -28,6 +28,7 @@ import com.cz.fitnessdiary.repository.ReminderScheduleRepository;
 import com.cz.fitnessdiary.service.AICallback;
 import com.cz.fitnessdiary.service.DeepSeekService;
 import com.cz.fitnessdiary.ui.adapter.SmartSuggestionAdapter;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.ReminderManager;
 import com.cz.fitnessdiary.viewmodel.DietViewModel;
 import com.google.android.material.button.MaterialButton;
@@ -39,7 +40,6 @@ import org.json.JSONObject;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class AiDietSmartFragment extends Fragment {
 
@@ -50,7 +50,7 @@ public class AiDietSmartFragment extends Fragment {
     private FoodRecordRepository foodRecordRepository;
     private FoodLibraryRepository foodLibraryRepository;
     private ReminderScheduleRepository reminderScheduleRepository;
-    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor();
+    private final ExecutorService ioExecutor = AppExecutors.get().newSerialDiskIO();
 
     private User user;
     private Integer calories;
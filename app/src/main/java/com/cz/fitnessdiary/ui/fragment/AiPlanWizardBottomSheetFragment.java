@@ -22,6 +22,7 @@ import com.cz.fitnessdiary.databinding.FragmentAiPlanWizardBottomSheetBinding;
 import com.cz.fitnessdiary.repository.ExerciseLibraryRepository;
 import com.cz.fitnessdiary.service.DeepSeekService;
 import com.cz.fitnessdiary.service.AICallback;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.viewmodel.PlanViewModel;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 import com.google.android.material.card.MaterialCardView;
@@ -220,7 +221,7 @@ public class AiPlanWizardBottomSheetFragment extends BottomSheetDialogFragment {
         matchedExercises.clear();
         adapter.setExercises(matchedExercises);
 
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 ExerciseLibraryRepository repo = new ExerciseLibraryRepository(requireContext());
                 List<ExerciseLibrary> all = repo.getAllExercisesSync();
@@ -334,7 +335,7 @@ public class AiPlanWizardBottomSheetFragment extends BottomSheetDialogFragment {
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }).start();
+        });
     }
 
     private void triggerAiExpand() {
@@ -498,7 +499,7 @@ public class AiPlanWizardBottomSheetFragment extends BottomSheetDialogFragment {
         }
 
         // 写入数据库
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 // 如果已存在相同模板名称，则覆盖（先删除前缀相同的旧动作）
                 viewModel.deletePersonalPlan(customPlanName);
@@ -520,7 +521,7 @@ public class AiPlanWizardBottomSheetFragment extends BottomSheetDialogFragment {
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }).start();
+        });
     }
 
     @Override
@@ -39,19 +39,23 @@ import com.google.android.material.tabs.TabLayout;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
+import com.cz.fitnessdiary.utils.Lttb;
 import com.cz.fitnessdiary.utils.MuscleFatigueCalculator;
 import com.cz.fitnessdiary.utils.UnitUtils;
 import com.cz.fitnessdiary.ui.widget.MuscleHeatmapView;
 
 public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment {
 
+    /** 折线图最多绘制的点数 */
+    private static final int MAX_CHART_POINTS = 120;
+
     // Tab 布局
     private TabLayout tabLayout;
     private View layoutTabData, layoutTabChart;
@@ -177,7 +181,7 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
     }
 
     private void loadBaseUserData() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             currentUser = db.userDao().getUserSync();
             if (currentUser == null) {
                 currentUser = new User("新用户", 170.0f, 65.0f, true);
@@ -281,7 +285,7 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
                     }
                 });
             }
-        }).start();
+        });
     }
 
     private void setupMeasureClickListeners() {
@@ -290,14 +294,14 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
 
         // 体重卡片点击 - 录入当前体重
         tvValWeight.setOnClickListener(v -> showInputDialog("记录体重", "当前体重 (" + UnitUtils.getWeightUnitSymbol("kg") + ")", val -> {
-            new Thread(() -> {
+            AppExecutors.get().diskIO().execute(() -> {
                 currentUser.setWeight(val);
                 db.userDao().update(currentUser);
                 WeightRecord wr = new WeightRecord(val, System.currentTimeMillis(), "身体数据中心同步体重");
                 db.weightRecordDao().insert(wr);
                 loadBaseUserData();
                 if (listener != null) listener.onUpdated();
-            }).start();
+            });
         }));
 
         // 目标体重点击 - 设置目标体重
@@ -367,13 +371,13 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
     }
 
     private void saveMeasurement(String type, float val, String unit) {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             String dbType = mapIndicatorToDbType(type);
             BodyMeasurement bm = new BodyMeasurement(dbType, val, unit, System.currentTimeMillis(), "身体数据中心连线录入");
             db.bodyMeasurementDao().insert(bm);
             loadBaseUserData();
             if (listener != null) listener.onUpdated();
-        }).start();
+        });
     }
 
     private void showBaseInfoDialog() {
@@ -422,14 +426,14 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
                         float h = Float.parseFloat(etH.getText().toString().trim());
                         int age = Integer.parseInt(etAge.getText().toString().trim());
                         int gender = "男".equals(spinGender.getText().toString()) ? 1 : 0;
-                        new Thread(() -> {
+                        AppExecutors.get().diskIO().execute(() -> {
                             currentUser.setHeight(h);
                             currentUser.setAge(age);
                             currentUser.setGender(gender);
                             db.userDao().update(currentUser);
                             loadBaseUserData();
                             if (listener != null) listener.onUpdated();
-                        }).start();
+                        });
                     } catch (Exception ignored) {}
                 })
                 .setNegativeButton("取消", null)
@@ -472,22 +476,22 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
         btnQuickAddRecord.setOnClickListener(v -> {
             showInputDialog("记录" + selectedIndicator, "当前数值", val -> {
                 if ("体重".equals(selectedIndicator)) {
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         currentUser.setWeight(val);
                         db.userDao().update(currentUser);
                         WeightRecord wr = new WeightRecord(val, System.currentTimeMillis(), "图表页快捷录入");
                         db.weightRecordDao().insert(wr);
                         refreshChartData();
                         if (listener != null) listener.onUpdated();
-                    }).start();
+                    });
                 } else {
                     String dbType = "体脂率".equals(selectedIndicator) ? "BODY_FAT" : selectedIndicator;
                     String unit = "体脂率".equals(selectedIndicator) ? "%" : "cm";
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         BodyMeasurement bm = new BodyMeasurement(dbType, val, unit, System.currentTimeMillis(), "图表页快捷录入");
                         db.bodyMeasurementDao().insert(bm);
                         refreshChartData();
-                    }).start();
+                    });
                 }
             });
         });
@@ -513,7 +517,7 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
     }
 
     private void refreshChartData() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             List<Entry> entries = new ArrayList<>();
             List<String> labels = new ArrayList<>();
             SimpleDateFormat sdf = new SimpleDateFormat("M/d", Locale.getDefault());
@@ -540,20 +544,14 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
                     }
                 }
             } else {
-                // 读取围度历史
-                List<BodyMeasurement> queryList = db.bodyMeasurementDao().getByDateRangeSync(0, System.currentTimeMillis() + 86400000L);
+                // 读取围度历史：只查询所选指标的各个别名，走 (measurement_type, timestamp) 索引
                 String dbType = mapIndicatorToDbType(selectedIndicator);
-                List<BodyMeasurement> filtered = new ArrayList<>();
-                for (BodyMeasurement bm : queryList) {
-                    String type = bm.getMeasurementType();
-                    if (dbType.equals(type) || selectedIndicator.equals(type) ||
-                        ("ARM".equals(dbType) && "手臂围".equals(type))) {
-                        filtered.add(bm);
-                    }
-                }
+                List<String> types = new ArrayList<>();
+                types.add(dbType);
+                if (!dbType.equals(selectedIndicator)) types.add(selectedIndicator);
+                if ("ARM".equals(dbType)) types.add("手臂围");
+                List<BodyMeasurement> filtered = db.bodyMeasurementDao().getByTypesSync(types);
                 if (!filtered.isEmpty()) {
-                    // 按时间升序排序
-                    Collections.sort(filtered, (b1, b2) -> Long.compare(b1.getTimestamp(), b2.getTimestamp()));
                     for (int i = 0; i < filtered.size(); i++) {
                         BodyMeasurement r = filtered.get(i);
                         entries.add(new Entry(i, r.getValue()));
@@ -567,7 +565,9 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
                 }
             }
 
-            final List<Entry> finalEntries = entries;
+            // 统计值基于全部记录；曲线点数超过图表可分辨的数量时用 LTTB 降采样
+            final int recordCount = entries.size();
+            final List<Entry> finalEntries = downsampleEntries(entries);
             final List<String> finalLabels = labels;
             // Convert weight values for display text (chart entries stay in kg)
             float displayLatest = latestVal, displayPrev = prevVal, displaySum = sumVal;
@@ -608,7 +608,7 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
                         tvChartDiff.setText("--");
                         tvChartDiff.setTextColor(getResources().getColor(R.color.text_secondary, null));
                     }
-                    tvChartAvg.setText(String.format(Locale.getDefault(), "%.1f%s", (fSum / finalEntries.size()), unit));
+                    tvChartAvg.setText(String.format(Locale.getDefault(), "%.1f%s", (fSum / recordCount), unit));
 
                     // 绘制曲线 (品牌绿主打，辅以贝塞尔平滑与镂空锚点)
                     int primaryColor = getResources().getColor(R.color.fitnessdiary_primary, null);
@@ -666,7 +666,25 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
                 });
             }
 
-        }).start();
+        });
+    }
+
+    /**
+     * 保留原有横坐标（记录序号），标签仍按序号对应
+     */
+    private static List<Entry> downsampleEntries(List<Entry> entries) {
+        if (entries.size() <= MAX_CHART_POINTS) return entries;
+        float[] x = new float[entries.size()];
+        float[] y = new float[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            x[i] = entries.get(i).getX();
+            y[i] = entries.get(i).getY();
+        }
+        List<Entry> sampled = new ArrayList<>(MAX_CHART_POINTS);
+        for (int index : Lttb.select(x, y, entries.size(), MAX_CHART_POINTS)) {
+            sampled.add(entries.get(index));
+        }
+        return sampled;
     }
 
     private BodyMeasurement getLatestMeasurementSync(String uiType) {
@@ -727,7 +745,7 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
     }
 
     private void generateAndShareBeforeAfter() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             android.graphics.Bitmap bitmap = com.cz.fitnessdiary.utils.ShareCardGenerator
                     .generateBeforeAfterCard(requireContext(), selectedBeforeDate, selectedAfterDate);
             if (getActivity() == null) return;
@@ -748,6 +766,6 @@ public class BodyDataDetailBottomSheetFragment extends BottomSheetDialogFragment
                 si.addFlags(android.content.Intent.FLAG_GRANT_READ_URI_PERMISSION);
                 startActivity(android.content.Intent.createChooser(si, "分享前后对比"));
             });
-        }).start();
+        });
     }
 }
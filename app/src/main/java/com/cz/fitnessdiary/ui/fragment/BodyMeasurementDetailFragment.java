@@ -22,6 +22,7 @@ import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.BodyMeasurement;
 import com.cz.fitnessdiary.ui.adapter.DetailRecordAdapter;
 import com.cz.fitnessdiary.ui.widget.MeasurementChartView;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.viewmodel.BodyMeasurementDetailViewModel;
 import com.google.android.material.button.MaterialButton;
@@ -279,7 +280,7 @@ public class BodyMeasurementDetailFragment extends Fragment {
         final float[] userHeight = {0};
         final int[] userAge = {0};
         final int[] userGender = {0};
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             com.cz.fitnessdiary.database.entity.User user =
                     new com.cz.fitnessdiary.repository.UserRepository(requireActivity().getApplication()).getUserSync();
             if (user != null) {
@@ -290,7 +291,7 @@ public class BodyMeasurementDetailFragment extends Fragment {
             }
             requireActivity().runOnUiThread(() ->
                     updateCalcInfo(tvCalcInfo, userWeight[0], userHeight[0], userAge[0], userGender[0]));
-        }).start();
+        });
 
         final int[] selectedIdx = {0}; // default BODY_FAT
 
@@ -13,13 +13,16 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagingDataTransforms;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.BowelMovement;
 import com.cz.fitnessdiary.ui.adapter.DetailRecordAdapter;
+import com.cz.fitnessdiary.ui.adapter.DetailRecordPagingAdapter;
 import com.cz.fitnessdiary.ui.widget.BristolChartView;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.viewmodel.BowelDetailViewModel;
 import com.google.android.material.chip.Chip;
@@ -27,16 +30,14 @@ import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.floatingactionbutton.ExtendedFloatingActionButton;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
 public class BowelMovementDetailFragment extends Fragment {
 
     private BowelDetailViewModel viewModel;
-    private DetailRecordAdapter adapter;
+    private DetailRecordPagingAdapter adapter;
     private BristolChartView bristolChart;
     private TextView tvHeaderSummary, tvTodayCount, tvLatestBristol;
     private TextView tvHealthScore, tvAvgBristol, tvColorSummary, tvEmpty;
@@ -80,7 +81,7 @@ public class BowelMovementDetailFragment extends Fragment {
         RecyclerView rvRecords = view.findViewById(R.id.rv_records);
         ExtendedFloatingActionButton fabAdd = view.findViewById(R.id.fab_add);
 
-        adapter = new DetailRecordAdapter(new DetailRecordAdapter.OnItemActionListener() {
+        adapter = new DetailRecordPagingAdapter(new DetailRecordAdapter.OnItemActionListener() {
             @Override
             public void onClick(DetailRecordAdapter.Item item) {
                 showEditDialog((BowelMovement) item.payload);
@@ -109,7 +110,10 @@ public class BowelMovementDetailFragment extends Fragment {
         fabAdd.setOnClickListener(v -> showAddDialog());
 
         // Observe data
-        viewModel.getAllRecords().observe(getViewLifecycleOwner(), this::renderRecords);
+        viewModel.getRecordPages().observe(getViewLifecycleOwner(), pagingData -> adapter.submitData(
+                getViewLifecycleOwner().getLifecycle(),
+                PagingDataTransforms.map(pagingData, AppExecutors.get().compute(), this::toItem)));
+        viewModel.getLatestRecord().observe(getViewLifecycleOwner(), this::renderLatest);
         viewModel.getBristolDistribution().observe(getViewLifecycleOwner(), bristolChart::setData);
         viewModel.getDailyCount().observe(getViewLifecycleOwner(), count -> {
             tvTodayCount.setText("今日次数：" + (count != null ? count : 0));
@@ -223,36 +227,35 @@ public class BowelMovementDetailFragment extends Fragment {
         }
     }
 
-    private void renderRecords(List<BowelMovement> records) {
-        List<DetailRecordAdapter.Item> items = new ArrayList<>();
+    /**
+     * 分页列表项转换（在后台线程执行）
+     */
+    private DetailRecordAdapter.Item toItem(BowelMovement r) {
         SimpleDateFormat sdf = new SimpleDateFormat("MM-dd HH:mm", Locale.getDefault());
-        if (records != null) {
-            for (BowelMovement r : records) {
-                String bristolName = "Type " + r.getBristolType();
-                switch (r.getBristolType()) {
-                    case 1: bristolName = "1-坚果状(便秘)"; break;
-                    case 2: bristolName = "2-干裂香肠(便秘)"; break;
-                    case 3: bristolName = "3-玉米状(正常)"; break;
-                    case 4: bristolName = "4-香蕉状(理想)"; break;
-                    case 5: bristolName = "5-软团状(偏稀)"; break;
-                    case 6: bristolName = "6-糊状(腹泻)"; break;
-                    case 7: bristolName = "7-水状(腹泻)"; break;
-                }
-                String subtitle = (r.getColor() != null ? colorName(r.getColor()) : "") +
-                        (r.getProcessFeeling() != null ? " · " + feelingName(r.getProcessFeeling()) : "");
-                items.add(new DetailRecordAdapter.Item(
-                        r.getId(), bristolName,
-                        sdf.format(new Date(r.getTimestamp())),
-                        (r.getDurationSeconds() > 0 ? r.getDurationSeconds() + "分钟" : ""),
-                        subtitle, getBristolIconRes(r.getBristolType()), r));
-            }
+        String bristolName = "Type " + r.getBristolType();
+        switch (r.getBristolType()) {
+            case 1: bristolName = "1-坚果状(便秘)"; break;
+            case 2: bristolName = "2-干裂香肠(便秘)"; break;
+            case 3: bristolName = "3-玉米状(正常)"; break;
+            case 4: bristolName = "4-香蕉状(理想)"; break;
+            case 5: bristolName = "5-软团状(偏稀)"; break;
+            case 6: bristolName = "6-糊状(腹泻)"; break;
+            case 7: bristolName = "7-水状(腹泻)"; break;
         }
-        adapter.submitList(items);
-        tvEmpty.setVisibility(items.isEmpty() ? View.VISIBLE : View.GONE);
+        String subtitle = (r.getColor() != null ? colorName(r.getColor()) : "") +
+                (r.getProcessFeeling() != null ? " · " + feelingName(r.getProcessFeeling()) : "");
+        return new DetailRecordAdapter.Item(
+                r.getId(), bristolName,
+                sdf.format(new Date(r.getTimestamp())),
+                (r.getDurationSeconds() > 0 ? r.getDurationSeconds() + "分钟" : ""),
+                subtitle, getBristolIconRes(r.getBristolType()), r);
+    }
+
+    private void renderLatest(BowelMovement latest) {
+        tvEmpty.setVisibility(latest == null ? View.VISIBLE : View.GONE);
 
         // Update latest Bristol display
-        if (records != null && !records.isEmpty()) {
-            BowelMovement latest = records.get(0);
+        if (latest != null) {
             tvLatestBristol.setText("最近分型：Type " + latest.getBristolType());
             if (ivHeaderIcon != null) {
                 ivHeaderIcon.setImageResource(getBristolIconRes(latest.getBristolType()));
@@ -27,6 +27,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.entity.DailyLog;
+import com.cz.fitnessdiary.database.entity.DailyMetric;
 import com.cz.fitnessdiary.database.entity.HabitItem;
 import com.cz.fitnessdiary.database.entity.HabitRecord;
 import com.cz.fitnessdiary.database.entity.TrainingPlan;
@@ -34,6 +35,7 @@ import com.cz.fitnessdiary.database.entity.User;
 import com.cz.fitnessdiary.databinding.FragmentCheckinBinding;
 import com.cz.fitnessdiary.model.DailyMission;
 import com.cz.fitnessdiary.ui.adapter.EditCardsAdapter;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.utils.ErrorHandler;
 import com.cz.fitnessdiary.utils.ExerciseMetTable;
@@ -58,6 +60,7 @@ import android.widget.ImageView;
 
 import com.cz.fitnessdiary.model.DailyHealthSnapshot;
 import com.cz.fitnessdiary.model.HealthScoreBreakdown;
+import com.cz.fitnessdiary.repository.DailyMetricRepository;
 import com.cz.fitnessdiary.repository.HealthAggregationRepository;
 import com.cz.fitnessdiary.ui.guide.GuideStateManager;
 import com.cz.fitnessdiary.ui.guide.GuideStep;
@@ -573,7 +576,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                 setTextIfExists(R.id.tv_weight_update, getSelectedDateUpdateText(r.getTimestamp()));
                 setTextIfExists(R.id.tv_weight_summary, "已记录当日体重");
                 // Compute detailed weight analysis (delta + BMI + 7-day trend)
-                new Thread(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     Context context = getContext();
                     if (context == null) return;
                     com.cz.fitnessdiary.database.AppDatabase db =
@@ -619,10 +622,10 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                     final String text = analysis.length() > 0 ? analysis.toString() : "已记录当日体重";
                     new android.os.Handler(android.os.Looper.getMainLooper()).post(() ->
                             setTextIfExists(R.id.tv_weight_summary, text));
-                }).start();
+                });
             } else {
                 // Fallback to latest overall weight using direct query to prevent LiveData latency/null issues
-                new Thread(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     try {
                         Context context = getContext();
                         if (context == null) return;
@@ -649,14 +652,14 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                             }
                         });
                     } catch (Exception ignored) {}
-                }).start();
+                });
             }
         });
         homeDashboardViewModel.getTodayWaterTotal().observe(getViewLifecycleOwner(), total -> {
             currentWaterTotal = total == null ? 0 : total;
             setTextIfExists(R.id.tv_water_value, String.valueOf(currentWaterTotal));
             // Show water progress toward user's target
-            new Thread(() -> {
+            AppExecutors.get().diskIO().execute(() -> {
                 Context context = getContext();
                 if (context == null) return;
                 com.cz.fitnessdiary.database.AppDatabase db =
@@ -676,7 +679,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                         if (p != null) p.setProgress(pct);
                     }
                 });
-            }).start();
+            });
             updateOverallProgress();
         });
         homeDashboardViewModel.getSelectedDateLatestWater().observe(getViewLifecycleOwner(),
@@ -716,7 +719,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
             if (r != null) {
                 setTextIfExists(R.id.tv_medication_update, getSelectedDateUpdateText(r.getTimestamp()));
             } else {
-                new Thread(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     try {
                         Context context = getContext();
                         if (context == null) return;
@@ -749,7 +752,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                             }
                         });
                     } catch (Exception ignored) {}
-                }).start();
+                });
             }
         });
 
@@ -778,7 +781,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                     setTextIfExists(R.id.tv_sleep_summary,
                             String.format(java.util.Locale.getDefault(), "深度%.1fh", finalDeepSleep));
                     // Compute 7-day average sleep
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         long today = com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
                         com.cz.fitnessdiary.database.AppDatabase db =
                                 com.cz.fitnessdiary.database.AppDatabase.getInstance(requireContext());
@@ -809,7 +812,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                             new android.os.Handler(android.os.Looper.getMainLooper()).post(() ->
                                     setTextIfExists(R.id.tv_sleep_summary, summary));
                         }
-                    }).start();
+                    });
                 } else {
                     setTextIfExists(R.id.tv_sleep_summary, "点击查看睡眠分析");
                 }
@@ -823,7 +826,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                 updateOverallProgress();
             } else {
                 // 当天没有更新睡眠记录时，回退去拉取最近一次历史记录展示，但今天的分数不加分
-                new Thread(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     try {
                         com.cz.fitnessdiary.database.AppDatabase db =
                                 com.cz.fitnessdiary.database.AppDatabase.getInstance(requireContext());
@@ -860,7 +863,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                             });
                         }
                     } catch (Exception ignored) {}
-                }).start();
+                });
             }
             updateTopTagsValues();
         });
@@ -907,7 +910,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
             if (ts != null && ts > 0) {
                 setTextIfExists(R.id.tv_measure_update, getSelectedDateUpdateText(ts));
             } else {
-                new Thread(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     try {
                         com.cz.fitnessdiary.database.AppDatabase db =
                                 com.cz.fitnessdiary.database.AppDatabase.getInstance(requireContext());
@@ -934,7 +937,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                             }
                         });
                     } catch (Exception ignored) {}
-                }).start();
+                });
             }
         });
 
@@ -964,7 +967,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                 if (ctx == null) return;
                 final Long selectedDate = checkInViewModel.getSelectedDate().getValue();
                 final long date = selectedDate != null ? selectedDate : com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
-                new Thread(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     try {
                         com.cz.fitnessdiary.database.AppDatabase db =
                                 com.cz.fitnessdiary.database.AppDatabase.getInstance(ctx);
@@ -986,11 +989,11 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                             }
                         });
                     } catch (Exception ignored) {}
-                }).start();
+                });
             } else {
                 final Context ctx = getContext();
                 if (ctx == null) return;
-                new Thread(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     try {
                         com.cz.fitnessdiary.database.AppDatabase db =
                                 com.cz.fitnessdiary.database.AppDatabase.getInstance(ctx);
@@ -1031,7 +1034,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                             }
                         });
                     } catch (Exception ignored) {}
-                }).start();
+                });
             }
         });
 
@@ -1056,7 +1059,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
             if (ts != null && ts > 0) {
                 setTextIfExists(R.id.tv_menstrual_update, getSelectedDateUpdateText(ts));
             } else {
-                new Thread(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     try {
                         Context context = getContext();
                         if (context == null) return;
@@ -1075,7 +1078,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                             }
                         });
                     } catch (Exception ignored) {}
-                }).start();
+                });
             }
         });
 
@@ -1334,7 +1337,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
 
         // Compute health score on background thread using the new 5-dimension breakdown
         // (same calculation as showOverallProgressDetails, ensuring ring and popup match)
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 Context context = getContext();
                 if (context == null) return;
@@ -1366,15 +1369,16 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                     }
                     // 读取目标运动时长 (per-date)
                     SharedPreferences sp = context.getSharedPreferences("fitness_diary_prefs", Context.MODE_PRIVATE);
-                    profile.targetExerciseMinutes = sp.getInt("target_minutes_" + date, 0);
+                    DailyMetricRepository metrics = new DailyMetricRepository(context);
+                    profile.targetExerciseMinutes = metrics.getIntSync(DailyMetric.TARGET_MINUTES, date, 0);
                     // 步数目标：优先当日独立值，无则回落全局默认
-                    profile.stepTarget = sp.getInt("step_target_" + date, sp.getInt("step_target", 8000));
+                    profile.stepTarget = metrics.getIntSync(DailyMetric.STEP_TARGET, date, sp.getInt("step_target", 8000));
                     // 饮水目标：优先当日独立值，无则回落全局
-                    int dateWater = sp.getInt("water_target_" + date, -1);
+                    int dateWater = metrics.getIntSync(DailyMetric.WATER_TARGET, date, -1);
                     if (dateWater > 0) profile.waterTargetMl = dateWater;
                     SharedPreferences scorePrefs = context.getSharedPreferences("health_score_prefs", Context.MODE_PRIVATE);
                     // 体重目标：优先当日独立值，无则回落全局
-                    profile.customTargetWeight = scorePrefs.getFloat("target_weight_kg_" + date,
+                    profile.customTargetWeight = metrics.getFloatSync(DailyMetric.TARGET_WEIGHT_KG, date,
                             scorePrefs.getFloat("target_weight_kg", -1f));
                 } catch (Exception ignored) {}
 
@@ -1387,11 +1391,11 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                         binding.tvProgressPercent.setText(breakdown.totalScore + "分");
 
                         // 动态更新今日健康寄语
-                        updateHeaderTip(snapshot, breakdown.totalScore);
+                        updateHeaderTip(snapshot, breakdown.totalScore, profile);
                     }
                 });
             } catch (Exception ignored) {}
-        }).start();
+        });
     }
 
     private static String bar(float ratio) {
@@ -1402,7 +1406,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
     }
 
     private void showOverallProgressDetails() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             Context ctx = getContext();
             if (ctx == null) return;
 
@@ -1437,13 +1441,14 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                 }
                 // 读取目标运动时长 (per-date)
                 SharedPreferences sp = ctx.getSharedPreferences("fitness_diary_prefs", Context.MODE_PRIVATE);
-                profile.targetExerciseMinutes = sp.getInt("target_minutes_" + date, 0);
-                profile.stepTarget = sp.getInt("step_target_" + date, sp.getInt("step_target", 8000));
-                int dateWater = sp.getInt("water_target_" + date, -1);
+                DailyMetricRepository metrics = new DailyMetricRepository(ctx);
+                profile.targetExerciseMinutes = metrics.getIntSync(DailyMetric.TARGET_MINUTES, date, 0);
+                profile.stepTarget = metrics.getIntSync(DailyMetric.STEP_TARGET, date, sp.getInt("step_target", 8000));
+                int dateWater = metrics.getIntSync(DailyMetric.WATER_TARGET, date, -1);
                 if (dateWater > 0) profile.waterTargetMl = dateWater;
                 else if (user != null && user.getDailyWaterTarget() > 0) profile.waterTargetMl = user.getDailyWaterTarget();
                 SharedPreferences scorePrefs = ctx.getSharedPreferences("health_score_prefs", Context.MODE_PRIVATE);
-                profile.customTargetWeight = scorePrefs.getFloat("target_weight_kg_" + date,
+                profile.customTargetWeight = metrics.getFloatSync(DailyMetric.TARGET_WEIGHT_KG, date,
                         scorePrefs.getFloat("target_weight_kg", -1f));
             } catch (Exception ignored) {}
 
@@ -1522,7 +1527,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                     .setPositiveButton("确定", null)
                     .show();
             });
-        }).start();
+        });
     }
 
     private void setupRestTimer() {
@@ -1684,7 +1689,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
     }
 
     private void showHeatmapDialog() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             java.util.Map<Long, Integer> levels = new java.util.HashMap<>();
             long today = com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
             java.util.Calendar cal = java.util.Calendar.getInstance();
@@ -1722,18 +1727,18 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                         .setPositiveButton("关闭", null)
                         .show();
             });
-        }).start();
+        });
     }
 
     private void refreshChallengeCard() {
         View card = binding.getRoot().findViewById(R.id.card_challenge);
         if (card != null) card.setVisibility(View.GONE);
 
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 com.cz.fitnessdiary.utils.ChallengeManager.checkTodaySync(getContext());
             } catch (Exception ignored) {}
-        }).start();
+        });
     }
 
     private void showChallengeDialog() {
@@ -1974,7 +1979,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                 : com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
         final android.content.Context appContext = requireContext().getApplicationContext();
 
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             int totalCal = 0;
             java.util.HashSet<Integer> donePlanIds = new java.util.HashSet<>();
             float weightKg = 70f;
@@ -2045,8 +2050,8 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
             int workoutCal = totalCal - stepCal;
 
             // 如果用户设了当天训练总时长，按加权平均MET重算运动消耗（与日历弹窗口径一致）
-            int targetMin = requireContext().getSharedPreferences("fitness_diary_prefs", android.content.Context.MODE_PRIVATE)
-                    .getInt("target_minutes_" + viewDate, 0);
+            int targetMin = new DailyMetricRepository(requireContext())
+                    .getIntSync(DailyMetric.TARGET_MINUTES, viewDate, 0);
             if (targetMin > 0 && totalDurationSec > 0) {
                 // 重新计算累计时长，用于加权平均
                 double totalDurHoursForWeighted = totalDurationSec / 3600.0;
@@ -2096,7 +2101,7 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
                 }
                 updateTopTagsValues(); // 同步重绘顶部指标
             });
-        }).start();
+        });
     }
 
     // ── Step & mood dialogs ──
@@ -2372,7 +2377,8 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
     // v3.0 AI Daily Briefing
     // ================================================================
 
-    private void updateHeaderTip(DailyHealthSnapshot snapshot, int score) {
+    private void updateHeaderTip(DailyHealthSnapshot snapshot, int score,
+            HealthScoreCalculator.UserProfile profile) {
         if (binding == null) return;
         java.util.Calendar cal = java.util.Calendar.getInstance();
         int hour = cal.get(java.util.Calendar.HOUR_OF_DAY);
@@ -2386,25 +2392,10 @@ public class CheckInFragment extends Fragment implements com.cz.fitnessdiary.ui.
         } else {
             StringBuilder sb = new StringBuilder(greeting + "！");
 
-            // Load user targets once
-            int calTarget = 2000, waterTarget = 2000, stepTarget = 8000;
-            try {
-                com.cz.fitnessdiary.database.AppDatabase db =
-                        com.cz.fitnessdiary.database.AppDatabase.getInstance(requireContext());
-                com.cz.fitnessdiary.database.entity.User u = db.userDao().getUserSync();
-                if (u != null) {
-                    if (u.getDailyCalorieTarget() > 0) calTarget = u.getDailyCalorieTarget();
-                    waterTarget = u.getDailyWaterTarget() > 0 ? u.getDailyWaterTarget() : 2000;
-                }
-                android.content.SharedPreferences sp = requireContext()
-                        .getSharedPreferences("fitness_diary_prefs", android.content.Context.MODE_PRIVATE);
-                long todayTs = com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
-                // 步数/饮水目标：优先当日独立值，无则回落全局默认
-                int savedStep = sp.getInt("step_target_" + todayTs, sp.getInt("step_target", 0));
-                int savedWater = sp.getInt("water_target_" + todayTs, -1);
-                if (savedWater > 0) waterTarget = savedWater;
-                if (savedStep > 0) stepTarget = savedStep;
-            } catch (Exception ignored) {}
+            // 目标取自后台线程已读好的评分档案（当日独立值优先）
+            int calTarget = profile.dailyCalorieTarget > 0 ? profile.dailyCalorieTarget : 2000;
+            int waterTarget = profile.waterTargetMl > 0 ? profile.waterTargetMl : 2000;
+            int stepTarget = profile.stepTarget > 0 ? profile.stepTarget : 8000;
 
             // Pick notable highlights (up to 2)
             java.util.List<String> notes = new java.util.ArrayList<>();
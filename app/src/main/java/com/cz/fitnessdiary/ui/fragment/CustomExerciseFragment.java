@@ -20,6 +20,7 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.ExerciseLibrary;
 import com.cz.fitnessdiary.repository.ExerciseLibraryRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
@@ -77,7 +78,7 @@ public class CustomExerciseFragment extends Fragment {
     }
 
     private void loadExercises() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             List<ExerciseLibrary> exercises = repository.getAllExercisesSync();
             if (exercises == null) exercises = new ArrayList<>();
             // 排序：自定义动作在前，官方在后；同类按id倒序(新的在前)
@@ -100,7 +101,7 @@ public class CustomExerciseFragment extends Fragment {
                     adapter.notifyDataSetChanged();
                 });
             }
-        }).start();
+        });
     }
 
     /**
@@ -173,7 +174,7 @@ public class CustomExerciseFragment extends Fragment {
                             name, bodyPart, subCat.isEmpty() ? "基础" : subCat, desc, 2, equipment, category
                     );
 
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         repository.insert(customEx);
                         if (getActivity() != null) {
                             getActivity().runOnUiThread(() -> {
@@ -181,7 +182,7 @@ public class CustomExerciseFragment extends Fragment {
                                 loadExercises();
                             });
                         }
-                    }).start();
+                    });
                 })
                 .setNegativeButton("取消", null)
                 .show();
@@ -251,7 +252,7 @@ public class CustomExerciseFragment extends Fragment {
                     exercise.setDescription(etDescription.getText().toString().trim());
                     exercise.setCategory(exercise.getBodyPart() + ": " + exercise.getSubCategory());
 
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         repository.update(exercise);
                         if (getActivity() != null) {
                             getActivity().runOnUiThread(() -> {
@@ -259,7 +260,7 @@ public class CustomExerciseFragment extends Fragment {
                                 loadExercises();
                             });
                         }
-                    }).start();
+                    });
                 })
                 .setNegativeButton("取消", null)
                 .show();
@@ -270,7 +271,7 @@ public class CustomExerciseFragment extends Fragment {
                 .setTitle("删除自定义动作")
                 .setMessage("确定要删除「" + exercise.getName() + "」吗？此操作不可恢复。")
                 .setPositiveButton("删除", (dialog, which) -> {
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         repository.delete(exercise);
                         if (getActivity() != null) {
                             getActivity().runOnUiThread(() -> {
@@ -278,7 +279,7 @@ public class CustomExerciseFragment extends Fragment {
                                 loadExercises();
                             });
                         }
-                    }).start();
+                    });
                 })
                 .setNegativeButton("取消", null)
                 .show();
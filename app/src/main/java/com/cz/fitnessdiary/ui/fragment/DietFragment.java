@@ -3,9 +3,7 @@ package com.cz.fitnessdiary.ui.fragment;
 import android.Manifest;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
-import android.graphics.ImageDecoder;
 import android.net.Uri;
-import android.os.Build;
 import androidx.core.content.FileProvider;
 import com.cz.fitnessdiary.model.FoodScanFlowState;
 import com.cz.fitnessdiary.model.ImageFoodItemDraft;
@@ -32,6 +30,7 @@ import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.FoodLibrary;
 import com.cz.fitnessdiary.databinding.FragmentDietBinding;
 import com.cz.fitnessdiary.ui.adapter.FoodAutoCompleteAdapter;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.viewmodel.DietViewModel;
 import com.cz.fitnessdiary.viewmodel.RecipeViewModel;
 import com.cz.fitnessdiary.database.entity.User;
@@ -39,13 +38,14 @@ import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.utils.UnitUtils;
 import com.cz.fitnessdiary.utils.ErrorHandler;
 import com.cz.fitnessdiary.utils.FoodCategoryUtils;
-import com.cz.fitnessdiary.utils.PinyinUtils;
+import com.cz.fitnessdiary.utils.ImagePreparer;
 import com.cz.fitnessdiary.model.DailyHealthSnapshot;
 import com.cz.fitnessdiary.repository.HealthAggregationRepository;
 import com.cz.fitnessdiary.service.OpenFoodFactsService;
 import com.cz.fitnessdiary.service.AiDietTextAnalyzer;
 import com.cz.fitnessdiary.service.DietLibraryTextMatcher;
 import com.cz.fitnessdiary.service.FoodImageQuotaStore;
+import com.cz.fitnessdiary.service.MiMoService;
 import com.cz.fitnessdiary.viewmodel.AiRecordDraftViewModel;
 import com.google.android.material.datepicker.CalendarConstraints;
 import com.google.android.material.datepicker.CompositeDateValidator;
@@ -64,10 +64,8 @@ import android.content.res.ColorStateList;
 import java.util.Set;
 import java.util.HashSet;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import com.cz.fitnessdiary.ui.guide.GuideStateManager;
 import com.cz.fitnessdiary.ui.guide.GuideStep;
 import com.cz.fitnessdiary.ui.guide.PageGuide;
@@ -80,6 +78,9 @@ import com.cz.fitnessdiary.ui.guide.TargetedGuideOverlay;
  */
 public class DietFragment extends Fragment {
 
+    /** 食物库对话框中搜索结果的上限 */
+    private static final int LIBRARY_SEARCH_LIMIT = 200;
+
     private FragmentDietBinding binding;
     private DietViewModel viewModel;
     private AiRecordDraftViewModel aiDraftViewModel;
@@ -168,8 +169,8 @@ public class DietFragment extends Fragment {
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
             @Nullable Bundle savedInstanceState) {
         binding = FragmentDietBinding.inflate(inflater, container, false);
-        executorService = Executors.newSingleThreadExecutor();
-        imageExecutorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
+        imageExecutorService = AppExecutors.get().newSerialDiskIO();
         return binding.getRoot();
     }
 
@@ -311,18 +312,10 @@ public class DietFragment extends Fragment {
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 String query = s.toString();
                 imageExecutorService.execute(() -> {
-                    List<FoodLibrary> allFoods = viewModel.getAllFoodsSync();
-                    List<FoodLibrary> results = new ArrayList<>();
-                    String q = query.trim().toLowerCase();
-                    if (q.isEmpty()) {
-                        results.addAll(allFoods);
-                    } else {
-                        for (FoodLibrary food : allFoods) {
-                            if (PinyinUtils.matches(food.getName(), q)) {
-                                results.add(food);
-                            }
-                        }
-                    }
+                    String q = query.trim();
+                    // 全文索引搜索（汉字 / 全拼 / 首字母），不再逐条转换拼音
+                    List<FoodLibrary> results = q.isEmpty() ? viewModel.getAllFoodsSync()
+                            : viewModel.searchFoods(q, LIBRARY_SEARCH_LIMIT);
                     requireActivity().runOnUiThread(() -> adapter.setFoodList(results));
                 });
             }
@@ -926,7 +919,7 @@ public class DietFragment extends Fragment {
         imageExecutorService.execute(() -> {
             ImageMealDraft libraryDraft = null;
             try {
-                libraryDraft = DietLibraryTextMatcher.match(normalized, viewModel.getAllFoodsSync());
+                libraryDraft = DietLibraryTextMatcher.match(normalized, viewModel.getFoodNameAutomaton());
             } catch (Exception ignored) {
                 // A local database failure should not prevent the explicit AI fallback.
             }
@@ -1142,8 +1135,10 @@ public class DietFragment extends Fragment {
             return;
         }
         int localUsed = foodImageQuotaStore.getUsedCount(user);
+        int localSaved = foodImageQuotaStore.getSavedCount(user);
         String message = "当前为本地私人模式，图片识别不会保存到 FitnessDiary 云端。\n"
                 + "本机已发起约 " + localUsed + " 次识别请求；清除应用数据后计数会重置。\n"
+                + (localSaved > 0 ? "重复识别相同照片时使用本机缓存，已节省 " + localSaved + " 次请求。\n" : "")
                 + "实际费用和服务限制以 MiMo 平台账号为准。";
         new com.google.android.material.dialog.MaterialAlertDialogBuilder(requireContext())
                 .setTitle("图片识别额度")
@@ -1255,17 +1250,8 @@ public class DietFragment extends Fragment {
     }
 
     private Bitmap decodeBitmap(Uri uri) throws Exception {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
-            ImageDecoder.Source source = ImageDecoder.createSource(requireContext().getContentResolver(), uri);
-            return ImageDecoder.decodeBitmap(source);
-        }
-        try (java.io.InputStream is = requireContext().getContentResolver().openInputStream(uri)) {
-            Bitmap bitmap = android.graphics.BitmapFactory.decodeStream(is);
-            if (bitmap == null) {
-                throw new IllegalStateException("无法解析图片");
-            }
-            return bitmap;
-        }
+        // 按上传尺寸子采样解码：识别、预览和缓存指纹都用不到相机原图分辨率
+        return ImagePreparer.decode(requireContext().getContentResolver(), uri, MiMoService.MAX_IMAGE_EDGE);
     }
 
     /**
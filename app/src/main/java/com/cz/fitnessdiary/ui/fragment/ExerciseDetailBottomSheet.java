@@ -12,6 +12,7 @@ import com.bumptech.glide.Glide;
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.ExerciseLibrary;
 import com.cz.fitnessdiary.databinding.FragmentExerciseDetailBottomSheetBinding;
+import com.cz.fitnessdiary.utils.ExerciseMediaIndex;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 
 /**
@@ -100,46 +101,22 @@ public class ExerciseDetailBottomSheet extends BottomSheetDialogFragment {
         binding.lavExerciseAnim.setVisibility(View.GONE);
         binding.ivExerciseGif.setVisibility(View.VISIBLE);
 
-        // 1. 判断本地 assets/gifs 目录下是否存在中文同名动图文件 (如 "哑铃上斜卧推.gif")
-        String targetGifName = name + ".gif";
-        boolean hasLocalGif = false;
-        try {
-            String[] files = requireContext().getAssets().list("gifs");
-            if (files != null) {
-                for (String file : files) {
-                    if (file.equalsIgnoreCase(targetGifName)) {
-                        hasLocalGif = true;
-                        break;
-                    }
-                }
-            }
-        } catch (java.io.IOException e) {
-            android.util.Log.e("ExerciseDetail", "Failed to list assets/gifs", e);
-        }
-
-        // 2. 决定文件名：有则直接加载，无则按部位兜底加载 (如 "胸部.gif")
-        String gifFileName;
-        if (hasLocalGif) {
-            gifFileName = targetGifName;
-        } else {
-            gifFileName = (bodyPart != null ? bodyPart : "其他") + ".gif";
-        }
-
-        String localAssetUrl = "file:///android_asset/gifs/" + gifFileName;
+        // 1. 本地 assets/gifs 中有中文同名动图 (如 "哑铃上斜卧推.webp") 则直接加载，无则按部位兜底 (如 "胸部.webp")
+        //    动态 WebP 与 GIF 均由 Glide 按文件头选择解码器
+        String localAssetUrl = ExerciseMediaIndex.get(requireContext()).mediaUrlOrFallback(name, bodyPart);
 
         Glide.with(this)
-                .asGif()
                 .load(localAssetUrl)
-                .listener(new com.bumptech.glide.request.RequestListener<com.bumptech.glide.load.resource.gif.GifDrawable>() {
+                .listener(new com.bumptech.glide.request.RequestListener<android.graphics.drawable.Drawable>() {
                     @Override
-                    public boolean onLoadFailed(@Nullable com.bumptech.glide.load.engine.GlideException e, Object model, com.bumptech.glide.request.target.Target<com.bumptech.glide.load.resource.gif.GifDrawable> target, boolean isFirstResource) {
+                    public boolean onLoadFailed(@Nullable com.bumptech.glide.load.engine.GlideException e, Object model, com.bumptech.glide.request.target.Target<android.graphics.drawable.Drawable> target, boolean isFirstResource) {
                         android.util.Log.e("ExerciseDetail", "Local assets Glide load failed for: " + localAssetUrl, e);
                         binding.tvDetailAvatar.setVisibility(View.VISIBLE); // 失败时继续展示大字徽标
                         return false;
                     }
 
                     @Override
-                    public boolean onResourceReady(com.bumptech.glide.load.resource.gif.GifDrawable resource, Object model, com.bumptech.glide.request.target.Target<com.bumptech.glide.load.resource.gif.GifDrawable> target, com.bumptech.glide.load.DataSource dataSource, boolean isFirstResource) {
+                    public boolean onResourceReady(android.graphics.drawable.Drawable resource, Object model, com.bumptech.glide.request.target.Target<android.graphics.drawable.Drawable> target, com.bumptech.glide.load.DataSource dataSource, boolean isFirstResource) {
                         binding.tvDetailAvatar.setVisibility(View.GONE); // 本地秒开加载成功，隐藏文字
                         return false;
                     }
@@ -17,19 +17,19 @@ import com.cz.fitnessdiary.database.entity.ExerciseLibrary;
 import com.cz.fitnessdiary.databinding.FragmentExerciseLibraryBottomSheetBinding;
 import com.cz.fitnessdiary.repository.ExerciseLibraryRepository;
 import com.cz.fitnessdiary.ui.adapter.ExerciseLibraryAdapter;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class ExerciseLibraryBottomSheet extends BottomSheetDialogFragment {
 
     private FragmentExerciseLibraryBottomSheetBinding binding;
     private ExerciseLibraryRepository repository;
     private ExerciseLibraryAdapter adapter;
-    private ExecutorService executor = Executors.newSingleThreadExecutor();
+    private ExecutorService executor = AppExecutors.get().newSerialDiskIO();
     private OnExerciseSelectedListener selectedListener;
 
     public interface OnExerciseSelectedListener {
@@ -24,6 +24,8 @@ import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.ExerciseLibrary;
 import com.cz.fitnessdiary.databinding.FragmentExerciseLibraryBinding;
 import com.cz.fitnessdiary.repository.ExerciseLibraryRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
+import com.cz.fitnessdiary.utils.ExerciseMediaIndex;
 
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
@@ -61,6 +63,9 @@ public class ExerciseLibraryFragment extends Fragment {
 
 
     // 大分类与子部位的固定映射关系
+    /** 沿滑动方向预取的卡片数（两列，即三行） */
+    private static final int GIF_PRELOAD_COUNT = 6;
+
     private static final Map<String, List<String>> BODY_SUB_MAP = new HashMap<>();
     static {
         BODY_SUB_MAP.put("胸部", Arrays.asList("全部", "上胸", "中下胸"));
@@ -150,6 +155,16 @@ public class ExerciseLibraryFragment extends Fragment {
         binding.rvExercises.setLayoutManager(new GridLayoutManager(getContext(), 2));
         exerciseAdapter = new ExerciseCardAdapter();
         binding.rvExercises.setAdapter(exerciseAdapter);
+        binding.rvExercises.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                GridLayoutManager lm = (GridLayoutManager) recyclerView.getLayoutManager();
+                if (lm != null) {
+                    exerciseAdapter.preload(lm.findFirstVisibleItemPosition(),
+                            lm.findLastVisibleItemPosition(), dy >= 0);
+                }
+            }
+        });
 
         // Inflate and add empty state view below the exercises RecyclerView
         emptyStateView = LayoutInflater.from(requireContext())
@@ -175,7 +190,7 @@ public class ExerciseLibraryFragment extends Fragment {
     }
 
     private void loadData() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             List<ExerciseLibrary> dbList = repository.getAllExercisesSync();
             final List<ExerciseLibrary> finalDbList = dbList != null ? dbList : new ArrayList<>();
 
@@ -187,7 +202,7 @@ public class ExerciseLibraryFragment extends Fragment {
                     filterExercises();
                 });
             }
-        }).start();
+        });
     }
 
     /**
@@ -512,7 +527,7 @@ public class ExerciseLibraryFragment extends Fragment {
                             name, bodyPart, subCat.isEmpty() ? "基础" : subCat, desc, 2, equipment, category
                     );
 
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         repository.insert(customEx);
                         if (isAdded()) {
                             requireActivity().runOnUiThread(() -> {
@@ -520,7 +535,7 @@ public class ExerciseLibraryFragment extends Fragment {
                                 loadData();
                             });
                         }
-                    }).start();
+                    });
                 })
                 .setNegativeButton("取消", null)
                 .show();
@@ -635,12 +650,19 @@ public class ExerciseLibraryFragment extends Fragment {
     private class ExerciseCardAdapter extends RecyclerView.Adapter<ExerciseCardAdapter.ViewHolder> {
 
         private final List<ExerciseLibrary> exercises = new ArrayList<>();
+        private int gifWidth;
+        private int gifHeight;
+        /** 上一次预取的区间 [preloadedFrom, preloadedTo)，避免滑动中重复提交 */
+        private int preloadedFrom;
+        private int preloadedTo;
 
         public void setExercises(List<ExerciseLibrary> list) {
             this.exercises.clear();
             if (list != null) {
                 this.exercises.addAll(list);
             }
+            preloadedFrom = 0;
+            preloadedTo = 0;
             notifyDataSetChanged();
         }
 
@@ -665,45 +687,27 @@ public class ExerciseLibraryFragment extends Fragment {
             }
             holder.tvAvatar.setVisibility(View.VISIBLE);
 
-            // 2. 动态检测本地 assets 目录下是否存在中文同名的动图文件 (如 "哑铃上斜卧推.gif")
-            String targetGifName = name + ".gif";
-            boolean hasLocalGif = false;
-            try {
-                String[] files = holder.itemView.getContext().getAssets().list("gifs");
-                if (files != null) {
-                    for (String file : files) {
-                        if (file.equalsIgnoreCase(targetGifName)) {
-                            hasLocalGif = true;
-                            break;
-                        }
-                    }
-                }
-            } catch (java.io.IOException e) {
-                // ignore
-            }
-
-            if (hasLocalGif) {
+            // 2. 本地 assets 中存在中文同名动图 (如 "哑铃上斜卧推.webp") 时覆盖播放，索引只在启动时建立一次
+            String localAssetUrl = ExerciseMediaIndex.get(holder.itemView.getContext()).findMediaUrl(name);
+            if (localAssetUrl != null) {
                 holder.ivCardGif.setVisibility(View.VISIBLE);
-                String localAssetUrl = "file:///android_asset/gifs/" + targetGifName;
-
-                com.bumptech.glide.Glide.with(holder.itemView.getContext())
-                        .asGif()
-                        .load(localAssetUrl)
-                        .listener(new com.bumptech.glide.request.RequestListener<com.bumptech.glide.load.resource.gif.GifDrawable>() {
+                gifRequest(localAssetUrl)
+                        .listener(new com.bumptech.glide.request.RequestListener<android.graphics.drawable.Drawable>() {
                             @Override
-                            public boolean onLoadFailed(@Nullable com.bumptech.glide.load.engine.GlideException e, Object model, com.bumptech.glide.request.target.Target<com.bumptech.glide.load.resource.gif.GifDrawable> target, boolean isFirstResource) {
+                            public boolean onLoadFailed(@Nullable com.bumptech.glide.load.engine.GlideException e, Object model, com.bumptech.glide.request.target.Target<android.graphics.drawable.Drawable> target, boolean isFirstResource) {
                                 holder.tvAvatar.setVisibility(View.VISIBLE); // 失败时继续展示大字徽标
                                 return false;
                             }
 
                             @Override
-                            public boolean onResourceReady(com.bumptech.glide.load.resource.gif.GifDrawable resource, Object model, com.bumptech.glide.request.target.Target<com.bumptech.glide.load.resource.gif.GifDrawable> target, com.bumptech.glide.load.DataSource dataSource, boolean isFirstResource) {
+                            public boolean onResourceReady(android.graphics.drawable.Drawable resource, Object model, com.bumptech.glide.request.target.Target<android.graphics.drawable.Drawable> target, com.bumptech.glide.load.DataSource dataSource, boolean isFirstResource) {
                                 holder.tvAvatar.setVisibility(View.GONE); // 本地秒开加载成功，隐藏文字
                                 return false;
                             }
                         })
                         .into(holder.ivCardGif);
             } else {
+                com.bumptech.glide.Glide.with(ExerciseLibraryFragment.this).clear(holder.ivCardGif);
                 holder.ivCardGif.setVisibility(View.GONE);
                 holder.tvAvatar.setVisibility(View.VISIBLE);
             }
@@ -719,6 +723,64 @@ public class ExerciseLibraryFragment extends Fragment {
             return exercises.size();
         }
 
+        // 滑出屏幕的卡片暂停动画，回收时释放解码帧，内存只保留可见与预取的卡片
+        @Override
+        public void onViewAttachedToWindow(@NonNull ViewHolder holder) {
+            if (holder.ivCardGif.getDrawable() instanceof android.graphics.drawable.Animatable) {
+                ((android.graphics.drawable.Animatable) holder.ivCardGif.getDrawable()).start();
+            }
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(@NonNull ViewHolder holder) {
+            if (holder.ivCardGif.getDrawable() instanceof android.graphics.drawable.Animatable) {
+                ((android.graphics.drawable.Animatable) holder.ivCardGif.getDrawable()).stop();
+            }
+        }
+
+        @Override
+        public void onViewRecycled(@NonNull ViewHolder holder) {
+            com.bumptech.glide.Glide.with(ExerciseLibraryFragment.this).clear(holder.ivCardGif);
+        }
+
+        /**
+         * 预取即将滑入的卡片动图：与绑定时使用相同的请求参数，命中同一个内存缓存项
+         */
+        void preload(int firstVisible, int lastVisible, boolean forward) {
+            if (firstVisible == RecyclerView.NO_POSITION || exercises.isEmpty()) {
+                return;
+            }
+            int from = forward ? lastVisible + 1 : Math.max(0, firstVisible - GIF_PRELOAD_COUNT);
+            int to = forward ? Math.min(exercises.size(), lastVisible + 1 + GIF_PRELOAD_COUNT) : firstVisible;
+            ExerciseMediaIndex index = ExerciseMediaIndex.get(requireContext());
+            for (int i = from; i < to; i++) {
+                if (i >= preloadedFrom && i < preloadedTo) {
+                    continue;
+                }
+                String url = index.findMediaUrl(exercises.get(i).getName());
+                if (url != null) {
+                    gifRequest(url).preload(gifWidth, gifHeight);
+                }
+            }
+            preloadedFrom = from;
+            preloadedTo = to;
+        }
+
+        /**
+         * 卡片动图请求：按卡片尺寸解码，缓存中的帧大小与卡片一致而不是原图尺寸。
+         * 不再限定 asGif()：动态 WebP 由 webpdecoder 解码为 WebpDrawable，未转码的 GIF 仍走 GifDrawable
+         */
+        private com.bumptech.glide.RequestBuilder<android.graphics.drawable.Drawable> gifRequest(String url) {
+            if (gifWidth == 0) {
+                android.util.DisplayMetrics metrics = getResources().getDisplayMetrics();
+                gifWidth = metrics.widthPixels / 2;
+                gifHeight = Math.round(110 * metrics.density);
+            }
+            return com.bumptech.glide.Glide.with(ExerciseLibraryFragment.this)
+                    .load(url)
+                    .override(gifWidth, gifHeight);
+        }
+
         class ViewHolder extends RecyclerView.ViewHolder {
             TextView tvName;
             TextView tvAvatar;
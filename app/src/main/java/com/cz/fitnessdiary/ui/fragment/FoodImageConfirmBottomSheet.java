@@ -25,6 +25,7 @@ import com.cz.fitnessdiary.model.ImageFoodItemDraft;
 import com.cz.fitnessdiary.model.ImageMealDraft;
 import com.cz.fitnessdiary.repository.FoodLibraryRepository;
 import com.cz.fitnessdiary.ui.adapter.FoodAutoCompleteAdapter;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.FoodUnitUtils;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 import com.google.android.material.button.MaterialButton;
@@ -37,7 +38,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /** Confirmation sheet for an image, library, or text meal draft. */
 public class FoodImageConfirmBottomSheet extends BottomSheetDialogFragment {
@@ -94,7 +94,7 @@ public class FoodImageConfirmBottomSheet extends BottomSheetDialogFragment {
     @Override
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
-        foodLibraryExecutor = Executors.newSingleThreadExecutor();
+        foodLibraryExecutor = AppExecutors.get().newSerialDiskIO();
         Object raw = getArguments() == null ? null : getArguments().getSerializable(RESULT_DRAFT);
         if (raw instanceof ImageMealDraft) {
             draft = (ImageMealDraft) raw;
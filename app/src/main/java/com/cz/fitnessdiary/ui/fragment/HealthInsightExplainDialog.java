@@ -12,6 +12,7 @@ import androidx.annotation.Nullable;
 
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.User;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.CalorieCalculatorUtils;
 import com.google.android.material.bottomsheet.BottomSheetDialogFragment;
 
@@ -63,7 +64,7 @@ public class HealthInsightExplainDialog extends BottomSheetDialogFragment {
     }
 
     private void loadAndPopulate() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             com.cz.fitnessdiary.database.AppDatabase db =
                     com.cz.fitnessdiary.database.AppDatabase.getInstance(requireContext());
             User user = db.userDao().getUserSync();
@@ -183,6 +184,6 @@ public class HealthInsightExplainDialog extends BottomSheetDialogFragment {
                     tvParamBmr.setText(String.format(Locale.getDefault(), "%,d kcal", fBmr));
                 });
             }
-        }).start();
+        });
     }
 }
@@ -24,6 +24,7 @@ import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.MedicationRecord;
 import com.cz.fitnessdiary.database.entity.ReminderSchedule;
 import com.cz.fitnessdiary.ui.adapter.DetailRecordAdapter;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.ReminderManager;
 import com.cz.fitnessdiary.viewmodel.MedicationDetailViewModel;
 import com.google.android.material.button.MaterialButton;
@@ -260,7 +261,7 @@ public class MedicationRecordDetailFragment extends Fragment {
                     0);
 
             // 存入数据库并在后台真正配置闹钟
-            new Thread(() -> {
+            AppExecutors.get().diskIO().execute(() -> {
                 com.cz.fitnessdiary.database.AppDatabase.getInstance(requireContext())
                         .reminderScheduleDao()
                         .insert(schedule);
@@ -271,7 +272,7 @@ public class MedicationRecordDetailFragment extends Fragment {
                             "已设置每日 " + String.format(Locale.getDefault(), "%02d:%02d", hour, minute) + " 的用药提醒",
                             Toast.LENGTH_SHORT).show();
                 });
-            }).start();
+            });
         });
 
         timePicker.show(getParentFragmentManager(), "MedicationTimePicker");
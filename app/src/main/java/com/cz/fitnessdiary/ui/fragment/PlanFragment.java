@@ -27,6 +27,7 @@ import com.cz.fitnessdiary.database.entity.DailyLog;
 import com.cz.fitnessdiary.database.entity.ExtraExerciseLog;
 import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.databinding.FragmentPlanBinding;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.ExerciseMetTable;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.ui.bottomSheet.DateSummaryBottomSheet;
@@ -54,7 +55,7 @@ public class PlanFragment extends Fragment {
     private Calendar currentCalendar;
     private long selectedDate;
     private CalendarAdapter calendarAdapter;
-    // 使用 new Thread() 而非 ExecutorService，避免与 ViewPager2 生命周期冲突导致导航异常
+    // 后台任务走全局 AppExecutors，不持有随 Fragment 关闭的线程池，避免与 ViewPager2 生命周期冲突导致导航异常
 
     // 预设备注标签颜色
     private static final String[][] PRESET_COLORS = {
@@ -212,7 +213,7 @@ public class PlanFragment extends Fragment {
         final Context ctx = getContext();
         if (ctx == null) return;
 
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             // 1. 生成 42 天时间戳
             Calendar cal = Calendar.getInstance();
             cal.set(Calendar.YEAR, year);
@@ -328,7 +329,7 @@ public class PlanFragment extends Fragment {
                     calendarAdapter.notifyDataSetChanged();
                 });
             }
-        }).start();
+        });
     }
 
     /**
@@ -439,7 +440,6 @@ public class PlanFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
-        // executorService removed - using new Thread() instead
         binding = null;
     }
 
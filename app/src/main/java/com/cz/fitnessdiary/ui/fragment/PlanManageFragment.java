@@ -33,6 +33,7 @@ import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.databinding.FragmentPlanManageBinding;
 import com.cz.fitnessdiary.ui.adapter.GroupedPlanAdapter;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.ExerciseMetTable;
 import com.cz.fitnessdiary.utils.PermissionHelper;
 import com.cz.fitnessdiary.viewmodel.PlanViewModel;
@@ -772,7 +773,7 @@ public class PlanManageFragment extends Fragment {
      * 统一负重管理对话框：列出所有器械动作，批量设置重量
      */
     private void showWeightManagerDialog() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             List<TrainingPlan> allPlans = AppDatabase.getInstance(requireContext().getApplicationContext())
                     .trainingPlanDao().getAllPlansList();
             if (allPlans == null || allPlans.isEmpty())
@@ -853,7 +854,7 @@ public class PlanManageFragment extends Fragment {
                             .setTitle("⚖️ 负重管理 (" + finalPlans.size() + " 个动作)")
                             .setView(container)
                             .setPositiveButton("保存全部", (d, w) -> {
-                                new Thread(() -> {
+                                AppExecutors.get().diskIO().execute(() -> {
                                     for (int i = 0; i < finalPlans.size(); i++) {
                                         String s = weightInputs.get(i).getText().toString().trim();
                                         float newWeight = 0f;
@@ -868,14 +869,14 @@ public class PlanManageFragment extends Fragment {
                                             viewModel.updatePlan(finalPlans.get(i));
                                         }
                                     }
-                                }).start();
+                                });
                                 Toast.makeText(requireContext(), "负重设置已保存", Toast.LENGTH_SHORT).show();
                             })
                             .setNegativeButton("取消", null)
                             .show();
                 });
             }
-        }).start();
+        });
     }
 
     private void updateEmptyStatePrompt(String mode) {
@@ -12,16 +12,14 @@ import androidx.fragment.app.Fragment;
 
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.AppDatabase;
-import com.cz.fitnessdiary.database.entity.DailyLog;
-import com.cz.fitnessdiary.database.entity.ExtraExerciseLog;
 import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.database.entity.WeightRecord;
 import com.cz.fitnessdiary.databinding.FragmentPlanStatsBinding;
-import com.cz.fitnessdiary.repository.DailyLogRepository;
-import com.cz.fitnessdiary.repository.TrainingPlanRepository;
 import com.cz.fitnessdiary.repository.WeightRecordRepository;
-import com.cz.fitnessdiary.utils.DateUtils;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.ExerciseMetTable;
+import com.cz.fitnessdiary.utils.StreakTracker;
+import com.cz.fitnessdiary.utils.TimeBuckets;
 import com.cz.fitnessdiary.utils.TrainingRecordUtils;
 import com.github.mikephil.charting.animation.Easing;
 import com.github.mikephil.charting.charts.BarChart;
@@ -42,16 +40,12 @@ import com.github.mikephil.charting.formatter.ValueFormatter;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 历史累计与统计页面
@@ -61,9 +55,8 @@ import java.util.concurrent.Executors;
 public class PlanStatsFragment extends Fragment {
 
     private FragmentPlanStatsBinding binding;
-    private DailyLogRepository logRepo;
     private WeightRecordRepository weightRepo;
-    private TrainingPlanRepository planRepo;
+    private StreakTracker streakTracker;
     private ExecutorService executor;
     private boolean isMonth = false;
 
@@ -88,10 +81,9 @@ public class PlanStatsFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
-        logRepo    = new DailyLogRepository(requireActivity().getApplication());
-        weightRepo = new WeightRecordRepository(requireActivity().getApplication());
-        planRepo   = new TrainingPlanRepository(requireActivity().getApplication());
-        executor   = Executors.newSingleThreadExecutor();
+        weightRepo     = new WeightRecordRepository(requireActivity().getApplication());
+        streakTracker = StreakTracker.get(requireContext());
+        executor   = AppExecutors.get().newSerialDiskIO();
 
         // 返回按钮
         binding.btnBack.setOnClickListener(v -> {
@@ -193,106 +185,52 @@ public class PlanStatsFragment extends Fragment {
     private void loadData() {
         executor.execute(() -> {
             int days = isMonth ? 30 : 7;
-            long endTime   = System.currentTimeMillis();
-            long startTime = endTime - (long) days * 24 * 3600 * 1000L;
-
-            List<DailyLog>     allLogs  = logRepo.getAllLogsSync();
-            List<TrainingPlan> allPlans = planRepo.getAllPlansSync();
+            // 截至今天的最近 N 天，按天分桶
+            TimeBuckets buckets = TimeBuckets.lastDays(days);
             AppDatabase database = AppDatabase.getInstance(requireContext());
-            List<ExtraExerciseLog> allExtraLogs = database.extraExerciseLogDao().getAllLogsSync();
-
-            Map<Integer, TrainingPlan> planMap = new HashMap<>();
-            if (allPlans != null) {
-                for (TrainingPlan p : allPlans) planMap.put(p.getPlanId(), p);
-            }
 
             // 期间完成日志
             List<TrainingRecordUtils.Entry> periodEntries = TrainingRecordUtils.getCompletedEntries(
-                    database, startTime, endTime);
+                    database, buckets.getStart(), buckets.getEnd());
 
             List<WeightRecord> latestWR = weightRepo.getRecentRecordsSync(1);
             final float currentUserWeight = (latestWR != null && !latestWR.isEmpty()) ? latestWR.get(0).getWeight() : 70f;
-            int sumVol = 0;
+
+            // 一次遍历同时累加每日次数、容量、时长
+            TimeBuckets.Series countSeries = buckets.newSeries();
+            TimeBuckets.Series volumeSeries = buckets.newSeries();
+            TimeBuckets.Series durationSeries = buckets.newSeries();
             for (TrainingRecordUtils.Entry entry : periodEntries) {
-                sumVol += ExerciseMetTable.calculateVolume(
-                        entry.name, entry.sets, entry.reps, entry.weight, entry.duration, currentUserWeight);
+                countSeries.add(entry.date, 1);
+                volumeSeries.add(entry.date, ExerciseMetTable.calculateVolume(
+                        entry.name, entry.sets, entry.reps, entry.weight, entry.duration, currentUserWeight));
+                durationSeries.add(entry.date, ExerciseMetTable.resolveDuration(
+                        entry.duration, 0, entry.sets, entry.reps, requireContext()));
             }
+            long sumVol = volumeSeries.total();
             final String displayVolume = sumVol >= 10000 ?
                     String.format(Locale.getDefault(), "%.1fk", sumVol / 1000f) : String.valueOf(sumVol);
 
             // —— 大数字 ——
-            Set<String> allDateSet = new HashSet<>();
-            if (allLogs != null) {
-                for (DailyLog log : allLogs) {
-                    if (log.isCompleted()) allDateSet.add(DateUtils.formatDate(log.getDate()));
-                }
-            }
-            if (allExtraLogs != null) {
-                for (ExtraExerciseLog log : allExtraLogs) {
-                    if (log.isCompleted()) allDateSet.add(DateUtils.formatDate(log.getDate()));
-                }
-            }
-            final int totalDays   = allDateSet.size();
+            final int totalDays   = streakTracker.getActiveDayCount();
             final int periodCount = periodEntries.size();
-            final int streak      = calcMaxStreak(allLogs, allExtraLogs);
+            final int streak      = streakTracker.getBestStreak();
 
-            // —— 每日次数柱状图 ——
+            // —— 每日次数 / 容量柱状图、时长折线图 ——
             SimpleDateFormat sdf = new SimpleDateFormat("M/d", Locale.getDefault());
-            final String[]      xLabels     = new String[days];
-            final List<BarEntry> barEntries  = new ArrayList<>();
-            Calendar cal = Calendar.getInstance();
-            for (int i = 0; i < days; i++) {
-                cal.setTimeInMillis(startTime + (long) i * 24 * 3600 * 1000L);
-                long ds = dayStart(cal), de = ds + 86400000L;
-                int cnt = 0;
-                for (TrainingRecordUtils.Entry entry : periodEntries)
-                    if (entry.date >= ds && entry.date < de) cnt++;
-                xLabels[i] = sdf.format(cal.getTime());
-                barEntries.add(new BarEntry(i, cnt));
-            }
-
-            // —— 每日容量柱状图 ——
-            final List<BarEntry> volumeEntries = new ArrayList<>();
-            float totalVolSum = 0;
-            int volDays = 0;
-            for (int i = 0; i < days; i++) {
-                cal.setTimeInMillis(startTime + (long) i * 24 * 3600 * 1000L);
-                long ds = dayStart(cal), de = ds + 86400000L;
-                int dayVol = 0;
-                for (TrainingRecordUtils.Entry entry : periodEntries) {
-                    if (entry.date >= ds && entry.date < de) {
-                        dayVol += ExerciseMetTable.calculateVolume(
-                                entry.name, entry.sets, entry.reps, entry.weight, entry.duration, currentUserWeight);
-                    }
-                }
-                volumeEntries.add(new BarEntry(i, dayVol));
-                if (dayVol > 0) {
-                    totalVolSum += dayVol;
-                    volDays++;
-                }
+            final String[]       xLabels         = buckets.labels("M/d").toArray(new String[0]);
+            final List<BarEntry> barEntries      = new ArrayList<>();
+            final List<BarEntry> volumeEntries   = new ArrayList<>();
+            final List<Entry>    durationEntries = new ArrayList<>();
+            for (int i = 0; i < buckets.size(); i++) {
+                barEntries.add(new BarEntry(i, countSeries.sum(i)));
+                volumeEntries.add(new BarEntry(i, volumeSeries.sum(i)));
+                durationEntries.add(new Entry(i, durationSeries.sum(i) / 60f));
             }
-            final float avgVol = volDays > 0 ? totalVolSum / volDays : 0;
+            final float avgVol = (float) volumeSeries.averageOfNonZero();
             final String avgVolStr = avgVol >= 10000 ?
                     String.format(Locale.getDefault(), "均 %.1fk kg", avgVol / 1000f) : "均 " + (int)avgVol + " kg";
-
-            // —— 每日时长折线图 ——
-            final List<Entry> durationEntries = new ArrayList<>();
-            int totalSec = 0, dDays = 0;
-            for (int i = 0; i < days; i++) {
-                cal.setTimeInMillis(startTime + (long) i * 24 * 3600 * 1000L);
-                long ds = dayStart(cal), de = ds + 86400000L;
-                int sec = 0;
-                for (TrainingRecordUtils.Entry entry : periodEntries) {
-                    if (entry.date >= ds && entry.date < de) {
-                        sec += ExerciseMetTable.resolveDuration(
-                                entry.duration, 0, entry.sets, entry.reps,
-                                requireContext());
-                    }
-                }
-                durationEntries.add(new Entry(i, sec / 60f));
-                if (sec > 0) { totalSec += sec; dDays++; }
-            }
-            final float avgMin = dDays > 0 ? totalSec / 60f / dDays : 0;
+            final float avgMin = (float) durationSeries.averageOfNonZero() / 60f;
 
             // —— 体重折线图 ——
             List<WeightRecord> wRecords = weightRepo.getRecentRecordsSync(30);
@@ -473,39 +411,6 @@ public class PlanStatsFragment extends Fragment {
     }
 
     // -----------------------------------------------------------------------
-    private int calcMaxStreak(List<DailyLog> logs, List<ExtraExerciseLog> extraLogs) {
-        if ((logs == null || logs.isEmpty()) && (extraLogs == null || extraLogs.isEmpty())) return 0;
-        Set<String> ds = new HashSet<>();
-        if (logs != null) {
-            for (DailyLog log : logs) if (log.isCompleted()) ds.add(DateUtils.formatDate(log.getDate()));
-        }
-        if (extraLogs != null) {
-            for (ExtraExerciseLog log : extraLogs) {
-                if (log.isCompleted()) ds.add(DateUtils.formatDate(log.getDate()));
-            }
-        }
-        List<String> sorted = new ArrayList<>(ds);
-        Collections.sort(sorted);
-        int max = 1, cur = 1;
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        for (int i = 1; i < sorted.size(); i++) {
-            try {
-                long prev = sdf.parse(sorted.get(i - 1)).getTime();
-                long curr = sdf.parse(sorted.get(i)).getTime();
-                if (curr - prev == 86400000L) { cur++; max = Math.max(max, cur); }
-                else cur = 1;
-            } catch (Exception ignored) {}
-        }
-        return sorted.isEmpty() ? 0 : max;
-    }
-
-    private long dayStart(Calendar cal) {
-        Calendar c = (Calendar) cal.clone();
-        c.set(Calendar.HOUR_OF_DAY, 0); c.set(Calendar.MINUTE, 0);
-        c.set(Calendar.SECOND, 0); c.set(Calendar.MILLISECOND, 0);
-        return c.getTimeInMillis();
-    }
-
     private String planName(Map<Integer, TrainingPlan> map, int id) {
         TrainingPlan p = map.get(id);
         return (p != null && p.getName() != null) ? p.getName() : "未知训练";
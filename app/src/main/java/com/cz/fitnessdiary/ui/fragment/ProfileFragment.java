@@ -34,7 +34,9 @@ import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.dao.ReminderScheduleDao;
 import com.cz.fitnessdiary.database.entity.DailyLog;
+import com.cz.fitnessdiary.database.entity.DailyMetric;
 import com.cz.fitnessdiary.database.entity.ExtraExerciseLog;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.TrainingRecordUtils;
 import com.cz.fitnessdiary.database.entity.ReminderSchedule;
 import com.cz.fitnessdiary.database.entity.FoodRecord;
@@ -50,6 +52,7 @@ import com.cz.fitnessdiary.database.entity.WaterRecord;
 import com.cz.fitnessdiary.databinding.FragmentProfileBinding;
 import com.cz.fitnessdiary.model.AccountUser;
 import com.cz.fitnessdiary.repository.AccountRepository;
+import com.cz.fitnessdiary.repository.DailyMetricRepository;
 import com.cz.fitnessdiary.config.CloudApiConfig;
 import com.cz.fitnessdiary.ui.MainActivity;
 import com.cz.fitnessdiary.ui.guide.GuideStateManager;
@@ -89,6 +92,8 @@ public class ProfileFragment extends Fragment {
     // SAF Launchers for Backup/Restore
     private ActivityResultLauncher<String> createBackupLauncher;
     private ActivityResultLauncher<String[]> restoreBackupLauncher;
+    private ActivityResultLauncher<Uri> backupFolderLauncher;
+    private ActivityResultLauncher<Uri> restoreFolderLauncher;
 
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
@@ -166,6 +171,24 @@ public class ProfileFragment extends Fragment {
                         showConfirmRestoreDialog(uri);
                     }
                 });
+
+        // 增量备份 / 恢复：选择备份文件夹 (SAF 树 URI)
+        backupFolderLauncher = registerForActivityResult(
+                new ActivityResultContracts.OpenDocumentTree(),
+                uri -> {
+                    if (uri != null) {
+                        rememberBackupFolder(uri);
+                        runIncrementalBackup(uri);
+                    }
+                });
+        restoreFolderLauncher = registerForActivityResult(
+                new ActivityResultContracts.OpenDocumentTree(),
+                uri -> {
+                    if (uri != null) {
+                        rememberBackupFolder(uri);
+                        showConfirmRestoreFolderDialog(uri);
+                    }
+                });
     }
 
     @Nullable
@@ -275,7 +298,7 @@ public class ProfileFragment extends Fragment {
                         if (calculatedAge > 0 && calculatedAge != user.getAge()) {
                             age = calculatedAge;
                             user.setAge(calculatedAge);
-                            new Thread(() -> AppDatabase.getInstance(requireContext()).userDao().update(user)).start();
+                            AppExecutors.get().diskIO().execute(() -> AppDatabase.getInstance(requireContext()).userDao().update(user));
                         }
                     } catch (Exception ignored) {}
                 }
@@ -498,7 +521,7 @@ public class ProfileFragment extends Fragment {
         ReminderScheduleAdapter.OnReminderActionListener listener = new ReminderScheduleAdapter.OnReminderActionListener() {
             @Override
             public void onToggle(ReminderSchedule schedule, boolean enabled) {
-                new Thread(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     schedule.setEnabled(enabled);
                     dao.update(schedule);
                     if (enabled) {
@@ -506,7 +529,7 @@ public class ProfileFragment extends Fragment {
                     } else {
                         ReminderManager.cancelReminder(requireContext(), schedule);
                     }
-                }).start();
+                });
             }
 
             @Override
@@ -531,7 +554,7 @@ public class ProfileFragment extends Fragment {
                                     schedule.setHour(hour);
                                     schedule.setMinute(minute);
                                     schedule.setRepeatDays(String.valueOf(which));
-                                    new Thread(() -> {
+                                    AppExecutors.get().diskIO().execute(() -> {
                                         dao.update(schedule);
                                         ReminderManager.cancelReminder(requireContext(), schedule);
                                         if (schedule.isEnabled()) {
@@ -540,7 +563,7 @@ public class ProfileFragment extends Fragment {
                                         if (getActivity() != null) {
                                             getActivity().runOnUiThread(() -> refreshReminderLists(dao, rvPreset, rvCustom, self));
                                         }
-                                    }).start();
+                                    });
                                 }, schedule.getHour(), schedule.getMinute(), true);
                                 timePicker.show();
                             })
@@ -550,7 +573,7 @@ public class ProfileFragment extends Fragment {
                     TimePickerDialog timePicker = new TimePickerDialog(getContext(), (view, hour, minute) -> {
                         schedule.setHour(hour);
                         schedule.setMinute(minute);
-                        new Thread(() -> {
+                        AppExecutors.get().diskIO().execute(() -> {
                             dao.update(schedule);
                             ReminderManager.cancelReminder(requireContext(), schedule);
                             if (schedule.isEnabled()) {
@@ -559,7 +582,7 @@ public class ProfileFragment extends Fragment {
                             if (getActivity() != null) {
                                 getActivity().runOnUiThread(() -> refreshReminderLists(dao, rvPreset, rvCustom, self));
                             }
-                        }).start();
+                        });
                     }, schedule.getHour(), schedule.getMinute(), true);
                     timePicker.show();
                 }
@@ -577,13 +600,13 @@ public class ProfileFragment extends Fragment {
                         .setTitle("删除提醒")
                         .setMessage("确定要删除「" + schedule.getTitle() + "」吗？")
                         .setPositiveButton("删除", (d, w) -> {
-                            new Thread(() -> {
+                            AppExecutors.get().diskIO().execute(() -> {
                                 ReminderManager.cancelReminder(requireContext(), schedule);
                                 dao.deleteById(schedule.getId());
                                 if (getActivity() != null) {
                                     getActivity().runOnUiThread(() -> refreshReminderLists(dao, rvPreset, rvCustom, self));
                                 }
-                            }).start();
+                            });
                         })
                         .setNegativeButton("取消", null)
                         .show();
@@ -626,7 +649,7 @@ public class ProfileFragment extends Fragment {
                                        androidx.recyclerview.widget.RecyclerView rvPreset,
                                        androidx.recyclerview.widget.RecyclerView rvCustom,
                                        ReminderScheduleAdapter.OnReminderActionListener listener) {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             List<ReminderSchedule> presets = dao.getByPreset(true);
             List<ReminderSchedule> customs = dao.getByPreset(false);
 
@@ -636,7 +659,7 @@ public class ProfileFragment extends Fragment {
                     ((ReminderScheduleAdapter) rvCustom.getAdapter()).setSchedules(customs);
                 });
             }
-        }).start();
+        });
     }
 
     private void showEditReminderDialog(ReminderSchedule schedule, ReminderScheduleDao dao, Runnable onDone) {
@@ -673,7 +696,7 @@ public class ProfileFragment extends Fragment {
                     schedule.setMinute(selectedMinute[0]);
                     schedule.setRepeatDays("0,1,2,3,4,5,6");
 
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         if (schedule.getId() == 0) {
                             long id = dao.insert(schedule);
                             schedule.setId(id);
@@ -687,7 +710,7 @@ public class ProfileFragment extends Fragment {
                         if (onDone != null && getActivity() != null) {
                             getActivity().runOnUiThread(() -> onDone.run());
                         }
-                    }).start();
+                    });
                 })
                 .setNegativeButton("取消", null)
                 .show();
@@ -799,7 +822,7 @@ public class ProfileFragment extends Fragment {
         layout.addView(cardStats);
 
         // 后台加载等级数据
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             com.cz.fitnessdiary.database.AppDatabase db =
                     com.cz.fitnessdiary.database.AppDatabase.getInstance(requireContext());
             java.util.Set<Long> trainingDates = new java.util.HashSet<>();
@@ -849,7 +872,7 @@ public class ProfileFragment extends Fragment {
                             fTrain, fDiet, fUnlocked, fScore, fLevel));
                 });
             }
-        }).start();
+        });
 
         new MaterialAlertDialogBuilder(requireContext())
                 .setTitle("✏️ 编辑个人资料")
@@ -883,7 +906,7 @@ public class ProfileFragment extends Fragment {
                     user.setAge(age);
                     sp.edit().putString("birth_date", birthStr).apply();
 
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         AppDatabase.getInstance(requireContext()).userDao().update(user);
                         if (getActivity() != null) {
                             getActivity().runOnUiThread(() -> {
@@ -891,7 +914,7 @@ public class ProfileFragment extends Fragment {
                                 Toast.makeText(getContext(), "个人资料保存成功", Toast.LENGTH_SHORT).show();
                             });
                         }
-                    }).start();
+                    });
                 })
                 .setNegativeButton("取消", null)
                 .show();
@@ -921,7 +944,7 @@ public class ProfileFragment extends Fragment {
 
 
     private void generateAndShareWeekReport() {
-        java.util.concurrent.Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 AppDatabase db = AppDatabase.getInstance(requireContext());
                 long[] weekDates = DateUtils.getThisWeekDates();
@@ -1547,17 +1570,40 @@ public class ProfileFragment extends Fragment {
         // 1. 备份数据
         view.findViewById(R.id.btn_backup).setOnClickListener(v -> {
             bottomSheetDialog.dismiss();
-            String fileName = "FitnessDiary_Backup_"
-                    + new java.text.SimpleDateFormat("yyyyMMdd_HHmm", java.util.Locale.getDefault())
-                            .format(new java.util.Date())
-                    + ".db";
-            createBackupLauncher.launch(fileName);
+            new MaterialAlertDialogBuilder(requireContext())
+                    .setTitle("备份数据")
+                    .setItems(new String[] { "增量备份到文件夹（推荐，仅写入变化部分）", "导出单个完整备份文件" },
+                            (dialog, which) -> {
+                                if (which == 0) {
+                                    backupFolderLauncher.launch(
+                                            com.cz.fitnessdiary.utils.BackupManager.getBackupFolder(requireContext()));
+                                } else {
+                                    String fileName = "FitnessDiary_Backup_"
+                                            + new java.text.SimpleDateFormat("yyyyMMdd_HHmm",
+                                                    java.util.Locale.getDefault()).format(new java.util.Date())
+                                            + ".db";
+                                    createBackupLauncher.launch(fileName);
+                                }
+                            })
+                    .show();
         });
 
         // 2. 恢复数据
         view.findViewById(R.id.btn_restore).setOnClickListener(v -> {
             bottomSheetDialog.dismiss();
-            restoreBackupLauncher.launch(new String[] { "application/octet-stream", "application/x-sqlite3", "*/*" });
+            new MaterialAlertDialogBuilder(requireContext())
+                    .setTitle("恢复数据")
+                    .setItems(new String[] { "从备份文件夹恢复（增量备份）", "从单个备份文件恢复" },
+                            (dialog, which) -> {
+                                if (which == 0) {
+                                    restoreFolderLauncher.launch(
+                                            com.cz.fitnessdiary.utils.BackupManager.getBackupFolder(requireContext()));
+                                } else {
+                                    restoreBackupLauncher.launch(new String[] { "application/octet-stream",
+                                            "application/x-sqlite3", "*/*" });
+                                }
+                            })
+                    .show();
         });
 
         // 3. 清除数据
@@ -1569,6 +1615,74 @@ public class ProfileFragment extends Fragment {
         bottomSheetDialog.show();
     }
 
+    /**
+     * 持久化备份文件夹的读写权限，下次备份默认定位到该文件夹
+     */
+    private void rememberBackupFolder(Uri treeUri) {
+        try {
+            requireContext().getContentResolver().takePersistableUriPermission(treeUri,
+                    Intent.FLAG_GRANT_READ_URI_PERMISSION | Intent.FLAG_GRANT_WRITE_URI_PERMISSION);
+        } catch (SecurityException e) {
+            // 部分文件管理器不提供持久授权，本次操作仍可继续
+        }
+        com.cz.fitnessdiary.utils.BackupManager.setBackupFolder(requireContext(), treeUri);
+    }
+
+    private void runIncrementalBackup(Uri treeUri) {
+        Context appContext = requireContext().getApplicationContext();
+        Toast.makeText(getContext(), "正在备份…", Toast.LENGTH_SHORT).show();
+        AppExecutors.get().diskIO().execute(() -> {
+            boolean success = com.cz.fitnessdiary.utils.BackupManager.backupToFolder(appContext, treeUri);
+            AppExecutors.get().mainThread().execute(() -> Toast.makeText(appContext,
+                    success ? "✅ 增量备份完成" : "❌ 备份失败，请检查文件夹权限或剩余空间",
+                    Toast.LENGTH_SHORT).show());
+        });
+    }
+
+    private void showConfirmRestoreFolderDialog(Uri treeUri) {
+        new MaterialAlertDialogBuilder(requireContext())
+                .setTitle("⚠️ 确认恢复数据？")
+                .setMessage("将按该文件夹中最新一次备份恢复，并覆盖当前所有的本地数据，且无法撤销！")
+                .setPositiveButton("确认恢复", (dialog, which) -> {
+                    Context appContext = requireContext().getApplicationContext();
+                    AppExecutors.get().diskIO().execute(() -> {
+                        boolean success = com.cz.fitnessdiary.utils.BackupManager.restoreFromFolder(appContext,
+                                treeUri);
+                        AppExecutors.get().mainThread().execute(() -> {
+                            if (success) {
+                                // 数据库文件已被替换，即使页面已关闭也必须重启
+                                if (isAdded()) {
+                                    Toast.makeText(getContext(), "🎉 恢复成功！应用即将重启", Toast.LENGTH_LONG).show();
+                                }
+                                restartAppAfterRestore(appContext);
+                            } else if (isAdded()) {
+                                Toast.makeText(getContext(), "❌ 恢复失败，备份文件夹中没有完整的备份", Toast.LENGTH_SHORT)
+                                        .show();
+                            }
+                        });
+                    });
+                })
+                .setNegativeButton("取消", null)
+                .show();
+    }
+
+    /**
+     * [物理重启逻辑] 强制物理重启应用以确保数据库单例刷新
+     */
+    private static void restartAppAfterRestore(Context appContext) {
+        // 延迟期间 Fragment 可能已被销毁，只使用 Application Context
+        new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() -> {
+            android.content.Intent intent = appContext.getPackageManager()
+                    .getLaunchIntentForPackage(appContext.getPackageName());
+            if (intent != null) {
+                intent.addFlags(android.content.Intent.FLAG_ACTIVITY_NEW_TASK
+                        | android.content.Intent.FLAG_ACTIVITY_CLEAR_TASK);
+                appContext.startActivity(intent);
+            }
+            Runtime.getRuntime().exit(0);
+        }, 1000);
+    }
+
     /**
      * 恢复前进行二次确认
      */
@@ -1576,30 +1690,45 @@ public class ProfileFragment extends Fragment {
         new com.google.android.material.dialog.MaterialAlertDialogBuilder(requireContext())
                 .setTitle("⚠️ 确认恢复数据？")
                 .setMessage("恢复操作将覆盖当前所有的本地数据，且无法撤销！建议在恢复前先执行一次备份。")
-                .setPositiveButton("确认恢复", (dialog, which) -> {
-                    boolean success = com.cz.fitnessdiary.utils.BackupManager.restoreDatabase(requireContext(), uri);
-                    if (success) {
-                        Toast.makeText(getContext(), "🎉 恢复成功！应用即将重启", Toast.LENGTH_LONG).show();
-                        // [物理重启逻辑] 强制物理重启应用以确保数据库单例刷新
-                        new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() -> {
-                            android.content.Context context = requireContext();
-                            android.content.Intent intent = context.getPackageManager()
-                                    .getLaunchIntentForPackage(context.getPackageName());
-                            if (intent != null) {
-                                intent.addFlags(android.content.Intent.FLAG_ACTIVITY_NEW_TASK
-                                        | android.content.Intent.FLAG_ACTIVITY_CLEAR_TASK);
-                                        startActivity(intent);
-                            }
-                            Runtime.getRuntime().exit(0);
-                        }, 1000);
-                    } else {
-                        Toast.makeText(getContext(), "❌ 恢复失败，请检查文件是否有效", Toast.LENGTH_SHORT).show();
-                    }
-                })
+                .setPositiveButton("确认恢复", (dialog, which) -> runFullRestore(uri))
                 .setNegativeButton("取消", null)
                 .show();
     }
 
+    /**
+     * 后台执行全量恢复并显示进度；失败时已校验的部分会保留，再次选择同一文件可继续
+     */
+    private void runFullRestore(Uri uri) {
+        Context appContext = requireContext().getApplicationContext();
+        androidx.appcompat.app.AlertDialog progressDialog = new MaterialAlertDialogBuilder(requireContext())
+                .setTitle("正在恢复数据")
+                .setMessage("正在校验备份文件…")
+                .setCancelable(false)
+                .show();
+        AppExecutors.get().diskIO().execute(() -> {
+            boolean success = com.cz.fitnessdiary.utils.BackupManager.restoreDatabase(appContext, uri,
+                    (processed, total) -> AppExecutors.get().mainThread().execute(() -> {
+                        if (progressDialog.isShowing() && total > 0) {
+                            progressDialog.setMessage("正在解压并校验… " + (int) (processed * 100 / total) + "%");
+                        }
+                    }));
+            AppExecutors.get().mainThread().execute(() -> {
+                if (progressDialog.isShowing()) {
+                    progressDialog.dismiss();
+                }
+                if (success) {
+                    // 数据库文件已被替换，即使页面已关闭也必须重启
+                    if (isAdded()) {
+                        Toast.makeText(getContext(), "🎉 恢复成功！应用即将重启", Toast.LENGTH_LONG).show();
+                    }
+                    restartAppAfterRestore(appContext);
+                } else if (isAdded()) {
+                    Toast.makeText(getContext(), "❌ 恢复失败，请检查文件是否有效", Toast.LENGTH_SHORT).show();
+                }
+            });
+        });
+    }
+
     /**
      * Plan 33: 显示BMI详情对话框
      */
@@ -2210,7 +2339,7 @@ public class ProfileFragment extends Fragment {
                     String exerciseStr = etExercise.getText().toString().trim();
                     String weightStr = etWeightTarget.getText().toString().trim();
 
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         if (!waterStr.isEmpty()) {
                             try {
                                 int water = Integer.parseInt(waterStr);
@@ -2219,7 +2348,7 @@ public class ProfileFragment extends Fragment {
                                     AppDatabase.getInstance(ctx).userDao().update(user);
                                     // 同时写入当日独立值
                                     long todayTs = com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
-                                    stepSp.edit().putInt("water_target_" + todayTs, water).apply();
+                                    new DailyMetricRepository(ctx).putSync(DailyMetric.WATER_TARGET, todayTs, water);
                                 }
                             } catch (NumberFormatException ignored) {}
                         }
@@ -2231,7 +2360,7 @@ public class ProfileFragment extends Fragment {
                                         // 保存全局默认 + 当日独立值，避免修改影响其他日期
                                         stepSp.edit().putInt("step_target", steps).apply();
                                         long todayTs = com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
-                                        stepSp.edit().putInt("step_target_" + todayTs, steps).apply();
+                                        new DailyMetricRepository(ctx).put(DailyMetric.STEP_TARGET, todayTs, steps);
                                     }
                                 } catch (NumberFormatException ignored) {}
                             }
@@ -2242,8 +2371,7 @@ public class ProfileFragment extends Fragment {
                                         exerciseSp.edit().putInt("target_minutes_default", mins).apply();
                                         // 同时写入当日独立值，避免被后续修改覆盖
                                         long todayTs = com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
-                                        requireContext().getSharedPreferences("fitness_diary_prefs", android.content.Context.MODE_PRIVATE)
-                                                .edit().putInt("target_minutes_" + todayTs, mins).apply();
+                                        new DailyMetricRepository(ctx).put(DailyMetric.TARGET_MINUTES, todayTs, mins);
                                     }
                                 } catch (NumberFormatException ignored) {}
                             }
@@ -2256,13 +2384,13 @@ public class ProfileFragment extends Fragment {
                                         healthSp.edit().putFloat("target_weight_kg", w).apply();
                                         // 同时写入当日独立值
                                         long todayTs = com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
-                                        healthSp.edit().putFloat("target_weight_kg_" + todayTs, w).apply();
+                                        new DailyMetricRepository(ctx).put(DailyMetric.TARGET_WEIGHT_KG, todayTs, w);
                                     }
                                 } catch (NumberFormatException ignored) {}
                             }
                             Toast.makeText(ctx, "✅ 目标已保存", Toast.LENGTH_SHORT).show();
                         });
-                    }).start();
+                    });
                 })
                 .setNegativeButton("取消", null)
                 .show();
@@ -2322,7 +2450,7 @@ public class ProfileFragment extends Fragment {
                         "• AI 私教对话历史\n\n" +
                         "不会影响您的训练数据、饮食记录和个人设置。")
                 .setPositiveButton("确认清除", (dialog, which) -> {
-                    new Thread(() -> {
+                    AppExecutors.get().diskIO().execute(() -> {
                         // 清除 Glide 磁盘缓存
                         try {
                             Glide.get(ctx).clearDiskCache();
@@ -2340,7 +2468,7 @@ public class ProfileFragment extends Fragment {
                             } catch (Exception ignored) {}
                             Toast.makeText(ctx, "✅ 缓存已清除", Toast.LENGTH_SHORT).show();
                         });
-                    }).start();
+                    });
                 })
                 .setNegativeButton("取消", null)
                 .show();
@@ -2390,7 +2518,7 @@ public class ProfileFragment extends Fragment {
             if (!cacheDir.exists()) cacheDir.mkdirs();
             File destFile = new File(cacheDir, "FitnessDiary_v" + BuildConfig.VERSION_NAME + ".apk");
 
-            new Thread(() -> {
+            AppExecutors.get().diskIO().execute(() -> {
                 try {
                     java.io.FileInputStream fis = new java.io.FileInputStream(apkFile);
                     java.io.FileOutputStream fos = new java.io.FileOutputStream(destFile);
@@ -2416,7 +2544,7 @@ public class ProfileFragment extends Fragment {
                     requireActivity().runOnUiThread(() ->
                             Toast.makeText(requireContext(), "分享失败", Toast.LENGTH_SHORT).show());
                 }
-            }).start();
+            });
         } catch (Exception e) {
             Toast.makeText(requireContext(), "分享失败", Toast.LENGTH_SHORT).show();
         }
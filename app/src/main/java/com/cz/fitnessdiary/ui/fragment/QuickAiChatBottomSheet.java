@@ -13,7 +13,7 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.lifecycle.ViewModelProvider;
-import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.FoodLibrary;
@@ -51,7 +51,6 @@ public class QuickAiChatBottomSheet extends BottomSheetDialogFragment {
     private TrainingPlanRepository trainingRepository;
 
     private long selectedRecordDate = System.currentTimeMillis();
-    private boolean isFirstLoad = true;
 
     public static QuickAiChatBottomSheet newInstance() {
         return new QuickAiChatBottomSheet();
@@ -124,8 +123,7 @@ public class QuickAiChatBottomSheet extends BottomSheetDialogFragment {
         adapter.setOnActionClickListener(this::handleSmartAction);
         adapter.setOnMessageLongClickListener(this::handleMessageLongClick);
 
-        binding.recyclerViewMessages.setLayoutManager(new LinearLayoutManager(getContext()));
-        binding.recyclerViewMessages.setAdapter(adapter);
+        adapter.attachTo(binding.recyclerViewMessages);
     }
 
     private void setupListeners() {
@@ -136,28 +134,25 @@ public class QuickAiChatBottomSheet extends BottomSheetDialogFragment {
             if (!text.isEmpty()) {
                 viewModel.sendMessage(text);
                 binding.etInput.setText("");
+                binding.recyclerViewMessages.scrollToPosition(0);
             }
         });
     }
 
     private void observeViewModel() {
-        viewModel.getMessages().observe(getViewLifecycleOwner(), messages -> {
-            if (messages == null) return;
-
-            LinearLayoutManager layoutManager = (LinearLayoutManager) binding.recyclerViewMessages.getLayoutManager();
-            boolean isAtBottom = false;
-            if (layoutManager != null && adapter.getItemCount() > 0) {
-                isAtBottom = layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - 2;
-            }
-
-            adapter.setMessages(messages);
-
-            // 滚动处理
-            if (isFirstLoad) {
-                binding.recyclerViewMessages.scrollToPosition(messages.size() - 1);
-                isFirstLoad = false;
-            } else if (isAtBottom || (messages.size() > 0 && messages.get(messages.size() - 1).isUser())) {
-                binding.recyclerViewMessages.smoothScrollToPosition(messages.size() - 1);
+        // 消息分页加载；贴底滚动由 adapter.attachTo 处理
+        viewModel.getMessagePages().observe(getViewLifecycleOwner(),
+                pagingData -> adapter.submitData(getViewLifecycleOwner().getLifecycle(), pagingData));
+        viewModel.getPendingReply().observe(getViewLifecycleOwner(), adapter::setPendingReply);
+
+        // 流式回复只增量刷新最后一条消息
+        viewModel.getStreamingUpdate().observe(getViewLifecycleOwner(), update -> {
+            RecyclerView list = binding.recyclerViewMessages;
+            boolean isAtBottom = !list.canScrollVertically(1);
+            adapter.updateStreamingMessage(update);
+            if (isAtBottom) {
+                // 消息变高后保持贴底，跟随生成进度
+                list.post(() -> list.scrollBy(0, list.getHeight()));
             }
         });
 
@@ -25,6 +25,7 @@ import com.cz.fitnessdiary.repository.FoodLibraryRepository;
 import com.cz.fitnessdiary.repository.FoodRecordRepository;
 import com.cz.fitnessdiary.ui.adapter.FavoriteFoodAdapter;
 import com.cz.fitnessdiary.ui.adapter.RecipeAdapter;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.viewmodel.RecipeViewModel;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.tabs.TabLayout;
@@ -33,7 +34,6 @@ import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
-import java.util.concurrent.Executors;
 
 public class RecipeListFragment extends Fragment {
 
@@ -92,12 +92,12 @@ public class RecipeListFragment extends Fragment {
                         .setTitle("删除食谱")
                         .setMessage("确定要删除「" + recipe.getName() + "」吗？")
                         .setPositiveButton("删除", (d, w) -> {
-                            new Thread(() -> {
+                            AppExecutors.get().diskIO().execute(() -> {
                                 viewModel.deleteRecipe(recipe);
                                 if (getActivity() != null) {
                                     getActivity().runOnUiThread(() -> loadData());
                                 }
-                            }).start();
+                            });
                         })
                         .setNegativeButton("取消", null)
                         .show();
@@ -201,7 +201,7 @@ public class RecipeListFragment extends Fragment {
             loadData();
         });
 
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             FoodLibraryRepository repo = new FoodLibraryRepository(requireActivity().getApplication());
             java.util.List<FoodLibrary> allFoods = repo.getAllFoodsSync();
             if (getActivity() != null) {
@@ -213,7 +213,7 @@ public class RecipeListFragment extends Fragment {
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 String query = s.toString().trim().toLowerCase();
-                Executors.newSingleThreadExecutor().execute(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     FoodLibraryRepository repo = new FoodLibraryRepository(requireActivity().getApplication());
                     java.util.List<FoodLibrary> results;
                     if (query.isEmpty()) {
@@ -494,7 +494,7 @@ public class RecipeListFragment extends Fragment {
             showGramsInputForRecipe(recipe, food);
         });
 
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             FoodLibraryRepository repo = new FoodLibraryRepository(requireActivity().getApplication());
             java.util.List<FoodLibrary> allFoods = repo.getAllFoodsSync();
             if (getActivity() != null) {
@@ -506,7 +506,7 @@ public class RecipeListFragment extends Fragment {
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
                 String query = s.toString().trim().toLowerCase();
-                Executors.newSingleThreadExecutor().execute(() -> {
+                AppExecutors.get().diskIO().execute(() -> {
                     FoodLibraryRepository repo = new FoodLibraryRepository(requireActivity().getApplication());
                     java.util.List<FoodLibrary> results;
                     if (query.isEmpty()) {
@@ -692,7 +692,7 @@ public class RecipeListFragment extends Fragment {
      * 后台线程中将选中的食物添加到食谱并保存
      */
     private void addFoodToRecipe(Recipe recipe, FoodLibrary food, float grams) {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 Gson gson = new Gson();
                 JsonArray foodsArray = gson.fromJson(recipe.getFoodsJson(), JsonArray.class);
@@ -740,7 +740,7 @@ public class RecipeListFragment extends Fragment {
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }).start();
+        });
     }
 
     @Override
@@ -12,6 +12,7 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.fragment.NavHostFragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.databinding.FragmentSocialFeedBinding;
@@ -21,6 +22,9 @@ import com.cz.fitnessdiary.viewmodel.SocialViewModel;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
 public final class SocialFeedFragment extends Fragment {
+    /** 距离列表末尾还剩几条时预加载下一页 */
+    private static final int LOAD_MORE_THRESHOLD = 5;
+
     private FragmentSocialFeedBinding binding;
     private SocialViewModel viewModel;
 
@@ -38,8 +42,18 @@ public final class SocialFeedFragment extends Fragment {
             @Override public void onLike(SocialPostUiModel post) { viewModel.setLiked(post); }
             @Override public void onMore(SocialPostUiModel post) { showPostActions(post); }
         });
-        binding.recycler.setLayoutManager(new LinearLayoutManager(requireContext()));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        binding.recycler.setLayoutManager(layoutManager);
         binding.recycler.setAdapter(adapter);
+        binding.recycler.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition()
+                        >= adapter.getItemCount() - LOAD_MORE_THRESHOLD) {
+                    viewModel.loadMoreFeed();
+                }
+            }
+        });
         binding.toolbar.setNavigationOnClickListener(v -> NavHostFragment.findNavController(this).navigateUp());
         binding.fabCreate.setOnClickListener(v -> NavHostFragment.findNavController(this).navigate(R.id.createPostFragment));
         viewModel.getPosts().observe(getViewLifecycleOwner(), posts -> {
@@ -23,10 +23,10 @@ import com.cz.fitnessdiary.database.FoodLibraryDataLoader;
 import com.cz.fitnessdiary.database.ReminderPresetDataLoader;
 import com.cz.fitnessdiary.databinding.FragmentSplashBinding;
 import com.cz.fitnessdiary.ui.MainActivity;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.ReminderManager;
 
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Executors;
 
 public class SplashFragment extends Fragment {
 
@@ -82,7 +82,7 @@ public class SplashFragment extends Fragment {
 
     private void startDataLoading() {
         Context appContext = requireContext().getApplicationContext();
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 // Pre-load data
                 FoodLibraryDataLoader.loadIfNeeded(appContext);
@@ -104,7 +104,7 @@ public class SplashFragment extends Fragment {
     }
 
     private void startMinimumDelayTimer() {
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 Thread.sleep(MIN_ANIMATION_DURATION);
             } catch (InterruptedException e) {
@@ -116,7 +116,7 @@ public class SplashFragment extends Fragment {
     }
 
     private void waitForCompletion() {
-        Executors.newSingleThreadExecutor().execute(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 // Wait for both conditions to be met
                 countDownLatch.await();
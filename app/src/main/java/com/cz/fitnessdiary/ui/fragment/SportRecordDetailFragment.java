@@ -20,11 +20,13 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.cz.fitnessdiary.R;
 import com.cz.fitnessdiary.database.entity.DailyLog;
+import com.cz.fitnessdiary.database.entity.DailyMetric;
 import com.cz.fitnessdiary.database.entity.ExerciseLibrary;
 import com.cz.fitnessdiary.database.entity.ExtraExerciseLog;
 import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.ui.adapter.DailyLogAdapter;
 import com.cz.fitnessdiary.ui.adapter.ExtraExerciseLogAdapter;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.viewmodel.CheckInViewModel;
 import com.google.android.material.button.MaterialButton;
@@ -46,10 +48,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import com.google.android.material.card.MaterialCardView;
 import com.cz.fitnessdiary.model.DailyHealthSnapshot;
+import com.cz.fitnessdiary.repository.DailyMetricRepository;
 import com.cz.fitnessdiary.repository.HealthAggregationRepository;
 import com.cz.fitnessdiary.repository.ExerciseLibraryRepository;
 
@@ -106,13 +108,17 @@ public class SportRecordDetailFragment extends Fragment {
 
         btnSaveTarget.setOnClickListener(v -> {
             if (selectedDate == 0) return;
-            String dateKey = "target_minutes_" + selectedDate;
             String val = etTargetDuration.getText().toString().trim();
             try {
                 int minutes = val.isEmpty() ? 0 : Integer.parseInt(val);
                 if (minutes >= 0) {
-                    requireActivity().getSharedPreferences("fitness_diary_prefs", android.content.Context.MODE_PRIVATE)
-                            .edit().putInt(dateKey, minutes).apply();
+                    DailyMetricRepository metrics = new DailyMetricRepository(requireContext());
+                    if (minutes > 0) {
+                        metrics.put(DailyMetric.TARGET_MINUTES, selectedDate, minutes);
+                    } else {
+                        // 0 即自动计算，不必保留记录
+                        metrics.remove(DailyMetric.TARGET_MINUTES, selectedDate);
+                    }
                     if (minutes > 0) {
                         Toast.makeText(getContext(), "训练总时长已保存: " + minutes + " 分钟", Toast.LENGTH_SHORT).show();
                     } else {
@@ -226,7 +232,7 @@ public class SportRecordDetailFragment extends Fragment {
 
         // Initialize health aggregation repository for influencing factors
         healthRepo = new HealthAggregationRepository(requireActivity().getApplication());
-        executor = Executors.newSingleThreadExecutor();
+        executor = AppExecutors.get().newSerialDiskIO();
 
         cardFactors = view.findViewById(R.id.card_factors);
         tvPrevSleep = view.findViewById(R.id.tv_prev_sleep);
@@ -285,14 +291,14 @@ public class SportRecordDetailFragment extends Fragment {
 
     private void saveManualExerciseToLibrary(String name, String bodyPart, String category) {
         android.content.Context appContext = requireContext().getApplicationContext();
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             ExerciseLibraryRepository repository = new ExerciseLibraryRepository(appContext);
             if (repository.getExerciseByName(name) == null) {
                 ExerciseLibrary exercise = new ExerciseLibrary(name, bodyPart, "基础", "", 2,
                         "其他", category);
                 repository.insert(exercise);
             }
-        }).start();
+        });
     }
 
     private void showDatePicker() {
@@ -494,10 +500,12 @@ public class SportRecordDetailFragment extends Fragment {
      */
     private void loadTargetDuration() {
         if (selectedDate == 0 || etTargetDuration == null) return;
-        String dateKey = "target_minutes_" + selectedDate;
-        int saved = requireActivity().getSharedPreferences("fitness_diary_prefs", android.content.Context.MODE_PRIVATE)
-                .getInt(dateKey, 0);
-        etTargetDuration.setText(saved > 0 ? String.valueOf(saved) : "");
+        long date = selectedDate;
+        new DailyMetricRepository(requireContext()).loadInt(DailyMetric.TARGET_MINUTES, date, 0, saved -> {
+            // 回调前可能已切换日期或销毁视图
+            if (!isAdded() || etTargetDuration == null || selectedDate != date) return;
+            etTargetDuration.setText(saved > 0 ? String.valueOf(saved) : "");
+        });
     }
 
     /**
@@ -18,6 +18,7 @@ import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagingDataTransforms;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
@@ -26,7 +27,9 @@ import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.entity.User;
 import com.cz.fitnessdiary.database.entity.WeightRecord;
 import com.cz.fitnessdiary.ui.adapter.DetailRecordAdapter;
+import com.cz.fitnessdiary.ui.adapter.DetailRecordPagingAdapter;
 import com.cz.fitnessdiary.ui.widget.WeightChartView;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.utils.HealthScoreCalculator;
 import com.cz.fitnessdiary.viewmodel.WeightDetailViewModel;
@@ -44,7 +47,8 @@ import java.util.Locale;
 public class WeightRecordDetailFragment extends Fragment {
 
     private WeightDetailViewModel viewModel;
-    private DetailRecordAdapter adapter;
+    private DetailRecordPagingAdapter adapter;
+    private WeightRecord latestRecord;
 
     private TextView tvLatest;
     private TextView tvDelta;
@@ -92,7 +96,7 @@ public class WeightRecordDetailFragment extends Fragment {
         progressLoading = view.findViewById(R.id.progress_loading);
         lineWeight = view.findViewById(R.id.line_weight);
 
-        adapter = new DetailRecordAdapter(new DetailRecordAdapter.OnItemActionListener() {
+        adapter = new DetailRecordPagingAdapter(new DetailRecordAdapter.OnItemActionListener() {
             @Override
             public void onClick(DetailRecordAdapter.Item item) {
                 showEditDialog((WeightRecord) item.payload);
@@ -148,7 +152,10 @@ public class WeightRecordDetailFragment extends Fragment {
                 updateWeightChart(values);
         });
 
-        viewModel.getRecentRecords().observe(getViewLifecycleOwner(), this::renderRecords);
+        viewModel.getRecordPages().observe(getViewLifecycleOwner(), pagingData -> adapter.submitData(
+                getViewLifecycleOwner().getLifecycle(),
+                PagingDataTransforms.map(pagingData, AppExecutors.get().compute(), this::toItem)));
+        viewModel.getLatestTwoRecords().observe(getViewLifecycleOwner(), this::renderLatest);
         viewModel.getBmi().observe(getViewLifecycleOwner(), bmi -> {
             if (bmi == null || bmi <= 0f)
                 tvBmi.setText("BMI --");
@@ -353,40 +360,38 @@ public class WeightRecordDetailFragment extends Fragment {
     }
 
     private void quickAdd(float delta) {
-        List<DetailRecordAdapter.Item> current = adapter.getCurrentList();
-        if (current == null || current.isEmpty()) {
+        if (latestRecord == null) {
             Toast.makeText(getContext(), "请先添加一条体重记录", Toast.LENGTH_SHORT).show();
             return;
         }
-        WeightRecord latest = (WeightRecord) current.get(0).payload;
-        viewModel.addWeight(latest.getWeight() + delta, "快捷");
+        viewModel.addWeight(latestRecord.getWeight() + delta, "快捷");
     }
 
-    private void renderRecords(List<WeightRecord> records) {
-        List<DetailRecordAdapter.Item> items = new ArrayList<>();
+    /**
+     * 分页列表项转换（在后台线程执行）
+     */
+    private DetailRecordAdapter.Item toItem(WeightRecord record) {
         SimpleDateFormat format = new SimpleDateFormat("MM-dd HH:mm", Locale.getDefault());
-        if (records != null) {
-            for (WeightRecord record : records) {
-                items.add(new DetailRecordAdapter.Item(
-                        record.getId(),
-                        "体重",
-                        format.format(new Date(record.getTimestamp())),
-                        String.format(Locale.getDefault(), "%.1f kg", record.getWeight()),
-                        record.getNote() == null ? "点击编辑，长按删除" : record.getNote(),
-                        R.drawable.ic_hero_weight,
-                        record));
-            }
-        }
-        adapter.submitList(items);
-        if (items.isEmpty()) {
+        return new DetailRecordAdapter.Item(
+                record.getId(),
+                "体重",
+                format.format(new Date(record.getTimestamp())),
+                String.format(Locale.getDefault(), "%.1f kg", record.getWeight()),
+                record.getNote() == null ? "点击编辑，长按删除" : record.getNote(),
+                R.drawable.ic_hero_weight,
+                record);
+    }
+
+    private void renderLatest(List<WeightRecord> records) {
+        boolean empty = records == null || records.isEmpty();
+        latestRecord = empty ? null : records.get(0);
+        if (empty) {
             tvLatest.setText("最近体重 -- kg");
             tvDelta.setText("较上次 --");
         } else {
-            WeightRecord latest = (WeightRecord) items.get(0).payload;
-            tvLatest.setText(String.format(Locale.getDefault(), "最近体重 %.1f kg", latest.getWeight()));
-            if (items.size() >= 2) {
-                WeightRecord prev = (WeightRecord) items.get(1).payload;
-                float delta = latest.getWeight() - prev.getWeight();
+            tvLatest.setText(String.format(Locale.getDefault(), "最近体重 %.1f kg", latestRecord.getWeight()));
+            if (records.size() >= 2) {
+                float delta = latestRecord.getWeight() - records.get(1).getWeight();
                 tvDelta.setText(String.format(Locale.getDefault(), "较上次 %+,.1f kg", delta));
             } else {
                 tvDelta.setText("较上次 --");
@@ -394,7 +399,7 @@ public class WeightRecordDetailFragment extends Fragment {
         }
 
         progressLoading.setVisibility(View.GONE);
-        tvEmpty.setVisibility(items.isEmpty() ? View.VISIBLE : View.GONE);
+        tvEmpty.setVisibility(empty ? View.VISIBLE : View.GONE);
     }
 
     private void showAddDialog() {
@@ -449,7 +454,7 @@ public class WeightRecordDetailFragment extends Fragment {
         }
 
         // Auto-calculate: needs DB access -> use background thread
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 AppDatabase db = AppDatabase.getInstance(requireContext().getApplicationContext());
                 User user = db.userDao().getUserSync();
@@ -464,7 +469,7 @@ public class WeightRecordDetailFragment extends Fragment {
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }).start();
+        });
     }
 
     private void displayTargetWeight(float target, boolean isCustom) {
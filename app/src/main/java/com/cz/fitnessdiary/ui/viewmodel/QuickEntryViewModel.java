@@ -20,10 +20,10 @@ import com.cz.fitnessdiary.repository.FoodLibraryRepository;
 import com.cz.fitnessdiary.repository.FoodRecordRepository;
 import com.cz.fitnessdiary.repository.HomeDashboardRepository;
 import com.cz.fitnessdiary.repository.TrainingPlanRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 快速录入 ViewModel - v3.0
@@ -43,7 +43,7 @@ public class QuickEntryViewModel extends AndroidViewModel {
         this.foodLibraryRepository = new FoodLibraryRepository(application);
         this.trainingPlanRepository = new TrainingPlanRepository(application);
         this.homeDashboardRepository = new HomeDashboardRepository(application);
-        this.executor = Executors.newSingleThreadExecutor();
+        this.executor = AppExecutors.get().newSerialDiskIO();
     }
 
     /**
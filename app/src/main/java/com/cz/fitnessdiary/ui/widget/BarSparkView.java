@@ -18,6 +18,13 @@ public class BarSparkView extends View {
     private final Paint gridPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
     private final List<Float> values = new ArrayList<>();
 
+    // 预计算的绘制数据，由 rebuildGeometry 填充
+    private final RectF rect = new RectF();
+    private float[] barLeft = new float[0];
+    private float[] barTop = new float[0];
+    private float barW;
+    private int barCount;
+
     public BarSparkView(Context context) {
         super(context);
         init();
@@ -45,15 +52,25 @@ public class BarSparkView extends View {
         if (points != null) {
             values.addAll(points);
         }
+        rebuildGeometry();
         invalidate();
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        rebuildGeometry();
+    }
+
+    /**
+     * 柱子坐标只在尺寸或数据变化时计算，onDraw 中不再分配对象
+     */
+    private void rebuildGeometry() {
         int w = getWidth();
         int h = getHeight();
-        if (w <= 0 || h <= 0) return;
+        int count = values.size();
+        barCount = 0;
+        if (w <= 0 || h <= 0 || count == 0) return;
 
         float p = dp(8);
         float left = p;
@@ -61,30 +78,52 @@ public class BarSparkView extends View {
         float right = w - p;
         float bottom = h - p;
 
-        for (int i = 1; i <= 3; i++) {
-            float y = top + (bottom - top) * i / 4f;
-            canvas.drawLine(left, y, right, y, gridPaint);
-        }
-
-        if (values.isEmpty()) return;
-
         float max = 0f;
-        for (Float v : values) max = Math.max(max, v);
+        for (int i = 0; i < count; i++) max = Math.max(max, values.get(i));
         if (max <= 0f) max = 1f;
 
         float space = dp(6);
-        float totalSpace = space * (values.size() - 1);
-        float barW = (right - left - totalSpace) / values.size();
+        float totalSpace = space * (count - 1);
+        barW = (right - left - totalSpace) / count;
         if (barW < dp(4)) barW = dp(4);
 
+        if (barLeft.length < count) {
+            barLeft = new float[count];
+            barTop = new float[count];
+        }
         float x = left;
-        for (Float value : values) {
-            float ratio = Math.max(0f, value / max);
-            float bh = ratio * (bottom - top);
-            RectF rect = new RectF(x, bottom - bh, x + barW, bottom);
-            canvas.drawRoundRect(rect, dp(4), dp(4), barPaint);
+        for (int i = 0; i < count; i++) {
+            float ratio = Math.max(0f, values.get(i) / max);
+            barLeft[i] = x;
+            barTop[i] = bottom - ratio * (bottom - top);
             x += barW + space;
         }
+        barCount = count;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        int w = getWidth();
+        int h = getHeight();
+        if (w <= 0 || h <= 0) return;
+
+        float p = dp(8);
+        float left = p;
+        float top = p;
+        float right = w - p;
+        float bottom = h - p;
+
+        for (int i = 1; i <= 3; i++) {
+            float y = top + (bottom - top) * i / 4f;
+            canvas.drawLine(left, y, right, y, gridPaint);
+        }
+
+        float radius = dp(4);
+        for (int i = 0; i < barCount; i++) {
+            rect.set(barLeft[i], barTop[i], barLeft[i] + barW, bottom);
+            canvas.drawRoundRect(rect, radius, radius, barPaint);
+        }
     }
 
     private float dp(int v) {
@@ -0,0 +1,222 @@
+package com.cz.fitnessdiary.ui.widget;
+
+import android.app.PendingIntent;
+import android.appwidget.AppWidgetManager;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.widget.RemoteViews;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.cz.fitnessdiary.R;
+import com.cz.fitnessdiary.database.AppDatabase;
+import com.cz.fitnessdiary.database.entity.DailyRollup;
+import com.cz.fitnessdiary.database.entity.User;
+import com.cz.fitnessdiary.utils.AppExecutors;
+import com.cz.fitnessdiary.utils.DateUtils;
+import com.cz.fitnessdiary.utils.StreakTracker;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 桌面小组件数据管线
+ * 相关表有写入或收到刷新请求时合并为一次计算（防抖），在后台读取当天 daily_rollup 等少量数据得到 {@link State}；
+ * 只有显示内容与上次推送不同时才调用 AppWidgetManager，连续记录多条数据也只唤醒桌面一次。
+ */
+public final class HomeWidgetUpdater {
+
+    private static final String TAG = "HomeWidgetUpdater";
+    private static final long DEBOUNCE_MS = 800;
+
+    /** 影响小组件显示内容的表；连续天数也由 daily_rollup 的变化驱动 */
+    private static final String[] TABLES = { "daily_rollup", "daily_log", "user" };
+
+    private static volatile HomeWidgetUpdater instance;
+
+    private final Context appContext;
+    private final AppDatabase database;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = AppExecutors.get().newSerialDiskIO();
+    private final Runnable refreshTask = () -> submit(false);
+
+    /** 上次推送到桌面的内容，仅在串行执行器上读写 */
+    private State lastPushed;
+
+    private HomeWidgetUpdater(Context context) {
+        appContext = context;
+        database = AppDatabase.getInstance(context);
+        database.getInvalidationTracker().addObserver(new InvalidationTracker.Observer(TABLES) {
+            @Override
+            public void onInvalidated(@NonNull Set<String> tables) {
+                requestRefresh();
+            }
+        });
+    }
+
+    public static HomeWidgetUpdater get(Context context) {
+        if (instance == null) {
+            synchronized (HomeWidgetUpdater.class) {
+                if (instance == null) {
+                    instance = new HomeWidgetUpdater(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 请求刷新：短时间内的多次请求合并为一次计算
+     */
+    public void requestRefresh() {
+        handler.removeCallbacks(refreshTask);
+        handler.postDelayed(refreshTask, DEBOUNCE_MS);
+    }
+
+    /**
+     * 立即刷新并强制推送（系统 onUpdate：新添加的小组件或周期更新）
+     */
+    public void refreshNow(Runnable onDone) {
+        handler.removeCallbacks(refreshTask);
+        executor.execute(() -> {
+            try {
+                computeAndPush(true);
+            } finally {
+                if (onDone != null) {
+                    onDone.run();
+                }
+            }
+        });
+    }
+
+    private void submit(boolean force) {
+        executor.execute(() -> computeAndPush(force));
+    }
+
+    private void computeAndPush(boolean force) {
+        try {
+            AppWidgetManager manager = AppWidgetManager.getInstance(appContext);
+            int[] ids = manager.getAppWidgetIds(new ComponentName(appContext, HomeWidgetProvider.class));
+            if (ids == null || ids.length == 0) {
+                return;
+            }
+            State state = loadState();
+            if (!force && state.equals(lastPushed)) {
+                return;
+            }
+            manager.updateAppWidget(ids, buildViews(state));
+            lastPushed = state;
+        } catch (Exception e) {
+            Log.e(TAG, "Widget update failed", e);
+        }
+    }
+
+    private State loadState() {
+        long today = DateUtils.getTodayStartTimestamp();
+        DailyRollup rollup = database.dailyRollupDao().getByDateSync(today);
+        User user = database.userDao().getUserSync();
+
+        int completed = database.dailyLogDao().getTodayCompletedCountSync(today);
+        int total = database.dailyLogDao().getTodayPlanCountSync(today);
+
+        int targetCal = user != null && user.getDailyCalorieTarget() > 0 ? user.getDailyCalorieTarget() : 2000;
+        int consumedCal = rollup != null ? rollup.getCalories() : 0;
+        int waterTarget = user != null && user.getDailyWaterTarget() > 0 ? user.getDailyWaterTarget() : 2000;
+        int waterMl = rollup != null ? rollup.getWaterMl() : 0;
+        float sleepHours = rollup != null ? rollup.getSleepSeconds() / 3600f : 0f;
+
+        return new State(
+                new SimpleDateFormat("MM月dd日 E", Locale.getDefault()).format(new Date()),
+                total > 0 ? completed + "/" + total : "--",
+                Math.min(consumedCal * 100 / targetCal, 100),
+                String.valueOf(consumedCal),
+                Math.min(waterMl * 100 / waterTarget, 100),
+                String.valueOf(waterMl),
+                sleepHours > 0 ? String.format(Locale.getDefault(), "%.1fh", sleepHours) : "--",
+                "连续" + StreakTracker.get(appContext).getCurrentStreak(true) + "天");
+    }
+
+    private RemoteViews buildViews(State state) {
+        RemoteViews views = new RemoteViews(appContext.getPackageName(), R.layout.widget_home);
+        views.setOnClickPendingIntent(R.id.tv_widget_date, openMain(0, null));
+        views.setOnClickPendingIntent(R.id.ll_widget_diet, openMain(1, "DIET"));
+        views.setOnClickPendingIntent(R.id.ll_widget_water, openMain(2, "WATER"));
+        views.setOnClickPendingIntent(R.id.ll_widget_sport, openMain(3, "SPORT"));
+        views.setOnClickPendingIntent(R.id.ll_widget_sleep, openMain(4, "SLEEP"));
+
+        views.setTextViewText(R.id.tv_widget_date, state.dateText);
+        views.setTextViewText(R.id.tv_widget_sport_val, state.sportText);
+        views.setProgressBar(R.id.progress_widget_diet, 100, state.dietPercent, false);
+        views.setTextViewText(R.id.tv_widget_diet_val, state.dietText);
+        views.setProgressBar(R.id.progress_widget_water, 100, state.waterPercent, false);
+        views.setTextViewText(R.id.tv_widget_water_val, state.waterText);
+        views.setTextViewText(R.id.tv_widget_sleep_val, state.sleepText);
+        views.setTextViewText(R.id.tv_widget_streak, state.streakText);
+        return views;
+    }
+
+    private PendingIntent openMain(int requestCode, String moduleType) {
+        Intent intent = new Intent(appContext, com.cz.fitnessdiary.ui.MainActivity.class);
+        if (moduleType != null) {
+            intent.putExtra("extra_module_type", moduleType);
+        }
+        return PendingIntent.getActivity(appContext, requestCode, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    /**
+     * 小组件上显示的全部内容，用于判断是否需要推送
+     */
+    static final class State {
+        final String dateText;
+        final String sportText;
+        final int dietPercent;
+        final String dietText;
+        final int waterPercent;
+        final String waterText;
+        final String sleepText;
+        final String streakText;
+
+        State(String dateText, String sportText, int dietPercent, String dietText,
+                int waterPercent, String waterText, String sleepText, String streakText) {
+            this.dateText = dateText;
+            this.sportText = sportText;
+            this.dietPercent = dietPercent;
+            this.dietText = dietText;
+            this.waterPercent = waterPercent;
+            this.waterText = waterText;
+            this.sleepText = sleepText;
+            this.streakText = streakText;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof State)) return false;
+            State other = (State) o;
+            return dietPercent == other.dietPercent
+                    && waterPercent == other.waterPercent
+                    && dateText.equals(other.dateText)
+                    && sportText.equals(other.sportText)
+                    && dietText.equals(other.dietText)
+                    && waterText.equals(other.waterText)
+                    && sleepText.equals(other.sleepText)
+                    && streakText.equals(other.streakText);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dateText, sportText, dietPercent, dietText, waterPercent, waterText,
+                    sleepText, streakText);
+        }
+    }
+}
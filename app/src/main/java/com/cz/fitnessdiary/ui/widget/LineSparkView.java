@@ -49,15 +49,25 @@ public class LineSparkView extends View {
         if (points != null) {
             values.addAll(points);
         }
+        rebuildPath();
         invalidate();
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        rebuildPath();
+    }
+
+    /**
+     * 折线路径只在尺寸或数据变化时重建，onDraw 中直接绘制
+     */
+    private void rebuildPath() {
+        path.reset();
         int w = getWidth();
         int h = getHeight();
-        if (w <= 0 || h <= 0) return;
+        int count = values.size();
+        if (w <= 0 || h <= 0 || count < 2) return;
 
         float p = dp(8);
         float left = p;
@@ -65,16 +75,10 @@ public class LineSparkView extends View {
         float right = w - p;
         float bottom = h - p;
 
-        for (int i = 1; i <= 3; i++) {
-            float y = top + (bottom - top) * i / 4f;
-            canvas.drawLine(left, y, right, y, gridPaint);
-        }
-
-        if (values.size() < 2) return;
-
         float min = values.get(0);
         float max = values.get(0);
-        for (Float v : values) {
+        for (int i = 1; i < count; i++) {
+            float v = values.get(i);
             min = Math.min(min, v);
             max = Math.max(max, v);
         }
@@ -82,14 +86,34 @@ public class LineSparkView extends View {
             max = min + 1f;
         }
 
-        path.reset();
-        for (int i = 0; i < values.size(); i++) {
-            float x = left + (right - left) * i / (values.size() - 1f);
+        for (int i = 0; i < count; i++) {
+            float x = left + (right - left) * i / (count - 1f);
             float normalized = (values.get(i) - min) / (max - min);
             float y = bottom - normalized * (bottom - top);
             if (i == 0) path.moveTo(x, y);
             else path.lineTo(x, y);
         }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        int w = getWidth();
+        int h = getHeight();
+        if (w <= 0 || h <= 0) return;
+
+        float p = dp(8);
+        float left = p;
+        float top = p;
+        float right = w - p;
+        float bottom = h - p;
+
+        for (int i = 1; i <= 3; i++) {
+            float y = top + (bottom - top) * i / 4f;
+            canvas.drawLine(left, y, right, y, gridPaint);
+        }
+
+        if (values.size() < 2) return;
         canvas.drawPath(path, linePaint);
     }
 
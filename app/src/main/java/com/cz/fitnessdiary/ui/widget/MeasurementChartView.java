@@ -9,12 +9,17 @@ import android.view.View;
 
 import androidx.annotation.Nullable;
 
+import com.cz.fitnessdiary.utils.Lttb;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
 public class MeasurementChartView extends View {
 
+    /** 相邻数据点的最小水平间距（px），超出的点经降采样后再绘制 */
+    private static final int MIN_POINT_SPACING_PX = 6;
+
     private Paint axisPaint;
     private Paint textPaint;
     private Paint linePaint;
@@ -34,6 +39,17 @@ public class MeasurementChartView extends View {
     private String unit = "cm";
     private int lineColor = 0xFF00BCD4;
 
+    // 预计算的绘制数据，由 rebuildGeometry 填充
+    private final Path linePath = new Path();
+    private String[] yLabels = new String[0];
+    private float[] yLabelY = new float[0];
+    private float[] pointX = new float[0];
+    private float[] pointY = new float[0];
+    private int pointCount;
+    private float[] labelX = new float[0];
+    private int[] labelIndex = new int[0];
+    private int labelCount;
+
     public MeasurementChartView(Context context) {
         super(context);
         init();
@@ -63,6 +79,8 @@ public class MeasurementChartView extends View {
         dotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         dotPaint.setColor(lineColor);
         dotPaint.setStyle(Paint.Style.FILL);
+
+        rebuildGeometry();
     }
 
     public void setLineColor(int color) {
@@ -74,6 +92,7 @@ public class MeasurementChartView extends View {
 
     public void setUnit(String unit) {
         this.unit = unit;
+        rebuildGeometry();
         invalidate();
     }
 
@@ -120,24 +139,86 @@ public class MeasurementChartView extends View {
             ySteps = Math.min(ySteps, 8);
         }
 
+        rebuildGeometry();
         invalidate();
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        rebuildGeometry();
+    }
+
+    /**
+     * 坐标、折线路径与标签文字只在尺寸或数据变化时计算，onDraw 中不再分配对象
+     */
+    private void rebuildGeometry() {
         int width = getWidth();
         int height = getHeight();
-
         int chartWidth = width - paddingLeft - paddingRight;
         int chartHeight = height - paddingTop - paddingBottom;
 
-        // Y axis labels and grid
-        textPaint.setTextAlign(Paint.Align.RIGHT);
+        if (yLabels.length != ySteps + 1) {
+            yLabels = new String[ySteps + 1];
+            yLabelY = new float[ySteps + 1];
+        }
         for (int i = 0; i <= ySteps; i++) {
             float val = minVal + (maxVal - minVal) * i / ySteps;
-            float y = height - paddingBottom - (chartHeight * i / ySteps);
-            canvas.drawText(String.format(Locale.getDefault(), "%.1f%s", val, unit), paddingLeft - 10, y + 10, textPaint);
+            yLabels[i] = String.format(Locale.getDefault(), "%.1f%s", val, unit);
+            yLabelY[i] = height - paddingBottom - (chartHeight * i / ySteps);
+        }
+
+        int count = dataPoints.size();
+        if (pointX.length < count) {
+            pointX = new float[count];
+            pointY = new float[count];
+            labelX = new float[count];
+            labelIndex = new int[count];
+        }
+        linePath.reset();
+        pointCount = 0;
+        labelCount = 0;
+        float stepX = (float) chartWidth / (count <= 1 ? 1 : (count - 1));
+        int autoInterval = Math.max(1, count / 5);
+        for (int i = 0; i < count; i++) {
+            float x = paddingLeft + i * stepX;
+            Float val = dataPoints.get(i);
+
+            if (count <= 7 || i % autoInterval == 0 || i == count - 1) {
+                labelX[labelCount] = x;
+                labelIndex[labelCount++] = i;
+            }
+
+            if (val != null && val > 0) {
+                pointX[pointCount] = x;
+                pointY[pointCount++] = height - paddingBottom - chartHeight * ((val - minVal) / (maxVal - minVal));
+            }
+        }
+
+        // 点数超过宽度可分辨的数量时用 LTTB 降采样，保留峰谷形状
+        if (chartWidth > 0) {
+            pointCount = Lttb.downsample(pointX, pointY, pointCount, Math.max(3, chartWidth / MIN_POINT_SPACING_PX));
+        }
+        for (int i = 0; i < pointCount; i++) {
+            if (i == 0) {
+                linePath.moveTo(pointX[i], pointY[i]);
+            } else {
+                linePath.lineTo(pointX[i], pointY[i]);
+            }
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        int width = getWidth();
+        int height = getHeight();
+
+        // Y axis labels and grid
+        textPaint.setTextAlign(Paint.Align.RIGHT);
+        for (int i = 0; i < yLabels.length; i++) {
+            float y = yLabelY[i];
+            canvas.drawText(yLabels[i], paddingLeft - 10, y + 10, textPaint);
             if (i > 0) {
                 canvas.drawLine(paddingLeft, y, width - paddingRight, y, axisPaint);
             }
@@ -150,48 +231,19 @@ public class MeasurementChartView extends View {
         if (dataPoints.isEmpty()) return;
 
         textPaint.setTextAlign(Paint.Align.CENTER);
-        float stepX = (float) chartWidth / (dataPoints.size() <= 1 ? 1 : (dataPoints.size() - 1));
-
-        Path path = new Path();
-        boolean first = true;
-        List<Float> pxList = new ArrayList<>();
-        List<Float> pyList = new ArrayList<>();
-
-        for (int i = 0; i < dataPoints.size(); i++) {
-            float x = paddingLeft + i * stepX;
-            Float val = dataPoints.get(i);
-
-            int autoInterval = Math.max(1, dataPoints.size() / 5);
-            boolean drawLabel = dataPoints.size() <= 7 || i % autoInterval == 0 || i == dataPoints.size() - 1;
-            if (drawLabel) {
-                String label = i < xLabels.size() ? xLabels.get(i) : "";
-                canvas.drawText(label, x, height - paddingBottom + 40, textPaint);
-            }
-
-            if (val != null && val > 0) {
-                float y = height - paddingBottom - chartHeight * ((val - minVal) / (maxVal - minVal));
-                pxList.add(x);
-                pyList.add(y);
-
-                if (first) {
-                    path.moveTo(x, y);
-                    first = false;
-                } else {
-                    path.lineTo(x, y);
-                }
-            }
+        for (int i = 0; i < labelCount; i++) {
+            int index = labelIndex[i];
+            String label = index < xLabels.size() ? xLabels.get(index) : "";
+            canvas.drawText(label, labelX[i], height - paddingBottom + 40, textPaint);
         }
 
-        if (!first) {
-            canvas.drawPath(path, linePaint);
-            for (int i = 0; i < pxList.size(); i++) {
-                canvas.drawCircle(pxList.get(i), pyList.get(i), 8f, dotPaint);
+        if (pointCount > 0) {
+            canvas.drawPath(linePath, linePaint);
+            for (int i = 0; i < pointCount; i++) {
+                canvas.drawCircle(pointX[i], pointY[i], 8f, dotPaint);
             }
-        }
-
-        // No-data message
-        if (dataPoints.isEmpty() || first) {
-            textPaint.setTextAlign(Paint.Align.CENTER);
+        } else {
+            // No-data message
             canvas.drawText("暂无数据", width / 2f, height / 2f, textPaint);
         }
     }
@@ -47,6 +47,22 @@ public class MenstrualCycleChartView extends View {
 
     private SimpleDateFormat dateFmt = new SimpleDateFormat("MM/dd", Locale.getDefault());
 
+    private static final int Y_STEPS = 4;
+    private static final int MAX_BARS = 12;
+
+    // 预计算的绘制数据，由 rebuildGeometry 填充
+    private final String[] yLabels = new String[Y_STEPS + 1];
+    private final float[] yLabelY = new float[Y_STEPS + 1];
+    private final float[] barX = new float[MAX_BARS];
+    private final float[] barTop = new float[MAX_BARS];
+    private final int[] barColor = new int[MAX_BARS];
+    private final String[] durationLabels = new String[MAX_BARS];
+    private final String[] dateLabels = new String[MAX_BARS];
+    private int barCount;
+    private float barWidth;
+    private float avgY;
+    private String avgLabel;
+
     public MenstrualCycleChartView(Context context) {
         super(context);
         init();
@@ -75,6 +91,8 @@ public class MenstrualCycleChartView extends View {
         avgLinePaint.setStyle(Paint.Style.STROKE);
         avgLinePaint.setStrokeWidth(3f);
         avgLinePaint.setPathEffect(new DashPathEffect(new float[] { 12, 8 }, 0));
+
+        rebuildGeometry();
     }
 
     public void setData(List<CycleBarData> data, float avgCycleLen) {
@@ -96,24 +114,77 @@ public class MenstrualCycleChartView extends View {
             maxDuration = max + 5;
             if (avgCycleLength > maxDuration) maxDuration = (int) avgCycleLength + 5;
         }
+        rebuildGeometry();
         invalidate();
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        rebuildGeometry();
+    }
+
+    /**
+     * 柱子坐标、颜色与标签文字只在尺寸或数据变化时计算，onDraw 中不再分配对象
+     */
+    private void rebuildGeometry() {
         int width = getWidth();
         int height = getHeight();
-
         int chartWidth = width - paddingLeft - paddingRight;
         int chartHeight = height - paddingTop - paddingBottom;
 
+        for (int i = 0; i <= Y_STEPS; i++) {
+            int days = minDuration + (maxDuration - minDuration) * i / Y_STEPS;
+            yLabels[i] = days + "天";
+            yLabelY[i] = height - paddingBottom - (chartHeight * i / (float) Y_STEPS);
+        }
+
+        avgLabel = null;
+        if (avgCycleLength > 0 && avgCycleLength >= minDuration && avgCycleLength <= maxDuration) {
+            avgY = height - paddingBottom - chartHeight * ((avgCycleLength - minDuration) / (float) (maxDuration - minDuration));
+            avgLabel = "平均 " + String.format(Locale.getDefault(), "%.1f天", avgCycleLength);
+        }
+
+        barCount = 0;
+        if (cycles.isEmpty()) return;
+
+        barWidth = Math.min(80f, (float) chartWidth / cycles.size() * 0.7f);
+        float gap = (float) chartWidth / cycles.size();
+        int maxBars = Math.min(cycles.size(), MAX_BARS); // show last 12 cycles
+        int startIdx = cycles.size() - maxBars;
+
+        for (int i = 0; i < maxBars; i++) {
+            CycleBarData c = cycles.get(startIdx + i);
+            barX[i] = paddingLeft + i * gap + gap / 2f;
+
+            // Bar color by flow intensity
+            if ("HEAVY".equals(c.flowIntensity)) {
+                barColor[i] = 0xFFC62828;
+            } else if ("MEDIUM".equals(c.flowIntensity)) {
+                barColor[i] = 0xFFE040FB;
+            } else {
+                barColor[i] = 0xFFCE93D8;
+            }
+
+            float barH = chartHeight * ((c.durationDays - minDuration) / (float) (maxDuration - minDuration));
+            barTop[i] = height - paddingBottom - barH;
+            durationLabels[i] = c.durationDays + "天";
+            dateLabels[i] = dateFmt.format(new Date(c.startDate));
+        }
+        barCount = maxBars;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        int width = getWidth();
+        int height = getHeight();
+
         // Y axis labels
         textPaint.setTextAlign(Paint.Align.RIGHT);
-        for (int i = 0; i <= 4; i++) {
-            int days = minDuration + (maxDuration - minDuration) * i / 4;
-            float y = height - paddingBottom - (chartHeight * i / 4f);
-            canvas.drawText(days + "天", paddingLeft - 10, y + 10, textPaint);
+        for (int i = 0; i <= Y_STEPS; i++) {
+            float y = yLabelY[i];
+            canvas.drawText(yLabels[i], paddingLeft - 10, y + 10, textPaint);
             if (i > 0) {
                 canvas.drawLine(paddingLeft, y, width - paddingRight, y, axisPaint);
             }
@@ -130,48 +201,27 @@ public class MenstrualCycleChartView extends View {
         }
 
         // Average line
-        if (avgCycleLength > 0 && avgCycleLength >= minDuration && avgCycleLength <= maxDuration) {
-            float avgY = height - paddingBottom - chartHeight * ((avgCycleLength - minDuration) / (float) (maxDuration - minDuration));
+        if (avgLabel != null) {
             canvas.drawLine(paddingLeft, avgY, width - paddingRight, avgY, avgLinePaint);
             textPaint.setColor(0xFFE040FB);
             textPaint.setTextAlign(Paint.Align.LEFT);
-            canvas.drawText("平均 " + String.format(Locale.getDefault(), "%.1f天", avgCycleLength),
-                    width - paddingRight + 8, avgY + 8, textPaint);
+            canvas.drawText(avgLabel, width - paddingRight + 8, avgY + 8, textPaint);
             textPaint.setColor(0xFF757575);
         }
 
         // Bars
         textPaint.setTextAlign(Paint.Align.CENTER);
-        float barWidth = Math.min(80f, (float) chartWidth / cycles.size() * 0.7f);
-        float gap = (float) chartWidth / cycles.size();
-        int maxBars = Math.min(cycles.size(), 12); // show last 12 cycles
-        int startIdx = cycles.size() - maxBars;
-
-        for (int i = 0; i < maxBars; i++) {
-            CycleBarData c = cycles.get(startIdx + i);
-            float x = paddingLeft + i * gap + gap / 2f;
-
-            // Bar color by flow intensity
-            int color;
-            if ("HEAVY".equals(c.flowIntensity)) {
-                color = 0xFFC62828;
-            } else if ("MEDIUM".equals(c.flowIntensity)) {
-                color = 0xFFE040FB;
-            } else {
-                color = 0xFFCE93D8;
-            }
-            barPaint.setColor(color);
-
-            float barH = chartHeight * ((c.durationDays - minDuration) / (float) (maxDuration - minDuration));
-            float barTop = height - paddingBottom - barH;
-            canvas.drawRect(x - barWidth / 2f, barTop, x + barWidth / 2f, height - paddingBottom, barPaint);
+        for (int i = 0; i < barCount; i++) {
+            float x = barX[i];
+            barPaint.setColor(barColor[i]);
+            canvas.drawRect(x - barWidth / 2f, barTop[i], x + barWidth / 2f, height - paddingBottom, barPaint);
 
             // Duration label
-            canvas.drawText(c.durationDays + "天", x, barTop - 8, textPaint);
+            canvas.drawText(durationLabels[i], x, barTop[i] - 8, textPaint);
 
             // Date label
             textPaint.setTextSize(22f);
-            canvas.drawText(dateFmt.format(new Date(c.startDate)), x, height - paddingBottom + 36, textPaint);
+            canvas.drawText(dateLabels[i], x, height - paddingBottom + 36, textPaint);
             textPaint.setTextSize(28f);
         }
     }
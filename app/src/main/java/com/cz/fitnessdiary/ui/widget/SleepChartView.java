@@ -31,6 +31,22 @@ public class SleepChartView extends View {
     private int paddingRight = 40;
     private float maxHours = 10f;
 
+    private static final int Y_STEPS = 5;
+
+    // 预计算的绘制数据，由 rebuildGeometry 填充
+    private final String[] yLabels = new String[Y_STEPS + 1];
+    private final float[] yLabelY = new float[Y_STEPS + 1];
+    private float[] barLeft = new float[0];
+    private float[] barTop = new float[0];
+    private float[] barRight = new float[0];
+    private int barCount;
+    private float[] labelX = new float[0];
+    private int[] labelIndex = new int[0];
+    private int labelCount;
+    private final Path avgPath = new Path();
+    private float avgY;
+    private String avgLabel;
+
     public SleepChartView(Context context) {
         super(context);
         init();
@@ -60,6 +76,8 @@ public class SleepChartView extends View {
         avgLinePaint.setStrokeWidth(3f);
         avgLinePaint.setStyle(Paint.Style.STROKE);
         avgLinePaint.setPathEffect(new DashPathEffect(new float[] { 10f, 10f }, 0f));
+
+        rebuildGeometry();
     }
 
     public void setData(List<Float> hours, List<String> labels, float avg) {
@@ -78,25 +96,87 @@ public class SleepChartView extends View {
             maxHours = 8f;
         maxHours = (float) Math.ceil(maxHours) + 1f;
 
+        rebuildGeometry();
         invalidate();
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        rebuildGeometry();
+    }
+
+    /**
+     * 柱子坐标、均值线与标签文字只在尺寸或数据变化时计算，onDraw 中不再分配对象
+     */
+    private void rebuildGeometry() {
         int width = getWidth();
         int height = getHeight();
-
         int chartWidth = width - paddingLeft - paddingRight;
         int chartHeight = height - paddingTop - paddingBottom;
 
+        for (int i = 0; i <= Y_STEPS; i++) {
+            float val = maxHours * i / Y_STEPS;
+            yLabels[i] = String.format(Locale.getDefault(), "%.1fh", val);
+            yLabelY[i] = height - paddingBottom - (chartHeight * i / Y_STEPS);
+        }
+
+        int count = dataPoints.size();
+        if (barLeft.length < count) {
+            barLeft = new float[count];
+            barTop = new float[count];
+            barRight = new float[count];
+            labelX = new float[count];
+            labelIndex = new int[count];
+        }
+        barCount = 0;
+        labelCount = 0;
+        if (count > 0) {
+            float stepX = (float) chartWidth / count;
+            float barWidth = stepX * 0.5f;
+            if (barWidth > 60f)
+                barWidth = 60f;
+
+            for (int i = 0; i < count; i++) {
+                float centerX = paddingLeft + (i + 0.5f) * stepX;
+                Float val = dataPoints.get(i);
+
+                // X Label (skip some if too many)
+                if (count <= 7 || i % (count / 5) == 0 || i == count - 1) {
+                    labelX[labelCount] = centerX;
+                    labelIndex[labelCount++] = i;
+                }
+
+                if (val != null && val > 0) {
+                    float barH = chartHeight * (val / maxHours);
+                    barLeft[barCount] = centerX - barWidth / 2f;
+                    barTop[barCount] = height - paddingBottom - barH;
+                    barRight[barCount++] = centerX + barWidth / 2f;
+                }
+            }
+        }
+
+        avgPath.reset();
+        avgLabel = null;
+        if (averageHours > 0) {
+            avgY = height - paddingBottom - (chartHeight * (averageHours / maxHours));
+            avgPath.moveTo(paddingLeft, avgY);
+            avgPath.lineTo(width - paddingRight, avgY);
+            avgLabel = String.format(Locale.getDefault(), "avg: %.1fh", averageHours);
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        int width = getWidth();
+        int height = getHeight();
+
         // Draw Y Axis labels and grid lines
         textPaint.setTextAlign(Paint.Align.RIGHT);
-        int ySteps = 5;
-        for (int i = 0; i <= ySteps; i++) {
-            float val = maxHours * i / ySteps;
-            float y = height - paddingBottom - (chartHeight * i / ySteps);
-            canvas.drawText(String.format(Locale.getDefault(), "%.1fh", val), paddingLeft - 10, y + 10, textPaint);
+        for (int i = 0; i <= Y_STEPS; i++) {
+            float y = yLabelY[i];
+            canvas.drawText(yLabels[i], paddingLeft - 10, y + 10, textPaint);
             if (i > 0) {
                 canvas.drawLine(paddingLeft, y, width - paddingRight, y, axisPaint); // Grid lines
             }
@@ -111,46 +191,26 @@ public class SleepChartView extends View {
 
         // Draw Bars and X Labels
         textPaint.setTextAlign(Paint.Align.CENTER);
-        float stepX = (float) chartWidth / dataPoints.size();
-        float barWidth = stepX * 0.5f;
-        if (barWidth > 60f)
-            barWidth = 60f;
-
-        for (int i = 0; i < dataPoints.size(); i++) {
-            float centerX = paddingLeft + (i + 0.5f) * stepX;
-            Float val = dataPoints.get(i);
-
-            // X Label (skip some if too many)
-            if (dataPoints.size() <= 7 || i % (dataPoints.size() / 5) == 0 || i == dataPoints.size() - 1) {
-                String label = i < xLabels.size() ? xLabels.get(i) : "";
-                canvas.drawText(label, centerX, height - paddingBottom + 40, textPaint);
-            }
+        for (int i = 0; i < labelCount; i++) {
+            int index = labelIndex[i];
+            String label = index < xLabels.size() ? xLabels.get(index) : "";
+            canvas.drawText(label, labelX[i], height - paddingBottom + 40, textPaint);
+        }
 
-            if (val != null && val > 0) {
-                float barH = chartHeight * (val / maxHours);
-                float top = height - paddingBottom - barH;
-                float left = centerX - barWidth / 2f;
-                float right = centerX + barWidth / 2f;
-                float bottom = height - paddingBottom;
-
-                // Draw rounded rect bar
-                canvas.drawRoundRect(left, top, right, bottom, 10f, 10f, barPaint);
-                // Fix rounded bottom
-                canvas.drawRect(left, bottom - 10f, right, bottom, barPaint);
-            }
+        float bottom = height - paddingBottom;
+        for (int i = 0; i < barCount; i++) {
+            // Draw rounded rect bar
+            canvas.drawRoundRect(barLeft[i], barTop[i], barRight[i], bottom, 10f, 10f, barPaint);
+            // Fix rounded bottom
+            canvas.drawRect(barLeft[i], bottom - 10f, barRight[i], bottom, barPaint);
         }
 
         // Draw Average Line
-        if (averageHours > 0) {
-            float avgY = height - paddingBottom - (chartHeight * (averageHours / maxHours));
-            Path path = new Path();
-            path.moveTo(paddingLeft, avgY);
-            path.lineTo(width - paddingRight, avgY);
-            canvas.drawPath(path, avgLinePaint);
+        if (avgLabel != null) {
+            canvas.drawPath(avgPath, avgLinePaint);
 
             textPaint.setTextAlign(Paint.Align.LEFT);
-            canvas.drawText(String.format(Locale.getDefault(), "avg: %.1fh", averageHours),
-                    width - paddingRight - 120, avgY - 10, textPaint);
+            canvas.drawText(avgLabel, width - paddingRight - 120, avgY - 10, textPaint);
         }
     }
 }
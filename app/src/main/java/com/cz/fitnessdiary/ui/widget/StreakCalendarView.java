@@ -2,8 +2,10 @@ package com.cz.fitnessdiary.ui.widget;
 
 import android.content.Context;
 import android.graphics.Canvas;
+import android.graphics.LinearGradient;
 import android.graphics.Paint;
 import android.graphics.RectF;
+import android.graphics.Shader;
 import android.util.AttributeSet;
 import android.view.View;
 
@@ -41,6 +43,28 @@ public class StreakCalendarView extends View {
     private Paint cellPaint;
     private Paint textPaint;
 
+    // 预计算的绘制数据，由 rebuildGeometry 填充
+    private final float[] cellX = new float[TOTAL_COLS * TOTAL_ROWS];
+    private final float[] cellY = new float[TOTAL_COLS * TOTAL_ROWS];
+    private final int[] cellLevel = new int[TOTAL_COLS * TOTAL_ROWS];
+    private int cellCount;
+    private final String[] monthLabels = new String[TOTAL_COLS];
+    private final float[] monthLabelX = new float[TOTAL_COLS];
+    private int monthLabelCount;
+    private final RectF cellRect = new RectF();
+    private final RectF shadowRect = new RectF();
+    private final RectF highlightRect = new RectF();
+    private final Shader[] levelShaders = new Shader[GRADIENT_START_COLORS.length];
+    private float density;
+    private int cs;
+    private int cellTotal;
+    private float leftMargin;
+    private float topMargin;
+    private float gridTop;
+    private float radius;
+    /** 网格以“今天”为终点，到达该时刻后需重新计算 */
+    private long nextDayStart;
+
     public StreakCalendarView(Context context) {
         super(context);
         init();
@@ -62,31 +86,46 @@ public class StreakCalendarView extends View {
     public void setDayLevels(Map<Long, Integer> levels) {
         this.dayLevels.clear();
         if (levels != null) this.dayLevels.putAll(levels);
+        rebuildGeometry();
         invalidate();
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        rebuildGeometry();
+    }
+
+    /**
+     * 格子位置、等级、标签文字与渐变只在尺寸、数据或日期变化时计算；
+     * 所有格子尺寸相同，形状与各等级渐变按格子自身坐标建立一次，绘制时平移画布即可复用
+     */
+    private void rebuildGeometry() {
         int width = getWidth();
-        int height = getHeight();
+        cellCount = 0;
+        monthLabelCount = 0;
         if (width <= 0) return;
 
-        float density = getResources().getDisplayMetrics().density;
+        density = getResources().getDisplayMetrics().density;
         long today = DateUtils.getTodayStartTimestamp();
         Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(today);
+        cal.add(Calendar.DAY_OF_MONTH, 1);
+        nextDayStart = cal.getTimeInMillis();
 
         // Dynamic sizing: fit 7 cols + labels into available width
         float labelArea = 24f * density;
         float availWidth = width - labelArea - 8f * density;
         int cellAndGap = Math.round(availWidth / TOTAL_COLS);
         int gap = Math.round(4f * density); // 稍微增大间隙，带来呼吸感
-        int cs = cellAndGap - gap;
+        cs = cellAndGap - gap;
         if (cs < 8) cs = 8;
-        int cellTotal = cs + gap;
+        cellTotal = cs + gap;
 
-        float leftMargin = labelArea;
-        float topMargin = 20f * density;
+        leftMargin = labelArea;
+        topMargin = 20f * density;
+        gridTop = topMargin + 10f * density;
+        radius = 4f * density; // 圆角设为 4dp
 
         // Start from Monday of 5 weeks ago
         cal.setTimeInMillis(today);
@@ -95,7 +134,6 @@ public class StreakCalendarView extends View {
         long startDate = cal.getTimeInMillis();
 
         // Month labels
-        textPaint.setTextSize(11f * density); // 调优月份标签大小，更精致
         int lastMonth = -1;
         for (int col = 0; col < TOTAL_COLS; col++) {
             long day = startDate + col * TOTAL_ROWS * 86400000L;
@@ -103,12 +141,49 @@ public class StreakCalendarView extends View {
             int month = cal.get(Calendar.MONTH);
             if (month != lastMonth) {
                 lastMonth = month;
-                float x = leftMargin + col * cellTotal;
-                canvas.drawText((month + 1) + "月", x + cs / 2f, topMargin - 4f * density, textPaint);
+                monthLabels[monthLabelCount] = (month + 1) + "月";
+                monthLabelX[monthLabelCount++] = leftMargin + col * cellTotal + cs / 2f;
             }
         }
 
-        float gridTop = topMargin + 10f * density;
+        // Cells
+        for (int col = 0; col < TOTAL_COLS; col++) {
+            for (int row = 0; row < TOTAL_ROWS; row++) {
+                int idx = col * TOTAL_ROWS + row;
+                long day = startDate + idx * 86400000L;
+                if (day > today) break;
+
+                Integer level = dayLevels.get(day);
+                cellLevel[cellCount] = level != null ? Math.max(0, Math.min(level, 4)) : 0;
+                cellX[cellCount] = leftMargin + col * cellTotal;
+                cellY[cellCount++] = gridTop + row * cellTotal;
+            }
+        }
+
+        // 格子自身坐标系下的形状：主体、右下阴影、左上亮边
+        cellRect.set(0, 0, cs, cs);
+        shadowRect.set(1.2f * density, 1.2f * density, cs + 1.2f * density, cs + 1.2f * density);
+        highlightRect.set(-0.6f * density, -0.6f * density, cs - 0.6f * density, cs - 0.6f * density);
+        for (int level = 1; level < levelShaders.length; level++) {
+            levelShaders[level] = new LinearGradient(0, 0, cs, cs,
+                    GRADIENT_START_COLORS[level], GRADIENT_END_COLORS[level], Shader.TileMode.CLAMP);
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (getWidth() <= 0) return;
+        if (System.currentTimeMillis() >= nextDayStart) {
+            // 跨天后网格整体后移一格
+            rebuildGeometry();
+        }
+
+        // Month labels
+        textPaint.setTextSize(11f * density); // 调优月份标签大小，更精致
+        for (int i = 0; i < monthLabelCount; i++) {
+            canvas.drawText(monthLabels[i], monthLabelX[i], topMargin - 4f * density, textPaint);
+        }
 
         // Weekday labels
         textPaint.setTextSize(10f * density); // 调优星期标签大小，消除拥挤
@@ -118,66 +193,52 @@ public class StreakCalendarView extends View {
         }
 
         // Draw cells
-        for (int col = 0; col < TOTAL_COLS; col++) {
-            for (int row = 0; row < TOTAL_ROWS; row++) {
-                int idx = col * TOTAL_ROWS + row;
-                long day = startDate + idx * 86400000L;
-                if (day > today) break;
-
-                int level = dayLevels.containsKey(day) ? dayLevels.get(day) : 0;
-                level = Math.max(0, Math.min(level, 4));
-
-                float x = leftMargin + col * cellTotal;
-                float y = gridTop + row * cellTotal;
-                RectF rect = new RectF(x, y, x + cs, y + cs);
-                float radius = 4f * density; // 圆角设为 4dp
-
-                if (level == 0) {
-                    // 1. 绘制下凹格子槽 (Sunken Box)
-                    cellPaint.setStyle(Paint.Style.FILL);
-                    cellPaint.setColor(0xFFF6F3ED);
-                    canvas.drawRoundRect(rect, radius, radius, cellPaint);
-
-                    // 绘制左上深影
-                    cellPaint.setStyle(Paint.Style.STROKE);
-                    cellPaint.setStrokeWidth(1f * density);
-                    cellPaint.setColor(0x0F000000);
-                    canvas.drawLine(rect.left, rect.bottom, rect.left, rect.top, cellPaint);
-                    canvas.drawLine(rect.left, rect.top, rect.right, rect.top, cellPaint);
-
-                    // 绘制右下反射白边
-                    cellPaint.setColor(0x80FFFFFF);
-                    canvas.drawLine(rect.left, rect.bottom, rect.right, rect.bottom, cellPaint);
-                    canvas.drawLine(rect.right, rect.top, rect.right, rect.bottom, cellPaint);
-                } else {
-                    // 2. 绘制打卡凸起立体格子 (Embossed 3D Button)
-                    // a. 绘制右下柔和阴影
-                    RectF shadowRect = new RectF(rect.left + 1.2f * density, rect.top + 1.2f * density, rect.right + 1.2f * density, rect.bottom + 1.2f * density);
-                    cellPaint.setStyle(Paint.Style.FILL);
-                    cellPaint.setColor(0x1B000000);
-                    canvas.drawRoundRect(shadowRect, radius, radius, cellPaint);
-
-                    // b. 绘制左上亮边白光
-                    RectF highlightRect = new RectF(rect.left - 0.6f * density, rect.top - 0.6f * density, rect.right - 0.6f * density, rect.bottom - 0.6f * density);
-                    cellPaint.setColor(0x60FFFFFF);
-                    canvas.drawRoundRect(highlightRect, radius, radius, cellPaint);
-
-                    // c. 绘制主体渐变
-                    android.graphics.LinearGradient gradient = new android.graphics.LinearGradient(
-                            rect.left, rect.top, rect.right, rect.bottom,
-                            GRADIENT_START_COLORS[level], GRADIENT_END_COLORS[level],
-                            android.graphics.Shader.TileMode.CLAMP);
-                    cellPaint.setShader(gradient);
-                    canvas.drawRoundRect(rect, radius, radius, cellPaint);
-                    cellPaint.setShader(null);
-
-                    // d. 顶端边缘极细亮线提升高反光质感
-                    cellPaint.setColor(0x40FFFFFF);
-                    cellPaint.setStyle(Paint.Style.STROKE);
-                    cellPaint.setStrokeWidth(0.8f * density);
-                    canvas.drawLine(rect.left + radius, rect.top + 0.5f * density, rect.right - radius, rect.top + 0.5f * density, cellPaint);
-                }
+        for (int i = 0; i < cellCount; i++) {
+            int level = cellLevel[i];
+            canvas.save();
+            canvas.translate(cellX[i], cellY[i]);
+            RectF rect = cellRect;
+
+            if (level == 0) {
+                // 1. 绘制下凹格子槽 (Sunken Box)
+                cellPaint.setStyle(Paint.Style.FILL);
+                cellPaint.setColor(0xFFF6F3ED);
+                canvas.drawRoundRect(rect, radius, radius, cellPaint);
+
+                // 绘制左上深影
+                cellPaint.setStyle(Paint.Style.STROKE);
+                cellPaint.setStrokeWidth(1f * density);
+                cellPaint.setColor(0x0F000000);
+                canvas.drawLine(rect.left, rect.bottom, rect.left, rect.top, cellPaint);
+                canvas.drawLine(rect.left, rect.top, rect.right, rect.top, cellPaint);
+
+                // 绘制右下反射白边
+                cellPaint.setColor(0x80FFFFFF);
+                canvas.drawLine(rect.left, rect.bottom, rect.right, rect.bottom, cellPaint);
+                canvas.drawLine(rect.right, rect.top, rect.right, rect.bottom, cellPaint);
+            } else {
+                // 2. 绘制打卡凸起立体格子 (Embossed 3D Button)
+                // a. 绘制右下柔和阴影
+                cellPaint.setStyle(Paint.Style.FILL);
+                cellPaint.setColor(0x1B000000);
+                canvas.drawRoundRect(shadowRect, radius, radius, cellPaint);
+
+                // b. 绘制左上亮边白光
+                cellPaint.setColor(0x60FFFFFF);
+                canvas.drawRoundRect(highlightRect, radius, radius, cellPaint);
+
+                // c. 绘制主体渐变
+                cellPaint.setShader(levelShaders[level]);
+                canvas.drawRoundRect(rect, radius, radius, cellPaint);
+                cellPaint.setShader(null);
+
+                // d. 顶端边缘极细亮线提升高反光质感
+                cellPaint.setColor(0x40FFFFFF);
+                cellPaint.setStyle(Paint.Style.STROKE);
+                cellPaint.setStrokeWidth(0.8f * density);
+                canvas.drawLine(rect.left + radius, rect.top + 0.5f * density, rect.right - radius, rect.top + 0.5f * density, cellPaint);
             }
+            canvas.restore();
         }
     }
 }
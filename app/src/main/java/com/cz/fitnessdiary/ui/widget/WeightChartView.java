@@ -9,12 +9,17 @@ import android.view.View;
 
 import androidx.annotation.Nullable;
 
+import com.cz.fitnessdiary.utils.Lttb;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 
 public class WeightChartView extends View {
 
+    /** 相邻数据点的最小水平间距（px），超出的点经降采样后再绘制 */
+    private static final int MIN_POINT_SPACING_PX = 6;
+
     private Paint axisPaint;
     private Paint textPaint;
     private Paint linePaint;
@@ -33,6 +38,17 @@ public class WeightChartView extends View {
     private int ySteps = 4;
     private int xLabelInterval = 0;
 
+    // 预计算的绘制数据，由 rebuildGeometry 填充
+    private final Path linePath = new Path();
+    private String[] yLabels = new String[0];
+    private float[] yLabelY = new float[0];
+    private float[] pointX = new float[0];
+    private float[] pointY = new float[0];
+    private int pointCount;
+    private float[] labelX = new float[0];
+    private int[] labelIndex = new int[0];
+    private int labelCount;
+
     public WeightChartView(Context context) {
         super(context);
         init();
@@ -62,6 +78,8 @@ public class WeightChartView extends View {
         dotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         dotPaint.setColor(0xFFFF5722);
         dotPaint.setStyle(Paint.Style.FILL);
+
+        rebuildGeometry();
     }
 
     public void setData(List<Float> weights, List<String> labels) {
@@ -111,85 +129,119 @@ public class WeightChartView extends View {
             ySteps = Math.min(ySteps, 8);
         }
 
+        rebuildGeometry();
         invalidate();
     }
 
     public void setXAxisLabelInterval(int interval) {
         xLabelInterval = Math.max(0, interval);
+        rebuildGeometry();
         invalidate();
     }
 
     @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        rebuildGeometry();
+    }
+
+    /**
+     * 坐标、折线路径与标签文字只在尺寸或数据变化时计算，onDraw 中不再分配对象
+     */
+    private void rebuildGeometry() {
         int width = getWidth();
         int height = getHeight();
-
         int chartWidth = width - paddingLeft - paddingRight;
         int chartHeight = height - paddingTop - paddingBottom;
 
-        // Draw Y Axis
-        textPaint.setTextAlign(Paint.Align.RIGHT);
+        if (yLabels.length != ySteps + 1) {
+            yLabels = new String[ySteps + 1];
+            yLabelY = new float[ySteps + 1];
+        }
         for (int i = 0; i <= ySteps; i++) {
             float val = minWeight + (maxWeight - minWeight) * i / ySteps;
-            float y = height - paddingBottom - (chartHeight * i / ySteps);
-            canvas.drawText(String.format(Locale.getDefault(), "%.1fkg", val), paddingLeft - 10, y + 10, textPaint);
-            if (i > 0) {
-                canvas.drawLine(paddingLeft, y, width - paddingRight, y, axisPaint); // Grid
-            }
+            yLabels[i] = String.format(Locale.getDefault(), "%.1fkg", val);
+            yLabelY[i] = height - paddingBottom - (chartHeight * i / ySteps);
         }
-        canvas.drawLine(paddingLeft, paddingTop, paddingLeft, height - paddingBottom, axisPaint); // Y Axis
-
-        // Draw X Axis
-        canvas.drawLine(paddingLeft, height - paddingBottom, width - paddingRight, height - paddingBottom, axisPaint);
-
-        if (dataPoints.isEmpty())
-            return;
 
-        textPaint.setTextAlign(Paint.Align.CENTER);
-        float stepX = (float) chartWidth / (dataPoints.size() <= 1 ? 1 : (dataPoints.size() - 1));
-
-        Path path = new Path();
-        boolean first = true;
-        List<Float> currentPx = new ArrayList<>();
-        List<Float> currentPy = new ArrayList<>();
-
-        for (int i = 0; i < dataPoints.size(); i++) {
+        int count = dataPoints.size();
+        if (pointX.length < count) {
+            pointX = new float[count];
+            pointY = new float[count];
+            labelX = new float[count];
+            labelIndex = new int[count];
+        }
+        linePath.reset();
+        pointCount = 0;
+        labelCount = 0;
+        float stepX = (float) chartWidth / (count <= 1 ? 1 : (count - 1));
+        for (int i = 0; i < count; i++) {
             float x = paddingLeft + i * stepX;
             Float val = dataPoints.get(i);
 
-            // X Label
             boolean shouldDrawXLabel;
             if (xLabelInterval > 1) {
-                shouldDrawXLabel = i % xLabelInterval == 0 || i == dataPoints.size() - 1;
+                shouldDrawXLabel = i % xLabelInterval == 0 || i == count - 1;
             } else {
-                int autoInterval = Math.max(1, dataPoints.size() / 5);
-                shouldDrawXLabel = dataPoints.size() <= 7 || i % autoInterval == 0 || i == dataPoints.size() - 1;
+                int autoInterval = Math.max(1, count / 5);
+                shouldDrawXLabel = count <= 7 || i % autoInterval == 0 || i == count - 1;
             }
-
             if (shouldDrawXLabel) {
-                String label = i < xLabels.size() ? xLabels.get(i) : "";
-                canvas.drawText(label, x, height - paddingBottom + 40, textPaint);
+                labelX[labelCount] = x;
+                labelIndex[labelCount++] = i;
             }
 
             if (val != null && val > 0) {
-                float y = height - paddingBottom - chartHeight * ((val - minWeight) / (maxWeight - minWeight));
-                currentPx.add(x);
-                currentPy.add(y);
-
-                if (first) {
-                    path.moveTo(x, y);
-                    first = false;
-                } else {
-                    path.lineTo(x, y);
-                }
+                pointX[pointCount] = x;
+                pointY[pointCount++] = height - paddingBottom - chartHeight * ((val - minWeight) / (maxWeight - minWeight));
             }
         }
 
-        if (!first) {
-            canvas.drawPath(path, linePaint);
-            for (int i = 0; i < currentPx.size(); i++) {
-                canvas.drawCircle(currentPx.get(i), currentPy.get(i), 8f, dotPaint);
+        // 点数超过宽度可分辨的数量时用 LTTB 降采样，保留峰谷形状
+        if (chartWidth > 0) {
+            pointCount = Lttb.downsample(pointX, pointY, pointCount, Math.max(3, chartWidth / MIN_POINT_SPACING_PX));
+        }
+        for (int i = 0; i < pointCount; i++) {
+            if (i == 0) {
+                linePath.moveTo(pointX[i], pointY[i]);
+            } else {
+                linePath.lineTo(pointX[i], pointY[i]);
+            }
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        int width = getWidth();
+        int height = getHeight();
+
+        // Draw Y Axis
+        textPaint.setTextAlign(Paint.Align.RIGHT);
+        for (int i = 0; i < yLabels.length; i++) {
+            float y = yLabelY[i];
+            canvas.drawText(yLabels[i], paddingLeft - 10, y + 10, textPaint);
+            if (i > 0) {
+                canvas.drawLine(paddingLeft, y, width - paddingRight, y, axisPaint); // Grid
+            }
+        }
+        canvas.drawLine(paddingLeft, paddingTop, paddingLeft, height - paddingBottom, axisPaint); // Y Axis
+
+        // Draw X Axis
+        canvas.drawLine(paddingLeft, height - paddingBottom, width - paddingRight, height - paddingBottom, axisPaint);
+
+        // X Labels
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        for (int i = 0; i < labelCount; i++) {
+            int index = labelIndex[i];
+            String label = index < xLabels.size() ? xLabels.get(index) : "";
+            canvas.drawText(label, labelX[i], height - paddingBottom + 40, textPaint);
+        }
+
+        if (pointCount > 0) {
+            canvas.drawPath(linePath, linePaint);
+            for (int i = 0; i < pointCount; i++) {
+                canvas.drawCircle(pointX[i], pointY[i], 8f, dotPaint);
             }
         }
     }
@@ -0,0 +1,427 @@
+package com.cz.fitnessdiary.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 全局共享线程池。
+ * 按任务类型分为 磁盘IO / 计算 / 网络 三条有界线程池，外加主线程执行器，
+ * 替代各 Repository、ViewModel 中各自创建的单线程池，避免页面多时线程数膨胀。
+ * 队列满时不向调用方抛异常：后台线程提交的任务在调用方线程直接执行（自然形成背压），
+ * 主线程提交的任务暂存后由工作线程接着执行，主线程既不阻塞也不会执行数据库操作。
+ * 每条线程池统计排队深度、等待 / 执行耗时和队列满的次数，可通过 {@link #dumpStats()} 查看。
+ */
+public final class AppExecutors {
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+
+    private static volatile AppExecutors instance;
+
+    private final Lane diskIO;
+    private final Lane compute;
+    private final Lane network;
+    private volatile Executor mainThread;
+
+    private AppExecutors() {
+        // SQLite 同一时刻只有一个写入者，3 个线程足够覆盖读写并发
+        diskIO = new Lane("disk", 3, 512);
+        compute = new Lane("compute", Math.max(2, Math.min(CPU_COUNT - 1, 4)), 128);
+        network = new Lane("net", 4, 64);
+    }
+
+    public static AppExecutors get() {
+        if (instance == null) {
+            synchronized (AppExecutors.class) {
+                if (instance == null) {
+                    instance = new AppExecutors();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 数据库、文件读写
+     */
+    public ExecutorService diskIO() {
+        return diskIO;
+    }
+
+    /**
+     * 图表数据整理、报表统计等 CPU 密集任务
+     */
+    public ExecutorService compute() {
+        return compute;
+    }
+
+    /**
+     * 网络请求
+     */
+    public ExecutorService network() {
+        return network;
+    }
+
+    public Executor mainThread() {
+        if (mainThread == null) {
+            synchronized (this) {
+                if (mainThread == null) {
+                    Handler handler = new Handler(Looper.getMainLooper());
+                    mainThread = handler::post;
+                }
+            }
+        }
+        return mainThread;
+    }
+
+    /**
+     * 创建一个在磁盘IO线程池上按提交顺序逐个执行任务的串行执行器。
+     * 用于替换原先每个 Repository / ViewModel 独占的 newSingleThreadExecutor()，
+     * 保留"同一所有者的写入按顺序执行"的语义，但不再独占线程。
+     * 对其调用 shutdown() 只会停止接收新任务，不影响共享线程池。
+     */
+    public ExecutorService newSerialDiskIO() {
+        return new SerialExecutor(diskIO);
+    }
+
+    /**
+     * 同步等待执行器返回结果。
+     * 若当前线程本身就是共享线程池的工作线程，则直接在当前线程执行，
+     * 避免工作线程互相阻塞等待导致线程池饿死。
+     */
+    public static <T> T await(@NonNull ExecutorService executor, @NonNull Callable<T> task) throws Exception {
+        if (Thread.currentThread() instanceof LaneThread) {
+            return task.call();
+        }
+        return executor.submit(task).get();
+    }
+
+    public List<LaneStats> getStats() {
+        List<LaneStats> stats = new ArrayList<>(3);
+        stats.add(diskIO.snapshot());
+        stats.add(compute.snapshot());
+        stats.add(network.snapshot());
+        return stats;
+    }
+
+    public String dumpStats() {
+        StringBuilder sb = new StringBuilder();
+        for (LaneStats stats : getStats()) {
+            sb.append(stats).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 线程池运行指标快照
+     */
+    public static final class LaneStats {
+        public final String name;
+        public final int poolSize;
+        public final int activeCount;
+        public final int queueDepth;
+        public final int maxQueueDepth;
+        public final long completedCount;
+        public final long rejectedCount;
+        public final long deferredCount;
+        public final long avgWaitMs;
+        public final long maxWaitMs;
+        public final long avgRunMs;
+        public final long maxRunMs;
+
+        LaneStats(String name, int poolSize, int activeCount, int queueDepth, int maxQueueDepth,
+                long completedCount, long rejectedCount, long deferredCount, long avgWaitMs, long maxWaitMs,
+                long avgRunMs, long maxRunMs) {
+            this.name = name;
+            this.poolSize = poolSize;
+            this.activeCount = activeCount;
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.completedCount = completedCount;
+            this.rejectedCount = rejectedCount;
+            this.deferredCount = deferredCount;
+            this.avgWaitMs = avgWaitMs;
+            this.maxWaitMs = maxWaitMs;
+            this.avgRunMs = avgRunMs;
+            this.maxRunMs = maxRunMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: pool=%d active=%d queue=%d(max %d) completed=%d rejected=%d deferred=%d wait=%d/%dms run=%d/%dms",
+                    name, poolSize, activeCount, queueDepth, maxQueueDepth, completedCount, rejectedCount,
+                    deferredCount, avgWaitMs, maxWaitMs, avgRunMs, maxRunMs);
+        }
+    }
+
+    /**
+     * 工作线程标记类型，用于 {@link #await} 判断当前是否处于共享线程池中
+     */
+    private static final class LaneThread extends Thread {
+        LaneThread(Runnable target, String name) {
+            super(target, name);
+        }
+    }
+
+    /**
+     * 带统计的有界线程池。队列满时计数，后台线程提交的任务由调用方执行，
+     * 主线程提交的任务和串行执行器的任务暂存到 deferred，见 {@link #defer}
+     */
+    static final class Lane extends ThreadPoolExecutor {
+        private final String name;
+        private final ConcurrentLinkedQueue<Runnable> deferred = new ConcurrentLinkedQueue<>();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong deferredCount = new AtomicLong();
+        private final AtomicLong totalWaitMs = new AtomicLong();
+        private final AtomicLong maxWaitMs = new AtomicLong();
+        private final AtomicLong totalRunMs = new AtomicLong();
+        private final AtomicLong maxRunMs = new AtomicLong();
+        private final AtomicLong finished = new AtomicLong();
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+        Lane(String name, int threads, int queueCapacity) {
+            super(threads, threads, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                    new LaneThreadFactory(name));
+            this.name = name;
+            allowCoreThreadTimeOut(true);
+            setRejectedExecutionHandler((task, executor) -> {
+                throw new RejectedExecutionException("AppExecutors[" + name + "] queue full, task rejected");
+            });
+        }
+
+        /**
+         * 提交任务，不会抛出 RejectedExecutionException：
+         * 队列满时后台线程直接执行该任务，主线程把任务交给 {@link #defer}
+         */
+        @Override
+        public void execute(@NonNull Runnable command) {
+            Runnable task = timed(command);
+            try {
+                super.execute(task);
+                recordQueueDepth();
+            } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+                if (isMainThread()) {
+                    defer(task);
+                } else {
+                    task.run();
+                }
+            }
+        }
+
+        /**
+         * 串行执行器提交下一个任务，不会被拒绝：队列满时暂存到 deferred。
+         * 不在调用方执行，否则串行执行器会在提交线程上递归执行后续任务
+         */
+        void executeSerial(@NonNull Runnable command) {
+            Runnable task = timed(command);
+            try {
+                super.execute(task);
+                recordQueueDepth();
+            } catch (RejectedExecutionException e) {
+                defer(task);
+            }
+        }
+
+        /**
+         * 暂存队列满时无法入队的任务，由工作线程做完手头任务后接着执行
+         */
+        private void defer(Runnable task) {
+            deferred.offer(task);
+            deferredCount.incrementAndGet();
+            if (getQueue().isEmpty()) {
+                // 排队任务恰好已被取空：补一个空任务，确保有工作线程经过 afterExecute 接手
+                try {
+                    super.execute(() -> {
+                    });
+                } catch (RejectedExecutionException ignored) {
+                    // 队列又满了，排队任务结束时同样会接手
+                }
+            }
+        }
+
+        private static boolean isMainThread() {
+            try {
+                Looper main = Looper.getMainLooper();
+                return main != null && main.getThread() == Thread.currentThread();
+            } catch (RuntimeException e) {
+                // 本地单元测试中没有 Android 主线程
+                return false;
+            }
+        }
+
+        @Override
+        protected void afterExecute(Runnable r, Throwable t) {
+            super.afterExecute(r, t);
+            Runnable next;
+            while ((next = deferred.poll()) != null) {
+                next.run();
+            }
+        }
+
+        private Runnable timed(Runnable command) {
+            final long enqueuedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                record(totalWaitMs, maxWaitMs, TimeUnit.NANOSECONDS.toMillis(startedAt - enqueuedAt));
+                try {
+                    command.run();
+                } finally {
+                    record(totalRunMs, maxRunMs, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                    finished.incrementAndGet();
+                }
+            };
+        }
+
+        private void recordQueueDepth() {
+            int depth = getQueue().size();
+            int max;
+            while (depth > (max = maxQueueDepth.get()) && !maxQueueDepth.compareAndSet(max, depth)) {
+                // retry
+            }
+        }
+
+        // 共享线程池不允许被某个调用方关闭
+        @Override
+        public void shutdown() {
+        }
+
+        @NonNull
+        @Override
+        public List<Runnable> shutdownNow() {
+            return new ArrayList<>();
+        }
+
+        private static void record(AtomicLong total, AtomicLong max, long value) {
+            total.addAndGet(value);
+            long current;
+            while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+                // retry
+            }
+        }
+
+        LaneStats snapshot() {
+            long count = finished.get();
+            return new LaneStats(name, getPoolSize(), getActiveCount(), getQueue().size(), maxQueueDepth.get(),
+                    count, rejected.get(), deferredCount.get(),
+                    count == 0 ? 0 : totalWaitMs.get() / count, maxWaitMs.get(),
+                    count == 0 ? 0 : totalRunMs.get() / count, maxRunMs.get());
+        }
+    }
+
+    private static final class LaneThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger index = new AtomicInteger(1);
+
+        LaneThreadFactory(String name) {
+            this.prefix = "app-" + name + "-";
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable r) {
+            Thread thread = new LaneThread(r, prefix + index.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+
+    /**
+     * 在目标线程池上按提交顺序逐个执行任务，同一时刻最多占用一个线程。
+     * 已接收的任务总会执行：共享队列满时由 {@link Lane#executeSerial} 延后调度，而不是丢弃
+     */
+    static final class SerialExecutor extends AbstractExecutorService {
+        private final Lane target;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private Runnable active;
+        private boolean shutdown;
+
+        SerialExecutor(Lane target) {
+            this.target = target;
+        }
+
+        @Override
+        public synchronized void execute(@NonNull Runnable command) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Serial executor has been shut down");
+            }
+            tasks.offer(() -> {
+                try {
+                    command.run();
+                } finally {
+                    scheduleNext();
+                }
+            });
+            if (active == null) {
+                scheduleNext();
+            }
+        }
+
+        private synchronized void scheduleNext() {
+            active = tasks.poll();
+            if (active == null) {
+                notifyAll();
+                return;
+            }
+            target.executeSerial(active);
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            shutdown = true;
+        }
+
+        @NonNull
+        @Override
+        public synchronized List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> pending = new ArrayList<>(tasks);
+            tasks.clear();
+            return pending;
+        }
+
+        @Override
+        public synchronized boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public synchronized boolean isTerminated() {
+            return shutdown && active == null && tasks.isEmpty();
+        }
+
+        @Override
+        public synchronized boolean awaitTermination(long timeout, @NonNull TimeUnit unit)
+                throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+    }
+}
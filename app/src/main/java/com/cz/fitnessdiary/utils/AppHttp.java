@@ -0,0 +1,307 @@
+package com.cz.fitnessdiary.utils;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * 全局共享 HTTP 客户端。
+ * 所有网络服务共用一个连接池（HTTP/2 下同一主机的请求复用同一连接）、调度器和磁盘缓存，
+ * 需要不同超时的服务通过 {@link #newBuilder()} 派生，派生出的客户端仍共享这些资源。
+ * GET 响应按服务端的 Cache-Control / ETag 写入磁盘缓存并条件请求；
+ * {@link #getText} 把 URL 与请求头都相同的并发 GET 合并为一次网络请求。
+ * 每个主机统计请求数、失败数、缓存命中、合并次数、收发字节和耗时，可通过 {@link #dumpStats()} 查看。
+ */
+public final class AppHttp {
+
+    private static final String CACHE_DIR = "http";
+    private static final long CACHE_BYTES = 10L * 1024 * 1024;
+    private static final int MAX_IDLE_CONNECTIONS = 6;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final int MAX_REQUESTS = 32;
+    private static final int MAX_REQUESTS_PER_HOST = 6;
+
+    private static volatile Context appContext;
+    private static volatile OkHttpClient client;
+
+    private static final SingleFlight GETS = new SingleFlight();
+    private static final Map<String, HostCounter> HOSTS = new ConcurrentHashMap<>();
+
+    private AppHttp() {
+    }
+
+    /**
+     * 在 Application.onCreate 中尽早调用，之后创建的客户端才会带磁盘缓存
+     */
+    public static void init(@NonNull Context context) {
+        appContext = context.getApplicationContext();
+    }
+
+    public static OkHttpClient get() {
+        if (client == null) {
+            synchronized (AppHttp.class) {
+                if (client == null) {
+                    client = build(appContext);
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * 派生客户端（例如更长的超时），共享连接池、调度器、缓存与统计
+     */
+    public static OkHttpClient.Builder newBuilder() {
+        return get().newBuilder();
+    }
+
+    private static OkHttpClient build(@Nullable Context context) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .connectTimeout(15, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .writeTimeout(30, TimeUnit.SECONDS)
+                .eventListenerFactory(call -> new StatsListener());
+        if (context != null) {
+            builder.cache(new Cache(new File(context.getCacheDir(), CACHE_DIR), CACHE_BYTES));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 文本响应
+     */
+    public static final class TextResponse {
+        public final int code;
+        public final String body;
+
+        TextResponse(int code, String body) {
+            this.code = code;
+            this.body = body;
+        }
+
+        public boolean isSuccessful() {
+            return code >= 200 && code < 300;
+        }
+    }
+
+    public static TextResponse getText(@NonNull Request request) throws IOException {
+        return getText(get(), request);
+    }
+
+    /**
+     * 同步 GET 并读出文本。方法、URL 与全部请求头（含 Authorization、Accept）都相同的并发请求只发一次，
+     * 其余调用等待并共享结果；不同用户或不同内容协商的请求不会拿到彼此的响应。
+     * 必须在后台线程调用
+     *
+     * @param httpClient 由 {@link #newBuilder()} 派生的客户端
+     */
+    public static TextResponse getText(@NonNull OkHttpClient httpClient, @NonNull Request request)
+            throws IOException {
+        if (!"GET".equals(request.method())) {
+            throw new IllegalArgumentException("Only GET requests can be coalesced");
+        }
+        boolean[] joined = new boolean[1];
+        try {
+            return GETS.execute(coalescingKey(request), () -> {
+                try (Response raw = httpClient.newCall(request).execute()) {
+                    ResponseBody body = raw.body();
+                    return new TextResponse(raw.code(), body == null ? "" : body.string());
+                }
+            }, joined);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        } finally {
+            if (joined[0]) {
+                counter(request.url().host()).coalesced.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 合并键：方法 + URL + 逐行的 "名称: 值" 请求头，顺序不同视为不同请求。
+     * 不用 Headers.toString()：它会把 Authorization 等敏感头的值打码，不同令牌会得到相同的键
+     */
+    static String coalescingKey(@NonNull Request request) {
+        Headers headers = request.headers();
+        StringBuilder key = new StringBuilder(request.method()).append(' ').append(request.url());
+        for (int i = 0; i < headers.size(); i++) {
+            key.append('\n').append(headers.name(i)).append(": ").append(headers.value(i));
+        }
+        return key.toString();
+    }
+
+    /**
+     * 单个主机的请求指标快照
+     */
+    public static final class HostStats {
+        public final String host;
+        public final long calls;
+        public final long failures;
+        public final long cacheHits;
+        public final long conditionalHits;
+        public final long coalesced;
+        public final long bytesSent;
+        public final long bytesReceived;
+        public final long avgLatencyMs;
+        public final long maxLatencyMs;
+
+        HostStats(String host, long calls, long failures, long cacheHits, long conditionalHits, long coalesced,
+                long bytesSent, long bytesReceived, long avgLatencyMs, long maxLatencyMs) {
+            this.host = host;
+            this.calls = calls;
+            this.failures = failures;
+            this.cacheHits = cacheHits;
+            this.conditionalHits = conditionalHits;
+            this.coalesced = coalesced;
+            this.bytesSent = bytesSent;
+            this.bytesReceived = bytesReceived;
+            this.avgLatencyMs = avgLatencyMs;
+            this.maxLatencyMs = maxLatencyMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%s: calls=%d failed=%d cache=%d(+%d revalidated) coalesced=%d sent=%dB received=%dB latency=%d/%dms",
+                    host, calls, failures, cacheHits, conditionalHits, coalesced, bytesSent, bytesReceived,
+                    avgLatencyMs, maxLatencyMs);
+        }
+    }
+
+    public static List<HostStats> getStats() {
+        List<HostStats> stats = new ArrayList<>(HOSTS.size());
+        for (Map.Entry<String, HostCounter> entry : new TreeMap<>(HOSTS).entrySet()) {
+            stats.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        return stats;
+    }
+
+    public static String dumpStats() {
+        StringBuilder sb = new StringBuilder();
+        for (HostStats stats : getStats()) {
+            sb.append(stats).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static HostCounter counter(String host) {
+        HostCounter counter = HOSTS.get(host);
+        if (counter == null) {
+            HostCounter created = new HostCounter();
+            counter = HOSTS.putIfAbsent(host, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        return counter;
+    }
+
+    private static final class HostCounter {
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong cacheHits = new AtomicLong();
+        final AtomicLong conditionalHits = new AtomicLong();
+        final AtomicLong coalesced = new AtomicLong();
+        final AtomicLong bytesSent = new AtomicLong();
+        final AtomicLong bytesReceived = new AtomicLong();
+        final AtomicLong totalLatencyMs = new AtomicLong();
+        final AtomicLong maxLatencyMs = new AtomicLong();
+
+        void recordLatency(long ms) {
+            totalLatencyMs.addAndGet(ms);
+            long current;
+            while (ms > (current = maxLatencyMs.get()) && !maxLatencyMs.compareAndSet(current, ms)) {
+                // retry
+            }
+        }
+
+        HostStats snapshot(String host) {
+            long count = calls.get();
+            return new HostStats(host, count, failures.get(), cacheHits.get(), conditionalHits.get(),
+                    coalesced.get(), bytesSent.get(), bytesReceived.get(),
+                    count == 0 ? 0 : totalLatencyMs.get() / count, maxLatencyMs.get());
+        }
+    }
+
+    /**
+     * 每个 Call 一个实例，调用结束时把耗时和字节数计入对应主机
+     */
+    private static final class StatsListener extends EventListener {
+        private long startedAt;
+
+        @Override
+        public void callStart(@NonNull Call call) {
+            startedAt = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(@NonNull Call call, long byteCount) {
+            counter(call.request().url().host()).bytesSent.addAndGet(byteCount);
+        }
+
+        @Override
+        public void responseBodyEnd(@NonNull Call call, long byteCount) {
+            counter(call.request().url().host()).bytesReceived.addAndGet(byteCount);
+        }
+
+        @Override
+        public void cacheHit(@NonNull Call call, @NonNull Response response) {
+            counter(call.request().url().host()).cacheHits.incrementAndGet();
+        }
+
+        @Override
+        public void cacheConditionalHit(@NonNull Call call, @NonNull Response cachedResponse) {
+            counter(call.request().url().host()).conditionalHits.incrementAndGet();
+        }
+
+        @Override
+        public void callEnd(@NonNull Call call) {
+            finish(call, false);
+        }
+
+        @Override
+        public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+            finish(call, true);
+        }
+
+        private void finish(Call call, boolean failed) {
+            HostCounter counter = counter(call.request().url().host());
+            counter.calls.incrementAndGet();
+            if (failed) {
+                counter.failures.incrementAndGet();
+            }
+            counter.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+    }
+}
@@ -1,51 +1,180 @@
 package com.cz.fitnessdiary.utils;
 
+import android.content.ContentResolver;
 import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteException;
 import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.provider.DocumentsContract;
 import android.util.Log;
 
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
 import com.cz.fitnessdiary.database.AppDatabase;
+import com.google.gson.Gson;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * BackupManager - 数据库备份与恢复工具类
  * 基于 SAF (Storage Access Framework) 实现
+ * [v1.2] 新增增量备份：备份到用户选择的文件夹，每次只写入变化的数据块（格式见 {@link IncrementalBackup}）
  */
 public class BackupManager {
     private static final String TAG = "BackupManager";
     private static final String DATABASE_NAME = "fitness_diary_db";
+    private static final String PREFS_NAME = "backup_prefs";
+    private static final String KEY_BACKUP_FOLDER = "backup_folder_uri";
+    private static final String SEGMENT_PREFIX = "FitnessDiary_";
+    private static final String SEGMENT_SUFFIX = ".fdseg";
+    private static final int STREAM_BUFFER = 256 * 1024;
+    private static final int RESTORE_PARALLELISM = 3;
+
+    /**
+     * 上次使用的备份文件夹（SAF 树 URI），未设置时返回 null
+     */
+    public static Uri getBackupFolder(Context context) {
+        String value = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .getString(KEY_BACKUP_FOLDER, null);
+        return value == null ? null : Uri.parse(value);
+    }
+
+    public static void setBackupFolder(Context context, Uri treeUri) {
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .putString(KEY_BACKUP_FOLDER, treeUri == null ? null : treeUri.toString())
+                .apply();
+    }
+
+    /**
+     * [v1.2] 增量备份：在备份文件夹中追加一个新的备份段，只写入此前各段中没有的数据块。
+     * 数据库通过在线快照获取，备份期间无需关闭数据库。应在后台线程调用
+     */
+    public static boolean backupToFolder(Context context, Uri treeUri) {
+        ContentResolver resolver = context.getContentResolver();
+        File workDir = new File(context.getCacheDir(), "backup_snapshot");
+        Uri segmentUri = null;
+        try {
+            deleteRecursively(workDir);
+            workDir.mkdirs();
+            Map<String, File> sources = new LinkedHashMap<>(snapshotDatabase(context, workDir));
+            collectAppFiles(context, sources);
+
+            List<FolderSegment> chain = listSegments(context, treeUri);
+            IncrementalBackup.Manifest manifest = IncrementalBackup.buildManifest(sources,
+                    IncrementalBackup.DEFAULT_CHUNK_SIZE);
+            String name = SEGMENT_PREFIX
+                    + new SimpleDateFormat("yyyyMMdd_HHmmss_SSS", Locale.US).format(new Date(manifest.createdAt))
+                    + SEGMENT_SUFFIX;
+            Uri folderUri = DocumentsContract.buildDocumentUriUsingTree(treeUri,
+                    DocumentsContract.getTreeDocumentId(treeUri));
+            segmentUri = DocumentsContract.createDocument(resolver, folderUri, "application/octet-stream", name);
+            if (segmentUri == null) {
+                return false;
+            }
+            try (OutputStream os = resolver.openOutputStream(segmentUri)) {
+                if (os == null) {
+                    throw new IOException("Cannot open " + segmentUri);
+                }
+                OutputStream out = new BufferedOutputStream(os, STREAM_BUFFER);
+                int written = IncrementalBackup.writeSegment(out, manifest,
+                        IncrementalBackup.collectChunks(chain), sources);
+                out.flush();
+                Log.i(TAG, "Incremental backup " + name + ": " + written + " new chunk(s), chain length "
+                        + (chain.size() + 1));
+            }
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Incremental backup failed", e);
+            if (segmentUri != null) {
+                try {
+                    DocumentsContract.deleteDocument(resolver, segmentUri);
+                } catch (Exception ignored) {
+                }
+            }
+            return false;
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    /**
+     * [v1.2] 从备份文件夹恢复：以最新备份段的清单为准，从整条段链拼装数据。
+     * 先在临时目录拼装并逐块校验，全部成功后才替换现有数据。应在后台线程调用
+     */
+    public static boolean restoreFromFolder(Context context, Uri treeUri) {
+        File stagingDir = new File(context.getCacheDir(), "backup_restore");
+        try {
+            List<FolderSegment> chain = listSegments(context, treeUri);
+            if (chain.isEmpty()) {
+                return false;
+            }
+            IncrementalBackup.Manifest latest = chain.get(chain.size() - 1).manifest();
+            deleteRecursively(stagingDir);
+            stagingDir.mkdirs();
+            Map<String, File> staged = new HashMap<>();
+            for (IncrementalBackup.FileEntry entry : latest.files) {
+                if (isSafeEntryPath(entry.path)) {
+                    staged.put(entry.path, new File(stagingDir, entry.path));
+                }
+            }
+            if (!staged.containsKey("database.db")) {
+                return false;
+            }
+            IncrementalBackup.assemble(chain, latest, staged);
+            validateStagedDatabase(context, staged.get("database.db"));
+            installStagedFiles(context, staged);
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Incremental restore failed", e);
+            return false;
+        } finally {
+            deleteRecursively(stagingDir);
+        }
+    }
 
     /**
      * [v1.1] 全量备份：将数据库和媒体文件打包成 ZIP
      */
     public static boolean backupDatabase(Context context, Uri targetUri) {
+        File workDir = new File(context.getCacheDir(), "backup_snapshot");
         try {
-            // 1. 整理数据库
-            AppDatabase.getInstance(context).close();
-            File dbFile = context.getDatabasePath(DATABASE_NAME);
-            File walFile = new File(dbFile.getPath() + "-wal");
-            File shmFile = new File(dbFile.getPath() + "-shm");
+            // 1. 在线快照数据库（无需关闭数据库）
+            deleteRecursively(workDir);
+            workDir.mkdirs();
+            Map<String, File> snapshot = snapshotDatabase(context, workDir);
             File mediaDir = MediaManager.getMediaDir(context);
             File prefsDir = new File(context.getApplicationInfo().dataDir, "shared_prefs");
 
             // 2. 创建 ZIP 流
             try (OutputStream os = context.getContentResolver().openOutputStream(targetUri);
                     java.util.zip.ZipOutputStream zos = new java.util.zip.ZipOutputStream(os)) {
+                Map<String, String> checksums = new LinkedHashMap<>();
 
-                // 备份数据库文件及其日志
-                if (dbFile.exists()) {
-                    addToZip(zos, dbFile, "database.db");
-                }
-                if (walFile.exists()) {
-                    addToZip(zos, walFile, "database.db-wal");
-                }
-                if (shmFile.exists()) {
-                    addToZip(zos, shmFile, "database.db-shm");
+                // 备份数据库快照
+                for (Map.Entry<String, File> entry : snapshot.entrySet()) {
+                    checksums.put(entry.getKey(), addToZip(zos, entry.getValue(), entry.getKey()));
                 }
 
                 // 备份媒体文件夹
@@ -53,7 +182,7 @@ public class BackupManager {
                     File[] files = mediaDir.listFiles();
                     if (files != null) {
                         for (File f : files) {
-                            addToZip(zos, f, "media/" + f.getName());
+                            checksums.put("media/" + f.getName(), addToZip(zos, f, "media/" + f.getName()));
                         }
                     }
                 }
@@ -64,31 +193,209 @@ public class BackupManager {
                     if (prefFiles != null) {
                         for (File f : prefFiles) {
                             if (f.isFile() && f.getName().endsWith(".xml")) {
-                                addToZip(zos, f, "shared_prefs/" + f.getName());
+                                checksums.put("shared_prefs/" + f.getName(),
+                                        addToZip(zos, f, "shared_prefs/" + f.getName()));
                             }
                         }
                     }
                 }
+
+                // 校验清单放在最后，恢复时通过中央目录读取
+                zos.putNextEntry(new java.util.zip.ZipEntry(StagedZipRestore.CHECKSUM_ENTRY));
+                zos.write(new Gson().toJson(checksums).getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
                 zos.finish();
             }
             return true;
         } catch (Exception e) {
             Log.e(TAG, "Full backup failed", e);
             return false;
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    /**
+     * 在线获取数据库一致性快照，返回 备份内路径 -> 快照文件。
+     * 先合并 WAL，再在写事务内（阻止其他写入，读取不受影响）复制主库与剩余 WAL。
+     * 不用 VACUUM INTO：它会重排全部页面，未改动的数据也落到新偏移上，增量分块几乎无法复用
+     */
+    private static Map<String, File> snapshotDatabase(Context context, File workDir) throws IOException {
+        SupportSQLiteDatabase db = AppDatabase.getInstance(context).getOpenHelper().getWritableDatabase();
+        Map<String, File> snapshot = new LinkedHashMap<>();
+        File target = new File(workDir, "database.db");
+        try (Cursor cursor = db.query("PRAGMA wal_checkpoint(TRUNCATE)")) {
+            cursor.moveToFirst();
+        }
+        File dbFile = context.getDatabasePath(DATABASE_NAME);
+        File walFile = new File(dbFile.getPath() + "-wal");
+        db.beginTransaction();
+        try {
+            copyFile(dbFile, target);
+            snapshot.put("database.db", target);
+            if (walFile.length() > 0) {
+                File walTarget = new File(workDir, "database.db-wal");
+                copyFile(walFile, walTarget);
+                snapshot.put("database.db-wal", walTarget);
+            }
+        } finally {
+            db.endTransaction();
+        }
+        return snapshot;
+    }
+
+    /**
+     * 收集媒体文件与 SharedPreferences
+     */
+    private static void collectAppFiles(Context context, Map<String, File> sources) {
+        File[] mediaFiles = MediaManager.getMediaDir(context).listFiles();
+        if (mediaFiles != null) {
+            for (File f : mediaFiles) {
+                if (f.isFile()) {
+                    sources.put("media/" + f.getName(), f);
+                }
+            }
+        }
+        File[] prefFiles = new File(context.getApplicationInfo().dataDir, "shared_prefs").listFiles();
+        if (prefFiles != null) {
+            for (File f : prefFiles) {
+                if (f.isFile() && f.getName().endsWith(".xml")) {
+                    sources.put("shared_prefs/" + f.getName(), f);
+                }
+            }
+        }
+    }
+
+    /**
+     * 备份文件夹中的一个备份段
+     */
+    private static final class FolderSegment implements IncrementalBackup.SegmentSource {
+        private final ContentResolver resolver;
+        private final Uri uri;
+        private final IncrementalBackup.Manifest manifest;
+
+        FolderSegment(ContentResolver resolver, Uri uri, IncrementalBackup.Manifest manifest) {
+            this.resolver = resolver;
+            this.uri = uri;
+            this.manifest = manifest;
+        }
+
+        @Override
+        public IncrementalBackup.Manifest manifest() {
+            return manifest;
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            InputStream in = resolver.openInputStream(uri);
+            if (in == null) {
+                throw new IOException("Cannot open " + uri);
+            }
+            return new BufferedInputStream(in, STREAM_BUFFER);
+        }
+    }
+
+    /**
+     * 列出备份文件夹中的全部备份段（按创建时间排序），仅读取各段的清单
+     */
+    private static List<FolderSegment> listSegments(Context context, Uri treeUri) {
+        ContentResolver resolver = context.getContentResolver();
+        Uri childrenUri = DocumentsContract.buildChildDocumentsUriUsingTree(treeUri,
+                DocumentsContract.getTreeDocumentId(treeUri));
+        List<FolderSegment> segments = new ArrayList<>();
+        try (Cursor cursor = resolver.query(childrenUri, new String[] {
+                DocumentsContract.Document.COLUMN_DOCUMENT_ID,
+                DocumentsContract.Document.COLUMN_DISPLAY_NAME }, null, null, null)) {
+            while (cursor != null && cursor.moveToNext()) {
+                String name = cursor.getString(1);
+                if (name == null || !name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+                    continue;
+                }
+                Uri uri = DocumentsContract.buildDocumentUriUsingTree(treeUri, cursor.getString(0));
+                try (InputStream in = resolver.openInputStream(uri)) {
+                    if (in != null) {
+                        segments.add(new FolderSegment(resolver, uri, IncrementalBackup.readManifest(in)));
+                    }
+                } catch (IOException e) {
+                    // 损坏的段不参与去重：其中的块会在下次备份时重新写入
+                    Log.w(TAG, "Skip unreadable backup segment " + name, e);
+                }
+            }
+        }
+        segments.sort(Comparator.comparingLong(segment -> segment.manifest().createdAt));
+        return segments;
+    }
+
+    /**
+     * 只接受备份格式内定义的路径，防止恶意清单写出应用目录
+     */
+    private static boolean isSafeEntryPath(String path) {
+        if (path == null) {
+            return false;
+        }
+        if (path.equals("database.db") || path.equals("database.db-wal")) {
+            return true;
+        }
+        String name;
+        if (path.startsWith("media/")) {
+            name = path.substring(6);
+        } else if (path.startsWith("shared_prefs/") && path.endsWith(".xml")) {
+            name = path.substring(13);
+        } else {
+            return false;
+        }
+        return !name.isEmpty() && !name.contains("/") && !name.contains("\\") && !name.equals("..");
+    }
+
+    private static void copyFile(File source, File target) throws IOException {
+        try (InputStream is = new FileInputStream(source); OutputStream os = new FileOutputStream(target)) {
+            copyStream(is, os);
+        }
+    }
+
+    private static void moveFile(File source, File target) throws IOException {
+        File parent = target.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        if (target.exists()) {
+            target.delete();
+        }
+        if (!source.renameTo(target)) {
+            copyFile(source, target);
+            source.delete();
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
         }
+        file.delete();
     }
 
-    private static void addToZip(java.util.zip.ZipOutputStream zos, File file, String entryName)
+    /**
+     * 写入一个 ZIP 条目，返回内容的 SHA-256（写入 checksums.json 供恢复时校验）
+     */
+    private static String addToZip(java.util.zip.ZipOutputStream zos, File file, String entryName)
             throws java.io.IOException {
         try (InputStream is = new java.io.FileInputStream(file)) {
             java.util.zip.ZipEntry entry = new java.util.zip.ZipEntry(entryName);
             zos.putNextEntry(entry);
-            byte[] buffer = new byte[8192];
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[STREAM_BUFFER];
             int len;
             while ((len = is.read(buffer)) > 0) {
+                digest.update(buffer, 0, len);
                 zos.write(buffer, 0, len);
             }
             zos.closeEntry();
+            return StagedZipRestore.hex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 
@@ -96,68 +403,171 @@ public class BackupManager {
      * [v1.1] 全量恢复：从 ZIP 中恢复数据库和媒体文件
      */
     public static boolean restoreDatabase(Context context, Uri sourceUri) {
-        try {
-            // 1. 关闭数据库
-            AppDatabase.getInstance(context).close();
+        return restoreDatabase(context, sourceUri, null);
+    }
 
-            // 2. 准备路径
-            File dbFile = context.getDatabasePath(DATABASE_NAME);
-            File walFile = new File(dbFile.getPath() + "-wal");
-            File shmFile = new File(dbFile.getPath() + "-shm");
-            File mediaDir = MediaManager.getMediaDir(context);
-            if (!mediaDir.exists()) mediaDir.mkdirs();
-            File prefsDir = new File(context.getApplicationInfo().dataDir, "shared_prefs");
-            if (!prefsDir.exists()) prefsDir.mkdirs();
-
-            // 恢复前先清理旧数据库和缓存文件
-            if (dbFile.exists()) dbFile.delete();
-            if (walFile.exists()) walFile.delete();
-            if (shmFile.exists()) shmFile.delete();
-
-            // 3. 读取 ZIP
-            try (InputStream is = context.getContentResolver().openInputStream(sourceUri);
-                    java.util.zip.ZipInputStream zis = new java.util.zip.ZipInputStream(is)) {
-
-                java.util.zip.ZipEntry entry;
-                while ((entry = zis.getNextEntry()) != null) {
-                    if (entry.getName().equals("database.db")) {
-                        try (OutputStream os = new FileOutputStream(dbFile)) {
-                            copyStream(zis, os);
-                        }
-                    } else if (entry.getName().equals("database.db-wal")) {
-                        try (OutputStream os = new FileOutputStream(walFile)) {
-                            copyStream(zis, os);
-                        }
-                    } else if (entry.getName().equals("database.db-shm")) {
-                        try (OutputStream os = new FileOutputStream(shmFile)) {
-                            copyStream(zis, os);
-                        }
-                    } else if (entry.getName().startsWith("media/")) {
-                        String fileName = entry.getName().substring(6); // 去掉 "media/"
-                        File targetMedia = new File(mediaDir, fileName);
-                        try (OutputStream os = new FileOutputStream(targetMedia)) {
-                            copyStream(zis, os);
-                        }
-                    } else if (entry.getName().startsWith("shared_prefs/")) {
-                        String fileName = entry.getName().substring(13); // 去掉 "shared_prefs/"
-                        File targetPref = new File(prefsDir, fileName);
-                        try (OutputStream os = new FileOutputStream(targetPref)) {
-                            copyStream(zis, os);
-                        }
-                    }
-                    zis.closeEntry();
-                }
+    /**
+     * [v1.2] 全量恢复：按中央目录把各条目并行解压到暂存目录并逐条校验（CRC32 与 checksums.json），
+     * 暂存数据库通过完整性检查后才关闭现有数据库并原子替换；任何一步失败，现有数据保持不变。
+     * 中途失败时暂存内容保留，以同一文件重新恢复会跳过已校验的条目。应在后台线程调用
+     *
+     * @param listener 进度回调（工作线程），可为 null
+     */
+    public static boolean restoreDatabase(Context context, Uri sourceUri,
+            StagedZipRestore.ProgressListener listener) {
+        File stagingDir = new File(context.getNoBackupFilesDir(), "restore_staging");
+        File archiveCopy = new File(context.getNoBackupFilesDir(), "restore_archive.zip");
+        Map<String, File> staged;
+        try {
+            staged = stageArchive(context, sourceUri, stagingDir, archiveCopy, listener);
+        } catch (Exception e) {
+            Log.e(TAG, "Full restore failed, staged entries kept for resume", e);
+            return false;
+        }
+        try {
+            if (!staged.containsKey("database.db")) {
+                return false;
             }
-
+            validateStagedDatabase(context, staged.get("database.db"));
+            installStagedFiles(context, staged);
             return true;
         } catch (Exception e) {
             Log.e(TAG, "Full restore failed", e);
             return false;
+        } finally {
+            StagedZipRestore.clearStaging(stagingDir);
+            archiveCopy.delete();
+        }
+    }
+
+    /**
+     * 把 ZIP 备份解压到暂存目录。SAF 文件可定位时直接随机读取，
+     * 否则（如部分云盘返回管道）先完整复制到本地再解压
+     */
+    private static Map<String, File> stageArchive(Context context, Uri sourceUri, File stagingDir,
+            File archiveCopy, StagedZipRestore.ProgressListener listener) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+        try (ParcelFileDescriptor pfd = resolver.openFileDescriptor(sourceUri, "r")) {
+            if (pfd == null) {
+                throw new IOException("Cannot open " + sourceUri);
+            }
+            if (pfd.getStatSize() > 0) {
+                try (FileInputStream fis = new FileInputStream(pfd.getFileDescriptor())) {
+                    return stageArchive(fis.getChannel(), sourceUri + "|" + pfd.getStatSize(), stagingDir, listener);
+                }
+            }
+        }
+        try (InputStream is = resolver.openInputStream(sourceUri);
+                OutputStream os = new FileOutputStream(archiveCopy)) {
+            if (is == null) {
+                throw new IOException("Cannot open " + sourceUri);
+            }
+            copyStream(is, os);
+        }
+        try (FileInputStream fis = new FileInputStream(archiveCopy)) {
+            return stageArchive(fis.getChannel(), sourceUri + "|" + archiveCopy.length(), stagingDir, listener);
+        }
+    }
+
+    private static Map<String, File> stageArchive(FileChannel channel, String sourceKey, File stagingDir,
+            StagedZipRestore.ProgressListener listener) throws IOException {
+        StagedZipRestore restore = new StagedZipRestore(channel, stagingDir, sourceKey);
+        List<StagedZipRestore.Entry> entries = new ArrayList<>();
+        for (StagedZipRestore.Entry entry : restore.readCentralDirectory()) {
+            // -shm 是运行时共享内存索引，恢复时由 SQLite 重建
+            if (isSafeEntryPath(entry.name)) {
+                entries.add(entry);
+            }
+        }
+        StagedZipRestore.Result result = restore.extract(entries, RESTORE_PARALLELISM, listener);
+        if (result.resumedEntries > 0) {
+            Log.i(TAG, "Restore resumed, skipped " + result.resumedEntries + " verified entries");
+        }
+        return result.files;
+    }
+
+    /**
+     * 校验暂存数据库：完整性检查，并把 WAL 合并进主库文件，使替换只涉及单个文件
+     */
+    private static void validateStagedDatabase(Context context, File stagedDb) throws IOException {
+        int currentVersion = AppDatabase.getInstance(context).getOpenHelper().getReadableDatabase().getVersion();
+        try (SQLiteDatabase db = SQLiteDatabase.openDatabase(stagedDb.getPath(), null,
+                SQLiteDatabase.OPEN_READWRITE)) {
+            try (Cursor cursor = db.rawQuery("PRAGMA quick_check", null)) {
+                if (!cursor.moveToFirst() || !"ok".equalsIgnoreCase(cursor.getString(0))) {
+                    throw new IOException("Staged database failed integrity check");
+                }
+            }
+            // 更高版本的库无法降级打开，恢复后应用会启动失败
+            if (db.getVersion() > currentVersion) {
+                throw new IOException("Backup is from a newer app version: " + db.getVersion());
+            }
+            try (Cursor cursor = db.rawQuery("PRAGMA journal_mode=DELETE", null)) {
+                cursor.moveToFirst();
+            }
+        } catch (SQLiteException e) {
+            throw new IOException("Staged database is not readable", e);
+        }
+        new File(stagedDb.getPath() + "-wal").delete();
+        new File(stagedDb.getPath() + "-shm").delete();
+    }
+
+    /**
+     * 用已校验的暂存文件替换现有数据。先合并并关闭现有数据库，
+     * 数据库主文件通过同一文件系统内的 rename 原子替换，不存在"半个数据库"的中间状态
+     */
+    private static void installStagedFiles(Context context, Map<String, File> staged) throws IOException {
+        File dbFile = context.getDatabasePath(DATABASE_NAME);
+        File walFile = new File(dbFile.getPath() + "-wal");
+        File shmFile = new File(dbFile.getPath() + "-shm");
+        AppDatabase database = AppDatabase.getInstance(context);
+        try (Cursor cursor = database.getOpenHelper().getWritableDatabase()
+                .query("PRAGMA wal_checkpoint(TRUNCATE)")) {
+            cursor.moveToFirst();
+        }
+        database.close();
+        // WAL 已合并：删除后即使替换前进程被杀，旧库依然完整
+        walFile.delete();
+        shmFile.delete();
+        replaceAtomically(staged.get("database.db"), dbFile);
+
+        File mediaDir = MediaManager.getMediaDir(context);
+        File prefsDir = new File(context.getApplicationInfo().dataDir, "shared_prefs");
+        for (Map.Entry<String, File> entry : staged.entrySet()) {
+            String path = entry.getKey();
+            if (path.startsWith("media/")) {
+                moveFile(entry.getValue(), new File(mediaDir, path.substring(6)));
+            } else if (path.startsWith("shared_prefs/")) {
+                moveFile(entry.getValue(), new File(prefsDir, path.substring(13)));
+            }
+        }
+    }
+
+    /**
+     * rename 覆盖目标；跨文件系统时先完整写入目标旁的临时文件并落盘，再 rename
+     */
+    private static void replaceAtomically(File source, File target) throws IOException {
+        File parent = target.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        if (source.renameTo(target)) {
+            return;
+        }
+        File temp = new File(target.getPath() + ".restore");
+        try (InputStream is = new FileInputStream(source); FileOutputStream os = new FileOutputStream(temp)) {
+            copyStream(is, os);
+            os.getFD().sync();
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            throw new IOException("Cannot replace " + target);
         }
+        source.delete();
     }
 
     private static void copyStream(InputStream is, OutputStream os) throws java.io.IOException {
-        byte[] buffer = new byte[8192];
+        byte[] buffer = new byte[STREAM_BUFFER];
         int len;
         while ((len = is.read(buffer)) > 0) {
             os.write(buffer, 0, len);
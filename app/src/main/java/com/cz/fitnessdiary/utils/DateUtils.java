@@ -191,6 +191,15 @@ public class DateUtils {
         return sdf.format(new java.util.Date(timestamp));
     }
 
+    /**
+     * 生成与 SQLite date(ts / 1000, 'unixepoch', 'localtime') 一致的日期键 (yyyy-MM-dd)
+     * 固定使用 Locale.US，避免部分语言环境输出非 ASCII 数字导致与数据库分组键不匹配
+     */
+    public static String formatDayKey(long timestamp) {
+        java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd", java.util.Locale.US);
+        return sdf.format(new java.util.Date(timestamp));
+    }
+
     /**
      * 格式化完整日期 (yyyy年M月d日 · EEEE)
      */
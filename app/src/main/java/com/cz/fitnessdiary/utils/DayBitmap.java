@@ -0,0 +1,203 @@
+package com.cz.fitnessdiary.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 按天的位图：每天一位，下标为 epoch day（LocalDate.toEpochDay）
+ * 十年约 460 字节；连续天数按 64 位字整体计数，不逐天循环
+ */
+final class DayBitmap {
+
+    private static final long[] EMPTY = new long[0];
+
+    /** words[0] 第 0 位对应的 epoch day，始终为 64 的倍数 */
+    private long base;
+    private long[] words;
+
+    DayBitmap() {
+        this(0, EMPTY);
+    }
+
+    private DayBitmap(long base, long[] words) {
+        this.base = base;
+        this.words = words;
+    }
+
+    boolean get(long day) {
+        long index = day - base;
+        if (index < 0 || index >= (long) words.length * 64) {
+            return false;
+        }
+        return (words[(int) (index >>> 6)] & (1L << (index & 63))) != 0;
+    }
+
+    /**
+     * @return 该位是否发生变化
+     */
+    boolean set(long day, boolean value) {
+        if (get(day) == value) {
+            return false;
+        }
+        if (value) {
+            ensureCapacity(day);
+        }
+        long index = day - base;
+        long mask = 1L << (index & 63);
+        if (value) {
+            words[(int) (index >>> 6)] |= mask;
+        } else {
+            words[(int) (index >>> 6)] &= ~mask;
+        }
+        return true;
+    }
+
+    /**
+     * 最后一个置位的日期，没有时返回 Long.MIN_VALUE
+     */
+    long last() {
+        for (int w = words.length - 1; w >= 0; w--) {
+            if (words[w] != 0) {
+                return base + (long) w * 64 + 63 - Long.numberOfLeadingZeros(words[w]);
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+
+    /**
+     * 截至 day（含）向前连续置位的天数
+     */
+    int runEndingAt(long day) {
+        if (!get(day)) {
+            return 0;
+        }
+        long index = day - base;
+        int w = (int) (index >>> 6);
+        int bit = (int) (index & 63);
+        // 把 bit 及以下的位移到最高位，数前导 1
+        int ones = Long.numberOfLeadingZeros(~(words[w] << (63 - bit)));
+        int run = ones;
+        if (ones < bit + 1) {
+            return run;
+        }
+        for (w--; w >= 0; w--) {
+            ones = Long.numberOfLeadingZeros(~words[w]);
+            run += ones;
+            if (ones < 64) {
+                break;
+            }
+        }
+        return run;
+    }
+
+    /**
+     * 包含 day 的连续区间长度，day 未置位时为 0
+     */
+    int runContaining(long day) {
+        int before = runEndingAt(day);
+        if (before == 0) {
+            return 0;
+        }
+        int after = 0;
+        long index = day + 1 - base;
+        int w = (int) (index >>> 6);
+        int bit = (int) (index & 63);
+        if (w < words.length) {
+            int ones = Long.numberOfTrailingZeros(~(words[w] >>> bit));
+            ones = Math.min(ones, 64 - bit);
+            after = ones;
+            if (ones == 64 - bit) {
+                for (w++; w < words.length; w++) {
+                    ones = Long.numberOfTrailingZeros(~words[w]);
+                    after += ones;
+                    if (ones < 64) {
+                        break;
+                    }
+                }
+            }
+        }
+        return before + after;
+    }
+
+    /**
+     * 最长连续天数，O(天数 / 64) 之外仅对非全 0 / 全 1 的字逐位
+     */
+    int longestRun() {
+        int best = 0;
+        int run = 0;
+        for (long word : words) {
+            if (word == -1L) {
+                run += 64;
+            } else if (word == 0) {
+                best = Math.max(best, run);
+                run = 0;
+            } else {
+                for (int bit = 0; bit < 64; bit++) {
+                    if ((word & (1L << bit)) != 0) {
+                        run++;
+                    } else {
+                        best = Math.max(best, run);
+                        run = 0;
+                    }
+                }
+            }
+        }
+        return Math.max(best, run);
+    }
+
+    int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(8 + words.length * 8);
+        buffer.putLong(base);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    static DayBitmap decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(encoded));
+            long base = buffer.getLong();
+            long[] words = new long[buffer.remaining() / 8];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = buffer.getLong();
+            }
+            return new DayBitmap(base, words);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void ensureCapacity(long day) {
+        if (words.length == 0) {
+            base = Math.floorDiv(day, 64) * 64;
+            words = new long[1];
+            return;
+        }
+        if (day < base) {
+            long newBase = Math.floorDiv(day, 64) * 64;
+            int shift = (int) ((base - newBase) / 64);
+            long[] grown = new long[words.length + shift];
+            System.arraycopy(words, 0, grown, shift, words.length);
+            words = grown;
+            base = newBase;
+        }
+        long index = day - base;
+        int needed = (int) (index >>> 6) + 1;
+        if (needed > words.length) {
+            words = Arrays.copyOf(words, Math.max(needed, words.length + words.length / 2));
+        }
+    }
+}
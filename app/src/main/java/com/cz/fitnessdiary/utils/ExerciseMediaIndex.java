@@ -0,0 +1,146 @@
+package com.cz.fitnessdiary.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 动作动图索引
+ * assets/gifs 的文件列表只读取一次，按“小写动作名 → 文件名”建立哈希表，
+ * 绑定卡片时 O(1) 查找，不再每次 list() 资产目录并逐个比较文件名。
+ * 每个动作只打包一种格式：转码成功且更小时为动态 WebP，否则为原 GIF，
+ * 两种格式都由 Glide（动态 WebP 经 webpdecoder）在所有系统版本上解码，调用方只拿地址、不关心格式。
+ * 应用启动时在后台预热，首个页面打开时索引通常已就绪
+ */
+public final class ExerciseMediaIndex {
+
+    private static final String TAG = "ExerciseMediaIndex";
+    private static final String ASSET_DIR = "gifs";
+    private static final String ASSET_URL_PREFIX = "file:///android_asset/" + ASSET_DIR + "/";
+    private static final String WEBP_SUFFIX = ".webp";
+    private static final String GIF_SUFFIX = ".gif";
+    private static final String[] MEDIA_SUFFIXES = { WEBP_SUFFIX, GIF_SUFFIX };
+    private static final String DEFAULT_FALLBACK = "其他";
+
+    private static volatile ExerciseMediaIndex instance;
+
+    private final String[] fileNames;
+    private final Map<String, String> byName;
+
+    ExerciseMediaIndex(String[] files) {
+        this.byName = new HashMap<>(files.length * 2);
+        for (String file : files) {
+            String name = stripMediaSuffix(file);
+            if (name != null) {
+                // 正常只会有一种格式；万一同名，WebP 更小，保留 WebP
+                String key = name.toLowerCase(Locale.ROOT);
+                String existing = byName.get(key);
+                if (existing == null || !existing.toLowerCase(Locale.ROOT).endsWith(WEBP_SUFFIX)) {
+                    byName.put(key, file);
+                }
+            }
+        }
+        // 选择器里每个动作只列出实际会加载的那一份
+        List<String> visible = new ArrayList<>(byName.size());
+        for (String file : files) {
+            String name = stripMediaSuffix(file);
+            if (name == null || file.equals(byName.get(name.toLowerCase(Locale.ROOT)))) {
+                visible.add(file);
+            }
+        }
+        this.fileNames = visible.toArray(new String[0]);
+    }
+
+    public static ExerciseMediaIndex get(Context context) {
+        if (instance == null) {
+            synchronized (ExerciseMediaIndex.class) {
+                if (instance == null) {
+                    instance = new ExerciseMediaIndex(listAssets(context.getApplicationContext()));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 在后台线程建立索引
+     */
+    public static void warmUp(Context context) {
+        Context appContext = context.getApplicationContext();
+        AppExecutors.get().diskIO().execute(() -> get(appContext));
+    }
+
+    private static String[] listAssets(Context context) {
+        try {
+            String[] files = context.getAssets().list(ASSET_DIR);
+            return files != null ? files : new String[0];
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to list assets/" + ASSET_DIR, e);
+            return new String[0];
+        }
+    }
+
+    /**
+     * 去掉动图扩展名，不是动图文件时返回 null
+     */
+    @Nullable
+    public static String stripMediaSuffix(String file) {
+        String lower = file.toLowerCase(Locale.ROOT);
+        for (String suffix : MEDIA_SUFFIXES) {
+            if (lower.endsWith(suffix)) {
+                return file.substring(0, file.length() - suffix.length());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 与动作同名（忽略大小写）的本地动图地址，没有时返回 null
+     */
+    @Nullable
+    public String findMediaUrl(@Nullable String exerciseName) {
+        if (exerciseName == null) {
+            return null;
+        }
+        String file = byName.get(exerciseName.toLowerCase(Locale.ROOT));
+        return file != null ? ASSET_URL_PREFIX + file : null;
+    }
+
+    /**
+     * 动作同名动图，没有时按部位兜底（如 "胸部"），部位也没有时返回 null
+     */
+    @Nullable
+    public String mediaUrlOrFallback(@Nullable String exerciseName, @Nullable String bodyPart) {
+        String url = findMediaUrl(exerciseName);
+        return url != null ? url : findMediaUrl(bodyPart != null ? bodyPart : DEFAULT_FALLBACK);
+    }
+
+    /**
+     * 把计划里保存的本地动图地址映射到实际打包的文件。
+     * 旧版本保存的是 "file:///android_asset/gifs/xxx.gif"，转码后映射为同名 .webp；
+     * 非本地动图地址原样返回
+     */
+    public String resolveAssetUrl(String uri) {
+        if (uri == null || !uri.startsWith(ASSET_URL_PREFIX)) {
+            return uri;
+        }
+        String name = stripMediaSuffix(uri.substring(ASSET_URL_PREFIX.length()));
+        String url = name != null ? findMediaUrl(name) : null;
+        return url != null ? url : uri;
+    }
+
+    /**
+     * 目录下的文件名（含扩展名），同名动作只保留实际加载的那一份，用于动图选择器
+     */
+    public String[] getFileNames() {
+        return fileNames.clone();
+    }
+}
@@ -2,6 +2,9 @@ package com.cz.fitnessdiary.utils;
 
 import android.content.Context;
 
+import com.cz.fitnessdiary.database.entity.DailyMetric;
+import com.cz.fitnessdiary.repository.DailyMetricRepository;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -307,12 +310,10 @@ public class ExerciseMetTable {
 
     /**
      * 解析当天总时长: 该日target_minutes > 各动作累计
-     * 按日期独立存储，互不干扰
+     * 按日期独立存储（daily_metric），需在后台线程调用
      */
     public static int resolveTotalDuration(int accumulatedSec, long dateTs, Context context) {
-        String dateKey = "target_minutes_" + dateTs;
-        int targetMin = context.getSharedPreferences("fitness_diary_prefs", Context.MODE_PRIVATE)
-                .getInt(dateKey, 0);
+        int targetMin = new DailyMetricRepository(context).getIntSync(DailyMetric.TARGET_MINUTES, dateTs, 0);
         if (targetMin > 0)
             return targetMin * 60;
         return accumulatedSec;
@@ -0,0 +1,186 @@
+package com.cz.fitnessdiary.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 食物搜索索引的分词规则（food_search 全文索引）。
+ * 名称按"单元"切分：每个汉字一个单元，连续的字母数字为一个单元。
+ * - name_tokens：单元以空格分隔，汉字查询用短语匹配即等价于子串匹配；
+ * - pinyin / initials：从每个单元开始的后缀拼接成词（"鸡胸肉" -> jixiongrou xiongrou rou），
+ * 配合前缀查询 xiongr* 即可从任意字开始匹配全拼或首字母，无需在查询时转换名称。
+ */
+public final class FoodSearchTokenizer {
+
+    /** 超长名称只索引前若干单元，控制后缀词数量 */
+    static final int MAX_UNITS = 16;
+
+    private FoodSearchTokenizer() {
+    }
+
+    /**
+     * 一条名称的索引列
+     */
+    public static final class Tokens {
+        public final String name;
+        public final String pinyin;
+        public final String initials;
+
+        Tokens(String name, String pinyin, String initials) {
+            this.name = name;
+            this.pinyin = pinyin;
+            this.initials = initials;
+        }
+    }
+
+    private static final class Unit {
+        final String text;
+        final String pinyin;
+        final boolean han;
+
+        Unit(String text, String pinyin, boolean han) {
+            this.text = text;
+            this.pinyin = pinyin;
+            this.han = han;
+        }
+    }
+
+    /**
+     * 计算名称的索引列（拼音表未加载时拼音、首字母列只含字母数字单元）
+     */
+    public static Tokens tokenize(String title) {
+        List<Unit> units = split(title == null ? "" : title);
+        StringBuilder name = new StringBuilder();
+        for (Unit unit : units) {
+            if (name.length() > 0) {
+                name.append(' ');
+            }
+            name.append(unit.text);
+        }
+        List<Unit> indexed = units.size() > MAX_UNITS ? units.subList(0, MAX_UNITS) : units;
+        Set<String> pinyin = new LinkedHashSet<>();
+        Set<String> initials = new LinkedHashSet<>();
+        for (int start = 0; start < indexed.size(); start++) {
+            StringBuilder full = new StringBuilder();
+            StringBuilder heads = new StringBuilder();
+            for (int i = start; i < indexed.size(); i++) {
+                String py = indexed.get(i).pinyin;
+                if (py != null) {
+                    full.append(py);
+                    heads.append(py.charAt(0));
+                }
+            }
+            if (full.length() > 0) {
+                pinyin.add(full.toString());
+                initials.add(heads.toString());
+            }
+        }
+        return new Tokens(name.toString(), String.join(" ", pinyin), String.join(" ", initials));
+    }
+
+    /**
+     * 把用户输入转换为 FTS MATCH 表达式；没有可搜索内容时返回 null。
+     * 纯汉字输入按原文短语匹配，其余（拼音、首字母、字母数字、中英混输）统一转为拼音做前缀匹配
+     */
+    public static String matchQuery(String keyword) {
+        List<Unit> units = split(keyword == null ? "" : keyword);
+        if (units.isEmpty()) {
+            return null;
+        }
+        if (allHan(units)) {
+            // 标准查询语法中列限定不作用于短语；汉字只出现在 name_tokens 列，无需限定
+            StringBuilder phrase = new StringBuilder("\"");
+            for (int i = 0; i < units.size(); i++) {
+                if (i > 0) {
+                    phrase.append(' ');
+                }
+                phrase.append(units.get(i).text);
+            }
+            return phrase.append('"').toString();
+        }
+        String term = pinyinKey(units);
+        if (term.isEmpty()) {
+            return null;
+        }
+        return "pinyin:" + term + "* OR initials:" + term + "* OR name_tokens:" + term + "*";
+    }
+
+    /**
+     * 排序用的规范化关键字：与名称或拼音/首字母列做相等、前缀比较
+     */
+    public static String rankKey(String keyword) {
+        List<Unit> units = split(keyword == null ? "" : keyword);
+        if (allHan(units)) {
+            StringBuilder sb = new StringBuilder();
+            for (Unit unit : units) {
+                sb.append(unit.text);
+            }
+            return sb.toString();
+        }
+        return pinyinKey(units);
+    }
+
+    /**
+     * rankKey 对应的 LIKE 前缀模式：转义 \、% 与 _ 后追加 %，配合 ESCAPE '\' 使用
+     */
+    public static String rankPattern(String rankKey) {
+        StringBuilder sb = new StringBuilder(rankKey.length() + 1);
+        for (int i = 0; i < rankKey.length(); i++) {
+            char c = rankKey.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.append('%').toString();
+    }
+
+    private static boolean allHan(List<Unit> units) {
+        for (Unit unit : units) {
+            if (!unit.han) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String pinyinKey(List<Unit> units) {
+        StringBuilder sb = new StringBuilder();
+        for (Unit unit : units) {
+            if (unit.pinyin != null) {
+                sb.append(unit.pinyin);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static List<Unit> split(String text) {
+        List<Unit> units = new ArrayList<>();
+        String lower = text.toLowerCase();
+        int i = 0;
+        while (i < lower.length()) {
+            char c = lower.charAt(i);
+            if (PinyinUtils.isHan(c)) {
+                units.add(new Unit(String.valueOf(c), PinyinUtils.syllableOf(c), true));
+                i++;
+            } else if (isAsciiAlnum(c)) {
+                int end = i + 1;
+                while (end < lower.length() && isAsciiAlnum(lower.charAt(end))) {
+                    end++;
+                }
+                String word = lower.substring(i, end);
+                units.add(new Unit(word, word, false));
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        return units;
+    }
+
+    private static boolean isAsciiAlnum(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9');
+    }
+}
@@ -4,14 +4,16 @@ import android.content.Context;
 import android.content.SharedPreferences;
 
 import com.cz.fitnessdiary.database.AppDatabase;
+import com.cz.fitnessdiary.database.entity.DailyMetric;
+import com.cz.fitnessdiary.database.entity.DailyRollup;
 import com.cz.fitnessdiary.database.entity.HabitItem;
 import com.cz.fitnessdiary.database.entity.HabitRecord;
-import com.cz.fitnessdiary.database.entity.SleepRecord;
 import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.database.entity.User;
 import com.cz.fitnessdiary.database.entity.WeightRecord;
 import com.cz.fitnessdiary.model.DailyHealthSnapshot;
 import com.cz.fitnessdiary.model.HealthScoreBreakdown;
+import com.cz.fitnessdiary.repository.DailyMetricRepository;
 
 import java.util.List;
 
@@ -27,13 +29,14 @@ public class HealthScoreCalculator {
 
     public static int calculateForDate(Context context, long date) {
         long dayStart = DateUtils.getDayStartTimestamp(date);
-        long dayEnd = dayStart + 86400000L;
         AppDatabase db = AppDatabase.getInstance(context);
+        // 热量、睡眠、饮水与打卡完成数来自每日汇总表，一次主键查询
+        DailyRollup rollup = db.dailyRollupDao().getByDateSync(dayStart);
 
-        int sportScore = calcSport(db, context, dayStart);
-        int dietScore = calcDiet(db, context, dayStart, dayEnd);
-        int sleepScore = calcSleep(db, dayStart, dayEnd);
-        int waterScore = calcWater(db, dayStart, dayEnd);
+        int sportScore = calcSport(db, context, dayStart, rollup);
+        int dietScore = calcDiet(db, rollup);
+        int sleepScore = calcSleep(rollup);
+        int waterScore = calcWater(db, rollup);
         int habitScore = calcHabit(db, dayStart);
         int weightScore = calcWeight(db, context, dayStart);
 
@@ -41,7 +44,7 @@ public class HealthScoreCalculator {
         return Math.min(total, 100);
     }
 
-    private static int calcSport(AppDatabase db, Context context, long date) {
+    private static int calcSport(AppDatabase db, Context context, long date, DailyRollup rollup) {
         // Count TrainingPlan definitions scheduled for this date (matching UI logic)
         List<TrainingPlan> allPlans = db.trainingPlanDao().getAllPlansList();
         SharedPreferences sp = context.getSharedPreferences("fitness_diary_prefs", Context.MODE_PRIVATE);
@@ -73,21 +76,16 @@ public class HealthScoreCalculator {
         }
 
         if (total == 0) return 25;
-        int completed = db.dailyLogDao().getTodayCompletedCountSync(date);
+        int completed = rollup != null ? rollup.getCompletedPlans() : 0;
         return Math.round(25f * completed / total);
     }
 
-    private static int calcDiet(AppDatabase db, Context context, long today, long dayEnd) {
+    private static int calcDiet(AppDatabase db, DailyRollup rollup) {
         int targetCal = 2000;
         User user = db.userDao().getUserSync();
         if (user != null && user.getDailyCalorieTarget() > 0) targetCal = user.getDailyCalorieTarget();
 
-        int consumed = 0;
-        List<com.cz.fitnessdiary.database.entity.FoodRecord> foods =
-                db.foodRecordDao().getByDateRangeSync(today, dayEnd);
-        if (foods != null) {
-            for (com.cz.fitnessdiary.database.entity.FoodRecord f : foods) consumed += f.getCalories();
-        }
+        int consumed = rollup != null ? rollup.getCalories() : 0;
         if (consumed == 0) return 0;
         float ratio = (float) consumed / targetCal;
         if (ratio >= 0.9f && ratio <= 1.1f) return 25;
@@ -95,19 +93,17 @@ public class HealthScoreCalculator {
         return 5;
     }
 
-    private static int calcSleep(AppDatabase db, long today, long dayEnd) {
+    private static int calcSleep(DailyRollup rollup) {
         // 修复 bug：去除回退查询昨天睡眠记录的逻辑。当天如无记录，睡眠得分为 0，防止分数虚高
-        List<SleepRecord> sleeps = db.sleepRecordDao().getSleepRecordsByDateRangeSync(today, dayEnd);
-        if (sleeps == null || sleeps.isEmpty()) return 0;
-        float totalH = 0;
-        for (SleepRecord s : sleeps) totalH += s.getDuration() / 3600f;
+        if (rollup == null || rollup.getSleepCount() == 0) return 0;
+        float totalH = rollup.getSleepSeconds() / 3600f;
         if (totalH >= 7 && totalH <= 9) return 20;
         if (totalH >= 6 && totalH < 7) return 15;
         return 5;
     }
 
-    private static int calcWater(AppDatabase db, long today, long dayEnd) {
-        int ml = db.waterRecordDao().getTodayTotalSync(today, dayEnd);
+    private static int calcWater(AppDatabase db, DailyRollup rollup) {
+        int ml = rollup != null ? rollup.getWaterMl() : 0;
         com.cz.fitnessdiary.database.entity.User user = db.userDao().getUserSync();
         int waterTarget = (user != null && user.getDailyWaterTarget() > 0) ? user.getDailyWaterTarget() : 2000;
         if (ml >= waterTarget) return 15;
@@ -157,25 +153,25 @@ public class HealthScoreCalculator {
     }
 
     public static void saveTodayScore(Context context, int score) {
-        SharedPreferences sp = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
         long today = DateUtils.getTodayStartTimestamp();
-        String key = "score_" + today;
-        sp.edit().putInt(key, score).apply();
+        DailyMetricRepository metrics = new DailyMetricRepository(context);
+        metrics.putSync(DailyMetric.SCORE, today, score);
 
         // Update weekly/monthly averages
-        updateAverage(sp, KEY_WEEKLY_SCORES, today, 7);
-        updateAverage(sp, KEY_MONTHLY_SCORES, today, 30);
+        SharedPreferences sp = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        updateAverage(sp, metrics, KEY_WEEKLY_SCORES, today, 7);
+        updateAverage(sp, metrics, KEY_MONTHLY_SCORES, today, 30);
     }
 
-    private static void updateAverage(SharedPreferences sp, String avgKey, long today, int days) {
-        float sum = 0;
-        int count = 0;
-        for (int i = 0; i < days; i++) {
-            int s = sp.getInt("score_" + (today - i * 86400000L), -1);
-            if (s >= 0) { sum += s; count++; }
-        }
-        if (count > 0) {
-            sp.edit().putString(avgKey, String.valueOf(Math.round(sum / count))).apply();
+    /**
+     * 最近 days 天（含今天）的平均分，一次 AVG 查询
+     */
+    private static void updateAverage(SharedPreferences sp, DailyMetricRepository metrics,
+            String avgKey, long today, int days) {
+        Double avg = metrics.getAverageSync(DailyMetric.SCORE,
+                today - (days - 1) * 86400000L, today + 86400000L);
+        if (avg != null) {
+            sp.edit().putString(avgKey, String.valueOf(Math.round(avg))).apply();
         }
     }
 
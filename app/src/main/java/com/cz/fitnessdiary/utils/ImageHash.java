@@ -0,0 +1,121 @@
+package com.cz.fitnessdiary.utils;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.Nullable;
+
+/**
+ * 图片感知哈希（dHash）
+ * 把图片按面积平均缩成 17×16 的灰度网格，逐行比较相邻格子的明暗得到 256 位指纹。
+ * 同一张照片重新压缩、轻微缩放或亮度变化后，指纹只有少数位不同，用汉明距离衡量相似度。
+ * 采样时按行读取、跳步取点，只占用一行像素的内存，不需要把整张照片编码或复制一遍。
+ */
+public final class ImageHash {
+
+    /** 每行比较次数，也是行数 */
+    public static final int GRID = 16;
+    public static final int BITS = GRID * GRID;
+    /** 每个网格在每个方向上大约采样的点数 */
+    private static final int SAMPLES_PER_CELL = 8;
+
+    private ImageHash() {
+    }
+
+    /**
+     * 计算图片指纹，图片不可读（已回收、硬件位图）时返回 null
+     */
+    @Nullable
+    public static long[] dHash(@Nullable Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || bitmap.getConfig() == Bitmap.Config.HARDWARE) {
+            return null;
+        }
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        int cols = GRID + 1;
+        int rows = GRID;
+        float[] sums = new float[cols * rows];
+        int[] counts = new int[cols * rows];
+        int rowStep = Math.max(1, height / (rows * SAMPLES_PER_CELL));
+        int colStep = Math.max(1, width / (cols * SAMPLES_PER_CELL));
+        int[] line = new int[width];
+        for (int y = 0; y < height; y += rowStep) {
+            bitmap.getPixels(line, 0, width, 0, y, width, 1);
+            int rowOffset = (int) ((long) y * rows / height) * cols;
+            for (int x = 0; x < width; x += colStep) {
+                int cell = rowOffset + (int) ((long) x * cols / width);
+                sums[cell] += luminance(line[x]);
+                counts[cell]++;
+            }
+        }
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] = counts[i] > 0 ? sums[i] / counts[i] : 0f;
+        }
+        return dHash(sums);
+    }
+
+    /**
+     * 由 (GRID + 1) × GRID 的灰度网格（按行存放）计算指纹
+     */
+    public static long[] dHash(float[] grid) {
+        int cols = GRID + 1;
+        long[] hash = new long[BITS / 64];
+        for (int r = 0; r < GRID; r++) {
+            for (int c = 0; c < GRID; c++) {
+                if (grid[r * cols + c] > grid[r * cols + c + 1]) {
+                    int bit = r * GRID + c;
+                    hash[bit >>> 6] |= 1L << (bit & 63);
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * 两个指纹的汉明距离，0 为完全一致
+     */
+    public static int distance(long[] a, long[] b) {
+        int distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Long.bitCount(a[i] ^ b[i]);
+        }
+        return distance;
+    }
+
+    public static String toHex(long[] hash) {
+        StringBuilder builder = new StringBuilder(hash.length * 16);
+        for (long word : hash) {
+            String hex = Long.toHexString(word);
+            for (int i = hex.length(); i < 16; i++) {
+                builder.append('0');
+            }
+            builder.append(hex);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 解析 {@link #toHex}，格式不对时返回 null
+     */
+    @Nullable
+    public static long[] fromHex(@Nullable String hex) {
+        if (hex == null || hex.length() != BITS / 4) {
+            return null;
+        }
+        long[] hash = new long[BITS / 64];
+        try {
+            for (int i = 0; i < hash.length; i++) {
+                hash[i] = Long.parseUnsignedLong(hex.substring(i * 16, i * 16 + 16), 16);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return hash;
+    }
+
+    private static float luminance(int argb) {
+        return ((argb >> 16) & 0xFF) * 0.299f + ((argb >> 8) & 0xFF) * 0.587f + (argb & 0xFF) * 0.114f;
+    }
+}
@@ -0,0 +1,110 @@
+package com.cz.fitnessdiary.utils;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.ImageDecoder;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Size;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 上传图片预处理
+ * 解码时按目标长边子采样（ImageDecoder.setTargetSize / BitmapFactory.inSampleSize），
+ * 1200 万像素的相机照片不会整张解码进内存；编码时从较高的 JPEG 质量逐级下调，直到不超过字节预算。
+ * 长边和预算由各个 AI 服务按自身限制给出。
+ */
+public final class ImagePreparer {
+
+    private static final int[] JPEG_QUALITIES = { 90, 82, 74, 66, 58, 50 };
+
+    private ImagePreparer() {
+    }
+
+    /**
+     * 解码为长边不超过 maxEdge 的软件位图（可读取像素，用于识别缓存指纹）
+     */
+    public static Bitmap decode(ContentResolver resolver, Uri uri, int maxEdge) throws IOException {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            ImageDecoder.Source source = ImageDecoder.createSource(resolver, uri);
+            return ImageDecoder.decodeBitmap(source, (decoder, info, src) -> {
+                decoder.setAllocator(ImageDecoder.ALLOCATOR_SOFTWARE);
+                Size size = info.getSize();
+                int[] target = targetSize(size.getWidth(), size.getHeight(), maxEdge);
+                if (target[0] != size.getWidth() || target[1] != size.getHeight()) {
+                    decoder.setTargetSize(target[0], target[1]);
+                }
+            });
+        }
+
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream is = resolver.openInputStream(uri)) {
+            BitmapFactory.decodeStream(is, null, bounds);
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize(bounds.outWidth, bounds.outHeight, maxEdge);
+        Bitmap bitmap;
+        try (InputStream is = resolver.openInputStream(uri)) {
+            bitmap = BitmapFactory.decodeStream(is, null, options);
+        }
+        if (bitmap == null) {
+            throw new IOException("无法解析图片");
+        }
+        return scaleToMaxEdge(bitmap, maxEdge);
+    }
+
+    /**
+     * 长边超过 maxEdge 时等比缩小，否则原样返回
+     */
+    public static Bitmap scaleToMaxEdge(Bitmap source, int maxEdge) {
+        int[] target = targetSize(source.getWidth(), source.getHeight(), maxEdge);
+        if (target[0] == source.getWidth() && target[1] == source.getHeight()) {
+            return source;
+        }
+        return Bitmap.createScaledBitmap(source, target[0], target[1], true);
+    }
+
+    /**
+     * 编码为 JPEG，质量从高到低尝试，返回第一个不超过 maxBytes 的结果；都超出时返回最低质量的结果
+     */
+    public static byte[] encodeJpeg(Bitmap bitmap, int maxBytes) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(maxBytes);
+        for (int quality : JPEG_QUALITIES) {
+            output.reset();
+            bitmap.compress(Bitmap.CompressFormat.JPEG, quality, output);
+            if (output.size() <= maxBytes) {
+                break;
+            }
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * 等比缩放到长边不超过 maxEdge 的尺寸，至少 1 像素
+     */
+    static int[] targetSize(int width, int height, int maxEdge) {
+        int longEdge = Math.max(width, height);
+        if (longEdge <= maxEdge || longEdge <= 0) {
+            return new int[] { width, height };
+        }
+        float scale = (float) maxEdge / longEdge;
+        return new int[] { Math.max(1, Math.round(width * scale)), Math.max(1, Math.round(height * scale)) };
+    }
+
+    /**
+     * 不低于 maxEdge 的前提下最大的 2 的幂次子采样率
+     */
+    static int sampleSize(int width, int height, int maxEdge) {
+        int longEdge = Math.max(width, height);
+        int sample = 1;
+        while (longEdge / (sample * 2) >= maxEdge) {
+            sample *= 2;
+        }
+        return sample;
+    }
+}
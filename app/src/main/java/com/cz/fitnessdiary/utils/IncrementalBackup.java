@@ -0,0 +1,326 @@
+package com.cz.fitnessdiary.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 内容寻址的增量备份格式。
+ * 每个待备份文件（数据库快照、媒体、配置）按固定大小切块并计算 SHA-256，
+ * 一次备份生成一个"段"（ZIP）：首个条目为完整清单 manifest.json，其后只写入此前各段中没有的块 chunks/&lt;sha256&gt;。
+ * 恢复时以最新清单为准，从整条段链中按哈希取块拼装。
+ * 本类只依赖 java.io，与 Android 存储访问方式无关，由 {@link BackupManager} 负责快照与 SAF 读写。
+ */
+public final class IncrementalBackup {
+
+    /** 32 KB：默认 4 KB 页大小下每块覆盖 8 个数据库页，零散的页修改只会让少量块失效 */
+    public static final int DEFAULT_CHUNK_SIZE = 32 * 1024;
+    public static final int FORMAT_VERSION = 1;
+
+    static final String MANIFEST_ENTRY = "manifest.json";
+    static final String CHUNK_PREFIX = "chunks/";
+
+    private static final Gson GSON = new Gson();
+
+    private IncrementalBackup() {
+    }
+
+    /**
+     * 备份清单：描述某一时刻的完整备份内容
+     */
+    public static final class Manifest {
+        public int formatVersion = FORMAT_VERSION;
+        public long createdAt;
+        public int chunkSize;
+        public List<FileEntry> files = new ArrayList<>();
+        /** 本段实际写入的块，用于增量判断时无需读取整个段 */
+        public List<String> segmentChunks = new ArrayList<>();
+
+        public FileEntry find(String path) {
+            for (FileEntry entry : files) {
+                if (entry.path.equals(path)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static final class FileEntry {
+        public String path;
+        public long size;
+        public String sha256;
+        public List<String> chunks = new ArrayList<>();
+    }
+
+    /**
+     * 段来源：可多次打开的备份段
+     */
+    public interface SegmentSource {
+        Manifest manifest();
+
+        InputStream open() throws IOException;
+    }
+
+    /**
+     * 计算所有源文件的分块哈希，生成清单
+     *
+     * @param sources 备份内路径 -> 本地文件
+     */
+    public static Manifest buildManifest(Map<String, File> sources, int chunkSize) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.createdAt = System.currentTimeMillis();
+        manifest.chunkSize = chunkSize;
+        byte[] buffer = new byte[chunkSize];
+        for (Map.Entry<String, File> source : new TreeMap<>(sources).entrySet()) {
+            File file = source.getValue();
+            if (file == null || !file.isFile()) {
+                continue;
+            }
+            FileEntry entry = new FileEntry();
+            entry.path = source.getKey();
+            MessageDigest whole = sha256();
+            try (InputStream in = new FileInputStream(file)) {
+                int read;
+                while ((read = readFully(in, buffer)) > 0) {
+                    whole.update(buffer, 0, read);
+                    entry.chunks.add(hashOf(buffer, read));
+                    entry.size += read;
+                }
+            }
+            entry.sha256 = hex(whole.digest());
+            manifest.files.add(entry);
+        }
+        return manifest;
+    }
+
+    /**
+     * 写出一个备份段：清单在前，随后只写入 existingChunks 中不存在的块（段内同样去重）
+     *
+     * @return 本段写入的块数
+     */
+    public static int writeSegment(OutputStream out, Manifest manifest, Set<String> existingChunks,
+            Map<String, File> sources) throws IOException {
+        // 先确定本段需要写入哪些块，以便清单能记录 segmentChunks
+        Map<String, ChunkRef> pending = new LinkedHashMap<>();
+        for (FileEntry entry : manifest.files) {
+            for (int i = 0; i < entry.chunks.size(); i++) {
+                String hash = entry.chunks.get(i);
+                if (!existingChunks.contains(hash) && !pending.containsKey(hash)) {
+                    pending.put(hash, new ChunkRef(entry.path, (long) i * manifest.chunkSize));
+                }
+            }
+        }
+        manifest.segmentChunks = new ArrayList<>(pending.keySet());
+
+        ZipOutputStream zos = new ZipOutputStream(out);
+        zos.putNextEntry(new ZipEntry(MANIFEST_ENTRY));
+        zos.write(GSON.toJson(manifest).getBytes(StandardCharsets.UTF_8));
+        zos.closeEntry();
+
+        byte[] buffer = new byte[manifest.chunkSize];
+        for (Map.Entry<String, ChunkRef> chunk : pending.entrySet()) {
+            ChunkRef ref = chunk.getValue();
+            int length;
+            try (RandomAccessFile raf = new RandomAccessFile(sources.get(ref.path), "r")) {
+                raf.seek(ref.offset);
+                length = (int) Math.min(manifest.chunkSize, raf.length() - ref.offset);
+                raf.readFully(buffer, 0, length);
+            }
+            // 源文件在计算清单后被改动时，宁可失败也不写入与清单不符的块
+            if (!chunk.getKey().equals(hashOf(buffer, length))) {
+                throw new IOException("Source changed during backup: " + ref.path);
+            }
+            ZipEntry entry = new ZipEntry(CHUNK_PREFIX + chunk.getKey());
+            if (ref.path.startsWith("media/")) {
+                // 图片等媒体本身已压缩，直接存储以节省 CPU
+                CRC32 crc = new CRC32();
+                crc.update(buffer, 0, length);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(length);
+                entry.setCompressedSize(length);
+                entry.setCrc(crc.getValue());
+            }
+            zos.putNextEntry(entry);
+            zos.write(buffer, 0, length);
+            zos.closeEntry();
+        }
+        zos.finish();
+        zos.flush();
+        return pending.size();
+    }
+
+    /**
+     * 只读取段的首个条目（清单），不解压其余数据
+     */
+    public static Manifest readManifest(InputStream segment) throws IOException {
+        ZipInputStream zis = new ZipInputStream(segment);
+        ZipEntry entry = zis.getNextEntry();
+        if (entry == null || !MANIFEST_ENTRY.equals(entry.getName())) {
+            throw new IOException("Not a backup segment");
+        }
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int len;
+        while ((len = zis.read(buffer)) > 0) {
+            json.write(buffer, 0, len);
+        }
+        try {
+            Manifest manifest = GSON.fromJson(json.toString("UTF-8"), Manifest.class);
+            if (manifest == null || manifest.files == null || manifest.chunkSize <= 0) {
+                throw new IOException("Invalid backup manifest");
+            }
+            if (manifest.segmentChunks == null) {
+                manifest.segmentChunks = new ArrayList<>();
+            }
+            return manifest;
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid backup manifest", e);
+        }
+    }
+
+    /**
+     * 段链中已存在的全部块
+     */
+    public static Set<String> collectChunks(List<? extends SegmentSource> chain) {
+        Set<String> chunks = new LinkedHashSet<>();
+        for (SegmentSource segment : chain) {
+            chunks.addAll(segment.manifest().segmentChunks);
+        }
+        return chunks;
+    }
+
+    /**
+     * 按目标清单从段链拼装文件
+     *
+     * @param outputs 备份内路径 -> 输出文件；未包含的路径会被跳过
+     */
+    public static void assemble(List<? extends SegmentSource> chain, Manifest target, Map<String, File> outputs)
+            throws IOException {
+        // 哈希 -> 需要写入的位置（同一块可能出现在多个文件 / 多个偏移）
+        Map<String, List<ChunkRef>> needed = new HashMap<>();
+        for (FileEntry entry : target.files) {
+            File output = outputs.get(entry.path);
+            if (output == null) {
+                continue;
+            }
+            File parent = output.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(output, "rw")) {
+                raf.setLength(entry.size);
+            }
+            for (int i = 0; i < entry.chunks.size(); i++) {
+                needed.computeIfAbsent(entry.chunks.get(i), k -> new ArrayList<>())
+                        .add(new ChunkRef(entry.path, (long) i * target.chunkSize));
+            }
+        }
+
+        byte[] buffer = new byte[target.chunkSize];
+        // 新段优先：同一块若在多段中出现，取最近写入的
+        for (int s = chain.size() - 1; s >= 0 && !needed.isEmpty(); s--) {
+            SegmentSource segment = chain.get(s);
+            boolean useful = false;
+            for (String hash : segment.manifest().segmentChunks) {
+                if (needed.containsKey(hash)) {
+                    useful = true;
+                    break;
+                }
+            }
+            if (!useful) {
+                continue;
+            }
+            try (InputStream in = segment.open(); ZipInputStream zis = new ZipInputStream(in)) {
+                ZipEntry entry;
+                while ((entry = zis.getNextEntry()) != null && !needed.isEmpty()) {
+                    if (!entry.getName().startsWith(CHUNK_PREFIX)) {
+                        continue;
+                    }
+                    String hash = entry.getName().substring(CHUNK_PREFIX.length());
+                    List<ChunkRef> refs = needed.get(hash);
+                    if (refs == null) {
+                        continue;
+                    }
+                    int length = readFully(zis, buffer);
+                    if (!hash.equals(hashOf(buffer, length))) {
+                        throw new IOException("Corrupted chunk " + hash);
+                    }
+                    for (ChunkRef ref : refs) {
+                        try (RandomAccessFile raf = new RandomAccessFile(outputs.get(ref.path), "rw")) {
+                            raf.seek(ref.offset);
+                            raf.write(buffer, 0, length);
+                        }
+                    }
+                    needed.remove(hash);
+                }
+            }
+        }
+        if (!needed.isEmpty()) {
+            throw new IOException("Backup chain is missing " + needed.size() + " chunk(s)");
+        }
+    }
+
+    private static final class ChunkRef {
+        final String path;
+        final long offset;
+
+        ChunkRef(String path, long offset) {
+            this.path = path;
+            this.offset = offset;
+        }
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int total = 0;
+        int read;
+        while (total < buffer.length && (read = in.read(buffer, total, buffer.length - total)) > 0) {
+            total += read;
+        }
+        return total;
+    }
+
+    static String hashOf(byte[] data, int length) {
+        MessageDigest digest = sha256();
+        digest.update(data, 0, length);
+        return hex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,93 @@
+package com.cz.fitnessdiary.utils;
+
+/**
+ * LTTB（Largest-Triangle-Three-Buckets）折线降采样
+ * 首尾点固定保留，中间点均分为 threshold - 2 个桶，每个桶保留与“上一个保留点、下一桶均值”
+ * 围成三角形面积最大的点，峰值和拐点都会留下，折线形状在像素级别上与原数据一致。
+ * 图表能分辨的点数受宽度限制，几年的体重记录画成几百个点即可。
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * 选出要保留的点
+     *
+     * @param x         横坐标，需单调不减
+     * @param y         纵坐标
+     * @param count     有效点数（数组可以更长）
+     * @param threshold 目标点数，小于 3 或不少于 count 时全部保留
+     * @return 保留点的下标，升序
+     */
+    public static int[] select(float[] x, float[] y, int count, int threshold) {
+        if (threshold < 3 || threshold >= count) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        int n = 0;
+        selected[n++] = 0;
+        double every = (double) (count - 2) / (threshold - 2);
+        int a = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) (bucket * every) + 1;
+            int end = (int) ((bucket + 1) * every) + 1;
+
+            // 下一个桶的均值点；最后一个桶以末点为准
+            int nextStart = end;
+            int nextEnd = Math.min((int) ((bucket + 2) * every) + 1, count);
+            if (nextStart >= nextEnd) {
+                nextStart = count - 1;
+                nextEnd = count;
+            }
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // 三角形面积的两倍，比较大小时无需除以 2
+                double area = Math.abs((x[a] - avgX) * (y[i] - y[a]) - (x[a] - x[i]) * (avgY - y[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[n++] = chosen;
+            a = chosen;
+        }
+
+        selected[n] = count - 1;
+        return selected;
+    }
+
+    /**
+     * 原地降采样：保留点依次移到数组前部
+     *
+     * @return 降采样后的点数
+     */
+    public static int downsample(float[] x, float[] y, int count, int threshold) {
+        if (threshold < 3 || threshold >= count) {
+            return count;
+        }
+        int[] selected = select(x, y, count, threshold);
+        // 下标升序且 selected[k] >= k，按顺序前移不会覆盖尚未读取的点
+        for (int k = 0; k < selected.length; k++) {
+            x[k] = x[selected[k]];
+            y[k] = y[selected[k]];
+        }
+        return selected.length;
+    }
+}
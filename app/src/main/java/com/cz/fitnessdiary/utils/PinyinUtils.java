@@ -1,26 +1,98 @@
 package com.cz.fitnessdiary.utils;
 
-import android.os.Build;
-import androidx.annotation.RequiresApi;
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Pinyin search utility using Android's built-in ICU Transliterator (API 29+).
- * Safely degrades on API 26-28.
+ * 拼音工具：基于 assets/pinyin_table.txt（每行"拼音 汉字…"，覆盖 CJK 基本区）做逐字转换，
+ * 不依赖 ICU，API 26 起行为一致。多音字取最常用读音。
+ * 表格在首次使用前通过 {@link #ensureLoaded(Context)} 加载；未加载时只做原文匹配。
  */
 public class PinyinUtils {
 
-    // Use Object to prevent Class verification errors on API < 29
-    private static Object pinyinTransliterator;
+    private static final String TAG = "PinyinUtils";
+    private static final String TABLE_FILE = "pinyin_table.txt";
+    private static final char CJK_START = '\u4E00';
+    private static final char CJK_END = '\u9FFF';
+
+    /** 汉字（相对 CJK_START 的偏移）-> 音节下标 + 1，0 表示未收录 */
+    private static volatile short[] charToSyllable;
+    private static volatile String[] syllables;
+
+    private PinyinUtils() {
+    }
 
-    @RequiresApi(api = Build.VERSION_CODES.Q)
-    private static android.icu.text.Transliterator getTransliterator() {
-        if (pinyinTransliterator == null) {
-            pinyinTransliterator = android.icu.text.Transliterator.getInstance("Han-Latin/Names; Latin-Ascii; Lower");
+    /**
+     * 加载拼音表（幂等，约 65 KB）。应在后台线程调用
+     */
+    public static void ensureLoaded(Context context) {
+        if (charToSyllable != null) {
+            return;
+        }
+        synchronized (PinyinUtils.class) {
+            if (charToSyllable != null) {
+                return;
+            }
+            try (InputStream in = context.getAssets().open(TABLE_FILE)) {
+                load(in);
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to load pinyin table", e);
+            }
         }
-        return (android.icu.text.Transliterator) pinyinTransliterator;
     }
 
-    private PinyinUtils() {
+    /**
+     * 从流中解析拼音表
+     */
+    public static synchronized void load(InputStream in) throws IOException {
+        short[] table = new short[CJK_END - CJK_START + 1];
+        List<String> names = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int space = line.indexOf(' ');
+            if (space <= 0) {
+                continue;
+            }
+            names.add(line.substring(0, space));
+            short index = (short) names.size();
+            for (int i = space + 1; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c >= CJK_START && c <= CJK_END) {
+                    table[c - CJK_START] = index;
+                }
+            }
+        }
+        syllables = names.toArray(new String[0]);
+        charToSyllable = table;
+    }
+
+    public static boolean isLoaded() {
+        return charToSyllable != null;
+    }
+
+    public static boolean isHan(char c) {
+        return c >= CJK_START && c <= CJK_END;
+    }
+
+    /**
+     * 单个汉字的无声调拼音；非汉字或未收录时返回 null
+     */
+    public static String syllableOf(char c) {
+        short[] table = charToSyllable;
+        if (table == null || !isHan(c)) {
+            return null;
+        }
+        int index = table[c - CJK_START];
+        return index == 0 ? null : syllables[index - 1];
     }
 
     /**
@@ -40,58 +112,55 @@ public class PinyinUtils {
         if (lowerName.contains(q))
             return true;
 
-        // On API < 29, transliterator is not available, so we just fall back to direct
-        // match
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-            // 2. Full pinyin match (e.g. "jirou" matches "鸡肉")
-            String fullPinyin = toPinyin(lowerName);
-            if (fullPinyin.contains(q))
-                return true;
-
-            // 3. Pinyin initials match (e.g. "jr" matches "鸡肉")
-            String initials = toPinyinInitials(lowerName);
-            if (initials.contains(q))
-                return true;
-        }
+        if (!isLoaded())
+            return false;
 
-        return false;
+        // 2. Full pinyin match (e.g. "jirou" matches "鸡肉")
+        if (toPinyin(lowerName).contains(q))
+            return true;
+
+        // 3. Pinyin initials match (e.g. "jr" matches "鸡肉")
+        return toPinyinInitials(lowerName).contains(q);
     }
 
     /**
      * Convert Chinese text to pinyin with tone numbers removed.
      */
-    @RequiresApi(api = Build.VERSION_CODES.Q)
-    private static String toPinyin(String text) {
-        try {
-            return getTransliterator().transliterate(text).replaceAll("[^a-z]", "");
-        } catch (Exception e) {
-            return text;
+    public static String toPinyin(String text) {
+        StringBuilder sb = new StringBuilder(text.length() * 3);
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            String syllable = syllableOf(c);
+            if (syllable != null) {
+                sb.append(syllable);
+            } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                sb.append(c);
+            }
         }
+        return sb.toString();
     }
 
     /**
      * Get pinyin initials only (first letter of each character's pinyin).
      */
-    @RequiresApi(api = Build.VERSION_CODES.Q)
-    private static String toPinyinInitials(String text) {
-        try {
-            String pinyin = getTransliterator().transliterate(text);
-            StringBuilder initials = new StringBuilder();
-            boolean startOfWord = true;
-            for (int i = 0; i < pinyin.length(); i++) {
-                char c = pinyin.charAt(i);
-                if (c >= 'a' && c <= 'z') {
-                    if (startOfWord) {
-                        initials.append(c);
-                        startOfWord = false;
-                    }
-                } else {
-                    startOfWord = true;
+    public static String toPinyinInitials(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean startOfWord = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            String syllable = syllableOf(c);
+            if (syllable != null) {
+                sb.append(syllable.charAt(0));
+                startOfWord = true;
+            } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (startOfWord) {
+                    sb.append(c);
+                    startOfWord = false;
                 }
+            } else {
+                startOfWord = true;
             }
-            return initials.toString();
-        } catch (Exception e) {
-            return text;
         }
+        return sb.toString();
     }
 }
@@ -270,7 +270,7 @@ public class ReminderManager {
      * Runs on a background thread via Executors.
      */
     public static void restoreAllReminders(Context context) {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ExecutorService executor = AppExecutors.get().newSerialDiskIO();
         executor.execute(() -> {
             AppDatabase db = AppDatabase.getInstance(context.getApplicationContext());
             List<ReminderSchedule> schedules = db.reminderScheduleDao().getEnabledSchedulesSync();
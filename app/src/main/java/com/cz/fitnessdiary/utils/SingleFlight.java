@@ -0,0 +1,86 @@
+package com.cz.fitnessdiary.utils;
+
+import androidx.annotation.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * 相同 key 的并发调用合并为一次执行。
+ * 第一个调用方在自己的线程上执行任务，执行期间到达的相同 key 调用等待并共享同一结果（或异常）；
+ * 任务结束后 key 立即释放，之后的调用重新执行，不做结果缓存。
+ */
+public final class SingleFlight {
+
+    private final Map<String, Flight<?>> inFlight = new HashMap<>();
+
+    private static final class Flight<T> {
+        final FutureTask<T> task;
+        /** 加入本次调用的等待方数量，只在持有 inFlight 锁时读写 */
+        int joiners;
+
+        Flight(FutureTask<T> task) {
+            this.task = task;
+        }
+    }
+
+    /**
+     * 执行或加入相同 key 正在进行的调用
+     *
+     * @param joined 非空时，若本次调用加入了已有调用则置 joined[0] = true
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(@NonNull String key, @NonNull Callable<T> work, boolean[] joined) throws Exception {
+        FutureTask<T> task;
+        boolean owner = false;
+        synchronized (inFlight) {
+            Flight<T> flight = (Flight<T>) inFlight.get(key);
+            if (flight == null) {
+                task = new FutureTask<>(work);
+                inFlight.put(key, new Flight<>(task));
+                owner = true;
+            } else {
+                task = flight.task;
+                flight.joiners++;
+            }
+        }
+        if (joined != null && joined.length > 0) {
+            joined[0] = !owner;
+        }
+        if (owner) {
+            try {
+                task.run();
+            } finally {
+                synchronized (inFlight) {
+                    inFlight.remove(key);
+                }
+            }
+        }
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    public <T> T execute(@NonNull String key, @NonNull Callable<T> work) throws Exception {
+        return execute(key, work, null);
+    }
+
+    /**
+     * 相同 key 正在进行的调用上已加入的等待方数量，没有进行中的调用时为 0（供测试同步）
+     */
+    int joinedCount(@NonNull String key) {
+        synchronized (inFlight) {
+            Flight<?> flight = inFlight.get(key);
+            return flight == null ? 0 : flight.joiners;
+        }
+    }
+}
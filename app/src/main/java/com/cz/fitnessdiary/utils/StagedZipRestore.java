@@ -0,0 +1,518 @@
+package com.cz.fitnessdiary.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * 基于中央目录的 ZIP 备份分段恢复。
+ * 先读取归档末尾的中央目录（归档被截断时在改动任何数据之前就失败），
+ * 再按各条目的偏移随机读取并解压到暂存目录，逐条校验 CRC32、大小以及 checksums.json 中的 SHA-256。
+ * 条目之间互不依赖，可在多个线程上并行解压；每完成一条即写入恢复日志，
+ * 中断后以相同归档重新执行时，从第一条未完成的条目偏移处继续。
+ */
+public final class StagedZipRestore {
+
+    /** 备份时写入的校验清单：条目名 -> SHA-256 */
+    public static final String CHECKSUM_ENTRY = "checksums.json";
+
+    private static final String JOURNAL_FILE = "restore_journal.txt";
+    private static final String PART_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int CEN_SIGNATURE = 0x02014b50;
+    private static final int LOC_SIGNATURE = 0x04034b50;
+    private static final long PROGRESS_STEP = 512 * 1024;
+
+    public interface ProgressListener {
+        /**
+         * 恢复进度（可能在工作线程回调）
+         */
+        void onProgress(long processedBytes, long totalBytes);
+    }
+
+    /**
+     * 中央目录中的条目
+     */
+    public static final class Entry {
+        public final String name;
+        final int method;
+        final long crc;
+        final long compressedSize;
+        public final long size;
+        final long localHeaderOffset;
+
+        Entry(String name, int method, long crc, long compressedSize, long size, long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+
+    public static final class Result {
+        /** 条目名 -> 暂存文件 */
+        public final Map<String, File> files;
+        /** 因上次已完成而跳过的条目数 */
+        public final int resumedEntries;
+
+        Result(Map<String, File> files, int resumedEntries) {
+            this.files = files;
+            this.resumedEntries = resumedEntries;
+        }
+    }
+
+    private final FileChannel archive;
+    private final long archiveSize;
+    private final File stagingDir;
+    private final String sourceKey;
+
+    /**
+     * @param archive    可随机读取的归档
+     * @param stagingDir 暂存目录，保存解压结果与恢复日志
+     * @param sourceKey  归档标识（如 URI + 大小），与日志不一致时丢弃旧的暂存内容
+     */
+    public StagedZipRestore(FileChannel archive, File stagingDir, String sourceKey) throws IOException {
+        this.archive = archive;
+        this.archiveSize = archive.size();
+        this.stagingDir = stagingDir;
+        this.sourceKey = sourceKey.replace('\n', ' ');
+    }
+
+    /**
+     * 读取中央目录
+     */
+    public List<Entry> readCentralDirectory() throws IOException {
+        int tailLength = (int) Math.min(archiveSize, 22 + 0xFFFF);
+        if (tailLength < 22) {
+            throw new IOException("Archive too small");
+        }
+        ByteBuffer tail = read(archiveSize - tailLength, tailLength);
+        int eocd = -1;
+        for (int i = tailLength - 22; i >= 0; i--) {
+            if (tail.getInt(i) == EOCD_SIGNATURE) {
+                eocd = i;
+                break;
+            }
+        }
+        if (eocd < 0) {
+            throw new IOException("End of central directory not found, archive is truncated or not a ZIP");
+        }
+        int count = tail.getShort(eocd + 10) & 0xFFFF;
+        long cdSize = tail.getInt(eocd + 12) & 0xFFFFFFFFL;
+        long cdOffset = tail.getInt(eocd + 16) & 0xFFFFFFFFL;
+        if (cdOffset == 0xFFFFFFFFL || count == 0xFFFF) {
+            throw new IOException("ZIP64 archives are not supported");
+        }
+        if (cdOffset + cdSize > archiveSize) {
+            throw new IOException("Central directory out of range");
+        }
+
+        ByteBuffer cd = read(cdOffset, (int) cdSize);
+        List<Entry> entries = new ArrayList<>(count);
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+            if (pos + 46 > cdSize || cd.getInt(pos) != CEN_SIGNATURE) {
+                throw new IOException("Corrupted central directory");
+            }
+            int method = cd.getShort(pos + 10) & 0xFFFF;
+            long crc = cd.getInt(pos + 16) & 0xFFFFFFFFL;
+            long compressedSize = cd.getInt(pos + 20) & 0xFFFFFFFFL;
+            long size = cd.getInt(pos + 24) & 0xFFFFFFFFL;
+            int nameLength = cd.getShort(pos + 28) & 0xFFFF;
+            int extraLength = cd.getShort(pos + 30) & 0xFFFF;
+            int commentLength = cd.getShort(pos + 32) & 0xFFFF;
+            long localOffset = cd.getInt(pos + 42) & 0xFFFFFFFFL;
+            byte[] name = new byte[nameLength];
+            cd.position(pos + 46);
+            cd.get(name);
+            if (method != ZipEntry.STORED && method != ZipEntry.DEFLATED) {
+                throw new IOException("Unsupported compression method " + method);
+            }
+            if (localOffset + compressedSize > archiveSize) {
+                throw new IOException("Entry out of range, archive is truncated");
+            }
+            entries.add(new Entry(new String(name, StandardCharsets.UTF_8), method, crc, compressedSize, size,
+                    localOffset));
+            pos += 46 + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    /**
+     * 解压并校验条目到暂存目录
+     *
+     * 当前线程本身承担一路解压，其余各路运行在本次调用专用的临时线程池上，
+     * 不占用共享的磁盘 IO 线程，调用方即使运行在该线程池中也不会互相等待而卡住。
+     *
+     * @param entries     需要恢复的条目（不含 checksums.json，校验清单会自动读取）
+     * @param parallelism 并行任务数；不大于 1 时在当前线程串行执行
+     */
+    public Result extract(List<Entry> entries, int parallelism, ProgressListener listener)
+            throws IOException {
+        List<Entry> all = readCentralDirectory();
+        Map<String, Long> journal = openJournal();
+        Map<String, String> checksums = readChecksums(all);
+
+        long total = 0;
+        for (Entry entry : entries) {
+            total += entry.compressedSize;
+        }
+        Progress progress = new Progress(total, listener);
+
+        Map<String, File> files = new LinkedHashMap<>();
+        ConcurrentLinkedQueue<Entry> pending = new ConcurrentLinkedQueue<>();
+        int resumed = 0;
+        for (Entry entry : entries) {
+            File target = stagedFile(entry.name);
+            files.put(entry.name, target);
+            Long done = journal.get(entry.name);
+            if (done != null && done == entry.crc && target.length() == entry.size) {
+                resumed++;
+                progress.add(entry.compressedSize);
+            } else {
+                pending.add(entry);
+            }
+        }
+
+        try (Writer journalWriter = new OutputStreamWriter(
+                new FileOutputStream(new File(stagingDir, JOURNAL_FILE), true), StandardCharsets.UTF_8)) {
+            AtomicReference<IOException> failure = new AtomicReference<>();
+            Runnable worker = () -> {
+                byte[] in = new byte[BUFFER_SIZE];
+                byte[] out = new byte[BUFFER_SIZE];
+                Inflater inflater = new Inflater(true);
+                try {
+                    Entry entry;
+                    while (failure.get() == null && (entry = pending.poll()) != null) {
+                        extractEntry(entry, checksums.get(entry.name), in, out, inflater, progress);
+                        synchronized (journalWriter) {
+                            journalWriter.write(entry.name + '\t' + entry.crc + '\n');
+                            journalWriter.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    failure.compareAndSet(null, e);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, new IOException(e));
+                } finally {
+                    inflater.end();
+                }
+            };
+
+            int workers = Math.max(1, Math.min(parallelism, pending.size()));
+            ExecutorService pool = workers > 1 ? Executors.newFixedThreadPool(workers - 1, new ExtractThreadFactory())
+                    : null;
+            try {
+                for (int i = 1; i < workers; i++) {
+                    pool.execute(worker);
+                }
+            } catch (RejectedExecutionException e) {
+                // 已提交的工作线程看到失败标记后不再领取新条目
+                failure.compareAndSet(null, new IOException("Restore worker rejected", e));
+            }
+            try {
+                worker.run();
+            } finally {
+                if (pool != null) {
+                    joinWorkers(pool, failure);
+                }
+            }
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+        }
+        progress.finish();
+        return new Result(files, resumed);
+    }
+
+    /**
+     * 清除暂存目录（含恢复日志）
+     */
+    public static void clearStaging(File stagingDir) {
+        deleteRecursively(stagingDir);
+    }
+
+    /**
+     * 等待临时线程池中的解压任务全部退出，保证返回后不再有线程写入暂存目录
+     */
+    private static void joinWorkers(ExecutorService pool, AtomicReference<IOException> failure) {
+        pool.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+                failure.compareAndSet(null, new IOException("Restore interrupted", e));
+                pool.shutdownNow();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class ExtractThreadFactory implements ThreadFactory {
+        private final AtomicInteger index = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "restore-extract-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private void extractEntry(Entry entry, String expectedSha256, byte[] in, byte[] out, Inflater inflater,
+            Progress progress) throws IOException {
+        ByteBuffer header = read(entry.localHeaderOffset, 30);
+        if (header.getInt(0) != LOC_SIGNATURE) {
+            throw new IOException("Bad local header: " + entry.name);
+        }
+        long position = entry.localHeaderOffset + 30 + (header.getShort(26) & 0xFFFF) + (header.getShort(28) & 0xFFFF);
+        long remaining = entry.compressedSize;
+
+        File target = stagedFile(entry.name);
+        File part = new File(target.getPath() + PART_SUFFIX);
+        File parent = part.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        CRC32 crc = new CRC32();
+        MessageDigest sha256 = sha256();
+        long written = 0;
+        inflater.reset();
+        try (FileOutputStream os = new FileOutputStream(part)) {
+            while (remaining > 0) {
+                int length = (int) Math.min(in.length, remaining);
+                readFully(ByteBuffer.wrap(in, 0, length), position);
+                position += length;
+                remaining -= length;
+                progress.add(length);
+                if (entry.method == ZipEntry.STORED) {
+                    crc.update(in, 0, length);
+                    sha256.update(in, 0, length);
+                    os.write(in, 0, length);
+                    written += length;
+                    continue;
+                }
+                inflater.setInput(in, 0, length);
+                int produced;
+                while ((produced = inflate(inflater, out, entry.name)) > 0) {
+                    crc.update(out, 0, produced);
+                    sha256.update(out, 0, produced);
+                    os.write(out, 0, produced);
+                    written += produced;
+                }
+            }
+            if (entry.method == ZipEntry.DEFLATED) {
+                // 输入已全部送入，取出解压器中剩余的输出
+                int produced;
+                while (!inflater.finished() && (produced = inflate(inflater, out, entry.name)) > 0) {
+                    crc.update(out, 0, produced);
+                    sha256.update(out, 0, produced);
+                    os.write(out, 0, produced);
+                    written += produced;
+                }
+            }
+            os.getFD().sync();
+        }
+
+        if (written != entry.size || crc.getValue() != entry.crc) {
+            part.delete();
+            throw new IOException("CRC / size mismatch: " + entry.name);
+        }
+        if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(hex(sha256.digest()))) {
+            part.delete();
+            throw new IOException("Checksum mismatch: " + entry.name);
+        }
+        if (target.exists()) {
+            target.delete();
+        }
+        if (!part.renameTo(target)) {
+            throw new IOException("Cannot stage " + entry.name);
+        }
+    }
+
+    private static int inflate(Inflater inflater, byte[] out, String name) throws IOException {
+        try {
+            return inflater.inflate(out);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted entry: " + name, e);
+        }
+    }
+
+    private Map<String, String> readChecksums(List<Entry> all) throws IOException {
+        for (Entry entry : all) {
+            if (!CHECKSUM_ENTRY.equals(entry.name)) {
+                continue;
+            }
+            if (entry.size > BUFFER_SIZE) {
+                throw new IOException("Checksum manifest too large");
+            }
+            Inflater inflater = new Inflater(true);
+            try {
+                extractEntry(entry, null, new byte[BUFFER_SIZE], new byte[BUFFER_SIZE], inflater,
+                        new Progress(0, null));
+            } finally {
+                inflater.end();
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new FileInputStream(stagedFile(CHECKSUM_ENTRY)), StandardCharsets.UTF_8))) {
+                Map<String, String> map = new Gson().fromJson(reader,
+                        new TypeToken<Map<String, String>>() { }.getType());
+                return map == null ? new HashMap<>() : map;
+            } catch (JsonParseException e) {
+                throw new IOException("Invalid checksum manifest", e);
+            }
+        }
+        return new HashMap<>();
+    }
+
+    /**
+     * 读取恢复日志：条目名 -> CRC。日志来自其它归档时清空暂存目录重新开始
+     */
+    private Map<String, Long> openJournal() throws IOException {
+        Map<String, Long> done = new HashMap<>();
+        File journal = new File(stagingDir, JOURNAL_FILE);
+        boolean matches = false;
+        if (journal.isFile()) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(journal), StandardCharsets.UTF_8))) {
+                matches = sourceKey.equals(reader.readLine());
+                String line;
+                while (matches && (line = reader.readLine()) != null) {
+                    int tab = line.lastIndexOf('\t');
+                    if (tab <= 0) {
+                        continue;
+                    }
+                    try {
+                        done.put(line.substring(0, tab), Long.parseLong(line.substring(tab + 1)));
+                    } catch (NumberFormatException ignored) {
+                        // 中断时写了一半的行
+                    }
+                }
+            }
+        }
+        if (!matches) {
+            done.clear();
+            deleteRecursively(stagingDir);
+            stagingDir.mkdirs();
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(journal), StandardCharsets.UTF_8)) {
+                writer.write(sourceKey + '\n');
+            }
+        }
+        return done;
+    }
+
+    private File stagedFile(String name) {
+        return new File(stagingDir, "entries/" + name);
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(buffer, position);
+        buffer.flip();
+        return buffer;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = archive.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of archive");
+            }
+            position += read;
+        }
+    }
+
+    private static final class Progress {
+        private final long total;
+        private final ProgressListener listener;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong reported = new AtomicLong();
+
+        Progress(long total, ProgressListener listener) {
+            this.total = total;
+            this.listener = listener;
+        }
+
+        void add(long bytes) {
+            long now = processed.addAndGet(bytes);
+            long last = reported.get();
+            if (listener != null && now - last >= PROGRESS_STEP && reported.compareAndSet(last, now)) {
+                listener.onProgress(now, total);
+            }
+        }
+
+        void finish() {
+            if (listener != null) {
+                listener.onProgress(total, total);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
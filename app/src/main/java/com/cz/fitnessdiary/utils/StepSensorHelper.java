@@ -8,13 +8,17 @@ import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
 
 import com.cz.fitnessdiary.database.AppDatabase;
+import com.cz.fitnessdiary.database.dao.StepRecordDao;
 import com.cz.fitnessdiary.database.entity.StepRecord;
 
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Helper to read Android TYPE_STEP_COUNTER sensor.
  * Stores baseline offset in SharedPreferences to compute daily steps.
+ * Sensor events only update an in-memory count; step_record is written when the
+ * count has moved by {@link #FLUSH_STEP_DELTA} steps or {@link #FLUSH_INTERVAL_MS}
+ * has passed, on day rollover and on {@link #stop()}.
  */
 public class StepSensorHelper implements SensorEventListener {
 
@@ -22,10 +26,22 @@ public class StepSensorHelper implements SensorEventListener {
     private static final String KEY_BASELINE = "sensor_baseline";
     private static final String KEY_BASELINE_DATE = "baseline_date";
 
+    static final int FLUSH_STEP_DELTA = 100;
+    static final long FLUSH_INTERVAL_MS = 60_000L;
+
+    /** Single writer shared by all helper instances, so writes for the same day never interleave */
+    private static final ExecutorService WRITER = AppExecutors.get().newSerialDiskIO();
+
     private final Context context;
     private final SensorManager sensorManager;
     private final Sensor stepSensor;
     private boolean running;
+
+    // Pending state, touched only on the sensor callback thread (main) and in start/stop
+    private long pendingDate = -1;
+    private int pendingSteps;
+    private int flushedSteps = -1;
+    private long flushedAt;
     private StepUpdateCallback callback;
 
     public interface StepUpdateCallback {
@@ -56,6 +72,7 @@ public class StepSensorHelper implements SensorEventListener {
         if (!running) return;
         running = false;
         sensorManager.unregisterListener(this);
+        flush();
     }
 
     /**
@@ -91,32 +108,68 @@ public class StepSensorHelper implements SensorEventListener {
 
     @Override
     public void onSensorChanged(SensorEvent event) {
+        long today = DateUtils.getTodayStartTimestamp();
+        if (pendingDate != -1 && pendingDate != today) {
+            // Day rollover: close out yesterday before the baseline is reset
+            flush();
+            flushedSteps = -1;
+        }
         int todaySteps = resolveTodaySteps(event.values[0]);
+        pendingDate = today;
+        pendingSteps = todaySteps;
 
-        // Persist to DB every sensor update (throttled by SENSOR_DELAY_NORMAL)
-        Executors.newSingleThreadExecutor().execute(() -> {
-            try {
-                long today = DateUtils.getTodayStartTimestamp();
-                StepRecord existing = AppDatabase.getInstance(context).stepRecordDao().getByDateSync(today);
-                if (existing != null) {
-                    if (existing.getSource() == 0 || existing.getSource() == 2) {
-                        existing.setSteps(todaySteps);
-                        existing.setSource(0);
-                        existing.setCreateTime(System.currentTimeMillis());
-                        AppDatabase.getInstance(context).stepRecordDao().insertOrUpdate(existing);
-                    }
-                } else if (todaySteps > 0) {
-                    StepRecord record = new StepRecord(today, todaySteps, 0, System.currentTimeMillis());
-                    AppDatabase.getInstance(context).stepRecordDao().insertOrUpdate(record);
-                }
-            } catch (Exception ignored) {}
-        });
+        long now = System.currentTimeMillis();
+        if (shouldFlush(todaySteps, flushedSteps, now, flushedAt)) {
+            flush();
+        }
 
         if (callback != null) {
             callback.onStepsUpdated(todaySteps);
         }
     }
 
+    /**
+     * Whether the pending count should be written now. The first reading of a session is always
+     * written so the record exists; afterwards only on a large enough change or after the interval.
+     */
+    static boolean shouldFlush(int pendingSteps, int flushedSteps, long now, long flushedAt) {
+        if (pendingSteps == flushedSteps) {
+            return false;
+        }
+        return flushedSteps < 0
+                || Math.abs(pendingSteps - flushedSteps) >= FLUSH_STEP_DELTA
+                || now - flushedAt >= FLUSH_INTERVAL_MS;
+    }
+
+    private void flush() {
+        if (pendingDate == -1 || pendingSteps == flushedSteps) {
+            return;
+        }
+        final long date = pendingDate;
+        final int steps = pendingSteps;
+        flushedSteps = steps;
+        flushedAt = System.currentTimeMillis();
+        WRITER.execute(() -> writeSteps(date, steps));
+    }
+
+    private void writeSteps(long date, int steps) {
+        try {
+            StepRecordDao dao = AppDatabase.getInstance(context).stepRecordDao();
+            StepRecord existing = dao.getByDateSync(date);
+            if (existing != null) {
+                // Manual entries (source 1) are never overwritten by the sensor
+                if ((existing.getSource() == 0 || existing.getSource() == 2) && existing.getSteps() != steps) {
+                    existing.setSteps(steps);
+                    existing.setSource(0);
+                    existing.setCreateTime(System.currentTimeMillis());
+                    dao.insertOrUpdate(existing);
+                }
+            } else if (steps > 0) {
+                dao.insertOrUpdate(new StepRecord(date, steps, 0, System.currentTimeMillis()));
+            }
+        } catch (Exception ignored) {}
+    }
+
     @Override
     public void onAccuracyChanged(Sensor sensor, int accuracy) {}
 }
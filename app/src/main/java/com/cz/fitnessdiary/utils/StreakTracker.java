@@ -0,0 +1,194 @@
+package com.cz.fitnessdiary.utils;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.cz.fitnessdiary.database.ActiveDayLog;
+import com.cz.fitnessdiary.database.AppDatabase;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 训练连续天数
+ * 训练日集合以按天位图保存在 streak_state 中，并缓存当前连续段与历史最长；
+ * daily_rollup 的触发器把训练日的增减记入 active_day_change，读取时只应用这些增量，
+ * 没有变化时一次读取只是一次空表查询，不再逐天回溯打卡记录。
+ * 所有方法均为同步方法，需在后台线程调用。
+ * 加锁顺序固定为先数据库事务、后本对象，可在其他事务内调用而不会死锁
+ */
+public final class StreakTracker {
+
+    private static volatile StreakTracker instance;
+
+    private final AppDatabase database;
+
+    private volatile DayBitmap days;
+    private int best;
+    /** 最后一个训练日（epoch day）及截至该日的连续天数 */
+    private long latestDay;
+    private int latestRun;
+    private int activeDays;
+
+    private StreakTracker(Context context) {
+        database = AppDatabase.getInstance(context);
+    }
+
+    public static StreakTracker get(Context context) {
+        if (instance == null) {
+            synchronized (StreakTracker.class) {
+                if (instance == null) {
+                    instance = new StreakTracker(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 截至今天的连续训练天数
+     *
+     * @param allowTodayPending 为 true 时今天尚未训练不算中断，返回截至昨天的连续天数
+     */
+    public int getCurrentStreak(boolean allowTodayPending) {
+        refresh();
+        long today = LocalDate.now().toEpochDay();
+        synchronized (this) {
+            if (latestDay == today || (allowTodayPending && latestDay == today - 1)) {
+                return latestRun;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * 历史最长连续训练天数
+     */
+    public int getBestStreak() {
+        refresh();
+        synchronized (this) {
+            return best;
+        }
+    }
+
+    /**
+     * 累计训练天数
+     */
+    public int getActiveDayCount() {
+        refresh();
+        synchronized (this) {
+            return activeDays;
+        }
+    }
+
+    private void refresh() {
+        SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+        if (days != null && !hasPendingChanges(db)) {
+            return;
+        }
+        database.runInTransaction(() -> {
+            synchronized (this) {
+                if (days == null && !loadState(db)) {
+                    rebuild(db);
+                }
+                applyPendingChanges(db);
+            }
+        });
+    }
+
+    private static boolean hasPendingChanges(SupportSQLiteDatabase db) {
+        try (Cursor cursor = db.query("SELECT 1 FROM " + ActiveDayLog.CHANGE_TABLE + " LIMIT 1")) {
+            return cursor.moveToFirst();
+        }
+    }
+
+    private boolean loadState(SupportSQLiteDatabase db) {
+        try (Cursor cursor = db.query("SELECT bitmap, best, latest_day, latest_run, active_days FROM "
+                + ActiveDayLog.STATE_TABLE + " WHERE id = 1")) {
+            if (!cursor.moveToFirst()) {
+                return false;
+            }
+            DayBitmap decoded = DayBitmap.decode(cursor.getString(0));
+            if (decoded == null) {
+                return false;
+            }
+            days = decoded;
+            best = cursor.getInt(1);
+            latestDay = cursor.getLong(2);
+            latestRun = cursor.getInt(3);
+            activeDays = cursor.getInt(4);
+            return true;
+        }
+    }
+
+    /**
+     * 从 daily_rollup 全量建立位图，之前的变化日志已包含在内，一并清空
+     */
+    private void rebuild(SupportSQLiteDatabase db) {
+        days = new DayBitmap();
+        List<Long> dates = database.dailyRollupDao().getTrainingDatesSync();
+        if (dates != null) {
+            for (Long date : dates) {
+                days.set(toEpochDay(date), true);
+            }
+        }
+        activeDays = days.cardinality();
+        best = days.longestRun();
+        updateLatest();
+        db.execSQL("DELETE FROM " + ActiveDayLog.CHANGE_TABLE);
+        saveState(db);
+    }
+
+    private void applyPendingChanges(SupportSQLiteDatabase db) {
+        boolean changed = false;
+        boolean removed = false;
+        // 同一天可能有多条记录，按写入顺序应用，以最后一条为准
+        try (Cursor cursor = db.query("SELECT date, active FROM " + ActiveDayLog.CHANGE_TABLE
+                + " ORDER BY rowid")) {
+            while (cursor.moveToNext()) {
+                long day = toEpochDay(cursor.getLong(0));
+                boolean active = cursor.getInt(1) != 0;
+                if (!days.set(day, active)) {
+                    continue;
+                }
+                changed = true;
+                if (active) {
+                    activeDays++;
+                    best = Math.max(best, days.runContaining(day));
+                } else {
+                    activeDays--;
+                    removed = true;
+                }
+            }
+        }
+        db.execSQL("DELETE FROM " + ActiveDayLog.CHANGE_TABLE);
+        if (!changed) {
+            return;
+        }
+        if (removed) {
+            // 删除可能拆断最长段，只在这种少见情况下整体重算
+            best = days.longestRun();
+        }
+        updateLatest();
+        saveState(db);
+    }
+
+    private void updateLatest() {
+        latestDay = days.last();
+        latestRun = latestDay == Long.MIN_VALUE ? 0 : days.runEndingAt(latestDay);
+    }
+
+    private void saveState(SupportSQLiteDatabase db) {
+        db.execSQL("INSERT OR REPLACE INTO " + ActiveDayLog.STATE_TABLE
+                + " (id, bitmap, best, latest_day, latest_run, active_days) VALUES (1, ?, ?, ?, ?, ?)",
+                new Object[] { days.encode(), best, latestDay, latestRun, activeDays });
+    }
+
+    private static long toEpochDay(long dayStart) {
+        return Instant.ofEpochMilli(dayStart).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+}
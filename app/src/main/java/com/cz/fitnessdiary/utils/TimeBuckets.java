@@ -0,0 +1,286 @@
+package com.cz.fitnessdiary.utils;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 时间分桶引擎
+ * 把 [start, end) 按日 / 周 / 月切成连续的桶，边界按本地日历逐个推进（大小月、夏令时都准确），
+ * 区间可以是一周、一个月、一个季度或一整年。
+ * 数据只需按时间戳遍历一次，累加进 {@link Series} 的基本类型数组，即可得到整段区间的序列。
+ * 实例不可变，可在线程间共享；Series 不是线程安全的，一次统计用一个。
+ */
+public final class TimeBuckets {
+
+    public enum Unit {
+        DAY, WEEK, MONTH
+    }
+
+    private final Unit unit;
+    /** size() + 1 个边界，第 i 个桶为 [bounds[i], bounds[i + 1]) */
+    private final long[] bounds;
+
+    private TimeBuckets(Unit unit, long[] bounds) {
+        this.unit = unit;
+        this.bounds = bounds;
+    }
+
+    /**
+     * 覆盖 [start, end) 的分桶；start 向前对齐到所在桶的起点（当天 0 点 / 周一 / 1 号）
+     */
+    public static TimeBuckets of(long start, long end, Unit unit) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(start);
+        truncate(cal, unit);
+        long[] bounds = new long[32];
+        int n = 0;
+        bounds[n++] = cal.getTimeInMillis();
+        while (bounds[n - 1] < end || n == 1) {
+            advance(cal, unit);
+            if (n == bounds.length) {
+                bounds = Arrays.copyOf(bounds, n * 2);
+            }
+            bounds[n++] = cal.getTimeInMillis();
+        }
+        return new TimeBuckets(unit, Arrays.copyOf(bounds, n));
+    }
+
+    /**
+     * 从 start 所在桶开始的连续 count 个桶（如选中周的 7 天、选中年的 12 个月）
+     */
+    public static TimeBuckets ofCount(long start, int count, Unit unit) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(start);
+        truncate(cal, unit);
+        long[] bounds = new long[Math.max(1, count) + 1];
+        bounds[0] = cal.getTimeInMillis();
+        for (int i = 1; i < bounds.length; i++) {
+            advance(cal, unit);
+            bounds[i] = cal.getTimeInMillis();
+        }
+        return new TimeBuckets(unit, bounds);
+    }
+
+    /**
+     * timestamp 所在自然周的 7 天，按天分桶。
+     * 一周的第一天取本地日历设置（如德国为周一、美国为周日），与固定从周一开始的 {@link Unit#WEEK} 不同
+     */
+    public static TimeBuckets daysOfWeek(long timestamp) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(timestamp);
+        truncate(cal, Unit.DAY);
+        int offset = (cal.get(Calendar.DAY_OF_WEEK) - cal.getFirstDayOfWeek() + 7) % 7;
+        cal.add(Calendar.DAY_OF_MONTH, -offset);
+        return ofCount(cal.getTimeInMillis(), 7, Unit.DAY);
+    }
+
+    /**
+     * 截至今天（含）的最近 count 天，按天分桶
+     */
+    public static TimeBuckets lastDays(int count) {
+        Calendar cal = Calendar.getInstance();
+        truncate(cal, Unit.DAY);
+        cal.add(Calendar.DAY_OF_MONTH, 1);
+        long end = cal.getTimeInMillis();
+        cal.add(Calendar.DAY_OF_MONTH, -Math.max(1, count));
+        return of(cal.getTimeInMillis(), end, Unit.DAY);
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    public int size() {
+        return bounds.length - 1;
+    }
+
+    public long getStart() {
+        return bounds[0];
+    }
+
+    public long getEnd() {
+        return bounds[bounds.length - 1];
+    }
+
+    public long startOf(int index) {
+        return bounds[index];
+    }
+
+    public long endOf(int index) {
+        return bounds[index + 1];
+    }
+
+    /**
+     * 时间戳所在桶的下标，不在区间内返回 -1
+     */
+    public int indexOf(long timestamp) {
+        if (timestamp < bounds[0] || timestamp >= bounds[bounds.length - 1]) {
+            return -1;
+        }
+        int found = Arrays.binarySearch(bounds, timestamp);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    /**
+     * 各桶起点格式化后的标签（如 "M/d"）
+     */
+    public List<String> labels(String pattern) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.getDefault());
+        List<String> labels = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            labels.add(format.format(new Date(bounds[i])));
+        }
+        return labels;
+    }
+
+    public Series newSeries() {
+        return new Series(this);
+    }
+
+    private static void truncate(Calendar cal, Unit unit) {
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+        if (unit == Unit.WEEK) {
+            // 与 DateUtils.getThisWeekDates 一致，周一为一周的第一天
+            int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
+            cal.add(Calendar.DAY_OF_MONTH, dayOfWeek == Calendar.SUNDAY ? -6 : Calendar.MONDAY - dayOfWeek);
+        } else if (unit == Unit.MONTH) {
+            cal.set(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    private static void advance(Calendar cal, Unit unit) {
+        switch (unit) {
+            case WEEK:
+                cal.add(Calendar.DAY_OF_MONTH, 7);
+                break;
+            case MONTH:
+                cal.add(Calendar.MONTH, 1);
+                break;
+            default:
+                cal.add(Calendar.DAY_OF_MONTH, 1);
+                break;
+        }
+    }
+
+    /**
+     * 一条按桶累加的序列：每个桶记录数值之和与样本数
+     * 输入按时间升序时定位为均摊 O(1)，乱序时退化为二分查找
+     */
+    public static final class Series {
+        private final TimeBuckets buckets;
+        private final long[] sums;
+        private final int[] counts;
+        private int cursor;
+
+        private Series(TimeBuckets buckets) {
+            this.buckets = buckets;
+            this.sums = new long[buckets.size()];
+            this.counts = new int[buckets.size()];
+        }
+
+        /**
+         * 累加一个样本，区间外的时间戳被忽略
+         *
+         * @return 所在桶下标，区间外为 -1
+         */
+        public int add(long timestamp, long value) {
+            int index = locate(timestamp);
+            if (index >= 0) {
+                sums[index] += value;
+                counts[index]++;
+            }
+            return index;
+        }
+
+        public long sum(int index) {
+            return sums[index];
+        }
+
+        public int count(int index) {
+            return counts[index];
+        }
+
+        public int size() {
+            return sums.length;
+        }
+
+        public long total() {
+            long total = 0;
+            for (long sum : sums) {
+                total += sum;
+            }
+            return total;
+        }
+
+        public int totalCount() {
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * 数值之和不为 0 的桶数（如“有记录的天数”）
+         */
+        public int nonZeroBuckets() {
+            int n = 0;
+            for (long sum : sums) {
+                if (sum != 0) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        /**
+         * 非零桶的平均值，没有数据时为 0
+         */
+        public double averageOfNonZero() {
+            int n = nonZeroBuckets();
+            return n > 0 ? (double) total() / n : 0;
+        }
+
+        public List<Integer> toIntList() {
+            List<Integer> list = new ArrayList<>(sums.length);
+            for (long sum : sums) {
+                list.add((int) sum);
+            }
+            return list;
+        }
+
+        /**
+         * 每个桶的和除以 divisor，例如秒转小时
+         */
+        public List<Float> toFloatList(float divisor) {
+            List<Float> list = new ArrayList<>(sums.length);
+            for (long sum : sums) {
+                list.add(sum / divisor);
+            }
+            return list;
+        }
+
+        private int locate(long timestamp) {
+            long[] bounds = buckets.bounds;
+            if (timestamp >= bounds[cursor] && timestamp < bounds[cursor + 1]) {
+                return cursor;
+            }
+            if (cursor + 2 < bounds.length && timestamp >= bounds[cursor + 1] && timestamp < bounds[cursor + 2]) {
+                return ++cursor;
+            }
+            int index = buckets.indexOf(timestamp);
+            if (index >= 0) {
+                cursor = index;
+            }
+            return index;
+        }
+    }
+}
@@ -48,7 +48,7 @@ public class UpdateManager {
             Toast.makeText(context, "正在检查更新...", Toast.LENGTH_SHORT).show();
         }
 
-        OkHttpClient client = new OkHttpClient();
+        OkHttpClient client = AppHttp.get();
         FormBody body = new FormBody.Builder()
                 .add("_api_key", apiKey)
                 .add("appKey", appKey)
@@ -5,11 +5,9 @@ import android.content.Context;
 import com.cz.fitnessdiary.database.AppDatabase;
 import com.cz.fitnessdiary.database.entity.BodyMeasurement;
 import com.cz.fitnessdiary.database.entity.BowelMovement;
-import com.cz.fitnessdiary.database.entity.FoodRecord;
-import com.cz.fitnessdiary.database.entity.SleepRecord;
 import com.cz.fitnessdiary.database.entity.User;
+import com.cz.fitnessdiary.repository.TimeSeriesRepository;
 
-import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
 
@@ -19,44 +17,17 @@ import java.util.Locale;
 public class WeeklyReportHelper {
 
     public static String getSummary(Context context) {
-        long now = System.currentTimeMillis();
-        long weekStart = getWeekStart(now);
-        long weekEnd = weekStart + 7L * 86400000L;
-
-        AppDatabase db = AppDatabase.getInstance(context);
+        TimeSeriesRepository.DailySeries series = loadThisWeek(context);
 
         // Training
-        List<TrainingRecordUtils.Entry> entries = TrainingRecordUtils.getCompletedEntries(
-                db, weekStart, weekEnd);
-        int trainingDays = 0;
-        java.util.Set<Long> trainingDates = new java.util.HashSet<>();
-        for (TrainingRecordUtils.Entry entry : entries) {
-            trainingDates.add(DateUtils.getDayStartTimestamp(entry.date));
-        }
-        trainingDays = trainingDates.size();
+        int trainingDays = series.getTrainingDays();
 
         // Diet
-        List<FoodRecord> foods = db.foodRecordDao().getAllFoodRecordsSync();
-        int totalCal = 0;
-        int foodDays = 0;
-        for (FoodRecord f : foods) {
-            if (f.getRecordDate() >= weekStart && f.getRecordDate() < weekEnd) {
-                totalCal += f.getCalories();
-                foodDays++;
-            }
-        }
-        int avgCal = foodDays > 0 ? totalCal / Math.max(1, trainingDays) : 0;
+        int avgCal = (int) series.calories.averageOfNonZero();
 
         // Sleep
-        float avgSleep = 0;
-        List<SleepRecord> sleeps = db.sleepRecordDao().getSleepRecordsByDateRangeSync(weekStart, weekEnd);
-        if (sleeps != null && !sleeps.isEmpty()) {
-            float sum = 0;
-            for (SleepRecord s : sleeps) {
-                sum += s.getDuration() / 3600f;
-            }
-            avgSleep = sum / sleeps.size();
-        }
+        long sleepCount = series.sleepCount.total();
+        float avgSleep = sleepCount > 0 ? series.sleepSeconds.total() / 3600f / sleepCount : 0;
 
         // Build summary line
         StringBuilder sb = new StringBuilder();
@@ -69,9 +40,9 @@ public class WeeklyReportHelper {
     }
 
     public static String buildAIPrompt(Context context) {
-        long now = System.currentTimeMillis();
-        long weekStart = getWeekStart(now);
-        long weekEnd = weekStart + 7L * 86400000L;
+        TimeBuckets week = thisWeek();
+        long weekStart = week.getStart();
+        long weekEnd = week.getEnd();
 
         AppDatabase db = AppDatabase.getInstance(context);
         User user = db.userDao().getUserSync();
@@ -86,41 +57,25 @@ public class WeeklyReportHelper {
             sb.append("年龄：").append(user.getAge()).append(" 性别：").append(user.getGender() == 1 ? "男" : "女").append("\n\n");
         }
 
+        TimeSeriesRepository.DailySeries series = new TimeSeriesRepository(context).loadDailySeries(week);
+
         // Training
-        List<TrainingRecordUtils.Entry> entries = TrainingRecordUtils.getCompletedEntries(
-                db, weekStart, weekEnd);
-        java.util.Set<Long> trainingDates = new java.util.HashSet<>();
-        for (TrainingRecordUtils.Entry entry : entries) {
-            trainingDates.add(DateUtils.getDayStartTimestamp(entry.date));
-        }
-        int trainingDays = trainingDates.size();
-        int totalWorkouts = entries.size();
+        int trainingDays = series.getTrainingDays();
+        int totalWorkouts = (int) series.workouts.total();
         sb.append("本周训练：").append(trainingDays).append("天，完成").append(totalWorkouts).append("项\n");
 
         // Diet
-        List<FoodRecord> foods = db.foodRecordDao().getAllFoodRecordsSync();
-        int totalCal = 0, foodRecords = 0;
-        for (FoodRecord f : foods) {
-            if (f.getRecordDate() >= weekStart && f.getRecordDate() < weekEnd) {
-                totalCal += f.getCalories();
-                foodRecords++;
-            }
-        }
         int targetCal = user != null && user.getDailyCalorieTarget() > 0 ? user.getDailyCalorieTarget() : 2000;
-        sb.append("本周饮食：").append(foodRecords).append("条记录，日均约")
-                .append(trainingDays > 0 ? totalCal / trainingDays : 0).append("千卡（目标").append(targetCal).append("）\n");
+        sb.append("本周饮食：").append(series.foodCount.total()).append("条记录，日均约")
+                .append((int) series.calories.averageOfNonZero()).append("千卡（目标").append(targetCal).append("）\n");
 
         // Sleep
-        List<SleepRecord> sleeps = db.sleepRecordDao().getSleepRecordsByDateRangeSync(weekStart, weekEnd);
-        if (sleeps != null && !sleeps.isEmpty()) {
-            float sum = 0;
-            float sumQ = 0;
-            for (SleepRecord s : sleeps) {
-                sum += s.getDuration() / 3600f;
-                sumQ += s.getQuality();
-            }
-            sb.append("本周睡眠：平均").append(String.format(Locale.getDefault(), "%.1f", sum / sleeps.size()))
-                    .append("h，质量").append(String.format(Locale.getDefault(), "%.1f", sumQ / sleeps.size())).append("/5\n");
+        long sleepCount = series.sleepCount.total();
+        if (sleepCount > 0) {
+            sb.append("本周睡眠：平均").append(String.format(Locale.getDefault(), "%.1f",
+                            series.sleepSeconds.total() / 3600f / sleepCount))
+                    .append("h，质量").append(String.format(Locale.getDefault(), "%.1f",
+                            (float) series.sleepQualitySum.total() / sleepCount)).append("/5\n");
         }
 
         // Weight
@@ -149,15 +104,15 @@ public class WeeklyReportHelper {
         return sb.toString();
     }
 
-    private static long getWeekStart(long timestamp) {
-        Calendar cal = Calendar.getInstance();
-        cal.setTimeInMillis(timestamp);
-        cal.set(Calendar.DAY_OF_WEEK, cal.getFirstDayOfWeek());
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE, 0);
-        cal.set(Calendar.SECOND, 0);
-        cal.set(Calendar.MILLISECOND, 0);
-        return cal.getTimeInMillis();
+    /**
+     * 本周按天分桶，一周的第一天沿用本地日历设置
+     */
+    private static TimeBuckets thisWeek() {
+        return TimeBuckets.daysOfWeek(System.currentTimeMillis());
+    }
+
+    private static TimeSeriesRepository.DailySeries loadThisWeek(Context context) {
+        return new TimeSeriesRepository(context).loadDailySeries(thisWeek());
     }
 
 }
@@ -6,6 +6,7 @@ import com.cz.fitnessdiary.model.ChatMessage;
 import com.cz.fitnessdiary.repository.ChatRepository;
 import com.cz.fitnessdiary.repository.UserRepository;
 import com.cz.fitnessdiary.service.AICallback;
+import com.cz.fitnessdiary.service.ChatContextBuilder;
 import com.cz.fitnessdiary.service.FoodActionParser;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -19,10 +20,25 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+import androidx.paging.PagingLiveData;
+
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+import kotlin.coroutines.CoroutineContext;
+import kotlinx.coroutines.CompletableJob;
+import kotlinx.coroutines.CoroutineScope;
+import kotlinx.coroutines.CoroutineScopeKt;
+import kotlinx.coroutines.Job;
+import kotlinx.coroutines.JobKt;
 
 /**
  * AI 聊天 ViewModel
@@ -30,9 +46,11 @@ import java.util.stream.Collectors;
 public class AIChatViewModel extends AndroidViewModel {
     private final ChatRepository repository;
     private final UserRepository userRepository;
+    private final ChatContextBuilder contextBuilder = new ChatContextBuilder(ChatContextBuilder.DEFAULT_BUDGET_TOKENS);
 
-    private final MediatorLiveData<List<ChatMessage>> messages = new MediatorLiveData<>();
     private final MutableLiveData<Long> currentSessionId = new MutableLiveData<>(1L);
+    private final LiveData<PagingData<ChatMessage>> messagePages;
+    private final MediatorLiveData<ChatMessage> pendingReply = new MediatorLiveData<>();
     private final LiveData<List<ChatSessionEntity>> allSessions;
 
     private final MutableLiveData<Boolean> isLoading = new MutableLiveData<>(false);
@@ -40,8 +58,12 @@ public class AIChatViewModel extends AndroidViewModel {
     private final MutableLiveData<Boolean> isSearchEnabled = new MutableLiveData<>(false);
     private final MutableLiveData<String> attachedFileUri = new MutableLiveData<>(null);
     private final MutableLiveData<String> currentThinkingModel = new MutableLiveData<>(null);
+    private final MutableLiveData<ChatMessage> streamingUpdate = new MutableLiveData<>();
 
-    private LiveData<List<ChatMessageEntity>> currentDbSource = null;
+    // 正在流式生成、尚未落库的回复（仅主线程读写）
+    private ChatMessage streamingMessage;
+    // 当前会话分页缓存所在的作用域，切换会话时取消
+    private CompletableJob sessionPagingJob;
 
     public AIChatViewModel(@NonNull Application application) {
         super(application);
@@ -49,53 +71,85 @@ public class AIChatViewModel extends AndroidViewModel {
         userRepository = new UserRepository(application);
         allSessions = repository.getAllSessionsLive();
 
-        // 动态根据当前会话 ID 加载消息
-        messages.addSource(currentSessionId, sessionId -> {
-            if (currentDbSource != null) {
-                messages.removeSource(currentDbSource);
-            }
-            currentDbSource = repository.getMessagesBySessionLive(sessionId);
-            messages.addSource(currentDbSource,
-                    entities -> updateMessagesList(entities, isLoading.getValue(), currentThinkingModel.getValue()));
-        });
+        // 动态根据当前会话 ID 分页加载消息（最新的在前）
+        messagePages = Transformations.switchMap(currentSessionId, sessionId -> PagingLiveData.cachedIn(
+                Transformations.map(repository.getMessagePages(sessionId),
+                        pagingData -> PagingDataTransforms.map(pagingData, AppExecutors.get().compute(),
+                                e -> new ChatMessage(e.getId(), e.getContent(), e.getReasoning(), e.isUser(),
+                                        e.getTimestamp(), e.getMediaPath()))),
+                newSessionScope()));
 
-        messages.addSource(isLoading, loading -> {
-            if (currentDbSource != null) {
-                updateMessagesList(currentDbSource.getValue(), loading, currentThinkingModel.getValue());
-            }
-        });
+        pendingReply.addSource(isLoading, loading -> updatePendingReply());
+        pendingReply.addSource(currentThinkingModel, model -> updatePendingReply());
+    }
 
-        messages.addSource(currentThinkingModel, model -> {
-            if (currentDbSource != null) {
-                updateMessagesList(currentDbSource.getValue(), isLoading.getValue(), model);
-            }
-        });
+    /**
+     * 为新会话的分页缓存创建子作用域，并取消上一个会话的缓存，避免切换会话时缓存流越积越多
+     */
+    private CoroutineScope newSessionScope() {
+        if (sessionPagingJob != null) {
+            sessionPagingJob.cancel((CancellationException) null);
+        }
+        CoroutineContext parent = ViewModelKt.getViewModelScope(this).getCoroutineContext();
+        sessionPagingJob = JobKt.Job(parent.get(Job.Key));
+        return CoroutineScopeKt.CoroutineScope(parent.plus(sessionPagingJob));
     }
 
     private long thinkingStartTime = 0;
 
-    private void updateMessagesList(List<ChatMessageEntity> entities, Boolean loading, String modelName) {
-        List<ChatMessage> list = new ArrayList<>();
-        if (entities != null) {
-            list = entities.stream()
-                    .map(e -> new ChatMessage(e.getId(), e.getContent(), e.getReasoning(), e.isUser(),
-                            e.getTimestamp(), e.getMediaPath()))
-                    .collect(Collectors.toList());
-        }
-
-        if (Boolean.TRUE.equals(loading)) {
+    /**
+     * 尚未落库的回复：等待时为"思考中"占位，开始输出后为生成中的消息，结束后为空
+     */
+    private void updatePendingReply() {
+        ChatMessage pending = null;
+        if (Boolean.TRUE.equals(isLoading.getValue())) {
             if (thinkingStartTime == 0)
                 thinkingStartTime = System.currentTimeMillis();
-            String msg = (modelName != null ? modelName : "AI") + "_THINKING";
-            list.add(new ChatMessage(-1, msg, null, false, thinkingStartTime));
+            if (streamingMessage != null) {
+                pending = copyStreamingMessage(streamingMessage);
+            } else {
+                String modelName = currentThinkingModel.getValue();
+                String msg = (modelName != null ? modelName : "AI") + "_THINKING";
+                pending = new ChatMessage(-1, msg, null, false, thinkingStartTime);
+            }
         } else {
             thinkingStartTime = 0;
         }
-        messages.setValue(list);
+        pendingReply.setValue(pending);
+    }
+
+    /**
+     * 当前会话的消息（分页，最新的在前）
+     */
+    public LiveData<PagingData<ChatMessage>> getMessagePages() {
+        return messagePages;
+    }
+
+    /**
+     * 列表底部的待回复项，为 null 时不显示
+     */
+    public LiveData<ChatMessage> getPendingReply() {
+        return pendingReply;
     }
 
-    public LiveData<List<ChatMessage>> getMessages() {
-        return messages;
+    /**
+     * 读取当前会话全部消息 ID（多选"全选"用），在主线程回调
+     */
+    public void loadCurrentMessageIds(Consumer<List<Long>> callback) {
+        Long sessionId = currentSessionId.getValue();
+        long id = sessionId == null ? 1L : sessionId;
+        AppExecutors.get().diskIO().execute(() -> {
+            List<Long> ids = repository.getMessageIdsBySessionSync(id);
+            AppExecutors.get().mainThread().execute(
+                    () -> callback.accept(ids == null ? new ArrayList<>() : ids));
+        });
+    }
+
+    /**
+     * 流式回复的增量快照，界面据此只刷新正在生成的那一条消息
+     */
+    public LiveData<ChatMessage> getStreamingUpdate() {
+        return streamingUpdate;
     }
 
     public LiveData<List<ChatSessionEntity>> getAllSessions() {
@@ -208,7 +262,7 @@ public class AIChatViewModel extends AndroidViewModel {
         final long finalSessionId = sessionId;
 
         // 如果是新对话，更新标题；如果对话不存在，则在此处主动建立该会话，保障一致性
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             try {
                 ChatSessionEntity session = repository.sessionDao.getSessionById(finalSessionId);
                 if (session == null) {
@@ -224,53 +278,118 @@ public class AIChatViewModel extends AndroidViewModel {
             } catch (Exception e) {
                 e.printStackTrace();
             }
-        }).start();
+        });
 
         // 1. 添加用户消息 (包含媒体路径)
-        repository.insert(
-                new ChatMessageEntity(content, null, true, System.currentTimeMillis(), finalSessionId, mediaPath));
+        long sentAt = System.currentTimeMillis();
+        repository.insert(new ChatMessageEntity(content, null, true, sentAt, finalSessionId, mediaPath));
 
         // 2. 获取回复
         isLoading.setValue(true);
         boolean search = Boolean.TRUE.equals(isSearchEnabled.getValue());
+        boolean thinking = Boolean.TRUE.equals(isDeepThinking.getValue());
 
-        new Thread(() -> {
+        AppExecutors.get().network().execute(() -> {
+            // 智能调度：图片走 MiMo（不携带历史），纯文本走 DeepSeek-V4
+            if (image != null) {
+                sendToMiMo(content, image);
+                return;
+            }
             User user = userRepository.getUserSync();
-            boolean imageRequest = image != null;
-            String searchContext = !imageRequest && search ? com.cz.fitnessdiary.service.WebSearchService.searchSummary(content) : "";
-            String systemInstruction = imageRequest ? "" : buildSystemInstruction(user, search, searchContext);
-
-            // 加载完整对话历史，不因 token 节省而丢失上下文
-            List<ChatMessageEntity> allMessages = repository.getMessagesBySessionSync(finalSessionId);
-            List<ChatMessageEntity> history = allMessages == null
-                    ? new ArrayList<>() : new ArrayList<>(allMessages);
+            String searchContext = search ? com.cz.fitnessdiary.service.WebSearchService.searchSummary(content) : "";
+            // 检索摘要每轮不同，放在本轮提问里，系统提示保持稳定以命中前缀缓存
+            String question = search ? buildSearchPreamble(searchContext) + content : content;
+            String systemInstruction = buildSystemInstruction(user);
+
+            ChatContextBuilder.Context context = buildContext(finalSessionId, sentAt, systemInstruction, question);
+            if (context.summary != null) {
+                systemInstruction += "\n【较早对话摘要】\n" + context.summary;
+            }
+            sendToDeepSeek(question, systemInstruction, thinking, context.history);
+        });
+    }
 
-            // 智能调度：图片走 MiMo，纯文本走 DeepSeek-V4
-            if (image != null) {
-                sendToMiMo(content, systemInstruction, image, history);
-            } else if (Boolean.TRUE.equals(isDeepThinking.getValue())) {
-                sendToDeepSeek(content, systemInstruction, true, history);
-            } else {
-                sendToDeepSeek(content, systemInstruction, false, history);
+    /**
+     * 按 token 预算组织历史：摘要之后的消息原文发送，超出预算时把较早的消息折叠进会话摘要并保存
+     */
+    private ChatContextBuilder.Context buildContext(long sessionId, long sentAt, String systemInstruction,
+            String question) {
+        ChatSessionEntity session = repository.sessionDao.getSessionById(sessionId);
+        String summary = session != null ? session.getContextSummary() : null;
+        long summaryUntil = session != null ? session.getSummaryUntil() : 0L;
+        long summaryUntilId = session != null ? session.getSummaryUntilId() : 0L;
+
+        List<ChatMessageEntity> messages = new ArrayList<>();
+        List<ChatMessageEntity> stored = repository.getMessagesAfterSync(sessionId, summaryUntil, summaryUntilId);
+        if (stored != null) {
+            for (ChatMessageEntity message : stored) {
+                // 本轮提问单独发送；插入是异步的，这里可能已经读到它
+                if (!(message.isUser() && message.getTimestamp() == sentAt)) {
+                    messages.add(message);
+                }
             }
-        }).start();
+        }
+        int fixedTokens = ChatContextBuilder.estimateTokens(systemInstruction)
+                + ChatContextBuilder.estimateTokens(question);
+        ChatContextBuilder.Context context = contextBuilder.build(summary, summaryUntil, summaryUntilId, messages,
+                fixedTokens);
+        if (context.folded && session != null) {
+            repository.saveContextSummarySync(sessionId, context.summary, context.summaryUntil,
+                    context.summaryUntilId);
+            compactSummary(sessionId, context.summary, context.summaryUntil, context.summaryUntilId);
+        }
+        return context;
+    }
+
+    /**
+     * 本地摘要只是逐条截断的要点，长度超过阈值后在后台请 DeepSeek 压缩成连贯的摘要；失败时保留本地摘要。
+     * 短摘要直接使用，不为每次折叠多发一次请求
+     */
+    private void compactSummary(long sessionId, String summary, long summaryUntil, long summaryUntilId) {
+        if (!ChatContextBuilder.needsCompaction(summary)) {
+            return;
+        }
+        com.cz.fitnessdiary.service.DeepSeekService.sendMessage(summary,
+                "把下面的健身私教对话要点压缩成不超过300字的中文摘要，保留用户的身体数据、目标、饮食与训练偏好、"
+                        + "已给出的建议和未解决的问题；只输出摘要正文。",
+                new AICallback() {
+                    @Override
+                    public void onSuccess(String response, String reasoning) {
+                        String compact = response == null ? "" : response.trim();
+                        if (!compact.isEmpty()) {
+                            repository.replaceContextSummary(sessionId, compact, summaryUntil, summaryUntilId);
+                        }
+                    }
+
+                    @Override
+                    public void onPartialUpdate(String content, String reasoning) {
+                    }
+
+                    @Override
+                    public void onError(String error) {
+                    }
+                });
+    }
+
+    private String buildSearchPreamble(String searchContext) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("【联网搜索模式已开启】你已拿到实时检索摘要，请优先基于摘要回答，并在结尾用“来源：”给出 1-2 个链接。\n");
+        if (searchContext != null && !searchContext.trim().isEmpty()) {
+            sb.append("【实时检索摘要】\n").append(searchContext).append("\n");
+        } else {
+            sb.append("【实时检索摘要】未获取到有效结果。请明确说明“未检索到可靠来源”，避免编造。\n");
+        }
+        sb.append("【用户问题】\n");
+        return sb.toString();
     }
 
-    private String buildSystemInstruction(User user, boolean searchEnabled, String searchContext) {
+    private String buildSystemInstruction(User user) {
         StringBuilder sb = new StringBuilder();
         sb.append("你是 FitnessDiary 应用的 AI 私教。语气亲和轻松但专业克制，避免夸张营销口吻。\n");
         sb.append("输出规则：正文最多120个中文字符、最多4行；最多使用1个 emoji；避免使用“灵魂所在/太诱人/拉满”等表达。\n");
         sb.append("饮食场景固定结构：1句结论 + 热量区间 + 1条可执行建议；禁止表格、长编号列表和大段科普。\n");
         sb.append("重点：正文只保留用户决策需要的信息，不重复罗列会写入 <action> 的字段。\n");
         sb.append("记录动作只表示待用户确认，不能声称已记录、已添加或已完成；只有用户点击记录按钮后才算保存。\n");
-        if (searchEnabled) {
-            sb.append("【联网搜索模式已开启】你已拿到实时检索摘要，请优先基于摘要回答，并在结尾用“来源：”给出 1-2 个链接。\n");
-            if (searchContext != null && !searchContext.trim().isEmpty()) {
-                sb.append("【实时检索摘要】\n").append(searchContext).append("\n");
-            } else {
-                sb.append("【实时检索摘要】未获取到有效结果。请明确说明“未检索到可靠来源”，避免编造。\n");
-            }
-        }
         if (user != null) {
             sb.append("当前用户信息如下：\n");
             sb.append("- 姓名/昵称：").append(user.getNickname()).append("\n");
@@ -300,7 +419,7 @@ public class AIChatViewModel extends AndroidViewModel {
             List<ChatMessageEntity> history) {
         // 升级为最新的 V4 提示名称
         currentThinkingModel.postValue(thinking ? "DeepSeek-V4-Pro" : "DeepSeek-V4-Flash");
-        com.cz.fitnessdiary.service.DeepSeekService.sendMessage(content, systemInstruction, thinking, history,
+        com.cz.fitnessdiary.service.DeepSeekService.sendMessageStreaming(content, systemInstruction, thinking, history,
                 new AICallback() {
                     @Override
                     public void onSuccess(String response, String reasoning) {
@@ -320,6 +439,7 @@ public class AIChatViewModel extends AndroidViewModel {
 
                     @Override
                     public void onPartialUpdate(String content, String reasoning) {
+                        onStreamingPartial(content, reasoning);
                     }
 
                     @Override
@@ -329,8 +449,7 @@ public class AIChatViewModel extends AndroidViewModel {
                 });
     }
 
-    private void sendToMiMo(String content, String systemInstruction, android.graphics.Bitmap image,
-            List<ChatMessageEntity> history) {
+    private void sendToMiMo(String content, android.graphics.Bitmap image) {
         currentThinkingModel.postValue("MiMo-V2.5");
 
         // 使用针对 MiMo 图像识别定制的极简系统提示词，进一步缩减文本 Token 消耗
@@ -338,7 +457,7 @@ public class AIChatViewModel extends AndroidViewModel {
         String mimoSystemInstruction = buildMiMoSystemInstruction(user);
 
         // 识图是独立功能，不携带历史对话，避免旧对话干扰当前图片识别
-        com.cz.fitnessdiary.service.MiMoService.sendMessage(content, mimoSystemInstruction, image, null,
+        com.cz.fitnessdiary.service.MiMoService.sendMessage(content, mimoSystemInstruction, image, null, true,
                 new AICallback() {
                     @Override
                     public void onSuccess(String response, String reasoning) {
@@ -347,6 +466,7 @@ public class AIChatViewModel extends AndroidViewModel {
 
                     @Override
                     public void onPartialUpdate(String content, String reasoning) {
+                        onStreamingPartial(content, reasoning);
                     }
 
                     @Override
@@ -374,11 +494,65 @@ public class AIChatViewModel extends AndroidViewModel {
         return sb.toString();
     }
 
+    /**
+     * 处理流式增量（主线程回调，参数为截至当前的累积内容）。
+     * 首个可见增量把"思考中"占位替换为生成中的消息，之后只推送增量快照，不再重建整个消息列表
+     */
+    private void onStreamingPartial(String content, String reasoning) {
+        if (!Boolean.TRUE.equals(isLoading.getValue())) {
+            return;
+        }
+        String visible = visibleStreamingText(content);
+        String safeReasoning = reasoning == null || reasoning.trim().isEmpty() ? null : reasoning;
+        if (visible.isEmpty() && safeReasoning == null) {
+            return;
+        }
+        if (thinkingStartTime == 0) {
+            thinkingStartTime = System.currentTimeMillis();
+        }
+        boolean first = streamingMessage == null;
+        streamingMessage = new ChatMessage(-1, visible, safeReasoning, false, thinkingStartTime);
+        streamingMessage.setStreaming(true);
+        if (first) {
+            updatePendingReply();
+        } else {
+            streamingUpdate.setValue(copyStreamingMessage(streamingMessage));
+        }
+    }
+
+    /**
+     * 生成中只展示正文：截掉尚未闭合的 <action> 动作标签；
+     * 以 JSON 开头的结构化输出（如识图结果）在完成前不展示
+     */
+    private String visibleStreamingText(String content) {
+        if (content == null) {
+            return "";
+        }
+        String text = content.replaceAll("<action>(?s:.*?)</action>", "");
+        int openAction = text.indexOf("<action>");
+        if (openAction >= 0) {
+            text = text.substring(0, openAction);
+        }
+        text = text.replaceAll("^\\s+", "");
+        if (text.startsWith("{") || text.startsWith("[") || text.startsWith("```")) {
+            return "";
+        }
+        return text;
+    }
+
+    private ChatMessage copyStreamingMessage(ChatMessage source) {
+        ChatMessage copy = new ChatMessage(source.getId(), source.getContent(), source.getReasoning(), false,
+                source.getTimestamp());
+        copy.setStreaming(true);
+        return copy;
+    }
+
     private void addAiMessage(String response, String reasoning) {
         String display = normalizeStructuredResponse(response);
         repository.insert(new ChatMessageEntity(display, reasoning, false, System.currentTimeMillis(),
                 currentSessionId.getValue()));
         currentThinkingModel.setValue(null);
+        streamingMessage = null;
         isLoading.setValue(false);
     }
 
@@ -524,6 +698,7 @@ public class AIChatViewModel extends AndroidViewModel {
         repository.insert(new ChatMessageEntity(userFriendlyError, false, System.currentTimeMillis(),
                 currentSessionId.getValue()));
         currentThinkingModel.setValue(null);
+        streamingMessage = null;
         isLoading.setValue(false);
     }
 }
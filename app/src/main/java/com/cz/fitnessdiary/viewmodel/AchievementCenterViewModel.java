@@ -14,19 +14,14 @@ import com.cz.fitnessdiary.database.dao.DailyLogDao;
 import com.cz.fitnessdiary.database.dao.FoodRecordDao;
 import com.cz.fitnessdiary.database.dao.HabitRecordDao;
 import com.cz.fitnessdiary.database.dao.TrainingPlanDao;
-import com.cz.fitnessdiary.database.entity.BodyMeasurement;
 import com.cz.fitnessdiary.database.entity.DailyLog;
 import com.cz.fitnessdiary.database.entity.User;
-import com.cz.fitnessdiary.database.entity.WeightRecord;
-import com.cz.fitnessdiary.database.entity.WaterRecord;
-import com.cz.fitnessdiary.database.entity.StepRecord;
-import com.cz.fitnessdiary.database.entity.SleepRecord;
-import com.cz.fitnessdiary.database.entity.BowelMovement;
-import com.cz.fitnessdiary.database.entity.MoodRecord;
 import com.cz.fitnessdiary.model.Achievement;
 import com.cz.fitnessdiary.model.AchievementUnlockEvent;
 import com.cz.fitnessdiary.model.DailyMission;
 import com.cz.fitnessdiary.model.UiEvent;
+import com.cz.fitnessdiary.repository.AchievementRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import java.util.ArrayDeque;
@@ -34,10 +29,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class AchievementCenterViewModel extends AndroidViewModel {
 
@@ -56,8 +51,9 @@ public class AchievementCenterViewModel extends AndroidViewModel {
     private final TrainingPlanDao trainingPlanDao;
     private final FoodRecordDao foodRecordDao;
     private final HabitRecordDao habitRecordDao;
+    private final AchievementRepository achievementRepository;
     private final SharedPreferences sp;
-    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private final ExecutorService executorService = AppExecutors.get().newSerialDiskIO();
 
     private final MutableLiveData<List<Achievement>> achievements = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<UiEvent<AchievementUnlockEvent>> unlockEvent = new MutableLiveData<>();
@@ -75,6 +71,7 @@ public class AchievementCenterViewModel extends AndroidViewModel {
         trainingPlanDao = database.trainingPlanDao();
         foodRecordDao = database.foodRecordDao();
         habitRecordDao = database.habitRecordDao();
+        achievementRepository = new AchievementRepository(application);
         sp = application.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
 
         refreshAll();
@@ -129,66 +126,9 @@ public class AchievementCenterViewModel extends AndroidViewModel {
 
     public void refreshAll() {
         executorService.execute(() -> {
-            int totalDays = dailyLogDao.getTotalTrainingDays();
-            int planCount = 0;
-            List<com.cz.fitnessdiary.database.entity.TrainingPlan> plans = trainingPlanDao.getAllPlansList();
-            if (plans != null) {
-                for (com.cz.fitnessdiary.database.entity.TrainingPlan plan : plans) {
-                    String cat = plan.getCategory();
-                    if (cat != null && cat.startsWith("自定义-")) {
-                        planCount++;
-                    }
-                }
-            }
-            int foodCount = foodRecordDao.getTotalRecordCountSync();
-            int workoutCount = dailyLogDao.getAllLogsSync().size();
-
-            AppDatabase db = AppDatabase.getInstance(getApplication());
-            
-            // 1. 统计饮水达标天数 (单日饮水总和 >= 2000 ml)
-            List<WaterRecord> allWaters = db.waterRecordDao().getRecentRecordsSync(2000);
-            int waterGoalDays = 0;
-            if (allWaters != null) {
-                java.util.Map<String, Integer> waterMap = new java.util.HashMap<>();
-                for (WaterRecord wr : allWaters) {
-                    String dKey = DateUtils.formatDate(wr.getTimestamp());
-                    waterMap.put(dKey, waterMap.getOrDefault(dKey, 0) + wr.getAmountMl());
-                }
-                for (int amount : waterMap.values()) {
-                    if (amount >= 2000) waterGoalDays++;
-                }
-            }
-
-            // 2. 统计步数达标天数 (单日步数 >= 10000 步)
-            List<StepRecord> allSteps = db.stepRecordDao().getRecordsByDateRangeSync(0, System.currentTimeMillis() + 86400000L);
-            int stepGoalDays = 0;
-            if (allSteps != null) {
-                for (StepRecord sr : allSteps) {
-                    if (sr.getSteps() >= 10000) stepGoalDays++;
-                }
-            }
-
-            // 3. 统计睡眠达标天数 (单次睡眠时长在 7.0 到 9.0 小时之间)
-            List<SleepRecord> allSleeps = db.sleepRecordDao().getRecentRecordsSync(1000);
-            int sleepGoalDays = 0;
-            if (allSleeps != null) {
-                for (SleepRecord sr : allSleeps) {
-                    float hrs = sr.getDuration() / 3600f;
-                    if (hrs >= 7.0f && hrs <= 9.0f) sleepGoalDays++;
-                }
-            }
-
-            // 4. 统计排便总记录次数
-            List<BowelMovement> allBowels = db.bowelMovementDao().getByDateRangeSync(0, System.currentTimeMillis() + 86400000L);
-            int bowelCount = allBowels != null ? allBowels.size() : 0;
-
-            // 5. 统计情绪总记录天数
-            List<MoodRecord> allMoods = db.moodRecordDao().getAllRecordsSync();
-            int moodCount = allMoods != null ? allMoods.size() : 0;
-
-            User user = db.userDao().getUserSync();
-            List<Achievement> currentAchievements = buildAchievements(totalDays, planCount, foodCount,
-                    workoutCount, waterGoalDays, stepGoalDays, sleepGoalDays, bowelCount, moodCount, user);
+            Map<String, Long> counters = achievementRepository.loadCounters();
+            User user = AppDatabase.getInstance(getApplication()).userDao().getUserSync();
+            List<Achievement> currentAchievements = buildAchievements(counters, user);
             achievements.postValue(currentAchievements);
 
             handleAchievementUnlocks(currentAchievements);
@@ -206,9 +146,16 @@ public class AchievementCenterViewModel extends AndroidViewModel {
         unreadUnlockCount.postValue(0);
     }
 
-    private List<Achievement> buildAchievements(int totalDays, int planCount, int foodCount,
-                                                 int workoutCount, int waterGoalDays, int stepGoalDays,
-                                                 int sleepGoalDays, int bowelCount, int moodCount, User user) {
+    private List<Achievement> buildAchievements(Map<String, Long> counters, User user) {
+        long totalDays = count(counters, AchievementRepository.TRAINING_DAYS);
+        long planCount = count(counters, AchievementRepository.CUSTOM_PLANS);
+        long foodCount = count(counters, AchievementRepository.FOOD_RECORDS);
+        long workoutCount = count(counters, AchievementRepository.WORKOUTS);
+        long waterGoalDays = count(counters, AchievementRepository.WATER_GOAL_DAYS);
+        long stepGoalDays = count(counters, AchievementRepository.STEP_GOAL_DAYS);
+        long sleepGoalDays = count(counters, AchievementRepository.SLEEP_GOAL_DAYS);
+        long bowelCount = count(counters, AchievementRepository.BOWEL_RECORDS);
+        long moodCount = count(counters, AchievementRepository.MOOD_RECORDS);
         List<Achievement> list = new ArrayList<>();
         list.add(new Achievement("first_day", "初出茅庐", "完成第一次训练", "🌱", totalDays >= 1));
         list.add(new Achievement("streak_10", "习惯养成", "累计训练 15 天", "🥉", totalDays >= 15));
@@ -235,90 +182,27 @@ public class AchievementCenterViewModel extends AndroidViewModel {
         list.add(new Achievement("bowel_master_30", "畅通无阻", "累计打卡排便记录 30 次", "🚽", bowelCount >= 30));
 
         // Weight goal (depends on user's goal direction)
-        boolean weightGoal = checkWeightGoal(user);
+        boolean weightGoal = count(counters, AchievementRepository.WEIGHT_GOAL) > 0;
         list.add(new Achievement("weight_goal", "体重新突破", getWeightGoalDesc(user), "⚖️", weightGoal));
 
         // Waist goal
-        boolean waistGoal = checkWaistGoal(user);
+        boolean waistGoal = count(counters, AchievementRepository.WAIST_GOAL) > 0;
         list.add(new Achievement("waist_goal", "腰围新突破", getWaistGoalDesc(user), "📏", waistGoal));
 
         // Perfect day
-        boolean perfectDay = checkPerfectDay();
+        boolean perfectDay = count(counters, AchievementRepository.PERFECT_DAY) > 0;
         list.add(new Achievement("perfect_day", "完美一天", "运动+饮食+饮水+习惯全部达标", "🌟", perfectDay));
 
         // Streak record
-        boolean streakRecord = checkStreakRecord();
+        boolean streakRecord = count(counters, AchievementRepository.STREAK_RECORD) > 0;
         list.add(new Achievement("streak_record", "连签破纪录", "连续打卡突破历史最长", "🏅", streakRecord));
 
         return list;
     }
 
-    private boolean checkWeightGoal(User user) {
-        if (user == null) return false;
-        AppDatabase db = AppDatabase.getInstance(getApplication());
-        List<WeightRecord> records = db.weightRecordDao().getRecentRecordsSync(30);
-        if (records == null || records.size() < 2) return false;
-        float current = records.get(0).getWeight();
-        int goal = user.getGoalType();
-        for (int i = 1; i < records.size(); i++) {
-            float past = records.get(i).getWeight();
-            if (goal == 0 && current < past) return true; // loss: new low
-            if (goal == 1 && current > past) return true; // muscle: new high
-        }
-        if (goal == 2) { // maintain: within 1kg for 30 days
-            for (WeightRecord r : records) {
-                if (Math.abs(r.getWeight() - current) > 1.0f) return false;
-            }
-            return records.size() >= 3;
-        }
-        return false;
-    }
-
-    private boolean checkWaistGoal(User user) {
-        AppDatabase db = AppDatabase.getInstance(getApplication());
-        List<BodyMeasurement> records = db.bodyMeasurementDao().getByTypeAndDateRangeSync(
-                "WAIST", 0, System.currentTimeMillis());
-        if (records == null || records.size() < 2) return false;
-        float current = records.get(0).getValue();
-        int goal = user != null ? user.getGoalType() : 0;
-        for (int i = 1; i < records.size(); i++) {
-            float past = records.get(i).getValue();
-            if (goal == 0 && current < past) return true;
-        }
-        return false;
-    }
-
-    private boolean checkPerfectDay() {
-        // Check if today has completed training, diet, water, habit, and sleep
-        long today = DateUtils.getTodayStartTimestamp();
-        long dayEnd = today + 86400000L;
-        AppDatabase db = AppDatabase.getInstance(getApplication());
-        boolean hasTraining = db.dailyLogDao().getTodayCompletedCountSync(today) > 0;
-        boolean hasDiet = db.foodRecordDao().getRecordCountByDateRangeSync(today, dayEnd) > 0;
-        boolean hasWater = db.waterRecordDao().getTodayTotalSync(today, dayEnd) > 0;
-        boolean hasHabit = db.habitRecordDao().getCompletedCountByDateSync(today) > 0;
-        boolean hasSleep = db.sleepRecordDao().getSleepRecordsByDateRangeSync(today, dayEnd) != null
-                && !db.sleepRecordDao().getSleepRecordsByDateRangeSync(today, dayEnd).isEmpty();
-        return hasTraining && hasDiet && hasWater && hasHabit && hasSleep;
-    }
-
-    private boolean checkStreakRecord() {
-        AppDatabase db = AppDatabase.getInstance(getApplication());
-        long today = DateUtils.getTodayStartTimestamp();
-        int streak = 0;
-        for (int i = 0; i < 365; i++) {
-            long day = today - (long) i * 86400000L;
-            if (db.dailyLogDao().getTodayCompletedCountSync(day) > 0) streak++;
-            else break;
-        }
-        // Check if this is a new record: current streak >= previous best + 1
-        SharedPreferences sp = getApplication().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        int bestStreak = sp.getInt("best_streak", 0);
-        if (streak > bestStreak) {
-            sp.edit().putInt("best_streak", streak).apply();
-            return true;
-        }
-        return false;
+    private static long count(Map<String, Long> counters, String key) {
+        Long value = counters.get(key);
+        return value != null ? value : 0;
     }
 
     private String getWeightGoalDesc(User user) {
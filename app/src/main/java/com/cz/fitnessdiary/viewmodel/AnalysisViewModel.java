@@ -11,13 +11,13 @@ import com.cz.fitnessdiary.database.entity.DailyLog;
 import com.cz.fitnessdiary.database.entity.FoodRecord;
 import com.cz.fitnessdiary.repository.DailyLogRepository;
 import com.cz.fitnessdiary.repository.FoodRecordRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 分析页 ViewModel
@@ -37,7 +37,7 @@ public class AnalysisViewModel extends AndroidViewModel {
         super(application);
         dailyLogRepository = new DailyLogRepository(application);
         foodRecordRepository = new FoodRecordRepository(application);
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
 
         loadWeeklyData();
     }
@@ -11,8 +11,10 @@ import com.cz.fitnessdiary.database.entity.BodyMeasurement;
 import com.cz.fitnessdiary.database.entity.User;
 import com.cz.fitnessdiary.repository.BodyMeasurementRepository;
 import com.cz.fitnessdiary.repository.UserRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.utils.ExerciseMetTable;
+import com.cz.fitnessdiary.utils.TimeBuckets;
 
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -20,7 +22,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class BodyMeasurementDetailViewModel extends AndroidViewModel {
 
@@ -38,7 +39,7 @@ public class BodyMeasurementDetailViewModel extends AndroidViewModel {
     private final MutableLiveData<String> whtrZone = new MutableLiveData<>("");
     private final MutableLiveData<Float> ffmiValue = new MutableLiveData<>(0f);
     private final MutableLiveData<String> ffmiZone = new MutableLiveData<>("");
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor = AppExecutors.get().newSerialDiskIO();
 
     private static final String[] ALL_TYPES = {"BODY_FAT", "CHEST", "WAIST", "HIP", "ARM", "THIGH", "CALF"};
 
@@ -186,40 +187,34 @@ public class BodyMeasurementDetailViewModel extends AndroidViewModel {
     }
 
     private List<Float> buildDailySeries(String type, long startDate, int days) {
-        List<Float> series = new ArrayList<>();
-        Calendar cal = Calendar.getInstance();
-        for (int i = 0; i < days; i++) {
-            cal.setTimeInMillis(startDate);
-            cal.add(Calendar.DAY_OF_MONTH, i);
-            long dayStart = cal.getTimeInMillis();
-            cal.add(Calendar.DAY_OF_MONTH, 1);
-            long dayEnd = cal.getTimeInMillis();
-            List<BodyMeasurement> records = repository.getByTypeAndDateRangeSync(type, dayStart, dayEnd);
-            if (!records.isEmpty()) {
-                series.add(records.get(records.size() - 1).getValue());
-            } else {
-                series.add(null);
-            }
-        }
-        return series;
+        return buildSeries(type, TimeBuckets.ofCount(startDate, days, TimeBuckets.Unit.DAY), false);
     }
 
     private List<Float> buildMonthlySeries(String type, long yearStart, int months) {
-        List<Float> series = new ArrayList<>();
-        Calendar cal = Calendar.getInstance();
-        for (int i = 0; i < months; i++) {
-            cal.setTimeInMillis(yearStart);
-            cal.add(Calendar.MONTH, i);
-            long monthStart = cal.getTimeInMillis();
-            cal.add(Calendar.MONTH, 1);
-            long monthEnd = cal.getTimeInMillis();
-            List<BodyMeasurement> records = repository.getByTypeAndDateRangeSync(type, monthStart, monthEnd);
-            if (!records.isEmpty()) {
-                float sum = 0;
-                for (BodyMeasurement r : records) sum += r.getValue();
-                series.add(sum / records.size());
-            } else {
+        return buildSeries(type, TimeBuckets.ofCount(yearStart, months, TimeBuckets.Unit.MONTH), true);
+    }
+
+    /**
+     * 可见窗口内的记录只查询一次再分桶：按日取每桶最后一条，按月取平均；没有记录的桶为 null
+     */
+    private List<Float> buildSeries(String type, TimeBuckets buckets, boolean average) {
+        List<BodyMeasurement> records = repository.getByTypeAndDateRangeSync(type, buckets.getStart(), buckets.getEnd());
+        int size = buckets.size();
+        float[] values = new float[size];
+        int[] counts = new int[size];
+        for (BodyMeasurement r : records) {
+            int index = buckets.indexOf(r.getTimestamp());
+            if (index < 0) continue;
+            values[index] = average ? values[index] + r.getValue() : r.getValue();
+            counts[index]++;
+        }
+
+        List<Float> series = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (counts[i] == 0) {
                 series.add(null);
+            } else {
+                series.add(average ? values[i] / counts[i] : values[i]);
             }
         }
         return series;
@@ -312,7 +307,7 @@ public class BodyMeasurementDetailViewModel extends AndroidViewModel {
     }
 
     public void loadCorrelationData(String measurementType, CorrelationDataCallback callback) {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             long dayStart = DateUtils.getDayStartTimestamp(System.currentTimeMillis());
             long start14DaysAgo = dayStart - 13 * 24 * 60 * 60 * 1000L;
             long endToday = dayStart + 24 * 60 * 60 * 1000L;
@@ -409,7 +404,7 @@ public class BodyMeasurementDetailViewModel extends AndroidViewModel {
             new android.os.Handler(android.os.Looper.getMainLooper()).post(() -> {
                 callback.onLoaded(fAvgCal, fAvgProt, fAvgBurned, fAvgSteps, fTargetSets);
             });
-        }).start();
+        });
     }
 
 }
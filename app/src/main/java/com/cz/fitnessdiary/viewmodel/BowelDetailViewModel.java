@@ -6,10 +6,14 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.cz.fitnessdiary.database.dao.BowelMovementDao;
 import com.cz.fitnessdiary.database.entity.BowelMovement;
 import com.cz.fitnessdiary.repository.BowelMovementRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import java.util.ArrayList;
@@ -17,7 +21,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class BowelDetailViewModel extends AndroidViewModel {
 
@@ -34,11 +37,14 @@ public class BowelDetailViewModel extends AndroidViewModel {
     private final MutableLiveData<Float> avgDurationSeconds = new MutableLiveData<>(0f);
     private final MutableLiveData<String> colorAlert = new MutableLiveData<>("正常 ✓");
     private final MutableLiveData<String> localAdvice = new MutableLiveData<>("暂无充足数据分析");
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor = AppExecutors.get().newSerialDiskIO();
+    private final LiveData<PagingData<BowelMovement>> recordPages;
 
     public BowelDetailViewModel(@NonNull Application application) {
         super(application);
         repository = new BowelMovementRepository(application);
+        recordPages = PagingLiveData.cachedIn(repository.getAllRecordsPaged(),
+                ViewModelKt.getViewModelScope(this));
         refreshStats();
     }
 
@@ -49,8 +55,15 @@ public class BowelDetailViewModel extends AndroidViewModel {
 
     public LiveData<Long> getSelectedDate() { return selectedDate; }
 
-    public LiveData<List<BowelMovement>> getAllRecords() {
-        return repository.getAllRecords();
+    /**
+     * 历史记录列表（分页）
+     */
+    public LiveData<PagingData<BowelMovement>> getRecordPages() {
+        return recordPages;
+    }
+
+    public LiveData<BowelMovement> getLatestRecord() {
+        return repository.getLatest();
     }
 
     public LiveData<List<BowelMovement>> getRecordsByDate(long startTs, long endTs) {
@@ -14,12 +14,12 @@ import com.cz.fitnessdiary.database.entity.User;
 import com.cz.fitnessdiary.repository.DailyLogRepository;
 import com.cz.fitnessdiary.repository.SleepRecordRepository;
 import com.cz.fitnessdiary.repository.UserRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 打卡 ViewModel - 2.0 升级版
@@ -32,7 +32,6 @@ public class CheckInViewModel extends AndroidViewModel {
     private com.cz.fitnessdiary.repository.ExtraExerciseLogRepository extraExerciseLogRepository;
     private SleepRecordRepository sleepRecordRepository;
     private UserRepository userRepository;
-    private LiveData<List<DailyLog>> allLogs;
     private MutableLiveData<Integer> consecutiveDays = new MutableLiveData<>(0);
     private MutableLiveData<Long> selectedDate = new MutableLiveData<>(DateUtils.getTodayStartTimestamp());
     private LiveData<java.util.Set<Long>> recordedDates;
@@ -46,33 +45,33 @@ public class CheckInViewModel extends AndroidViewModel {
         trainingPlanRepository = new com.cz.fitnessdiary.repository.TrainingPlanRepository(application);
         extraExerciseLogRepository = new com.cz.fitnessdiary.repository.ExtraExerciseLogRepository(application);
         userRepository = new UserRepository(application);
-        allLogs = dailyLogRepository.getAllLogs();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
 
         // 初始化记录日期集合 (综合: 有任意运动记录的日期)
         recordedDatesMediator = new androidx.lifecycle.MediatorLiveData<>();
-        final java.util.List<DailyLog>[] latestLogs = new java.util.List[]{null};
-        final java.util.List<ExtraExerciseLog>[] latestExtraLogs = new java.util.List[]{null};
+        // 只查询日期列，避免为日历标记加载全部记录
+        final java.util.List<Long>[] latestLogDates = new java.util.List[]{null};
+        final java.util.List<Long>[] latestExtraDates = new java.util.List[]{null};
         Runnable updateRecordedDates = () -> {
             java.util.Set<Long> dates = new java.util.HashSet<>();
-            if (latestLogs[0] != null) {
-                for (DailyLog log : latestLogs[0]) {
-                    dates.add(DateUtils.getDayStartTimestamp(log.getDate()));
+            if (latestLogDates[0] != null) {
+                for (Long date : latestLogDates[0]) {
+                    dates.add(DateUtils.getDayStartTimestamp(date));
                 }
             }
-            if (latestExtraLogs[0] != null) {
-                for (ExtraExerciseLog log : latestExtraLogs[0]) {
-                    dates.add(DateUtils.getDayStartTimestamp(log.getDate()));
+            if (latestExtraDates[0] != null) {
+                for (Long date : latestExtraDates[0]) {
+                    dates.add(DateUtils.getDayStartTimestamp(date));
                 }
             }
             recordedDatesMediator.setValue(dates);
         };
-        recordedDatesMediator.addSource(dailyLogRepository.getAllLogs(), logs -> {
-            latestLogs[0] = logs;
+        recordedDatesMediator.addSource(dailyLogRepository.getAllLogDates(), dates -> {
+            latestLogDates[0] = dates;
             updateRecordedDates.run();
         });
-        recordedDatesMediator.addSource(extraExerciseLogRepository.getAllLogs(), logs -> {
-            latestExtraLogs[0] = logs;
+        recordedDatesMediator.addSource(extraExerciseLogRepository.getAllRecordDates(), dates -> {
+            latestExtraDates[0] = dates;
             updateRecordedDates.run();
         });
         recordedDates = recordedDatesMediator;
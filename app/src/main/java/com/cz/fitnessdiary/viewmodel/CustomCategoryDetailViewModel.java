@@ -12,6 +12,7 @@ import com.cz.fitnessdiary.database.entity.CustomRecord;
 import com.cz.fitnessdiary.database.entity.CustomTracker;
 import com.cz.fitnessdiary.repository.CustomRecordRepository;
 import com.cz.fitnessdiary.repository.CustomTrackerRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import java.util.ArrayList;
@@ -19,7 +20,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class CustomCategoryDetailViewModel extends AndroidViewModel {
 
@@ -40,7 +40,7 @@ public class CustomCategoryDetailViewModel extends AndroidViewModel {
     private final MutableLiveData<Long> selectedTrackerId = new MutableLiveData<>(0L);
     private final MutableLiveData<List<Float>> trendSeries = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<Map<Long, TrackerMeta>> trackerMeta = new MutableLiveData<>(new HashMap<>());
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor = AppExecutors.get().newSerialDiskIO();
 
     public CustomCategoryDetailViewModel(@NonNull Application application) {
         super(application);
@@ -25,10 +25,12 @@ import com.cz.fitnessdiary.repository.FoodRecordRepository;
 import com.cz.fitnessdiary.repository.RecipeRepository;
 import com.cz.fitnessdiary.repository.UserRepository;
 import com.cz.fitnessdiary.service.FoodImageAnalyzer;
+import com.cz.fitnessdiary.service.FoodNameAutomaton;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.cz.fitnessdiary.service.FoodImageQuotaStore;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.CalorieCalculatorUtils;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.utils.FoodUnitUtils;
@@ -37,7 +39,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 饮食记录 ViewModel - 2.0 智能化版本
@@ -70,7 +71,7 @@ public class DietViewModel extends AndroidViewModel {
     private final MutableLiveData<FoodScanFlowState> foodScanState = new MutableLiveData<>(
             new FoodScanFlowState(FoodScanFlowState.Stage.IDLE, 0, "", ""));
     private final MutableLiveData<ImageMealDraft> foodScanDraft = new MutableLiveData<>();
-    private final FoodImageAnalyzer foodImageAnalyzer = new FoodImageAnalyzer();
+    private final FoodImageAnalyzer foodImageAnalyzer;
     private final FoodImageQuotaStore foodImageQuotaStore;
     private final Handler mainHandler = new Handler(Looper.getMainLooper());
     private final Set<String> savingDraftIds = new HashSet<>();
@@ -83,8 +84,9 @@ public class DietViewModel extends AndroidViewModel {
         foodLibraryRepository = new FoodLibraryRepository(application);
         userRepository = new UserRepository(application);
         recipeRepository = new RecipeRepository(application);
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
         foodImageQuotaStore = new FoodImageQuotaStore(application);
+        foodImageAnalyzer = new FoodImageAnalyzer(application);
 
         // 初始化为今天
         selectedDate.setValue(DateUtils.getTodayStartTimestamp());
@@ -337,11 +339,14 @@ public class DietViewModel extends AndroidViewModel {
     }
 
     public void forceAnalyzeMealImage(Bitmap image) {
-        foodImageAnalyzer.clearCache();
-        analyzeMealImage(image);
+        analyzeMealImage(image, true);
     }
 
     public void analyzeMealImage(Bitmap image) {
+        analyzeMealImage(image, false);
+    }
+
+    private void analyzeMealImage(Bitmap image, boolean refresh) {
         int token = ++foodAnalyzeToken;
         if (image == null) {
             foodScanState.setValue(FoodScanFlowState.error("图片为空，请重试", false));
@@ -353,23 +358,43 @@ public class DietViewModel extends AndroidViewModel {
             foodScanState.setValue(FoodScanFlowState.error("用户信息尚未加载，暂不能识别图片", false));
             return;
         }
-        // Personal local mode: this counter is display-only and never leaves the device.
-        if (!foodImageAnalyzer.hasCachedResult(image)) {
-            foodImageQuotaStore.recordAttempt(user);
-        }
-        if (token != foodAnalyzeToken) {
-            return;
-        }
         foodScanDraft.setValue(null);
-        postStage(token, new FoodScanFlowState(FoodScanFlowState.Stage.UPLOAD, 15, "上传图片中", "正在准备识别图片，请稍候..."), 260);
-        postStage(token, new FoodScanFlowState(FoodScanFlowState.Stage.RECOGNIZE, 42, "AI识别食物中", "正在识别食物名称与分量..."), 900);
 
-        foodImageAnalyzer.analyze(image, new FoodImageAnalyzer.AnalyzeCallback() {
+        foodImageAnalyzer.analyze(image, refresh, new FoodImageAnalyzer.AnalyzeCallback() {
+            private boolean fromCache;
+
+            @Override
+            public void onStart(boolean cached) {
+                fromCache = cached;
+                // Personal local mode: these counters are display-only and never leave the device.
+                if (cached) {
+                    foodImageQuotaStore.recordCacheHit(user);
+                    return;
+                }
+                foodImageQuotaStore.recordAttempt(user);
+                if (token != foodAnalyzeToken) {
+                    return;
+                }
+                postStage(token, new FoodScanFlowState(FoodScanFlowState.Stage.UPLOAD, 15, "上传图片中", "正在准备识别图片，请稍候..."), 260);
+                postStage(token, new FoodScanFlowState(FoodScanFlowState.Stage.RECOGNIZE, 42, "AI识别食物中", "正在识别食物名称与分量..."), 900);
+            }
+
             @Override
             public void onSuccess(ImageMealDraft draft, String rawResponse, String reasoning) {
                 if (token != foodAnalyzeToken) {
                     return;
                 }
+                if (fromCache) {
+                    // 本地缓存命中：没有上传和识别过程，直接展示结果
+                    draft.recomputeTotals();
+                    foodScanState.setValue(new FoodScanFlowState(
+                            FoodScanFlowState.Stage.SUCCESS,
+                            100,
+                            "识别完成",
+                            "已使用本机缓存的识别结果，请确认后记录本餐"));
+                    foodScanDraft.setValue(draft);
+                    return;
+                }
                 mainHandler.postDelayed(() -> {
                     if (token != foodAnalyzeToken) {
                         return;
@@ -712,10 +737,18 @@ public class DietViewModel extends AndroidViewModel {
         return foodLibraryRepository.searchFoods(keyword);
     }
 
+    public List<FoodLibrary> searchFoods(String keyword, int limit) {
+        return foodLibraryRepository.searchFoods(keyword, limit);
+    }
+
     public List<FoodLibrary> getAllFoodsSync() {
         return foodLibraryRepository.getAllFoodsSync();
     }
 
+    public FoodNameAutomaton getFoodNameAutomaton() {
+        return foodLibraryRepository.getFoodNameAutomaton();
+    }
+
     /**
      * Plan 32: 添加自定义食物到食物库
      */
@@ -10,6 +10,7 @@ import androidx.lifecycle.MutableLiveData;
 import com.cz.fitnessdiary.database.entity.HabitItem;
 import com.cz.fitnessdiary.database.entity.HabitRecord;
 import com.cz.fitnessdiary.repository.HabitRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import java.util.HashMap;
@@ -18,7 +19,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class HabitDetailViewModel extends AndroidViewModel {
 
@@ -35,7 +35,7 @@ public class HabitDetailViewModel extends AndroidViewModel {
     private final HabitRepository repository;
     private final MutableLiveData<Long> selectedDate = new MutableLiveData<>(DateUtils.getTodayStartTimestamp());
     private final MutableLiveData<Map<Long, HabitStat>> habitStats = new MutableLiveData<>(new HashMap<>());
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor = AppExecutors.get().newSerialDiskIO();
 
     public HabitDetailViewModel(@NonNull Application application) {
         super(application);
@@ -11,6 +11,7 @@ import androidx.lifecycle.Transformations;
 import com.cz.fitnessdiary.database.entity.BowelMovement;
 import com.cz.fitnessdiary.database.entity.CustomRecord;
 import com.cz.fitnessdiary.database.entity.CustomTracker;
+import com.cz.fitnessdiary.database.entity.DailyMetric;
 import com.cz.fitnessdiary.database.entity.HabitItem;
 import com.cz.fitnessdiary.database.entity.HabitRecord;
 import com.cz.fitnessdiary.database.entity.MedicationRecord;
@@ -18,8 +19,10 @@ import com.cz.fitnessdiary.database.entity.WaterRecord;
 import com.cz.fitnessdiary.database.entity.WeightRecord;
 import com.cz.fitnessdiary.database.entity.StepRecord;
 import com.cz.fitnessdiary.database.entity.MoodRecord;
+import com.cz.fitnessdiary.repository.DailyMetricRepository;
 import com.cz.fitnessdiary.repository.HomeDashboardRepository;
 import com.cz.fitnessdiary.repository.UserRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import android.content.SharedPreferences;
@@ -29,6 +32,9 @@ import java.util.List;
 public class HomeDashboardViewModel extends AndroidViewModel {
 
     private final HomeDashboardRepository repository;
+    private final DailyMetricRepository metricRepository;
+    /** 当日独立步数目标（daily_metric），后台读取完成前为 -1，回落全局默认 */
+    private volatile int todayStepTarget = -1;
     private final MutableLiveData<Long> selectedDate = new MutableLiveData<>(DateUtils.getTodayStartTimestamp());
     private final LiveData<Long> dayStart;
     private final LiveData<Long> dayEnd;
@@ -36,6 +42,9 @@ public class HomeDashboardViewModel extends AndroidViewModel {
     public HomeDashboardViewModel(@NonNull Application application) {
         super(application);
         repository = new HomeDashboardRepository(application);
+        metricRepository = new DailyMetricRepository(application);
+        metricRepository.loadInt(DailyMetric.STEP_TARGET, DateUtils.getTodayStartTimestamp(), -1,
+                value -> todayStepTarget = value);
 
         dayStart = Transformations.map(selectedDate, DateUtils::getDayStartTimestamp);
         dayEnd = Transformations.map(dayStart, start -> start + 24 * 60 * 60 * 1000L);
@@ -178,7 +187,7 @@ public class HomeDashboardViewModel extends AndroidViewModel {
         return Transformations.switchMap(dayStart,
                 start -> Transformations.switchMap(dayEnd, end -> {
                     MutableLiveData<Integer> result = new MutableLiveData<>();
-                    new Thread(() -> result.postValue(repository.getTodayMeasurementCount(start, end))).start();
+                    AppExecutors.get().diskIO().execute(() -> result.postValue(repository.getTodayMeasurementCount(start, end)));
                     return result;
                 }));
     }
@@ -187,7 +196,7 @@ public class HomeDashboardViewModel extends AndroidViewModel {
         return Transformations.switchMap(dayStart,
                 start -> Transformations.switchMap(dayEnd, end -> {
                     MutableLiveData<String> result = new MutableLiveData<>();
-                    new Thread(() -> result.postValue(repository.getLatestMeasurementSummary(start, end))).start();
+                    AppExecutors.get().diskIO().execute(() -> result.postValue(repository.getLatestMeasurementSummary(start, end)));
                     return result;
                 }));
     }
@@ -196,7 +205,7 @@ public class HomeDashboardViewModel extends AndroidViewModel {
         return Transformations.switchMap(dayStart,
                 start -> Transformations.switchMap(dayEnd, end -> {
                     MutableLiveData<Long> result = new MutableLiveData<>();
-                    new Thread(() -> result.postValue(repository.getLatestMeasurementTime(start, end))).start();
+                    AppExecutors.get().diskIO().execute(() -> result.postValue(repository.getLatestMeasurementTime(start, end)));
                     return result;
                 }));
     }
@@ -207,7 +216,7 @@ public class HomeDashboardViewModel extends AndroidViewModel {
         return Transformations.switchMap(dayStart,
                 start -> Transformations.switchMap(dayEnd, end -> {
                     MutableLiveData<Integer> result = new MutableLiveData<>();
-                    new Thread(() -> result.postValue(repository.getTodayBowelCount(start, end))).start();
+                    AppExecutors.get().diskIO().execute(() -> result.postValue(repository.getTodayBowelCount(start, end)));
                     return result;
                 }));
     }
@@ -216,7 +225,7 @@ public class HomeDashboardViewModel extends AndroidViewModel {
         return Transformations.switchMap(dayStart,
                 start -> Transformations.switchMap(dayEnd, end -> {
                     MutableLiveData<String> result = new MutableLiveData<>();
-                    new Thread(() -> result.postValue(repository.getLatestBowelSummary(start, end))).start();
+                    AppExecutors.get().diskIO().execute(() -> result.postValue(repository.getLatestBowelSummary(start, end)));
                     return result;
                 }));
     }
@@ -225,7 +234,7 @@ public class HomeDashboardViewModel extends AndroidViewModel {
         return Transformations.switchMap(dayStart,
                 start -> Transformations.switchMap(dayEnd, end -> {
                     MutableLiveData<Long> result = new MutableLiveData<>();
-                    new Thread(() -> result.postValue(repository.getLatestBowelTime(start, end))).start();
+                    AppExecutors.get().diskIO().execute(() -> result.postValue(repository.getLatestBowelTime(start, end)));
                     return result;
                 }));
     }
@@ -234,19 +243,19 @@ public class HomeDashboardViewModel extends AndroidViewModel {
 
     public LiveData<Integer> getCurrentCycleDay() {
         MutableLiveData<Integer> result = new MutableLiveData<>();
-        new Thread(() -> result.postValue(repository.getCurrentCycleDay())).start();
+        AppExecutors.get().diskIO().execute(() -> result.postValue(repository.getCurrentCycleDay()));
         return result;
     }
 
     public LiveData<String> getMenstrualSummary() {
         MutableLiveData<String> result = new MutableLiveData<>();
-        new Thread(() -> result.postValue(repository.getMenstrualSummary())).start();
+        AppExecutors.get().diskIO().execute(() -> result.postValue(repository.getMenstrualSummary()));
         return result;
     }
 
     public LiveData<Long> getSelectedDateLatestMenstrualTime() {
         MutableLiveData<Long> result = new MutableLiveData<>();
-        new Thread(() -> result.postValue(repository.getLatestMenstrualTime())).start();
+        AppExecutors.get().diskIO().execute(() -> result.postValue(repository.getLatestMenstrualTime()));
         return result;
     }
 
@@ -257,7 +266,7 @@ public class HomeDashboardViewModel extends AndroidViewModel {
     }
 
     public void setTodaySteps(int steps, int source) {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             Long date = selectedDate.getValue();
             long day = date != null ? DateUtils.getDayStartTimestamp(date) : DateUtils.getTodayStartTimestamp();
             StepRecord existing = repository.getStepByDateSync(day);
@@ -270,19 +279,24 @@ public class HomeDashboardViewModel extends AndroidViewModel {
                 repository.insertOrUpdateStep(
                         new StepRecord(day, steps, source, System.currentTimeMillis()));
             }
-        }).start();
+        });
     }
 
     public int getStepTarget() {
+        if (todayStepTarget > 0) {
+            return todayStepTarget;
+        }
         SharedPreferences sp = getApplication().getSharedPreferences(
                 "fitness_diary_prefs", android.content.Context.MODE_PRIVATE);
-        long today = com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
-        return sp.getInt("step_target_" + today, sp.getInt("step_target", 8000));
+        return sp.getInt("step_target", 8000);
     }
 
     public void setStepTarget(int target) {
         getApplication().getSharedPreferences("fitness_diary_prefs", android.content.Context.MODE_PRIVATE)
                 .edit().putInt("step_target", target).apply();
+        // 同步更新当日独立值，否则旧的当日值会盖过新目标
+        todayStepTarget = target;
+        metricRepository.put(DailyMetric.STEP_TARGET, DateUtils.getTodayStartTimestamp(), target);
     }
 
     public LiveData<Integer> getTodayStepCalories() {
@@ -299,12 +313,12 @@ public class HomeDashboardViewModel extends AndroidViewModel {
     }
 
     public void setTodayMood(String moodCode) {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             Long date = selectedDate.getValue();
             long day = date != null ? DateUtils.getDayStartTimestamp(date) : DateUtils.getTodayStartTimestamp();
             MoodRecord record = new MoodRecord(day, moodCode, null, System.currentTimeMillis());
             repository.insertOrUpdateMood(record);
-        }).start();
+        });
     }
 
     private long buildRecordTimestampForSelectedDate() {
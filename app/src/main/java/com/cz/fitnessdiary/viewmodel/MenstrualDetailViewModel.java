@@ -10,6 +10,7 @@ import androidx.lifecycle.MutableLiveData;
 import com.cz.fitnessdiary.database.entity.MenstrualCycle;
 import com.cz.fitnessdiary.repository.MenstrualCycleRepository;
 import com.cz.fitnessdiary.ui.widget.MenstrualCycleChartView;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import java.util.ArrayList;
@@ -18,7 +19,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class MenstrualDetailViewModel extends AndroidViewModel {
 
@@ -31,7 +31,7 @@ public class MenstrualDetailViewModel extends AndroidViewModel {
     private final MutableLiveData<String> regularityDesc = new MutableLiveData<>("");
     private final MutableLiveData<Integer> currentCycleDay = new MutableLiveData<>(0);
     private final MutableLiveData<Map<String, Integer>> symptomFrequency = new MutableLiveData<>(new HashMap<>());
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor = AppExecutors.get().newSerialDiskIO();
 
     public MenstrualDetailViewModel(@NonNull Application application) {
         super(application);
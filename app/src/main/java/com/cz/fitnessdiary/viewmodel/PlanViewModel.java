@@ -13,6 +13,7 @@ import com.cz.fitnessdiary.database.entity.TrainingPlan;
 import com.cz.fitnessdiary.model.PlanGroup;
 import com.cz.fitnessdiary.model.TemplateExercise;
 import com.cz.fitnessdiary.repository.TrainingPlanRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -256,7 +257,7 @@ public class PlanViewModel extends AndroidViewModel {
     }
 
     public void deletePersonalPlan(String templateName) {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             List<TrainingPlan> plans = repository.getAllPlansSync();
             if (plans != null) {
                 String prefix = "自定义-" + templateName + "-";
@@ -266,12 +267,12 @@ public class PlanViewModel extends AndroidViewModel {
                     }
                 }
             }
-        }).start();
+        });
     }
 
     public void renamePersonalPlan(String oldName, String newName) {
         if (oldName == null || newName == null || newName.trim().isEmpty()) return;
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             List<TrainingPlan> plans = repository.getAllPlansSync();
             if (plans != null) {
                 String oldPrefix = "自定义-" + oldName + "-";
@@ -289,7 +290,7 @@ public class PlanViewModel extends AndroidViewModel {
                     setActivePersonalPlanName(newName.trim());
                 });
             }
-        }).start();
+        });
     }
 
     /**
@@ -297,7 +298,7 @@ public class PlanViewModel extends AndroidViewModel {
      * 通过动作名智能识别部位，源计划合并后自动删除
      */
     public void mergePersonalPlans(java.util.List<String> sourceNames, String targetName) {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             String newPrefix = "自定义-" + targetName + "-";
             for (String srcName : sourceNames) {
                 if (srcName.equals(targetName)) continue; // 跳过自己
@@ -316,7 +317,7 @@ public class PlanViewModel extends AndroidViewModel {
             new android.os.Handler(android.os.Looper.getMainLooper()).post(() -> {
                 setActivePersonalPlanName(targetName);
             });
-        }).start();
+        });
     }
 
     /**
@@ -413,7 +414,7 @@ public class PlanViewModel extends AndroidViewModel {
      * 分别检查基础和进阶计划，如果缺失则补充
      */
     public void checkAndSeedLibrary() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             List<TrainingPlan> all = repository.getAllPlansSync();
             boolean hasBase = false;
             boolean hasAdvanced = false;
@@ -466,7 +467,7 @@ public class PlanViewModel extends AndroidViewModel {
             if (!plansToInsert.isEmpty()) {
                 repository.insertAll(plansToInsert);
             }
-        }).start();
+        });
     }
 
     // 通用计划创建方法
@@ -15,6 +15,7 @@ import com.cz.fitnessdiary.database.dao.UserDao;
 import com.cz.fitnessdiary.database.entity.User;
 import com.cz.fitnessdiary.model.Achievement;
 import com.cz.fitnessdiary.R;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.CalorieCalculatorUtils;
 import com.cz.fitnessdiary.utils.DateUtils;
 import com.cz.fitnessdiary.database.entity.WaterRecord;
@@ -24,7 +25,6 @@ import com.cz.fitnessdiary.database.entity.BowelMovement;
 import com.cz.fitnessdiary.database.entity.MoodRecord;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Profile ViewModel - 用户个人信息管理
@@ -61,7 +61,7 @@ public class ProfileViewModel extends AndroidViewModel {
         foodRecordDao = database.foodRecordDao();
         weightRecordDao = database.weightRecordDao();
         bodyMeasurementDao = database.bodyMeasurementDao();
-        executorService = Executors.newSingleThreadExecutor();
+        executorService = AppExecutors.get().newSerialDiskIO();
 
         loadUserData();
         loadGameificationData(); // Plan 10: 加载游戏化数据
@@ -7,29 +7,19 @@ import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import com.cz.fitnessdiary.database.AppDatabase;
-import com.cz.fitnessdiary.database.entity.DailyLog;
-import com.cz.fitnessdiary.database.entity.ExtraExerciseLog;
-import com.cz.fitnessdiary.database.entity.FoodRecord;
-import com.cz.fitnessdiary.database.entity.SleepRecord;
-import com.cz.fitnessdiary.database.entity.StepRecord;
 import com.cz.fitnessdiary.database.entity.User;
-import com.cz.fitnessdiary.database.entity.WaterRecord;
 import com.cz.fitnessdiary.database.entity.WeightRecord;
-import com.cz.fitnessdiary.repository.DailyLogRepository;
-import com.cz.fitnessdiary.repository.FoodRecordRepository;
-import com.cz.fitnessdiary.repository.SleepRecordRepository;
-import com.cz.fitnessdiary.repository.StepRecordRepository;
+import com.cz.fitnessdiary.repository.TimeSeriesRepository;
 import com.cz.fitnessdiary.repository.UserRepository;
-import com.cz.fitnessdiary.repository.WaterRecordRepository;
 import com.cz.fitnessdiary.repository.WeightRecordRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
+import com.cz.fitnessdiary.utils.TimeBuckets;
 
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * 报表系统 ViewModel
@@ -37,13 +27,9 @@ import java.util.concurrent.Executors;
  */
 public class ReportViewModel extends AndroidViewModel {
 
-    private final DailyLogRepository    dailyLogRepository;
-    private final FoodRecordRepository  foodRecordRepository;
-    private final SleepRecordRepository sleepRecordRepository;
+    private final TimeSeriesRepository  timeSeriesRepository;
     private final UserRepository        userRepository;
     private final WeightRecordRepository weightRepository;
-    private final WaterRecordRepository  waterRepository;
-    private final StepRecordRepository   stepRepository;
     private final ExecutorService        executorService;
 
     // ---- 原有字段 ----
@@ -82,14 +68,10 @@ public class ReportViewModel extends AndroidViewModel {
 
     public ReportViewModel(@NonNull Application application) {
         super(application);
-        dailyLogRepository   = new DailyLogRepository(application);
-        foodRecordRepository = new FoodRecordRepository(application);
-        sleepRecordRepository = new SleepRecordRepository(application);
+        timeSeriesRepository = new TimeSeriesRepository(application);
         userRepository       = new UserRepository(application);
         weightRepository     = new WeightRecordRepository(application);
-        waterRepository      = new WaterRecordRepository(application);
-        stepRepository       = new StepRecordRepository(application);
-        executorService      = Executors.newSingleThreadExecutor();
+        executorService      = AppExecutors.get().newSerialDiskIO();
     }
 
     // ---- Getters (原有) ----
@@ -123,9 +105,8 @@ public class ReportViewModel extends AndroidViewModel {
     public void loadReportData(boolean isMonth) {
         executorService.execute(() -> {
             long startTime, endTime;
-            Calendar calendar = Calendar.getInstance();
-
             if (isMonth) {
+                Calendar calendar = Calendar.getInstance();
                 calendar.set(Calendar.HOUR_OF_DAY, 0);
                 calendar.set(Calendar.MINUTE, 0);
                 calendar.set(Calendar.SECOND, 0);
@@ -140,149 +121,30 @@ public class ReportViewModel extends AndroidViewModel {
                 endTime   = weekDates[6] + 24 * 3600 * 1000L;
             }
 
-            int days = isMonth ? 30 : 7;
+            // 一次范围查询取出区间内每日合计，按天分桶
+            TimeBuckets buckets = TimeBuckets.of(startTime, endTime, TimeBuckets.Unit.DAY);
+            TimeSeriesRepository.DailySeries series = timeSeriesRepository.loadDailySeries(buckets);
 
             // ====== 1. 训练数据 ======
-            List<DailyLog> allLogs = dailyLogRepository.getAllLogsSync();
-            List<ExtraExerciseLog> extraLogs = AppDatabase.getInstance(getApplication())
-                    .extraExerciseLogDao().getAllLogsSync();
-            int trainingDaysCnt = 0, workoutsCnt = 0;
-            List<String> activeDates = new ArrayList<>();
-            List<Integer> dailyTrainList = new ArrayList<>();
-
-            java.text.SimpleDateFormat sdf =
-                    new java.text.SimpleDateFormat("M/d", java.util.Locale.getDefault());
-            List<String> labels = new ArrayList<>();
-
-            for (int i = 0; i < days; i++) {
-                Calendar dc = Calendar.getInstance();
-                dc.setTimeInMillis(startTime + (long) i * 86400000L);
-                dc.set(Calendar.HOUR_OF_DAY, 0); dc.set(Calendar.MINUTE, 0);
-                dc.set(Calendar.SECOND, 0); dc.set(Calendar.MILLISECOND, 0);
-                long ds = dc.getTimeInMillis(), de = ds + 86400000L;
-                labels.add(sdf.format(dc.getTime()));
-
-                int cnt = 0;
-                if (allLogs != null) {
-                    for (DailyLog log : allLogs) {
-                        if (log.getDate() >= startTime && log.getDate() < endTime
-                                && log.isCompleted() && i == 0) {
-                            // 累计统计（只做一次）
-                            String dateStr = DateUtils.formatDate(log.getDate());
-                            if (!activeDates.contains(dateStr)) { activeDates.add(dateStr); trainingDaysCnt++; }
-                            workoutsCnt++;
-                        }
-                        if (log.getDate() >= ds && log.getDate() < de && log.isCompleted()) cnt++;
-                    }
-                }
-                if (extraLogs != null) {
-                    for (ExtraExerciseLog log : extraLogs) {
-                        if (log.getDate() >= ds && log.getDate() < de && log.isCompleted()) cnt++;
-                    }
-                }
-                dailyTrainList.add(cnt);
-            }
-            // 重新正确累计（上面循环有问题，单独做一次）
-            trainingDaysCnt = 0; workoutsCnt = 0; activeDates.clear();
-            if (allLogs != null) {
-                for (DailyLog log : allLogs) {
-                    if (log.getDate() >= startTime && log.getDate() < endTime && log.isCompleted()) {
-                        workoutsCnt++;
-                        String ds2 = DateUtils.formatDate(log.getDate());
-                        if (!activeDates.contains(ds2)) { activeDates.add(ds2); trainingDaysCnt++; }
-                    }
-                }
-            }
-            if (extraLogs != null) {
-                for (ExtraExerciseLog log : extraLogs) {
-                    if (log.getDate() >= startTime && log.getDate() < endTime && log.isCompleted()) {
-                        workoutsCnt++;
-                        String ds2 = DateUtils.formatDate(log.getDate());
-                        if (!activeDates.contains(ds2)) {
-                            activeDates.add(ds2);
-                            trainingDaysCnt++;
-                        }
-                    }
-                }
-            }
+            int trainingDaysCnt = series.getTrainingDays();
             trainingDays.postValue(trainingDaysCnt);
-            totalWorkouts.postValue(workoutsCnt);
+            totalWorkouts.postValue((int) series.workouts.total());
             trainingSuggestion.postValue(
                     trainingDaysCnt > (isMonth ? 15 : 4) ? "🔥 高强度训练周期，注意休息！"
                     : trainingDaysCnt > 0 ? "✨ 保持运动习惯，每一滴汗水都算数！"
                     : "💪 开始动起来吧，身体会感谢你！");
-            dailyTrainingCounts.postValue(dailyTrainList);
-            xAxisLabels.postValue(labels);
+            dailyTrainingCounts.postValue(series.workouts.toIntList());
+            xAxisLabels.postValue(buckets.labels("M/d"));
 
             // ====== 2. 饮食数据 ======
-            List<FoodRecord> allFoods = foodRecordRepository.getAllRecordsSync();
-            List<Integer> calList = new ArrayList<>();
-            int totalCal = 0;
-            List<String> foodDates = new ArrayList<>();
-
-            for (int i = 0; i < days; i++) {
-                Calendar dc = Calendar.getInstance();
-                dc.setTimeInMillis(startTime + (long) i * 86400000L);
-                dc.set(Calendar.HOUR_OF_DAY, 0); dc.set(Calendar.MINUTE, 0);
-                dc.set(Calendar.SECOND, 0); dc.set(Calendar.MILLISECOND, 0);
-                long ds = dc.getTimeInMillis(), de = ds + 86400000L;
-                int dayCal = 0;
-                if (allFoods != null) {
-                    for (FoodRecord food : allFoods) {
-                        if (food.getRecordDate() >= ds && food.getRecordDate() < de)
-                            dayCal += food.getCalories();
-                    }
-                }
-                calList.add(dayCal);
-                if (dayCal > 0) {
-                    totalCal += dayCal;
-                    foodDates.add(String.valueOf(i));
-                }
-            }
-            int avgCal = foodDates.isEmpty() ? 0 : totalCal / foodDates.size();
+            int avgCal = (int) series.calories.averageOfNonZero();
             avgCaloriesIntake.postValue(avgCal);
-            dailyCaloriesList.postValue(calList);
+            dailyCaloriesList.postValue(series.calories.toIntList());
 
             // ====== 3. 睡眠数据 ======
-            List<SleepRecord> sleepRecords =
-                    sleepRecordRepository.getSleepRecordsByDateRangeSync(startTime, endTime);
-            List<Float> sleepList = new ArrayList<>();
-            float totalSleep = 0f;
-            int sleepDays = 0;
-            float totalQuality = 0f;
-            int qualityDays = 0;
-
-            for (int i = 0; i < days; i++) {
-                Calendar dc = Calendar.getInstance();
-                dc.setTimeInMillis(startTime + (long) i * 86400000L);
-                long ds = getDayStart(dc), de = ds + 86400000L;
-                float hrs = 0f;
-                float dayQualitySum = 0f;
-                int dayQualityCount = 0;
-                if (sleepRecords != null) {
-                    for (SleepRecord sr : sleepRecords) {
-                        if (sr.getStartTime() >= ds && sr.getStartTime() < de) {
-                            hrs += sr.getDuration() / 3600f;
-                            if (sr.getQuality() > 0) {
-                                dayQualitySum += sr.getQuality();
-                                dayQualityCount++;
-                            }
-                        }
-                    }
-                }
-                sleepList.add(hrs);
-                if (hrs > 0f) {
-                    totalSleep += hrs;
-                    sleepDays++;
-                }
-                if (dayQualityCount > 0) {
-                    totalQuality += (dayQualitySum / dayQualityCount);
-                    qualityDays++;
-                }
-            }
-            dailySleepList.postValue(sleepList);
-            avgSleepDuration.postValue(sleepDays > 0 ? totalSleep / sleepDays : 0f);
-            avgSleepQuality.postValue(qualityDays > 0 ? totalQuality / qualityDays : 0f);
+            dailySleepList.postValue(series.sleepSeconds.toFloatList(3600f));
+            avgSleepDuration.postValue((float) series.sleepSeconds.averageOfNonZero() / 3600f);
+            avgSleepQuality.postValue(series.getAverageSleepQuality());
 
             // ====== 4. 体重数据 ======
             List<WeightRecord> wList = weightRepository.getRecentRecordsSync(30);
@@ -290,41 +152,11 @@ public class ReportViewModel extends AndroidViewModel {
             float curWeight = 65f, curHeight = 175f;
 
             // ====== 5. 步数数据 ======
-            List<Integer> stepList = new ArrayList<>();
-            int totalSteps = 0;
-            int stepDays = 0;
-            for (int i = 0; i < days; i++) {
-                Calendar dc = Calendar.getInstance();
-                dc.setTimeInMillis(startTime + (long) i * 86400000L);
-                long ds = getDayStart(dc);
-                StepRecord sr = stepRepository.getByDateSync(ds);
-                int steps = sr != null ? sr.getSteps() : 0;
-                stepList.add(steps);
-                if (steps > 0) {
-                    totalSteps += steps;
-                    stepDays++;
-                }
-            }
-            dailyStepList.postValue(stepList);
-            avgSteps.postValue(stepDays > 0 ? totalSteps / stepDays : 0);
+            dailyStepList.postValue(series.steps.toIntList());
+            avgSteps.postValue((int) series.steps.averageOfNonZero());
 
             // ====== 6. 喝水数据 ======
-            List<WaterRecord> wRecords =
-                    waterRepository.getRecordsByDateRangeSync(startTime, endTime);
-            List<Integer> waterList = new ArrayList<>();
-            for (int i = 0; i < days; i++) {
-                Calendar dc = Calendar.getInstance();
-                dc.setTimeInMillis(startTime + (long) i * 86400000L);
-                long ds = getDayStart(dc), de = ds + 86400000L;
-                int ml = 0;
-                if (wRecords != null) {
-                    for (WaterRecord wr : wRecords)
-                        if (wr.getTimestamp() >= ds && wr.getTimestamp() < de)
-                            ml += wr.getAmountMl();
-                }
-                waterList.add(ml);
-            }
-            dailyWaterList.postValue(waterList);
+            dailyWaterList.postValue(series.waterMl.toIntList());
 
             // ====== 7. 用户目标 ======
             User user = userRepository.getUserSync();
@@ -353,11 +185,4 @@ public class ReportViewModel extends AndroidViewModel {
             weightSuggestion.postValue(String.format("BMI %.1f（%s）", bmi, bmiStatus));
         });
     }
-
-    private long getDayStart(Calendar cal) {
-        Calendar c = (Calendar) cal.clone();
-        c.set(Calendar.HOUR_OF_DAY, 0); c.set(Calendar.MINUTE, 0);
-        c.set(Calendar.SECOND, 0); c.set(Calendar.MILLISECOND, 0);
-        return c.getTimeInMillis();
-    }
 }
@@ -10,13 +10,13 @@ import androidx.lifecycle.Transformations;
 
 import com.cz.fitnessdiary.database.entity.SleepRecord;
 import com.cz.fitnessdiary.repository.SleepRecordRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class SleepDetailViewModel extends AndroidViewModel {
 
@@ -25,7 +25,7 @@ public class SleepDetailViewModel extends AndroidViewModel {
     private final MutableLiveData<List<Float>> weekSeries = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<List<Float>> monthSeries = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<List<Float>> yearSeries = new MutableLiveData<>(new ArrayList<>());
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor = AppExecutors.get().newSerialDiskIO();
 
     // 睡眠看板 LiveData
     private final MutableLiveData<Double> avgSleepDuration = new MutableLiveData<>(0.0);
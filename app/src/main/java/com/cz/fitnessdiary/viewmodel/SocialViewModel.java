@@ -29,6 +29,8 @@ public final class SocialViewModel extends AndroidViewModel {
     private final MutableLiveData<FriendUiModel> searchResult = new MutableLiveData<>();
     private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
     private final MutableLiveData<String> message = new MutableLiveData<>();
+    private volatile boolean feedEndReached;
+    private volatile boolean loadingMoreFeed;
 
     public SocialViewModel(@NonNull Application application) {
         super(application);
@@ -77,9 +79,51 @@ public final class SocialViewModel extends AndroidViewModel {
         }));
     }
 
+    /**
+     * 先显示本地缓存，再只拉取比缓存更新的动态
+     */
     public void loadFeed() {
         loading.postValue(true);
-        repository.loadFeed(null, callback(posts::postValue));
+        repository.loadCachedFeed(new SocialRepository.Callback<List<SocialPostUiModel>>() {
+            @Override
+            public void onSuccess(List<SocialPostUiModel> cached) {
+                if (!cached.isEmpty()) posts.postValue(cached);
+                refreshFeed();
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                refreshFeed();
+            }
+        });
+    }
+
+    private void refreshFeed() {
+        repository.refreshFeed(callback(page -> {
+            feedEndReached = page.endReached;
+            posts.postValue(page.posts);
+        }));
+    }
+
+    /**
+     * 滚动到底部附近时加载更早的一页
+     */
+    public void loadMoreFeed() {
+        if (feedEndReached || loadingMoreFeed) return;
+        loadingMoreFeed = true;
+        repository.loadMoreFeed(new SocialRepository.Callback<SocialRepository.FeedPage>() {
+            @Override
+            public void onSuccess(SocialRepository.FeedPage page) {
+                loadingMoreFeed = false;
+                feedEndReached = page.endReached;
+                posts.postValue(page.posts);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                loadingMoreFeed = false;
+            }
+        });
     }
 
     public void setLiked(SocialPostUiModel post) {
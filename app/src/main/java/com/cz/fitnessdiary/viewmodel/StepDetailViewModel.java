@@ -9,8 +9,11 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
 
+import com.cz.fitnessdiary.database.entity.DailyMetric;
 import com.cz.fitnessdiary.database.entity.StepRecord;
+import com.cz.fitnessdiary.repository.DailyMetricRepository;
 import com.cz.fitnessdiary.repository.StepRecordRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import java.util.List;
@@ -18,12 +21,18 @@ import java.util.List;
 public class StepDetailViewModel extends AndroidViewModel {
 
     private final StepRecordRepository repository;
+    private final DailyMetricRepository metricRepository;
+    /** 当日独立步数目标（daily_metric），后台读取完成前为 -1，回落全局默认 */
+    private volatile int todayStepTarget = -1;
     private final MutableLiveData<Long> selectedDate = new MutableLiveData<>(DateUtils.getTodayStartTimestamp());
     private final LiveData<Long> dayStart;
 
     public StepDetailViewModel(@NonNull Application application) {
         super(application);
         repository = new StepRecordRepository(application);
+        metricRepository = new DailyMetricRepository(application);
+        metricRepository.loadInt(DailyMetric.STEP_TARGET, DateUtils.getTodayStartTimestamp(), -1,
+                value -> todayStepTarget = value);
         dayStart = Transformations.map(selectedDate, d -> d);
     }
 
@@ -48,19 +57,24 @@ public class StepDetailViewModel extends AndroidViewModel {
     }
 
     public int getStepTarget() {
+        if (todayStepTarget > 0) {
+            return todayStepTarget;
+        }
         SharedPreferences sp = getApplication().getSharedPreferences(
                 "fitness_diary_prefs", android.content.Context.MODE_PRIVATE);
-        long today = com.cz.fitnessdiary.utils.DateUtils.getTodayStartTimestamp();
-        return sp.getInt("step_target_" + today, sp.getInt("step_target", 8000));
+        return sp.getInt("step_target", 8000);
     }
 
     public void setStepTarget(int target) {
         getApplication().getSharedPreferences("fitness_diary_prefs", android.content.Context.MODE_PRIVATE)
                 .edit().putInt("step_target", target).apply();
+        // 同步更新当日独立值，否则旧的当日值会盖过新目标
+        todayStepTarget = target;
+        metricRepository.put(DailyMetric.STEP_TARGET, DateUtils.getTodayStartTimestamp(), target);
     }
 
     public void setTodaySteps(int steps) {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             Long date = selectedDate.getValue();
             long day = date != null ? date : DateUtils.getTodayStartTimestamp();
             StepRecord existing = repository.getByDateSync(day);
@@ -72,6 +86,6 @@ public class StepDetailViewModel extends AndroidViewModel {
             } else {
                 repository.insertOrUpdate(new StepRecord(day, steps, 1, System.currentTimeMillis()));
             }
-        }).start();
+        });
     }
 }
@@ -12,6 +12,7 @@ import com.cz.fitnessdiary.database.entity.User;
 import com.cz.fitnessdiary.database.entity.WaterRecord;
 import com.cz.fitnessdiary.repository.UserRepository;
 import com.cz.fitnessdiary.repository.WaterRecordRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
 
 import java.util.List;
@@ -31,11 +32,11 @@ public class WaterDetailViewModel extends AndroidViewModel {
     }
 
     private void loadWaterTarget() {
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             User user = userRepository.getUserSync();
             int target = (user != null && user.getDailyWaterTarget() > 0) ? user.getDailyWaterTarget() : 2000;
             waterTarget.postValue(target);
-        }).start();
+        });
     }
 
     public LiveData<Integer> getWaterTarget() {
@@ -49,13 +50,13 @@ public class WaterDetailViewModel extends AndroidViewModel {
 
     public void updateWaterTarget(int newTarget) {
         waterTarget.postValue(newTarget);
-        new Thread(() -> {
+        AppExecutors.get().diskIO().execute(() -> {
             User user = userRepository.getUserSync();
             if (user != null) {
                 user.setDailyWaterTarget(newTarget);
                 userRepository.update(user);
             }
-        }).start();
+        });
     }
 
     public void setSelectedDate(long ts) {
@@ -6,18 +6,22 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.cz.fitnessdiary.database.entity.User;
 import com.cz.fitnessdiary.database.entity.WeightRecord;
 import com.cz.fitnessdiary.repository.UserRepository;
 import com.cz.fitnessdiary.repository.WeightRecordRepository;
+import com.cz.fitnessdiary.utils.AppExecutors;
 import com.cz.fitnessdiary.utils.DateUtils;
+import com.cz.fitnessdiary.utils.TimeBuckets;
 
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class WeightDetailViewModel extends AndroidViewModel {
 
@@ -28,7 +32,8 @@ public class WeightDetailViewModel extends AndroidViewModel {
     private final MutableLiveData<List<Float>> monthSeries = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<List<Float>> yearSeries = new MutableLiveData<>(new ArrayList<>());
     private final MutableLiveData<Float> bmi = new MutableLiveData<>(0f);
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor = AppExecutors.get().newSerialDiskIO();
+    private final LiveData<PagingData<WeightRecord>> recordPages;
 
     // 新增体重数据分析 LiveData
     private final MutableLiveData<Integer> weightGoalType = new MutableLiveData<>(0);
@@ -41,6 +46,8 @@ public class WeightDetailViewModel extends AndroidViewModel {
         super(application);
         repository = new WeightRecordRepository(application);
         userRepository = new UserRepository(application);
+        recordPages = PagingLiveData.cachedIn(repository.getAllRecordsPaged(),
+                ViewModelKt.getViewModelScope(this));
         ensureLinkedWeightData();
         refreshTrend();
         computeBmi();
@@ -55,8 +62,18 @@ public class WeightDetailViewModel extends AndroidViewModel {
         return selectedDate;
     }
 
-    public LiveData<List<WeightRecord>> getRecentRecords() {
-        return repository.getAllRecords();
+    /**
+     * 历史记录列表（分页）
+     */
+    public LiveData<PagingData<WeightRecord>> getRecordPages() {
+        return recordPages;
+    }
+
+    /**
+     * 最近两条记录，用于"最近体重 / 较上次"和快捷加减
+     */
+    public LiveData<List<WeightRecord>> getLatestTwoRecords() {
+        return repository.getRecentRecords(2);
     }
 
     public LiveData<WeightRecord> getLatestRecord() {
@@ -249,53 +266,48 @@ public class WeightDetailViewModel extends AndroidViewModel {
     }
 
     private List<Float> buildDailySeries(long startDay, int dayCount) {
-        List<Float> series = new ArrayList<>();
-        long rangeEnd = startDay + dayCount * 24L * 60L * 60L * 1000L;
-        float carryWeight = resolveInitialWeight(startDay, rangeEnd);
-
-        for (int i = 0; i < dayCount; i++) {
-            long start = startDay + i * 24L * 60L * 60L * 1000L;
-            long end = start + 24L * 60L * 60L * 1000L;
-            List<WeightRecord> list = repository.getRecordsByDateRangeSync(start, end);
-            if (!list.isEmpty()) {
-                carryWeight = list.get(list.size() - 1).getWeight();
-            }
-            series.add(carryWeight);
-        }
-        return series;
+        return buildSeries(TimeBuckets.ofCount(startDay, dayCount, TimeBuckets.Unit.DAY));
     }
 
     private List<Float> buildMonthlySeries(long startMonth, int monthCount) {
-        List<Float> series = new ArrayList<>();
-        Calendar rangeEndCalendar = Calendar.getInstance();
-        rangeEndCalendar.setTimeInMillis(startMonth);
-        rangeEndCalendar.add(Calendar.MONTH, monthCount);
-        float carryWeight = resolveInitialWeight(startMonth, rangeEndCalendar.getTimeInMillis());
-
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(startMonth);
+        return buildSeries(TimeBuckets.ofCount(startMonth, monthCount, TimeBuckets.Unit.MONTH));
+    }
 
-        for (int i = 0; i < monthCount; i++) {
-            long monthStart = calendar.getTimeInMillis();
-            calendar.add(Calendar.MONTH, 1);
-            long nextMonthStart = calendar.getTimeInMillis();
+    /**
+     * 可见窗口内的记录只查询一次，按桶取每桶最后一条；没有记录的桶沿用上一个值
+     */
+    private List<Float> buildSeries(TimeBuckets buckets) {
+        long rangeStart = buckets.getStart();
+        List<WeightRecord> inRange = repository.getRecordsByDateRangeSync(rangeStart, buckets.getEnd());
+        float carryWeight = resolveInitialWeight(rangeStart, inRange);
+
+        int size = buckets.size();
+        float[] lastInBucket = new float[size];
+        boolean[] hasRecord = new boolean[size];
+        for (WeightRecord record : inRange) {
+            int index = buckets.indexOf(record.getTimestamp());
+            if (index >= 0) {
+                lastInBucket[index] = record.getWeight();
+                hasRecord[index] = true;
+            }
+        }
 
-            List<WeightRecord> list = repository.getRecordsByDateRangeSync(monthStart, nextMonthStart);
-            if (!list.isEmpty()) {
-                carryWeight = list.get(list.size() - 1).getWeight();
+        List<Float> series = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (hasRecord[i]) {
+                carryWeight = lastInBucket[i];
             }
             series.add(carryWeight);
         }
         return series;
     }
 
-    private float resolveInitialWeight(long rangeStart, long rangeEnd) {
+    private float resolveInitialWeight(long rangeStart, List<WeightRecord> inRange) {
         WeightRecord before = repository.getLatestRecordBeforeSync(rangeStart);
         if (before != null && before.getWeight() > 0f) {
             return before.getWeight();
         }
 
-        List<WeightRecord> inRange = repository.getRecordsByDateRangeSync(rangeStart, rangeEnd);
         if (!inRange.isEmpty()) {
             WeightRecord firstInRange = inRange.get(0);
             if (firstInRange.getWeight() > 0f) {
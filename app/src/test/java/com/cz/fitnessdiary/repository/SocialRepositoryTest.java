@@ -2,11 +2,13 @@ package com.cz.fitnessdiary.repository;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class SocialRepositoryTest {
     @Test
@@ -36,4 +38,20 @@ public class SocialRepositoryTest {
         assertThrows(IllegalArgumentException.class,
                 () -> SocialRepository.sanitizeHealthSummary(negative));
     }
+
+    @Test
+    public void createdMicros_keepsPostgresMicrosecondOrdering() {
+        long earlier = SocialRepository.createdMicros("2024-05-01T10:00:00.123456+00:00");
+        long later = SocialRepository.createdMicros("2024-05-01T18:00:00.123457+08:00");
+        assertEquals(1714557600123456L, earlier);
+        assertEquals(1L, later - earlier);
+        assertEquals(0L, SocialRepository.createdMicros("not a timestamp"));
+    }
+
+    @Test
+    public void summaryLines_roundTripThroughCacheColumn() {
+        String joined = SocialRepository.joinLines(Arrays.asList("训练 45 分钟", "完成\n一周训练"));
+        assertEquals(Arrays.asList("训练 45 分钟", "完成 一周训练"), SocialRepository.splitLines(joined));
+        assertTrue(SocialRepository.splitLines("").isEmpty());
+    }
 }
@@ -0,0 +1,102 @@
+package com.cz.fitnessdiary.service;
+
+import com.cz.fitnessdiary.database.entity.ChatMessageEntity;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChatContextBuilderTest {
+
+    private static List<ChatMessageEntity> conversation(int turns, String text) {
+        List<ChatMessageEntity> messages = new ArrayList<>();
+        for (int i = 0; i < turns; i++) {
+            // 提问与回复落在同一毫秒，摘要边界只能靠 ID 区分
+            ChatMessageEntity question = new ChatMessageEntity(text + i, null, true, 1000L + i, 7L, null);
+            question.setId(2L * i + 1);
+            messages.add(question);
+            ChatMessageEntity answer = new ChatMessageEntity(text + i + "<action>{\"type\":\"FOOD\"}</action>", null,
+                    false, 1000L + i, 7L, null);
+            answer.setId(2L * i + 2);
+            messages.add(answer);
+        }
+        return messages;
+    }
+
+    private static int tokens(List<ChatMessageEntity> messages) {
+        int total = 0;
+        for (ChatMessageEntity message : messages) {
+            total += ChatContextBuilder.estimateTokens(message);
+        }
+        return total;
+    }
+
+    @Test
+    public void estimatesChineseHeavierThanAscii() {
+        assertEquals(5, ChatContextBuilder.estimateTokens("今天练了腿部训练"));
+        assertEquals(3, ChatContextBuilder.estimateTokens("squat 100"));
+        assertEquals(0, ChatContextBuilder.estimateTokens((String) null));
+    }
+
+    @Test
+    public void keepsEverythingWithinBudget() {
+        List<ChatMessageEntity> messages = conversation(3, "早餐吃了两个鸡蛋");
+        ChatContextBuilder.Context context = new ChatContextBuilder(6000).build(null, 0L, 0L, messages, 500);
+        assertFalse(context.folded);
+        assertNull(context.summary);
+        assertEquals(6, context.history.size());
+    }
+
+    @Test
+    public void foldsOldestTurnsToHalfBudgetStartingAtUserMessage() {
+        List<ChatMessageEntity> messages = conversation(40, "我想在三个月内减掉五公斤体重，晚餐应该怎么安排比较合适");
+        ChatContextBuilder builder = new ChatContextBuilder(2400);
+        ChatContextBuilder.Context context = builder.build(null, 0L, 0L, messages, 200);
+
+        assertTrue(context.folded);
+        assertTrue(context.history.get(0).isUser());
+        int halfBudget = (2400 - 200 - ChatContextBuilder.SUMMARY_MAX_TOKENS) / 2;
+        assertTrue(tokens(context.history) <= halfBudget + ChatContextBuilder.estimateTokens(messages.get(0)));
+        ChatMessageEntity lastFolded = messages.get(messages.size() - context.history.size() - 1);
+        assertEquals(lastFolded.getTimestamp(), context.summaryUntil);
+        assertEquals(lastFolded.getId(), context.summaryUntilId);
+        assertTrue(context.summary.startsWith("用户："));
+        assertFalse(context.summary.contains("<action>"));
+        assertTrue(ChatContextBuilder.estimateTokens(context.summary) <= ChatContextBuilder.SUMMARY_MAX_TOKENS);
+    }
+
+    @Test
+    public void prefixStaysStableUntilBudgetIsExceededAgain() {
+        ChatContextBuilder builder = new ChatContextBuilder(2400);
+        List<ChatMessageEntity> messages = conversation(40, "我想在三个月内减掉五公斤体重，晚餐应该怎么安排比较合适");
+        ChatContextBuilder.Context first = builder.build(null, 0L, 0L, messages, 200);
+
+        List<ChatMessageEntity> next = new ArrayList<>(first.history);
+        next.add(new ChatMessageEntity("那周末可以吃火锅吗", null, true, 5000L, 7L, null));
+        next.add(new ChatMessageEntity("可以，选清汤锅底", null, false, 5001L, 7L, null));
+        ChatContextBuilder.Context second = builder.build(first.summary, first.summaryUntil, first.summaryUntilId,
+                next, 200);
+
+        assertFalse(second.folded);
+        assertEquals(first.summary, second.summary);
+        assertEquals(first.history, second.history.subList(0, first.history.size()));
+    }
+
+    @Test
+    public void onlyLongSummariesAreCompacted() {
+        assertFalse(ChatContextBuilder.needsCompaction(null));
+        assertFalse(ChatContextBuilder.needsCompaction("用户：想减脂\n私教：晚餐少油少盐"));
+
+        ChatContextBuilder builder = new ChatContextBuilder(2400);
+        ChatContextBuilder.Context context = builder.build(null, 0L, 0L,
+                conversation(40, "我想在三个月内减掉五公斤体重，晚餐应该怎么安排比较合适"), 200);
+        assertTrue(context.folded);
+        assertTrue(ChatContextBuilder.needsCompaction(context.summary));
+    }
+}
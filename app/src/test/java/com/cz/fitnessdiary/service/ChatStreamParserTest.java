@@ -0,0 +1,37 @@
+package com.cz.fitnessdiary.service;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChatStreamParserTest {
+    @Test
+    public void accumulatesContentAndReasoningDeltas() throws IOException {
+        ChatStreamParser parser = new ChatStreamParser();
+
+        assertFalse(parser.feedLine(": keep-alive"));
+        assertFalse(parser.feedLine(""));
+        assertTrue(parser.feedLine("data: {\"choices\":[{\"delta\":{\"reasoning_content\":\"先算热量\"}}]}"));
+        assertTrue(parser.feedLine("data: {\"choices\":[{\"delta\":{\"content\":\"一碗米饭\"}}]}"));
+        assertTrue(parser.feedLine("data:{\"choices\":[{\"delta\":{\"content\":[{\"type\":\"text\",\"text\":\"约230千卡\"}]}}]}"));
+        assertFalse(parser.feedLine("data: {\"choices\":[{\"delta\":{\"content\":null}}]}"));
+        assertFalse(parser.feedLine("data: {\"choices\":[],\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":8}}"));
+        assertFalse(parser.feedLine("data: [DONE]"));
+
+        assertEquals("一碗米饭约230千卡", parser.getContent());
+        assertEquals("先算热量", parser.getReasoning());
+        assertNotNull(parser.getUsage());
+        assertEquals(8, parser.getUsage().get("completion_tokens").getAsInt());
+        assertTrue(parser.isDone());
+    }
+
+    @Test(expected = IOException.class)
+    public void surfacesErrorChunks() throws IOException {
+        new ChatStreamParser().feedLine("data: {\"error\":{\"message\":\"rate limited\"}}");
+    }
+}
@@ -6,7 +6,9 @@ import com.cz.fitnessdiary.model.ImageMealDraft;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -82,6 +84,29 @@ public class DietLibraryTextMatcherTest {
         assertTrue(draft.getUnmatchedText().isEmpty());
     }
 
+    @Test
+    public void prebuiltAutomatonMatchesAliasesInLargeLibrary() {
+        List<FoodLibrary> foods = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            foods.add(new FoodLibrary("导入食物" + i, 100, 1, 1, 1, "g", 100, "其他"));
+        }
+        foods.add(new FoodLibrary("鸡蛋", 140, 12, 2, 10, "个", 50, "蛋白质"));
+        foods.add(new FoodLibrary("米饭", 116, 2.6, 25.9, 0.3, "碗", 150, "主食"));
+        FoodNameAutomaton automaton = FoodNameAutomaton.build(foods);
+
+        ImageMealDraft draft = DietLibraryTextMatcher.match("一碗饭和两个鸡蛋", automaton);
+        assertNotNull(draft);
+        assertEquals(2, draft.getItems().size());
+        assertEquals("米饭", draft.getItems().get(0).getName());
+        assertEquals("鸡蛋", draft.getItems().get(1).getName());
+        assertEquals(2d, draft.getItems().get(1).getAmount(), 0.001d);
+
+        draft = DietLibraryTextMatcher.match("导入食物123", automaton);
+        assertNotNull(draft);
+        assertEquals(1, draft.getItems().size());
+        assertEquals("导入食物123", draft.getItems().get(0).getName());
+    }
+
     @Test
     public void returnsNullWhenLibraryHasNoMatch() {
         FoodLibrary rice = new FoodLibrary("\u7c73\u996d", 116, 2.6, 25.9, 0.3,
@@ -0,0 +1,91 @@
+package com.cz.fitnessdiary.service;
+
+import com.cz.fitnessdiary.utils.ImageHash;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class FoodImageResultCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static long[] hash(long seed) {
+        java.util.Random random = new java.util.Random(seed);
+        long[] hash = new long[ImageHash.BITS / 64];
+        for (int i = 0; i < hash.length; i++) {
+            hash[i] = random.nextLong();
+        }
+        return hash;
+    }
+
+    private static long[] flipBits(long[] hash, int count) {
+        long[] copy = hash.clone();
+        for (int bit = 0; bit < count; bit++) {
+            copy[bit % copy.length] ^= 1L << (bit * 7 % 64);
+        }
+        return copy;
+    }
+
+    @Test
+    public void nearIdenticalImageHitsAndSurvivesRestart() throws Exception {
+        File file = new File(folder.getRoot(), "results.json");
+        FoodImageResultCache cache = new FoodImageResultCache(file);
+        long[] meal = hash(1);
+        cache.put(meal, "{\"type\":\"FOOD\"}");
+
+        FoodImageResultCache reopened = new FoodImageResultCache(file);
+        assertEquals("{\"type\":\"FOOD\"}", reopened.find(flipBits(meal, FoodImageResultCache.MAX_DISTANCE)));
+        assertNull(reopened.find(flipBits(meal, FoodImageResultCache.MAX_DISTANCE + 1)));
+        assertNull(reopened.find(hash(2)));
+    }
+
+    @Test
+    public void refreshReplacesNearDuplicateAndEvictsLeastRecent() throws Exception {
+        FoodImageResultCache cache = new FoodImageResultCache(new File(folder.getRoot(), "results.json"));
+        long[] first = hash(0);
+        cache.put(first, "old");
+        cache.put(flipBits(first, 3), "new");
+        assertEquals("new", cache.find(first));
+
+        for (int i = 1; i <= FoodImageResultCache.MAX_ENTRIES; i++) {
+            cache.put(hash(i), "meal " + i);
+            if (i == 1) {
+                cache.find(first);
+            }
+        }
+        // first was used after hash(1) was added, so hash(1) is the least recent one
+        assertNull(cache.find(hash(1)));
+        assertEquals("new", cache.find(first));
+        assertEquals("meal 2", cache.find(hash(2)));
+    }
+
+    @Test
+    public void hitsReorderInMemoryAndPersistWithNextPut() throws Exception {
+        File file = new File(folder.getRoot(), "results.json");
+        FoodImageResultCache cache = new FoodImageResultCache(file);
+        long[] first = hash(1);
+        cache.put(first, "first");
+        cache.put(hash(2), "second");
+        byte[] saved = Files.readAllBytes(file.toPath());
+
+        assertEquals("first", cache.find(first));
+        assertArrayEquals(saved, Files.readAllBytes(file.toPath()));
+
+        // 下一次写入时连同命中后的顺序一起保存：重启后 hash(2) 最久未用，最先被淘汰
+        cache.put(hash(3), "third");
+        FoodImageResultCache reopened = new FoodImageResultCache(file);
+        for (int i = 4; i < FoodImageResultCache.MAX_ENTRIES + 2; i++) {
+            reopened.put(hash(i), "meal " + i);
+        }
+        assertNull(reopened.find(hash(2)));
+        assertEquals("first", reopened.find(first));
+    }
+}
@@ -0,0 +1,82 @@
+package com.cz.fitnessdiary.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AppExecutorsTest {
+    @Test
+    public void serialExecutorRunsTasksInSubmissionOrderOnSharedLane() throws Exception {
+        ExecutorService serial = AppExecutors.get().newSerialDiskIO();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 50; i++) {
+            final int index = i;
+            serial.execute(() -> order.add(index));
+        }
+        serial.shutdown();
+        assertTrue(serial.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(50, order.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), order.get(i));
+        }
+        // 关闭串行执行器不影响共享线程池
+        assertEquals(Integer.valueOf(7), AppExecutors.await(AppExecutors.get().newSerialDiskIO(), () -> 7));
+    }
+
+    @Test
+    public void awaitRunsInlineOnLaneThreadInsteadOfBlocking() throws Exception {
+        ExecutorService serial = AppExecutors.get().newSerialDiskIO();
+        // 在串行执行器内部同步等待同一执行器，若不内联执行会死锁
+        Integer result = AppExecutors.await(serial, () -> AppExecutors.await(serial, () -> 42));
+        assertEquals(Integer.valueOf(42), result);
+        assertTrue(AppExecutors.get().dumpStats().contains("disk:"));
+    }
+
+    @Test
+    public void fullLaneNeitherThrowsNorDropsWork() throws Exception {
+        AppExecutors.Lane lane = new AppExecutors.Lane("test", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        lane.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // 第二个任务占满队列
+        lane.execute(() -> {
+        });
+        // 队列满时普通任务不抛异常，由提交它的后台线程直接执行
+        Thread caller = Thread.currentThread();
+        Thread[] ranOn = new Thread[1];
+        lane.execute(() -> ranOn[0] = Thread.currentThread());
+        assertSame(caller, ranOn[0]);
+
+        ExecutorService serial = new AppExecutors.SerialExecutor(lane);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 20; i++) {
+            final int index = i;
+            serial.execute(() -> order.add(index));
+        }
+        release.countDown();
+        serial.shutdown();
+        assertTrue(serial.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(20, order.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i), order.get(i));
+        }
+        assertEquals(1, lane.snapshot().rejectedCount);
+        assertTrue(lane.snapshot().deferredCount >= 1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.cz.fitnessdiary.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DayBitmapTest {
+
+    private static void setRange(DayBitmap bitmap, long from, long to) {
+        for (long day = from; day <= to; day++) {
+            bitmap.set(day, true);
+        }
+    }
+
+    @Test
+    public void countsRunsAcrossWordBoundaries() {
+        DayBitmap bitmap = new DayBitmap();
+        // 19700 所在字从 19648 开始，区间跨越三个 64 位字
+        setRange(bitmap, 19640, 19790);
+        bitmap.set(19800, true);
+
+        assertEquals(151, bitmap.runEndingAt(19790));
+        assertEquals(60, bitmap.runEndingAt(19699));
+        assertEquals(151, bitmap.runContaining(19700));
+        assertEquals(1, bitmap.runContaining(19800));
+        assertEquals(0, bitmap.runEndingAt(19795));
+        assertEquals(151, bitmap.longestRun());
+        assertEquals(152, bitmap.cardinality());
+        assertEquals(19800, bitmap.last());
+    }
+
+    @Test
+    public void growsBackwardsAndClearsBits() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.set(20000, true);
+        bitmap.set(19000, true);
+        setRange(bitmap, 19995, 19999);
+
+        assertTrue(bitmap.get(19000));
+        assertEquals(6, bitmap.runEndingAt(20000));
+
+        assertTrue(bitmap.set(19997, false));
+        assertFalse(bitmap.set(19997, false));
+        assertEquals(3, bitmap.runEndingAt(20000));
+        assertEquals(3, bitmap.longestRun());
+        assertEquals(6, bitmap.cardinality());
+    }
+
+    @Test
+    public void survivesEncodeRoundTrip() {
+        DayBitmap bitmap = new DayBitmap();
+        setRange(bitmap, 19500, 19520);
+        bitmap.set(19600, true);
+
+        DayBitmap copy = DayBitmap.decode(bitmap.encode());
+        assertEquals(21, copy.runEndingAt(19520));
+        assertEquals(19600, copy.last());
+        assertEquals(22, copy.cardinality());
+        assertNull(DayBitmap.decode(""));
+        assertEquals(Long.MIN_VALUE, new DayBitmap().last());
+    }
+}
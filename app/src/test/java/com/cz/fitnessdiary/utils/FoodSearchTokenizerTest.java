@@ -0,0 +1,60 @@
+package com.cz.fitnessdiary.utils;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FoodSearchTokenizerTest {
+
+    private static void loadTable() throws IOException {
+        File table = new File("src/main/assets/pinyin_table.txt");
+        if (!table.exists()) {
+            table = new File("app/src/main/assets/pinyin_table.txt");
+        }
+        try (InputStream in = new FileInputStream(table)) {
+            PinyinUtils.load(in);
+        }
+    }
+
+    @Test
+    public void tokenizesNameIntoCharactersAndPinyinSuffixes() throws IOException {
+        loadTable();
+        FoodSearchTokenizer.Tokens tokens = FoodSearchTokenizer.tokenize("鸡胸肉(Fit)330ml");
+
+        assertEquals("鸡 胸 肉 fit 330ml", tokens.name);
+        assertTrue(tokens.pinyin.startsWith("jixiongroufit330ml xiongroufit330ml roufit330ml"));
+        assertTrue(tokens.initials.startsWith("jxrf3 xrf3 rf3 f3 3"));
+    }
+
+    @Test
+    public void buildsMatchQueries() throws IOException {
+        loadTable();
+        assertEquals("\"胸 肉\"", FoodSearchTokenizer.matchQuery(" 胸肉 "));
+        assertEquals("\"鸡\"", FoodSearchTokenizer.matchQuery("鸡"));
+        assertEquals("pinyin:jirou* OR initials:jirou* OR name_tokens:jirou*",
+                FoodSearchTokenizer.matchQuery("Ji Rou"));
+        // 中英混输统一转为拼音
+        assertEquals("pinyin:jir* OR initials:jir* OR name_tokens:jir*", FoodSearchTokenizer.matchQuery("鸡r"));
+        // FTS 语法字符不会进入表达式
+        assertEquals("pinyin:jr* OR initials:jr* OR name_tokens:jr*", FoodSearchTokenizer.matchQuery("j\"r*"));
+        assertNull(FoodSearchTokenizer.matchQuery(" -*\" "));
+        assertEquals("jirou", FoodSearchTokenizer.rankKey("ji rou"));
+        assertEquals("jirou%", FoodSearchTokenizer.rankPattern("jirou"));
+        assertEquals("100\\%\\_\\\\%", FoodSearchTokenizer.rankPattern("100%_\\"));
+    }
+
+    @Test
+    public void pinyinMatchWorksWithoutIcu() throws IOException {
+        loadTable();
+        assertTrue(PinyinUtils.matches("西兰花", "xlh"));
+        assertTrue(PinyinUtils.matches("西兰花", "lanhua"));
+        assertEquals("niunai", PinyinUtils.toPinyin("牛奶"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.cz.fitnessdiary.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ImageHashTest {
+
+    private static float[] gradient(float brightness, long seed) {
+        java.util.Random random = new java.util.Random(seed);
+        float[] grid = new float[(ImageHash.GRID + 1) * ImageHash.GRID];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = random.nextFloat() * 255f * brightness;
+        }
+        return grid;
+    }
+
+    @Test
+    public void brightnessChangeKeepsHash() {
+        long[] original = ImageHash.dHash(gradient(1f, 7));
+        long[] darker = ImageHash.dHash(gradient(0.6f, 7));
+        assertEquals(0, ImageHash.distance(original, darker));
+    }
+
+    @Test
+    public void differentImagesAreFarApart() {
+        long[] a = ImageHash.dHash(gradient(1f, 1));
+        long[] b = ImageHash.dHash(gradient(1f, 2));
+        assertTrue(ImageHash.distance(a, b) > ImageHash.BITS / 4);
+    }
+
+    @Test
+    public void hexRoundTrip() {
+        long[] hash = { -1L, 0L, 0x0123456789abcdefL, Long.MIN_VALUE };
+        String hex = ImageHash.toHex(hash);
+        assertEquals(ImageHash.BITS / 4, hex.length());
+        assertArrayEquals(hash, ImageHash.fromHex(hex));
+        assertNull(ImageHash.fromHex("abc"));
+    }
+}
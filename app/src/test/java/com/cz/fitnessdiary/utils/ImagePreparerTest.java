@@ -0,0 +1,31 @@
+package com.cz.fitnessdiary.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ImagePreparerTest {
+
+    @Test
+    public void targetSizeKeepsAspectAndSmallImages() {
+        int[] photo = ImagePreparer.targetSize(4000, 3000, 1280);
+        assertEquals(1280, photo[0]);
+        assertEquals(960, photo[1]);
+
+        int[] portrait = ImagePreparer.targetSize(3024, 4032, 1280);
+        assertEquals(960, portrait[0]);
+        assertEquals(1280, portrait[1]);
+
+        int[] small = ImagePreparer.targetSize(800, 600, 1280);
+        assertEquals(800, small[0]);
+        assertEquals(600, small[1]);
+    }
+
+    @Test
+    public void sampleSizeNeverDropsBelowMaxEdge() {
+        assertEquals(2, ImagePreparer.sampleSize(4000, 3000, 1280));
+        assertEquals(4, ImagePreparer.sampleSize(8000, 6000, 1280));
+        assertEquals(1, ImagePreparer.sampleSize(2000, 1500, 1280));
+        assertEquals(1, ImagePreparer.sampleSize(640, 480, 1280));
+    }
+}
@@ -0,0 +1,110 @@
+package com.cz.fitnessdiary.utils;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalBackupTest {
+    private static final int CHUNK = 4096;
+
+    @Test
+    public void secondBackupWritesOnlyChangedChunksAndChainRestores() throws IOException {
+        File dir = Files.createTempDirectory("incremental-backup").toFile();
+        byte[] db = randomBytes(CHUNK * 4 + 100, 1);
+        byte[] photo = randomBytes(CHUNK * 2, 2);
+        File dbFile = write(new File(dir, "db"), db);
+        File photoFile = write(new File(dir, "photo.jpg"), photo);
+        Map<String, File> sources = new LinkedHashMap<>();
+        sources.put("database.db", dbFile);
+        sources.put("media/photo.jpg", photoFile);
+
+        List<IncrementalBackup.SegmentSource> chain = new ArrayList<>();
+        IncrementalBackup.Manifest first = IncrementalBackup.buildManifest(sources, CHUNK);
+        assertEquals(7, backup(chain, first, sources));
+
+        // 修改数据库中间一页，照片不变：第二段只应包含一个新块
+        db[CHUNK * 2 + 10] ^= 0x5A;
+        write(dbFile, db);
+        IncrementalBackup.Manifest second = IncrementalBackup.buildManifest(sources, CHUNK);
+        assertEquals(1, backup(chain, second, sources));
+
+        File restoredDb = new File(dir, "restored.db");
+        File restoredPhoto = new File(dir, "restored.jpg");
+        Map<String, File> outputs = new HashMap<>();
+        outputs.put("database.db", restoredDb);
+        outputs.put("media/photo.jpg", restoredPhoto);
+        IncrementalBackup.assemble(chain, chain.get(1).manifest(), outputs);
+
+        assertArrayEquals(db, Files.readAllBytes(restoredDb.toPath()));
+        assertArrayEquals(photo, Files.readAllBytes(restoredPhoto.toPath()));
+    }
+
+    @Test
+    public void restoreFailsWhenChainIsIncomplete() throws IOException {
+        File dir = Files.createTempDirectory("incremental-backup").toFile();
+        Map<String, File> sources = new LinkedHashMap<>();
+        sources.put("database.db", write(new File(dir, "db"), randomBytes(CHUNK * 3, 3)));
+        List<IncrementalBackup.SegmentSource> chain = new ArrayList<>();
+        backup(chain, IncrementalBackup.buildManifest(sources, CHUNK), sources);
+        IncrementalBackup.SegmentSource latest = chain.get(0);
+
+        boolean failed = false;
+        try {
+            Map<String, File> outputs = new HashMap<>();
+            outputs.put("database.db", new File(dir, "out.db"));
+            IncrementalBackup.assemble(new ArrayList<>(), latest.manifest(), outputs);
+        } catch (IOException expected) {
+            failed = true;
+        }
+        assertTrue(failed);
+    }
+
+    private static int backup(List<IncrementalBackup.SegmentSource> chain, IncrementalBackup.Manifest manifest,
+            Map<String, File> sources) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = IncrementalBackup.writeSegment(out, manifest, IncrementalBackup.collectChunks(chain), sources);
+        byte[] bytes = out.toByteArray();
+        IncrementalBackup.Manifest stored = IncrementalBackup.readManifest(new ByteArrayInputStream(bytes));
+        chain.add(new IncrementalBackup.SegmentSource() {
+            @Override
+            public IncrementalBackup.Manifest manifest() {
+                return stored;
+            }
+
+            @Override
+            public InputStream open() {
+                return new ByteArrayInputStream(bytes);
+            }
+        });
+        return written;
+    }
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static File write(File file, byte[] data) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(data);
+        }
+        return file;
+    }
+}
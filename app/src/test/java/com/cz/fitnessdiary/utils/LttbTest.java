@@ -0,0 +1,73 @@
+package com.cz.fitnessdiary.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LttbTest {
+
+    private static float[] range(int count) {
+        float[] x = new float[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = i;
+        }
+        return x;
+    }
+
+    @Test
+    public void keepsEveryPointBelowThreshold() {
+        float[] x = range(5);
+        float[] y = { 70f, 71f, 70.5f, 69f, 68f };
+        assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, Lttb.select(x, y, 5, 10));
+        assertEquals(5, Lttb.downsample(x, y, 5, 2));
+    }
+
+    @Test
+    public void keepsEndpointsAndSpikes() {
+        int count = 1000;
+        float[] x = range(count);
+        float[] y = new float[count];
+        for (int i = 0; i < count; i++) {
+            y[i] = 70f + (i % 10) * 0.01f;
+        }
+        y[437] = 90f;
+        y[812] = 50f;
+
+        int[] selected = Lttb.select(x, y, count, 50);
+        assertEquals(50, selected.length);
+        assertEquals(0, selected[0]);
+        assertEquals(count - 1, selected[selected.length - 1]);
+        boolean high = false;
+        boolean low = false;
+        for (int k = 0; k < selected.length; k++) {
+            if (k > 0) {
+                assertTrue(selected[k] > selected[k - 1]);
+            }
+            high |= selected[k] == 437;
+            low |= selected[k] == 812;
+        }
+        assertTrue(high);
+        assertTrue(low);
+    }
+
+    @Test
+    public void downsamplesInPlace() {
+        int count = 300;
+        float[] x = range(count);
+        float[] y = new float[count];
+        for (int i = 0; i < count; i++) {
+            y[i] = (float) Math.sin(i / 20.0);
+        }
+        float[] originalY = y.clone();
+        int[] selected = Lttb.select(x, y, count, 40);
+
+        int n = Lttb.downsample(x, y, count, 40);
+        assertEquals(40, n);
+        for (int k = 0; k < n; k++) {
+            assertEquals(selected[k], x[k], 0f);
+            assertEquals(originalY[selected[k]], y[k], 0f);
+        }
+    }
+}
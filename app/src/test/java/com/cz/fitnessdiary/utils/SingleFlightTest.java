@@ -0,0 +1,72 @@
+package com.cz.fitnessdiary.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+    @Test
+    public void concurrentCallsWithSameKeyShareOneExecution() throws Exception {
+        SingleFlight flight = new SingleFlight();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = pool.submit(() -> flight.execute("6901234567890", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+                return "牛奶";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            boolean[] joined = new boolean[1];
+            Future<String> second = pool.submit(() -> flight.execute("6901234567890", () -> {
+                executions.incrementAndGet();
+                return "重复请求";
+            }, joined));
+            // 等第二个调用挂到进行中的任务上再放行
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (flight.joinedCount("6901234567890") == 0) {
+                assertTrue("second caller never joined", System.nanoTime() < deadline);
+                Thread.yield();
+            }
+            release.countDown();
+
+            assertEquals("牛奶", first.get(5, TimeUnit.SECONDS));
+            assertEquals("牛奶", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+            assertTrue(joined[0]);
+
+            // 结束后不缓存结果，再次调用重新执行
+            assertEquals("新结果", flight.execute("6901234567890", () -> "新结果"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failureIsDeliveredAndKeyIsReleased() throws Exception {
+        SingleFlight flight = new SingleFlight();
+        try {
+            flight.execute("q", () -> {
+                throw new IOException("offline");
+            });
+            fail("expected IOException");
+        } catch (IOException expected) {
+            assertEquals("offline", expected.getMessage());
+        }
+        assertEquals(Integer.valueOf(3), flight.execute("q", () -> 3));
+    }
+}
@@ -0,0 +1,137 @@
+package com.cz.fitnessdiary.utils;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StagedZipRestoreTest {
+
+    @Test
+    public void extractsEntriesInParallelAndResumesFromJournal() throws Exception {
+        File dir = Files.createTempDirectory("staged-restore").toFile();
+        Map<String, byte[]> contents = sampleContents();
+        File archive = writeArchive(new File(dir, "backup.zip"), contents, true);
+        File staging = new File(dir, "staging");
+        StagedZipRestore.Result first = extract(archive, staging, 3);
+        assertEquals(0, first.resumedEntries);
+        for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+            assertArrayEquals(entry.getValue(), Files.readAllBytes(first.files.get(entry.getKey()).toPath()));
+        }
+
+        // 同一归档再次执行时，已校验的条目直接从日志恢复
+        StagedZipRestore.Result second = extract(archive, staging, 3);
+        assertEquals(contents.size(), second.resumedEntries);
+    }
+
+    @Test
+    public void rejectsCorruptedEntry() throws Exception {
+        File dir = Files.createTempDirectory("staged-restore").toFile();
+        File archive = writeArchive(new File(dir, "backup.zip"), sampleContents(), true);
+        try (RandomAccessFile raf = new RandomAccessFile(archive, "rw")) {
+            raf.seek(200);
+            int b = raf.read();
+            raf.seek(200);
+            raf.write(b ^ 0x20);
+        }
+        boolean failed = false;
+        try {
+            extract(archive, new File(dir, "staging"), 1);
+        } catch (IOException expected) {
+            failed = true;
+        }
+        assertTrue(failed);
+    }
+
+    @Test
+    public void rejectsTruncatedArchiveBeforeExtracting() throws Exception {
+        File dir = Files.createTempDirectory("staged-restore").toFile();
+        File archive = writeArchive(new File(dir, "backup.zip"), sampleContents(), false);
+        try (RandomAccessFile raf = new RandomAccessFile(archive, "rw")) {
+            raf.setLength(raf.length() / 2);
+        }
+        boolean failed = false;
+        try (FileChannel channel = FileChannel.open(archive.toPath(), StandardOpenOption.READ)) {
+            new StagedZipRestore(channel, new File(dir, "staging"), "key").readCentralDirectory();
+        } catch (IOException expected) {
+            failed = true;
+        }
+        assertTrue(failed);
+    }
+
+    private static StagedZipRestore.Result extract(File archive, File staging, int parallelism)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(archive.toPath(), StandardOpenOption.READ)) {
+            StagedZipRestore restore = new StagedZipRestore(channel, staging, archive.getPath());
+            List<StagedZipRestore.Entry> entries = restore.readCentralDirectory();
+            entries.removeIf(entry -> StagedZipRestore.CHECKSUM_ENTRY.equals(entry.name));
+            return restore.extract(entries, parallelism, null);
+        }
+    }
+
+    private static Map<String, byte[]> sampleContents() {
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        byte[] db = new byte[3 * 1024 * 1024 + 17];
+        for (int i = 0; i < db.length; i++) {
+            db[i] = (byte) (i % 251 < 40 ? i : 0);
+        }
+        contents.put("database.db", db);
+        byte[] photo = new byte[400 * 1024];
+        new Random(7).nextBytes(photo);
+        contents.put("media/photo.jpg", photo);
+        contents.put("shared_prefs/user_prefs.xml", "<map><int name=\"goal\" value=\"2000\" /></map>"
+                .getBytes(StandardCharsets.UTF_8));
+        return contents;
+    }
+
+    private static File writeArchive(File file, Map<String, byte[]> contents, boolean withChecksums)
+            throws Exception {
+        StringBuilder json = new StringBuilder("{");
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+            for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+                ZipEntry zipEntry = new ZipEntry(entry.getKey());
+                byte[] data = entry.getValue();
+                if (entry.getKey().startsWith("media/")) {
+                    CRC32 crc = new CRC32();
+                    crc.update(data);
+                    zipEntry.setMethod(ZipEntry.STORED);
+                    zipEntry.setSize(data.length);
+                    zipEntry.setCompressedSize(data.length);
+                    zipEntry.setCrc(crc.getValue());
+                }
+                zos.putNextEntry(zipEntry);
+                zos.write(data);
+                zos.closeEntry();
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append('"').append(entry.getKey()).append("\":\"")
+                        .append(StagedZipRestore.hex(MessageDigest.getInstance("SHA-256").digest(data))).append('"');
+            }
+            if (withChecksums) {
+                zos.putNextEntry(new ZipEntry(StagedZipRestore.CHECKSUM_ENTRY));
+                zos.write(json.append('}').toString().getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,24 @@
+package com.cz.fitnessdiary.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StepSensorHelperTest {
+
+    private static final long T0 = 1_000_000L;
+
+    @Test
+    public void firstReadingIsWrittenImmediately() {
+        assertTrue(StepSensorHelper.shouldFlush(12, -1, T0, 0L));
+    }
+
+    @Test
+    public void smallChangesAreCoalescedUntilDeltaOrInterval() {
+        assertFalse(StepSensorHelper.shouldFlush(1000, 1000, T0 + StepSensorHelper.FLUSH_INTERVAL_MS, T0));
+        assertFalse(StepSensorHelper.shouldFlush(1040, 1000, T0 + 5_000L, T0));
+        assertTrue(StepSensorHelper.shouldFlush(1000 + StepSensorHelper.FLUSH_STEP_DELTA, 1000, T0 + 5_000L, T0));
+        assertTrue(StepSensorHelper.shouldFlush(1040, 1000, T0 + StepSensorHelper.FLUSH_INTERVAL_MS, T0));
+    }
+}
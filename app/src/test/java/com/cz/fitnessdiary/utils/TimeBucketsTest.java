@@ -0,0 +1,90 @@
+package com.cz.fitnessdiary.utils;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimeBucketsTest {
+
+    private static long at(int year, int month, int day, int hour) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(year, month, day, hour, 0, 0);
+        return cal.getTimeInMillis();
+    }
+
+    @Test
+    public void splitsMonthIntoCalendarDays() {
+        TimeBuckets buckets = TimeBuckets.of(at(2024, Calendar.FEBRUARY, 1, 0),
+                at(2024, Calendar.MARCH, 1, 0), TimeBuckets.Unit.DAY);
+
+        assertEquals(29, buckets.size());
+        assertEquals(0, buckets.indexOf(at(2024, Calendar.FEBRUARY, 1, 0)));
+        assertEquals(28, buckets.indexOf(at(2024, Calendar.FEBRUARY, 29, 23)));
+        assertEquals(-1, buckets.indexOf(at(2024, Calendar.MARCH, 1, 0)));
+        assertEquals(-1, buckets.indexOf(at(2024, Calendar.JANUARY, 31, 23)));
+        assertEquals("2/1", buckets.labels("M/d").get(0));
+    }
+
+    @Test
+    public void alignsWeeksToMondayAndMonthsToFirstDay() {
+        // 2024-05-15 是周三
+        TimeBuckets weeks = TimeBuckets.of(at(2024, Calendar.MAY, 15, 10),
+                at(2024, Calendar.JUNE, 1, 0), TimeBuckets.Unit.WEEK);
+        assertEquals(at(2024, Calendar.MAY, 13, 0), weeks.getStart());
+        assertEquals(3, weeks.size());
+
+        TimeBuckets year = TimeBuckets.of(at(2024, Calendar.MARCH, 20, 0),
+                at(2025, Calendar.JANUARY, 1, 0), TimeBuckets.Unit.MONTH);
+        assertEquals(10, year.size());
+        assertEquals(at(2024, Calendar.MARCH, 1, 0), year.getStart());
+        assertEquals(at(2024, Calendar.DECEMBER, 1, 0), year.startOf(9));
+    }
+
+    @Test
+    public void daysOfWeekStartsOnLocaleFirstDay() {
+        Locale original = Locale.getDefault();
+        try {
+            // 2024-05-15 是周三
+            Locale.setDefault(Locale.GERMANY);
+            TimeBuckets monday = TimeBuckets.daysOfWeek(at(2024, Calendar.MAY, 15, 10));
+            assertEquals(7, monday.size());
+            assertEquals(at(2024, Calendar.MAY, 13, 0), monday.getStart());
+            assertEquals(at(2024, Calendar.MAY, 20, 0), monday.getEnd());
+
+            Locale.setDefault(Locale.US);
+            TimeBuckets sunday = TimeBuckets.daysOfWeek(at(2024, Calendar.MAY, 15, 10));
+            assertEquals(at(2024, Calendar.MAY, 12, 0), sunday.getStart());
+            // 周日本身就是美国一周的第一天
+            assertEquals(at(2024, Calendar.MAY, 19, 0),
+                    TimeBuckets.daysOfWeek(at(2024, Calendar.MAY, 19, 23)).getStart());
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    public void seriesAccumulatesSortedAndUnsortedInput() {
+        TimeBuckets buckets = TimeBuckets.of(at(2024, Calendar.JANUARY, 1, 0),
+                at(2024, Calendar.JANUARY, 8, 0), TimeBuckets.Unit.DAY);
+        TimeBuckets.Series series = buckets.newSeries();
+
+        series.add(at(2024, Calendar.JANUARY, 1, 8), 300);
+        series.add(at(2024, Calendar.JANUARY, 1, 20), 200);
+        series.add(at(2024, Calendar.JANUARY, 2, 9), 400);
+        series.add(at(2024, Calendar.JANUARY, 7, 9), 100);
+        series.add(at(2024, Calendar.JANUARY, 3, 9), 600);
+        assertEquals(-1, series.add(at(2024, Calendar.JANUARY, 8, 9), 999));
+
+        assertEquals(500, series.sum(0));
+        assertEquals(2, series.count(0));
+        assertEquals(600, series.sum(2));
+        assertEquals(1600, series.total());
+        assertEquals(4, series.nonZeroBuckets());
+        assertEquals(400.0, series.averageOfNonZero(), 0.0001);
+        assertEquals(Integer.valueOf(100), series.toIntList().get(6));
+    }
+}
@@ -0,0 +1,87 @@
+-- Keyset-paginated feed. fd_feed pages on (created_at, id) instead of always
+-- returning the newest window, and like counts are read from a denormalized
+-- posts.like_count instead of a per-request GROUP BY over post_likes.
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS like_count INTEGER NOT NULL DEFAULT 0 CHECK (like_count >= 0);
+
+-- The counter is maintained by a trigger on post_likes rather than inside
+-- fd_toggle_like, so rows removed without the RPC (ON DELETE CASCADE from
+-- profiles or posts, console cleanup) still move it. Rows skipped by
+-- ON CONFLICT DO NOTHING fire no row trigger, so repeated likes are no-ops.
+CREATE OR REPLACE FUNCTION fd_post_likes_count()
+RETURNS trigger LANGUAGE plpgsql SECURITY DEFINER SET search_path = public AS $$
+BEGIN
+  IF TG_OP = 'INSERT' THEN
+    UPDATE posts SET like_count = like_count + 1 WHERE id = NEW.post_id;
+  ELSE
+    UPDATE posts SET like_count = greatest(like_count - 1, 0) WHERE id = OLD.post_id;
+  END IF;
+  RETURN NULL;
+END; $$;
+
+DROP TRIGGER IF EXISTS post_likes_like_count ON post_likes;
+CREATE TRIGGER post_likes_like_count AFTER INSERT OR DELETE ON post_likes
+    FOR EACH ROW EXECUTE FUNCTION fd_post_likes_count();
+
+REVOKE ALL ON FUNCTION fd_post_likes_count() FROM PUBLIC, authenticated;
+
+-- Backfill after the trigger exists so no like lands between the two.
+UPDATE posts p SET like_count = l.cnt
+  FROM (SELECT p2.id, count(pl.post_id)::integer AS cnt
+          FROM posts p2 LEFT JOIN post_likes pl ON pl.post_id = p2.id GROUP BY p2.id) l
+ WHERE l.id = p.id AND p.like_count <> l.cnt;
+
+CREATE INDEX IF NOT EXISTS posts_feed_keyset_idx
+    ON posts (created_at DESC, id DESC) WHERE deleted_at IS NULL;
+
+-- Same body as V1: post_likes_like_count is the only writer of like_count.
+CREATE OR REPLACE FUNCTION fd_toggle_like(p_post_id uuid, p_liked boolean)
+RETURNS void LANGUAGE plpgsql SECURITY DEFINER SET search_path = public AS $$
+BEGIN
+  IF auth.uid() IS NULL THEN RAISE EXCEPTION 'authentication required'; END IF;
+  IF p_liked THEN
+    IF NOT EXISTS (SELECT 1 FROM posts p WHERE p.id=p_post_id AND p.deleted_at IS NULL AND
+      (p.author_id=auth.uid() OR EXISTS (SELECT 1 FROM friend_relations fr WHERE fr.status='accepted' AND
+        ((fr.user_low_id=auth.uid() AND fr.user_high_id=p.author_id) OR
+         (fr.user_high_id=auth.uid() AND fr.user_low_id=p.author_id))))) THEN
+      RAISE EXCEPTION 'post not visible';
+    END IF;
+    INSERT INTO post_likes(post_id,user_id) VALUES (p_post_id,auth.uid()) ON CONFLICT DO NOTHING;
+  ELSE
+    DELETE FROM post_likes WHERE post_id=p_post_id AND user_id=auth.uid();
+  END IF;
+END; $$;
+
+-- The old single-argument overload would make PostgREST RPC resolution ambiguous.
+DROP FUNCTION IF EXISTS fd_feed(integer);
+
+-- Pass p_before_* (both values of the oldest row already shown) to page older,
+-- or p_after_* (the newest cached row) to fetch only newer posts. created_at is
+-- passed back exactly as returned so microsecond precision is preserved.
+CREATE OR REPLACE FUNCTION fd_feed(p_limit integer DEFAULT 20,
+                                   p_before_created_at timestamptz DEFAULT NULL, p_before_id uuid DEFAULT NULL,
+                                   p_after_created_at timestamptz DEFAULT NULL, p_after_id uuid DEFAULT NULL)
+RETURNS TABLE(post_id uuid, author_id text, nickname text, content text, health_summary jsonb,
+              created_at timestamptz, like_count bigint, liked boolean, owned_by_current_user boolean)
+LANGUAGE sql STABLE SECURITY DEFINER SET search_path = public AS $$
+  SELECT p.id,p.author_id,pr.nickname,p.content,p.health_summary,p.created_at,
+    p.like_count::bigint,
+    EXISTS (SELECT 1 FROM post_likes pl WHERE pl.post_id=p.id AND pl.user_id=auth.uid()),
+    p.author_id=auth.uid()
+  FROM posts p JOIN profiles pr ON pr.user_id=p.author_id
+  WHERE auth.uid() IS NOT NULL AND p.deleted_at IS NULL
+    AND (p.author_id=auth.uid() OR (p.visibility = 'friends' AND EXISTS (
+      SELECT 1 FROM friend_relations fr WHERE fr.status='accepted' AND
+        ((fr.user_low_id=auth.uid() AND fr.user_high_id=p.author_id) OR
+         (fr.user_high_id=auth.uid() AND fr.user_low_id=p.author_id)))))
+    AND NOT EXISTS (SELECT 1 FROM user_blocks b WHERE
+      (b.blocker_id=auth.uid() AND b.blocked_id=p.author_id) OR
+      (b.blocker_id=p.author_id AND b.blocked_id=auth.uid()))
+    AND (p_before_created_at IS NULL OR (p.created_at, p.id) < (p_before_created_at, p_before_id))
+    AND (p_after_created_at IS NULL OR (p.created_at, p.id) > (p_after_created_at, p_after_id))
+  ORDER BY p.created_at DESC, p.id DESC LIMIT greatest(1,least(p_limit,50));
+$$;
+
+REVOKE ALL ON FUNCTION fd_toggle_like(uuid, boolean) FROM PUBLIC, authenticated;
+REVOKE ALL ON FUNCTION fd_feed(integer, timestamptz, uuid, timestamptz, uuid) FROM PUBLIC, authenticated;
+GRANT EXECUTE ON FUNCTION fd_toggle_like(uuid, boolean) TO authenticated;
+GRANT EXECUTE ON FUNCTION fd_feed(integer, timestamptz, uuid, timestamptz, uuid) TO authenticated;
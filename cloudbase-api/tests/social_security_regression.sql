@@ -1,5 +1,5 @@
 -- Static SQL regression checks for the CloudBase RPC boundary.
--- Run against a disposable CloudBase PostgreSQL database after applying V1:
+-- Run against a disposable CloudBase PostgreSQL database after applying V1 and V2:
 --   psql "$CLOUDBASE_DB_URL" -v ON_ERROR_STOP=1 -f tests/social_security_regression.sql
 BEGIN;
 
@@ -34,6 +34,28 @@ BEGIN
   IF definition IS NULL OR definition NOT LIKE '%p.visibility = ''friends''%' THEN
     RAISE EXCEPTION 'fd_feed must filter friends visibility';
   END IF;
+  IF definition NOT LIKE '%p_before_id%' OR definition NOT LIKE '%p_after_id%'
+     OR definition LIKE '%GROUP BY%' THEN
+    RAISE EXCEPTION 'fd_feed must page by (created_at, id) and read the denormalized like_count';
+  END IF;
+  IF EXISTS (SELECT 1 FROM pg_proc p JOIN pg_namespace n ON n.oid = p.pronamespace
+              WHERE n.nspname = 'public' AND p.proname = 'fd_feed'
+                AND pg_get_function_identity_arguments(p.oid) = 'p_limit integer') THEN
+    RAISE EXCEPTION 'the single-argument fd_feed overload must be dropped';
+  END IF;
+
+  IF NOT EXISTS (SELECT 1 FROM pg_trigger t
+                  WHERE t.tgrelid = 'public.post_likes'::regclass
+                    AND t.tgname = 'post_likes_like_count' AND NOT t.tgisinternal) THEN
+    RAISE EXCEPTION 'posts.like_count must be maintained by a trigger on post_likes';
+  END IF;
+  SELECT pg_get_functiondef(p.oid) INTO definition
+    FROM pg_proc p
+    JOIN pg_namespace n ON n.oid = p.pronamespace
+   WHERE n.nspname = 'public' AND p.proname = 'fd_toggle_like';
+  IF definition IS NULL OR definition LIKE '%like_count%' THEN
+    RAISE EXCEPTION 'fd_toggle_like must leave posts.like_count to the post_likes trigger';
+  END IF;
 
   SELECT pg_get_functiondef(p.oid) INTO definition
     FROM pg_proc p
@@ -69,5 +91,11 @@ END $$;
 -- 3. A private post is absent from fd_feed for an accepted friend.
 -- 4. Either direction of user_blocks makes fd_send_friend_request fail.
 -- 5. A rejected friend relation becomes pending on a new request.
+-- 6. Liking the same post twice, then unliking twice, leaves like_count at its
+--    original value and equal to count(*) in post_likes.
+-- 7. Paging fd_feed with p_before_* from the last row of each page visits every
+--    visible post exactly once, including posts sharing the same created_at.
+-- 8. Deleting a liking user's profile (cascading to post_likes) lowers
+--    like_count of the liked post, which still equals count(*) in post_likes.
 
 ROLLBACK;